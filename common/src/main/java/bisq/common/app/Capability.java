@@ -32,5 +32,10 @@ public enum Capability {
     BLIND_VOTE,
     ACK_MSG,
     BSQ_BLOCK,
-    DAO_STATE
+    DAO_STATE,
+    EXCLUDED_KEYS_DIGEST, // GetDataRequest carries the compact ExcludedKeysDigest instead of the full excludedKeys
+    DAO_STATE_HASH_V2, // DaoStateHash carries the incremental state hash, the legacy hash might be empty
+    BSQ_BLOCK_CHUNKS, // GetBlocksResponse can contain only a chunk of the requested blocks
+    BSQ_COMPACT_BLOCKS, // GetBlocksResponse can contain the blocks in the compact binary encoding
+    REFRESH_OFFER_BATCH // RefreshOfferBatchMessage carrying the TTL refreshes of many offers
 }
@@ -23,4 +23,12 @@ import bisq.common.Envelope;
  * Interface for the outside envelope object persisted to disk.
  */
 public interface PersistableEnvelope extends Envelope {
+
+    /**
+     * Returns the bytes written to disk. Implementations can override that to reuse the serialized form of unchanged
+     * parts, as long as the result parses to the same message as toProtoMessage().
+     */
+    default byte[] toSerializedBytes() {
+        return toProtoMessage().toByteArray();
+    }
 }
@@ -0,0 +1,159 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.storage;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the StorageContainer format block by block. The checksum of each block is verified when it gets loaded,
+ * so corrupted or truncated files result in an IOException instead of a partially parsed message.
+ */
+public class ContainerInputStream extends InputStream {
+    private final DataInputStream in;
+    private final CRC32 crc32 = new CRC32();
+    private final Inflater inflater = new Inflater();
+    private byte[] block = new byte[0];
+    private byte[] stored = new byte[0];
+    private int position;
+    private int limit;
+    private boolean endOfContainer;
+
+    public ContainerInputStream(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+
+        byte[] magic = new byte[StorageContainer.MAGIC.length];
+        this.in.readFully(magic);
+        if (!Arrays.equals(StorageContainer.MAGIC, magic))
+            throw new IOException("File is not in the container format");
+
+        byte version = this.in.readByte();
+        if (version != StorageContainer.VERSION)
+            throw new IOException("Unsupported container version " + version);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData())
+            return -1;
+        return block[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0)
+            return 0;
+        if (!ensureData())
+            return -1;
+
+        int numBytes = Math.min(length, limit - position);
+        System.arraycopy(block, position, bytes, offset, numBytes);
+        position += numBytes;
+        return numBytes;
+    }
+
+    @Override
+    public int available() {
+        return limit - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private boolean ensureData() throws IOException {
+        while (position == limit) {
+            if (endOfContainer)
+                return false;
+            readBlock();
+        }
+        return true;
+    }
+
+    private void readBlock() throws IOException {
+        StorageContainer.Compression compression = StorageContainer.Compression.fromId(in.readByte());
+        int length = in.readInt();
+        int storedLength = in.readInt();
+        int checksum = in.readInt();
+        if (length < 0 || length > StorageContainer.MAX_BLOCK_SIZE ||
+                storedLength < 0 || storedLength > StorageContainer.MAX_BLOCK_SIZE)
+            throw new IOException("Invalid block length. length=" + length + ", storedLength=" + storedLength);
+
+        position = 0;
+        limit = length;
+        if (length == 0) {
+            endOfContainer = true;
+            return;
+        }
+
+        if (block.length < length)
+            block = new byte[length];
+
+        if (compression == StorageContainer.Compression.DEFLATE) {
+            if (stored.length < storedLength)
+                stored = new byte[storedLength];
+            in.readFully(stored, 0, storedLength);
+            inflate(storedLength, length);
+        } else {
+            if (storedLength != length)
+                throw new IOException("Invalid length of uncompressed block");
+            in.readFully(block, 0, length);
+        }
+
+        crc32.reset();
+        crc32.update(block, 0, length);
+        if ((int) crc32.getValue() != checksum)
+            throw new IOException("Checksum of block does not match");
+    }
+
+    private void inflate(int storedLength, int length) throws IOException {
+        inflater.reset();
+        inflater.setInput(stored, 0, storedLength);
+        try {
+            int numInflated = 0;
+            while (numInflated < length && !inflater.finished()) {
+                int numBytes = inflater.inflate(block, numInflated, length - numInflated);
+                if (numBytes == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                numInflated += numBytes;
+            }
+            if (numInflated != length)
+                throw new IOException("Length of inflated block does not match");
+        } catch (DataFormatException e) {
+            throw new IOException("Cannot inflate block", e);
+        }
+    }
+}
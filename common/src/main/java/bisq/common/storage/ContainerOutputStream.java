@@ -0,0 +1,152 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Writes the StorageContainer format. Data are buffered until a block is full. finish() writes the last block and
+ * the end marker but does not close the underlying stream, so the caller can sync the file before closing it.
+ */
+public class ContainerOutputStream extends OutputStream {
+    private final DataOutputStream out;
+    private final StorageContainer.Compression compression;
+    private final byte[] block;
+    private final CRC32 crc32 = new CRC32();
+    private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private int position;
+    private boolean finished;
+
+    public ContainerOutputStream(OutputStream out, StorageContainer.Compression compression) throws IOException {
+        this(out, compression, StorageContainer.BLOCK_SIZE);
+    }
+
+    ContainerOutputStream(OutputStream out, StorageContainer.Compression compression, int blockSize)
+            throws IOException {
+        checkArgument(blockSize > 0 && blockSize <= StorageContainer.MAX_BLOCK_SIZE, "Invalid blockSize");
+        this.out = new DataOutputStream(out);
+        this.compression = compression;
+        block = new byte[blockSize];
+
+        this.out.write(StorageContainer.MAGIC);
+        this.out.writeByte(StorageContainer.VERSION);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (finished)
+            throw new IOException("Stream is finished already");
+
+        while (length > 0) {
+            int numBytes = Math.min(length, block.length - position);
+            System.arraycopy(bytes, offset, block, position, numBytes);
+            position += numBytes;
+            offset += numBytes;
+            length -= numBytes;
+            if (position == block.length)
+                writeBlock();
+        }
+    }
+
+    public void finish() throws IOException {
+        if (finished)
+            return;
+
+        if (position > 0)
+            writeBlock();
+
+        // End marker
+        out.writeByte(StorageContainer.Compression.NONE.id);
+        out.writeInt(0);
+        out.writeInt(0);
+        out.writeInt(0);
+        out.flush();
+        deflater.end();
+        finished = true;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void writeBlock() throws IOException {
+        crc32.reset();
+        crc32.update(block, 0, position);
+
+        StorageContainer.Compression blockCompression = StorageContainer.Compression.NONE;
+        if (compression == StorageContainer.Compression.DEFLATE) {
+            compressed.reset();
+            deflater.reset();
+            // As we pass our own deflater it does not get ended at close, so we can reuse it
+            try (DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(compressed, deflater)) {
+                deflaterOutputStream.write(block, 0, position);
+            }
+            // We store blocks which do not get smaller (e.g. hashes) uncompressed
+            if (compressed.size() < position)
+                blockCompression = StorageContainer.Compression.DEFLATE;
+        }
+
+        out.writeByte(blockCompression.id);
+        out.writeInt(position);
+        if (blockCompression == StorageContainer.Compression.DEFLATE) {
+            out.writeInt(compressed.size());
+            out.writeInt((int) crc32.getValue());
+            compressed.writeTo(out);
+        } else {
+            out.writeInt(position);
+            out.writeInt((int) crc32.getValue());
+            out.write(block, 0, position);
+        }
+        position = 0;
+    }
+}
@@ -17,43 +17,52 @@
 
 package bisq.common.storage;
 
-import bisq.common.UserThread;
 import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
-import bisq.common.util.Utilities;
 
 import io.bisq.generated.protobuffer.PB;
 
+import com.google.protobuf.CodedOutputStream;
+
 import com.google.common.util.concurrent.CycleDetectingLockFactory;
 
 import java.nio.file.Paths;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 
-import java.util.Random;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class FileManager<T extends PersistableEnvelope> {
+    // The reader supports both, so that can be changed without migration
+    private static final StorageContainer.Compression COMPRESSION = StorageContainer.Compression.DEFLATE;
+
     private final File dir;
     private final File storageFile;
-    private final ScheduledThreadPoolExecutor executor;
+    // Dirty flag. Set by the first save request and cleared by the PersistenceWriter before the write.
     private final AtomicBoolean savePending;
     private final long delay;
-    private final Callable<Void> saveFileTask;
-    private T persistable;
+    private volatile T persistable;
+    // Called after the next successful write, e.g. for deleting data which is covered by the written file
+    private final List<Runnable> writtenHandlers = new CopyOnWriteArrayList<>();
     private final PersistenceProtoResolver persistenceProtoResolver;
     private final ReentrantLock writeLock = CycleDetectingLockFactory.newInstance(CycleDetectingLockFactory.Policies.THROW).newReentrantLock("writeLock");
+    // True if the last read file was not in the container format (written by an old version or copied from resources)
+    @Getter
+    private volatile boolean legacyFormatRead;
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -64,29 +73,9 @@ public class FileManager<T extends PersistableEnvelope> {
         this.storageFile = storageFile;
         this.persistenceProtoResolver = persistenceProtoResolver;
 
-        executor = Utilities.getScheduledThreadPoolExecutor("FileManager", 1, 10, 5);
-
-        // File must only be accessed from the auto-save executor from now on, to avoid simultaneous access.
+        // File must only be accessed from the PersistenceWriter from now on, to avoid simultaneous access.
         savePending = new AtomicBoolean();
         this.delay = delay;
-
-        saveFileTask = () -> {
-            try {
-                Thread.currentThread().setName("Save-file-task-" + new Random().nextInt(10000));
-                // Runs in an auto save thread.
-                if (!savePending.getAndSet(false)) {
-                    // Some other scheduled request already beat us to it.
-                    return null;
-                }
-                saveNowInternal(persistable);
-            } catch (Throwable e) {
-                log.error("Error during saveFileTask", e);
-            }
-            return null;
-        };
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            UserThread.execute(FileManager.this::shutDown);
-        }, "FileManager.ShutDownHook"));
     }
 
 
@@ -96,33 +85,42 @@ public class FileManager<T extends PersistableEnvelope> {
 
     /**
      * Actually write the wallet file to disk, using an atomic rename when possible. Runs on the current thread.
+     *
+     * @return true if the file was written successfully
      */
-    public void saveNow(T persistable) {
-        saveNowInternal(persistable);
+    public boolean saveNow(T persistable) {
+        return saveNowInternal(persistable);
     }
 
     /**
-     * Queues up a save in the background. Useful for not very important wallet changes.
+     * Queues up a save in the background. Requests until the write starts get coalesced into one write of the
+     * latest persistable.
      */
     public void saveLater(T persistable) {
         saveLater(persistable, delay);
     }
 
-    public void saveLater(T persistable, long delayInMilli) {
+    // We store the persistable before we add the handler. A write which picks up the handler reads the persistable
+    // afterwards (see writePending), so it always covers this persistable.
+    public void saveLater(T persistable, long delayInMilli, Runnable writtenHandler) {
         this.persistable = persistable;
+        writtenHandlers.add(writtenHandler);
+        PersistenceWriter.requestSave(this, delayInMilli);
+    }
 
-        if (savePending.getAndSet(true))
-            return;   // Already pending.
-
-        executor.schedule(saveFileTask, delayInMilli, TimeUnit.MILLISECONDS);
+    public void saveLater(T persistable, long delayInMilli) {
+        this.persistable = persistable;
+        PersistenceWriter.requestSave(this, delayInMilli);
     }
 
     @SuppressWarnings("unchecked")
     public synchronized T read(File file) {
         log.debug("Read from disc: {}", file.getName());
 
-        try (final FileInputStream fileInputStream = new FileInputStream(file)) {
-            PB.PersistableEnvelope persistable = PB.PersistableEnvelope.parseDelimitedFrom(fileInputStream);
+        try (final BufferedInputStream bufferedInputStream = new BufferedInputStream(new FileInputStream(file));
+             final InputStream inputStream = StorageContainer.getPayloadInputStream(bufferedInputStream)) {
+            legacyFormatRead = inputStream == bufferedInputStream;
+            PB.PersistableEnvelope persistable = PB.PersistableEnvelope.parseDelimitedFrom(inputStream);
             return (T) persistenceProtoResolver.fromProto(persistable);
         } catch (Throwable t) {
             String errorMsg = "Exception at proto read: " + t.getMessage() + " file:" + file.getAbsolutePath();
@@ -150,18 +148,6 @@ public class FileManager<T extends PersistableEnvelope> {
     }
 
 
-    /**
-     * Shut down auto-saving.
-     */
-    void shutDown() {
-        executor.shutdown();
-        try {
-            executor.awaitTermination(5, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-    }
-
     public static void removeAndBackupFile(File dbDir, File storageFile, String fileName, String backupFolderName)
             throws IOException {
         File corruptedBackupDir = new File(Paths.get(dbDir.getAbsolutePath(), backupFolderName).toString());
@@ -181,27 +167,56 @@ public class FileManager<T extends PersistableEnvelope> {
         FileUtil.rollingBackup(dir, fileName, numMaxBackupFiles);
     }
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Package scope, used by PersistenceWriter
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns true if the store was clean before
+    boolean markDirty() {
+        return !savePending.getAndSet(true);
+    }
+
+    // Returns true if the store was dirty before
+    boolean clearDirty() {
+        return savePending.getAndSet(false);
+    }
+
+    // The handlers registered until now are covered by this write as we read the persistable only after we took them
+    boolean writePending() {
+        List<Runnable> handlers = new ArrayList<>(writtenHandlers);
+        writtenHandlers.removeAll(handlers);
+        T persistable = this.persistable;
+        boolean success = saveNowInternal(persistable);
+        if (success)
+            handlers.forEach(Runnable::run);
+        return success;
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void saveNowInternal(T persistable) {
+    private boolean saveNowInternal(T persistable) {
         long now = System.currentTimeMillis();
-        saveToFile(persistable, dir, storageFile);
+        boolean success = saveToFile(persistable, dir, storageFile);
         log.trace("Save {} completed in {} msec", storageFile, System.currentTimeMillis() - now);
+        return success;
     }
 
-    private synchronized void saveToFile(T persistable, File dir, File storageFile) {
+    private synchronized boolean saveToFile(T persistable, File dir, File storageFile) {
         File tempFile = null;
         FileOutputStream fileOutputStream = null;
         PrintWriter printWriter = null;
 
         try {
             log.debug("Write to disc: {}", storageFile.getName());
-            PB.PersistableEnvelope protoPersistable;
+            byte[] serialized;
             try {
-                protoPersistable = (PB.PersistableEnvelope) persistable.toProtoMessage();
-                if (protoPersistable.toByteArray().length == 0)
+                // Some persistables (e.g. DaoStateStore) reuse the serialized form of unchanged parts
+                serialized = persistable.toSerializedBytes();
+
+                if (serialized.length == 0)
                     log.error("protoPersistable is empty. persistable=" + persistable.getClass().getSimpleName());
             } catch (Throwable e) {
                 log.error("Error in saveToFile toProtoMessage: {}, {}", persistable.getClass().getSimpleName(), storageFile);
@@ -218,7 +233,14 @@ public class FileManager<T extends PersistableEnvelope> {
 
             log.debug("Writing protobuffer class:{} to file:{}", persistable.getClass(), storageFile.getName());
             writeLock.lock();
-            protoPersistable.writeDelimitedTo(fileOutputStream);
+            // The payload of the container has the same format as writeDelimitedTo: varint length prefix followed
+            // by the PB.PersistableEnvelope
+            ContainerOutputStream containerOutputStream = new ContainerOutputStream(fileOutputStream, COMPRESSION);
+            CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(containerOutputStream);
+            codedOutputStream.writeUInt32NoTag(serialized.length);
+            codedOutputStream.writeRawBytes(serialized);
+            codedOutputStream.flush();
+            containerOutputStream.finish();
 
             // Attempt to force the bits to hit the disk. In reality the OS or hard disk itself may still decide
             // to not write through to physical media for at least a few seconds, but this is the best we can do.
@@ -230,8 +252,10 @@ public class FileManager<T extends PersistableEnvelope> {
             // when rename temp file
             fileOutputStream.close();
             FileUtil.renameFile(tempFile, storageFile);
+            return true;
         } catch (Throwable t) {
             log.error("Error at saveToFile, storageFile=" + storageFile.toString(), t);
+            return false;
         } finally {
             if (writeLock.isLocked())
                 writeLock.unlock();
@@ -0,0 +1,141 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.storage;
+
+import bisq.common.util.Utilities;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Background writer shared by all FileManagers.
+ * <p/>
+ * Each FileManager has a dirty flag. The first save request marks it dirty and schedules the write after the delay
+ * of the request (the write window). All requests until the write starts are coalesced into that write, which
+ * serializes the latest state of the persistable.
+ * <p/>
+ * We track the number of dirty stores and how late writes get executed as indicator for back-pressure, e.g. if
+ * serialization of large stores cannot keep up with the changes. Dirty stores get written at shutdown.
+ */
+@Slf4j
+public class PersistenceWriter {
+    private static final int NUM_THREADS = 2;
+    private static final long LATE_WRITE_WARN_THRESHOLD = TimeUnit.SECONDS.toMillis(10);
+
+    private static final ScheduledThreadPoolExecutor executor = Utilities.getScheduledThreadPoolExecutor(
+            "PersistenceWriter", NUM_THREADS, NUM_THREADS, 60);
+    private static final Set<FileManager<?>> dirtyFileManagers = ConcurrentHashMap.newKeySet();
+
+    private static final AtomicLong numSaveRequests = new AtomicLong();
+    private static final AtomicLong numCoalescedSaveRequests = new AtomicLong();
+    private static final AtomicLong numWrites = new AtomicLong();
+    private static final AtomicLong numFailedWrites = new AtomicLong();
+    private static final AtomicLong totalWriteDuration = new AtomicLong();
+    private static final AtomicLong maxWriteDelay = new AtomicLong();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(PersistenceWriter::writeAllDirty,
+                "PersistenceWriter.ShutDownHook"));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    static void requestSave(FileManager<?> fileManager, long delayInMilli) {
+        numSaveRequests.incrementAndGet();
+        if (!fileManager.markDirty()) {
+            // A write is scheduled already and will pick up the latest state
+            numCoalescedSaveRequests.incrementAndGet();
+            return;
+        }
+
+        dirtyFileManagers.add(fileManager);
+        long scheduledTime = System.currentTimeMillis() + delayInMilli;
+        executor.schedule(() -> write(fileManager, scheduledTime), delayInMilli, TimeUnit.MILLISECONDS);
+    }
+
+    public static int getNumDirtyStores() {
+        return dirtyFileManagers.size();
+    }
+
+    public static String getMetrics() {
+        long writes = numWrites.get();
+        return "PersistenceWriter metrics:" +
+                "\n\tnumDirtyStores=" + getNumDirtyStores() +
+                "\n\tnumQueuedTasks=" + executor.getQueue().size() +
+                "\n\tnumSaveRequests=" + numSaveRequests.get() +
+                "\n\tnumCoalescedSaveRequests=" + numCoalescedSaveRequests.get() +
+                "\n\tnumWrites=" + writes +
+                "\n\tnumFailedWrites=" + numFailedWrites.get() +
+                "\n\taverageWriteDuration=" + (writes > 0 ? totalWriteDuration.get() / writes : 0) + " ms" +
+                "\n\tmaxWriteDelay=" + maxWriteDelay.get() + " ms";
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static void write(FileManager<?> fileManager, long scheduledTime) {
+        try {
+            long delay = System.currentTimeMillis() - scheduledTime;
+            maxWriteDelay.accumulateAndGet(delay, Math::max);
+            if (delay > LATE_WRITE_WARN_THRESHOLD)
+                log.warn("Write got executed {} ms after the scheduled time. {}", delay, getMetrics());
+
+            writeIfDirty(fileManager);
+        } catch (Throwable t) {
+            log.error("Error at write", t);
+        }
+    }
+
+    private static void writeIfDirty(FileManager<?> fileManager) {
+        // We clear the flag before the write, so changes during the write trigger another one
+        dirtyFileManagers.remove(fileManager);
+        if (!fileManager.clearDirty())
+            return;
+
+        long ts = System.currentTimeMillis();
+        boolean success = fileManager.writePending();
+        totalWriteDuration.addAndGet(System.currentTimeMillis() - ts);
+        numWrites.incrementAndGet();
+        if (!success)
+            numFailedWrites.incrementAndGet();
+    }
+
+    private static void writeAllDirty() {
+        executor.shutdown();
+        if (!dirtyFileManagers.isEmpty())
+            log.info("Write {} dirty stores at shutdown", dirtyFileManagers.size());
+
+        dirtyFileManagers.forEach(fileManager -> {
+            try {
+                writeIfDirty(fileManager);
+            } catch (Throwable t) {
+                log.error("Error at writeAllDirty", t);
+            }
+        });
+    }
+}
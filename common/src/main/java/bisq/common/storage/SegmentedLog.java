@@ -0,0 +1,218 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Append-only log of binary records, split into numbered segment files ([fileName].log.[segmentIndex]).
+ * <p></p>
+ * Each record is written as [int length][int crc32][bytes]. A record torn by a crash is detected by the length or
+ * checksum and we ignore the rest of that segment. As we never append to a segment of an earlier run that is safe.
+ * <p></p>
+ * The log is used together with a full snapshot of the data: New records are appended to the current segment.
+ * For compaction the owner calls rotate(), writes a new snapshot and then deletes the sealed segments with
+ * deleteSegmentsUpTo(). Records appended during the snapshot write go to the new segment, so nothing gets lost, and
+ * records which are in the snapshot as well as in a not yet deleted segment are expected to be ignored at replay.
+ * <p></p>
+ * Segments are read record by record through a buffered stream, so we don't need to copy the whole file into the
+ * heap. After a restart we never append to an existing segment but start a new one.
+ */
+@Slf4j
+public class SegmentedLog {
+    private static final int HEADER_SIZE = 8;
+    // Protects against allocating huge buffers for a corrupted length field
+    private static final int MAX_RECORD_SIZE = 10_000_000;
+
+    private final File dir;
+    private final String fileName;
+    private long currentSegmentIndex;
+    @Nullable
+    private FileChannel currentChannel;
+    private int numRecordsInCurrentSegment;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public SegmentedLog(File dir, String fileName) {
+        this.dir = dir;
+        this.fileName = fileName;
+        currentSegmentIndex = getSegmentIndices().stream()
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0) + 1;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Reads all valid records of all segments in the order they have been written.
+     */
+    public synchronized int read(Consumer<byte[]> recordHandler) {
+        int numRecords = 0;
+        for (long segmentIndex : getSegmentIndices()) {
+            if (segmentIndex >= currentSegmentIndex)
+                continue;
+
+            File segmentFile = getSegmentFile(segmentIndex);
+            long remaining = segmentFile.length();
+            try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(segmentFile)))) {
+                while (remaining >= HEADER_SIZE) {
+                    int length = inputStream.readInt();
+                    int checksum = inputStream.readInt();
+                    remaining -= HEADER_SIZE;
+                    if (length < 0 || length > MAX_RECORD_SIZE || length > remaining)
+                        break;
+
+                    byte[] record = new byte[length];
+                    inputStream.readFully(record);
+                    remaining -= length;
+                    if (getChecksum(record) != checksum)
+                        break;
+
+                    recordHandler.accept(record);
+                    numRecords++;
+                }
+
+                if (remaining > 0)
+                    log.warn("Segment {} has an incomplete or corrupted record. We ignore the rest of the segment.",
+                            segmentFile.getName());
+            } catch (IOException e) {
+                log.error("Could not read segment " + segmentFile.getAbsolutePath(), e);
+            }
+        }
+        return numRecords;
+    }
+
+    public synchronized void append(byte[] record) throws IOException {
+        if (currentChannel == null) {
+            if (!dir.exists() && !dir.mkdir())
+                log.warn("make dir failed");
+
+            currentChannel = FileChannel.open(getSegmentFile(currentSegmentIndex).toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + record.length);
+        buffer.putInt(record.length);
+        buffer.putInt(getChecksum(record));
+        buffer.put(record);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            currentChannel.write(buffer);
+        }
+        numRecordsInCurrentSegment++;
+    }
+
+    /**
+     * Seals the current segment and starts a new one.
+     *
+     * @return The index of the sealed segment. All segments up to that index can be deleted once a snapshot
+     * containing their records is written.
+     */
+    public synchronized long rotate() {
+        closeCurrentChannel();
+        long sealedSegmentIndex = currentSegmentIndex;
+        currentSegmentIndex++;
+        numRecordsInCurrentSegment = 0;
+        return sealedSegmentIndex;
+    }
+
+    public synchronized void deleteSegmentsUpTo(long segmentIndex) {
+        getSegmentIndices().stream()
+                .filter(index -> index <= segmentIndex)
+                .map(this::getSegmentFile)
+                .forEach(file -> {
+                    if (!file.delete())
+                        log.warn("Could not delete segment " + file.getAbsolutePath());
+                });
+    }
+
+    public synchronized int getNumRecordsInCurrentSegment() {
+        return numRecordsInCurrentSegment;
+    }
+
+    public synchronized void close() {
+        closeCurrentChannel();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void closeCurrentChannel() {
+        if (currentChannel != null) {
+            try {
+                currentChannel.force(false);
+                currentChannel.close();
+            } catch (IOException e) {
+                log.error("Could not close segment of " + fileName, e);
+            }
+            currentChannel = null;
+        }
+    }
+
+    private List<Long> getSegmentIndices() {
+        String prefix = fileName + ".log.";
+        File[] files = dir.listFiles((directory, name) -> name.startsWith(prefix));
+        if (files == null)
+            return List.of();
+
+        return Arrays.stream(files)
+                .map(file -> file.getName().substring(prefix.length()))
+                .filter(suffix -> suffix.matches("\\d+"))
+                .map(Long::parseLong)
+                .sorted(Comparator.naturalOrder())
+                .collect(Collectors.toList());
+    }
+
+    private File getSegmentFile(long segmentIndex) {
+        return new File(dir, fileName + ".log." + segmentIndex);
+    }
+
+    private static int getChecksum(byte[] record) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(record);
+        return (int) crc32.getValue();
+    }
+}
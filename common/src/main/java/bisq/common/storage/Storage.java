@@ -132,6 +132,13 @@ public class Storage<T extends PersistableEnvelope> {
         }
     }
 
+    // Save delayed and on a background thread. The writtenHandler gets called on the writer thread once a write which
+    // started after this call succeeded.
+    public void queueUpForSave(T persistable, long delayInMilli, Runnable writtenHandler) {
+        checkNotNull(storageFile, "storageFile = null. Call setupFileStorage before using read/write.");
+        fileManager.saveLater(persistable, delayInMilli, writtenHandler);
+    }
+
     public void remove(String fileName) {
         fileManager.removeFile(fileName);
     }
@@ -156,6 +163,12 @@ public class Storage<T extends PersistableEnvelope> {
                 fileManager.backupFile(fileName, numMaxBackupFiles);
                 log.trace("Backup {} completed in {}msec", storageFile, System.currentTimeMillis() - now);
 
+                // Files from old versions or copied from the resources get converted to the container format
+                if (fileManager.isLegacyFormatRead() && persistedObject != null) {
+                    log.info("We convert {} to the container format", fileName);
+                    fileManager.saveLater(persistedObject);
+                }
+
                 return persistedObject;
             } catch (Throwable t) {
                 log.error("We cannot read the persisted data. " +
@@ -0,0 +1,92 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.storage;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.Arrays;
+
+/**
+ * Versioned container format for the files written by FileManager.
+ * <p></p>
+ * The file starts with MAGIC and the format version, followed by blocks of at most BLOCK_SIZE uncompressed bytes.
+ * Each block is written as [byte compression][int length][int storedLength][int crc32][stored bytes], where the
+ * checksum is calculated over the uncompressed bytes. A block with length 0 marks the end of the container.
+ * Blocks can be read one by one, so we never need to hold the whole compressed file in memory.
+ * <p></p>
+ * Files written before we used the container start directly with the varint length of the delimited protobuf
+ * message. The first byte of MAGIC is 0, which would be the length of an empty message in the old format, so we can
+ * distinguish both formats. Old files get converted at the next write.
+ */
+public final class StorageContainer {
+    static final byte[] MAGIC = new byte[]{0x00, 'B', 'S', 'C'};
+    static final byte VERSION = 1;
+    static final int BLOCK_SIZE = 1024 * 1024;
+    // Protects against allocating huge buffers for a corrupted length field
+    static final int MAX_BLOCK_SIZE = 16 * 1024 * 1024;
+
+    public enum Compression {
+        NONE((byte) 0),
+        DEFLATE((byte) 1);
+
+        final byte id;
+
+        Compression(byte id) {
+            this.id = id;
+        }
+
+        static Compression fromId(byte id) throws IOException {
+            for (Compression compression : values()) {
+                if (compression.id == id)
+                    return compression;
+            }
+            throw new IOException("Unknown compression id " + id);
+        }
+    }
+
+    private StorageContainer() {
+    }
+
+    /**
+     * Returns a stream with the payload of the file, which is the delimited protobuf message in both formats.
+     * If the file is not in the container format we return the buffered stream as is.
+     */
+    public static InputStream getPayloadInputStream(BufferedInputStream inputStream) throws IOException {
+        return isContainer(inputStream) ? new ContainerInputStream(inputStream) : inputStream;
+    }
+
+    // Does not consume any bytes
+    public static boolean isContainer(BufferedInputStream inputStream) throws IOException {
+        byte[] bytes = new byte[MAGIC.length];
+        inputStream.mark(MAGIC.length);
+        try {
+            int numRead = 0;
+            while (numRead < bytes.length) {
+                int read = inputStream.read(bytes, numRead, bytes.length - numRead);
+                if (read < 0)
+                    return false;
+                numRead += read;
+            }
+            return Arrays.equals(MAGIC, bytes);
+        } finally {
+            inputStream.reset();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.storage;
+
+import com.google.common.io.ByteStreams;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ContainerStreamTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        // Half random, half compressible data, spread over several blocks
+        byte[] data = new byte[10_000];
+        byte[] random = new byte[5_000];
+        new Random(1).nextBytes(random);
+        System.arraycopy(random, 0, data, 0, random.length);
+
+        for (StorageContainer.Compression compression : StorageContainer.Compression.values()) {
+            byte[] container = write(data, compression);
+            assertArrayEquals(data, read(container));
+        }
+        assertTrue(write(data, StorageContainer.Compression.DEFLATE).length <
+                write(data, StorageContainer.Compression.NONE).length);
+
+        assertArrayEquals(new byte[0], read(write(new byte[0], StorageContainer.Compression.DEFLATE)));
+    }
+
+    @Test
+    public void testCorruptedBlock() throws IOException {
+        byte[] data = new byte[3_000];
+        byte[] container = write(data, StorageContainer.Compression.NONE);
+        container[container.length / 2] ^= 1;
+        try {
+            read(container);
+            fail("Expected IOException");
+        } catch (IOException ignore) {
+        }
+
+        byte[] truncated = Arrays.copyOf(write(data, StorageContainer.Compression.DEFLATE), 20);
+        try {
+            read(truncated);
+            fail("Expected IOException");
+        } catch (IOException ignore) {
+        }
+    }
+
+    @Test
+    public void testLegacyFormat() throws IOException {
+        // Delimited protobuf without container starts with the varint length
+        byte[] legacy = new byte[]{0x03, 0x0A, 0x01, 0x00};
+        BufferedInputStream bufferedInputStream = new BufferedInputStream(new ByteArrayInputStream(legacy));
+        assertFalse(StorageContainer.isContainer(bufferedInputStream));
+        InputStream inputStream = StorageContainer.getPayloadInputStream(bufferedInputStream);
+        assertSame(bufferedInputStream, inputStream);
+        assertArrayEquals(legacy, ByteStreams.toByteArray(inputStream));
+
+        byte[] container = write(legacy, StorageContainer.Compression.DEFLATE);
+        assertTrue(StorageContainer.isContainer(new BufferedInputStream(new ByteArrayInputStream(container))));
+    }
+
+    private static byte[] write(byte[] data, StorageContainer.Compression compression) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ContainerOutputStream containerOutputStream = new ContainerOutputStream(outputStream, compression, 1024)) {
+            containerOutputStream.write(data);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] read(byte[] container) throws IOException {
+        BufferedInputStream bufferedInputStream = new BufferedInputStream(new ByteArrayInputStream(container));
+        try (InputStream inputStream = StorageContainer.getPayloadInputStream(bufferedInputStream)) {
+            return ByteStreams.toByteArray(inputStream);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.common.storage;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SegmentedLogTest {
+    private static final String FILE_NAME = "TestStore";
+
+    private File dir;
+
+    @Before
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("segmentedLog").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files)
+                file.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testAppendAndReadAfterRestart() throws IOException {
+        SegmentedLog segmentedLog = new SegmentedLog(dir, FILE_NAME);
+        segmentedLog.append(record(1));
+        segmentedLog.append(record(2));
+        segmentedLog.rotate();
+        segmentedLog.append(record(3));
+        assertEquals(1, segmentedLog.getNumRecordsInCurrentSegment());
+        segmentedLog.close();
+
+        // After a restart we read all segments and append to a new one
+        segmentedLog = new SegmentedLog(dir, FILE_NAME);
+        assertEquals(List.of("1", "2", "3"), readAll(segmentedLog));
+        segmentedLog.append(record(4));
+        segmentedLog.close();
+        assertEquals(List.of("1", "2", "3", "4"), readAll(new SegmentedLog(dir, FILE_NAME)));
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        SegmentedLog segmentedLog = new SegmentedLog(dir, FILE_NAME);
+        segmentedLog.append(record(1));
+        long sealedSegmentIndex = segmentedLog.rotate();
+        // Records appended while the snapshot gets written go to the new segment
+        segmentedLog.append(record(2));
+        segmentedLog.deleteSegmentsUpTo(sealedSegmentIndex);
+        segmentedLog.close();
+
+        assertEquals(List.of("2"), readAll(new SegmentedLog(dir, FILE_NAME)));
+    }
+
+    @Test
+    public void testRecoveryFromTornRecord() throws IOException {
+        SegmentedLog segmentedLog = new SegmentedLog(dir, FILE_NAME);
+        segmentedLog.append(record(1));
+        segmentedLog.append(record(2));
+        segmentedLog.close();
+
+        // Simulates a crash while writing the second record
+        File segmentFile = new File(dir, FILE_NAME + ".log.1");
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(segmentFile, "rw")) {
+            randomAccessFile.setLength(segmentFile.length() - 1);
+        }
+        assertEquals(List.of("1"), readAll(new SegmentedLog(dir, FILE_NAME)));
+
+        // A corrupted record is detected by the checksum
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(segmentFile, "rw")) {
+            randomAccessFile.seek(8);
+            randomAccessFile.write('x');
+        }
+        assertEquals(List.of(), readAll(new SegmentedLog(dir, FILE_NAME)));
+    }
+
+    private static byte[] record(int value) {
+        return String.valueOf(value).getBytes();
+    }
+
+    private static List<String> readAll(SegmentedLog segmentedLog) {
+        List<String> records = new ArrayList<>();
+        segmentedLog.read(record -> records.add(new String(record)));
+        return records;
+    }
+}
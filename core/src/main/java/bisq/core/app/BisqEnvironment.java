@@ -192,11 +192,12 @@ public class BisqEnvironment extends StandardEnvironment {
     protected List<String> bannedSeedNodes, bannedBtcNodes, bannedPriceRelayNodes;
 
     protected final String btcNodes, seedNodes, ignoreDevMsg, useDevPrivilegeKeys, useDevMode, useTorForBtc, rpcUser, rpcPassword,
-            rpcPort, rpcBlockNotificationPort, dumpBlockchainData, fullDaoNode,
+            rpcPort, rpcBlockNotificationPort, rpcBlockPrefetchDepth, dumpBlockchainData, fullDaoNode,
             banList, dumpStatistics, maxMemory, socks5ProxyBtcAddress,
             torRcFile, torRcOptions, externalTorControlPort, externalTorPassword, externalTorCookieFile,
             socks5ProxyHttpAddress, useAllProvidedNodes, numConnectionForBtc, genesisTxId, genesisBlockHeight, genesisTotalSupply,
-            referralId, daoActivated, msgThrottlePerSec, msgThrottlePer10Sec, sendMsgThrottleTrigger, sendMsgThrottleSleep;
+            referralId, daoActivated, legacyDaoStateHash, msgThrottlePerSec, msgThrottlePer10Sec, sendMsgThrottleTrigger, sendMsgThrottleSleep,
+            msgThrottlePerSecByType;
 
     protected final boolean externalTorUseSafeCookieAuthentication, torStreamIsolation;
 
@@ -297,6 +298,9 @@ public class BisqEnvironment extends StandardEnvironment {
         sendMsgThrottleSleep = commandLineProperties.containsProperty(NetworkOptionKeys.SEND_MSG_THROTTLE_SLEEP) ?
                 (String) commandLineProperties.getProperty(NetworkOptionKeys.SEND_MSG_THROTTLE_SLEEP) :
                 String.valueOf(ConnectionConfig.SEND_MSG_THROTTLE_SLEEP);
+        msgThrottlePerSecByType = commandLineProperties.containsProperty(NetworkOptionKeys.MSG_THROTTLE_PER_SEC_BY_TYPE) ?
+                (String) commandLineProperties.getProperty(NetworkOptionKeys.MSG_THROTTLE_PER_SEC_BY_TYPE) :
+                ConnectionConfig.MSG_THROTTLE_PER_SEC_BY_TYPE;
 
         //RpcOptionKeys
         rpcUser = commandLineProperties.containsProperty(DaoOptionKeys.RPC_USER) ?
@@ -311,6 +315,9 @@ public class BisqEnvironment extends StandardEnvironment {
         rpcBlockNotificationPort = commandLineProperties.containsProperty(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT) ?
                 (String) commandLineProperties.getProperty(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT) :
                 "";
+        rpcBlockPrefetchDepth = commandLineProperties.containsProperty(DaoOptionKeys.RPC_BLOCK_PREFETCH_DEPTH) ?
+                (String) commandLineProperties.getProperty(DaoOptionKeys.RPC_BLOCK_PREFETCH_DEPTH) :
+                "10";
         dumpBlockchainData = commandLineProperties.containsProperty(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA) ?
                 (String) commandLineProperties.getProperty(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA) :
                 "";
@@ -329,6 +336,9 @@ public class BisqEnvironment extends StandardEnvironment {
         daoActivated = commandLineProperties.containsProperty(DaoOptionKeys.DAO_ACTIVATED) ?
                 (String) commandLineProperties.getProperty(DaoOptionKeys.DAO_ACTIVATED) :
                 "true";
+        legacyDaoStateHash = commandLineProperties.containsProperty(DaoOptionKeys.LEGACY_DAO_STATE_HASH) ?
+                (String) commandLineProperties.getProperty(DaoOptionKeys.LEGACY_DAO_STATE_HASH) :
+                "true";
 
         btcNodes = commandLineProperties.containsProperty(BtcOptionKeys.BTC_NODES) ?
                 (String) commandLineProperties.getProperty(BtcOptionKeys.BTC_NODES) :
@@ -481,6 +491,7 @@ public class BisqEnvironment extends StandardEnvironment {
                 setProperty(NetworkOptionKeys.MSG_THROTTLE_PER_10_SEC, msgThrottlePer10Sec);
                 setProperty(NetworkOptionKeys.SEND_MSG_THROTTLE_TRIGGER, sendMsgThrottleTrigger);
                 setProperty(NetworkOptionKeys.SEND_MSG_THROTTLE_SLEEP, sendMsgThrottleSleep);
+                setProperty(NetworkOptionKeys.MSG_THROTTLE_PER_SEC_BY_TYPE, msgThrottlePerSecByType);
 
                 setProperty(AppOptionKeys.APP_DATA_DIR_KEY, appDataDir);
                 setProperty(AppOptionKeys.DESKTOP_WITH_HTTP_API, desktopWithHttpApi);
@@ -498,12 +509,14 @@ public class BisqEnvironment extends StandardEnvironment {
                 setProperty(DaoOptionKeys.RPC_PASSWORD, rpcPassword);
                 setProperty(DaoOptionKeys.RPC_PORT, rpcPort);
                 setProperty(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT, rpcBlockNotificationPort);
+                setProperty(DaoOptionKeys.RPC_BLOCK_PREFETCH_DEPTH, rpcBlockPrefetchDepth);
                 setProperty(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA, dumpBlockchainData);
                 setProperty(DaoOptionKeys.FULL_DAO_NODE, fullDaoNode);
                 setProperty(DaoOptionKeys.GENESIS_TX_ID, genesisTxId);
                 setProperty(DaoOptionKeys.GENESIS_BLOCK_HEIGHT, genesisBlockHeight);
                 setProperty(DaoOptionKeys.GENESIS_TOTAL_SUPPLY, genesisTotalSupply);
                 setProperty(DaoOptionKeys.DAO_ACTIVATED, daoActivated);
+                setProperty(DaoOptionKeys.LEGACY_DAO_STATE_HASH, legacyDaoStateHash);
 
                 setProperty(BtcOptionKeys.BTC_NODES, btcNodes);
                 setProperty(BtcOptionKeys.USE_TOR_FOR_BTC, useTorForBtc);
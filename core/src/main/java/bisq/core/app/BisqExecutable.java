@@ -354,6 +354,12 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
                 .withRequiredArg()
                 .ofType(boolean.class);
 
+        parser.accepts(NetworkOptionKeys.USE_NIO_FOR_P2P,
+                format("Use non-blocking sockets with a shared selector thread pool for P2P connections. " +
+                        "Only supported with the localhost P2P network (default: %s)", "false"))
+                .withRequiredArg()
+                .ofType(boolean.class);
+
         parser.accepts(NetworkOptionKeys.MAX_CONNECTIONS,
                 format("Max. connections a peer will try to keep (default: %s)", P2PService.MAX_CONNECTIONS_DEFAULT))
                 .withRequiredArg()
@@ -429,6 +435,10 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
                         String.valueOf(ConnectionConfig.SEND_MSG_THROTTLE_SLEEP)))
                 .withRequiredArg()
                 .ofType(int.class);
+        parser.accepts(NetworkOptionKeys.MSG_THROTTLE_PER_SEC_BY_TYPE,
+                "Message throttle per sec for single message types as comma separated list of messageType:limit " +
+                        "(e.g. GetDataRequest:5,Ping:10)")
+                .withRequiredArg();
 
         //AppOptionKeys
         parser.accepts(AppOptionKeys.USER_DATA_DIR_KEY,
@@ -545,6 +555,12 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
                 "Bitcoind rpc port for block notifications")
                 .withRequiredArg();
 
+        parser.accepts(DaoOptionKeys.RPC_BLOCK_PREFETCH_DEPTH,
+                format("Number of blocks a full DAO node requests ahead from Bitcoin Core while catching up with " +
+                        "the chain. 1 disables prefetching. (default: %s)", "10"))
+                .withRequiredArg()
+                .ofType(int.class);
+
         parser.accepts(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA,
                 format("If set to true the blockchain data from RPC requests to Bitcoin Core are " +
                         "stored as json file in the data dir. (default: %s)", "false"))
@@ -573,6 +589,13 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
                 format("Developer flag. If true it enables dao phase 2 features. (default: %s)", "true"))
                 .withRequiredArg()
                 .ofType(boolean.class);
+
+        parser.accepts(DaoOptionKeys.LEGACY_DAO_STATE_HASH,
+                format("If set to false we only create the incremental DAO state hash and not the legacy hash which " +
+                        "requires to serialize the whole DAO state at each block. Peers which do not support " +
+                        "the incremental hash cannot compare their hashes with ours then. (default: %s)", "true"))
+                .withRequiredArg()
+                .ofType(boolean.class);
     }
 
     public static BisqEnvironment getBisqEnvironment(OptionSet options) {
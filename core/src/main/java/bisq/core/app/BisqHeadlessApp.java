@@ -19,6 +19,8 @@ package bisq.core.app;
 
 import bisq.core.trade.TradeManager;
 
+import bisq.network.p2p.network.MessageDispatcher;
+
 import bisq.common.UserThread;
 import bisq.common.setup.GracefulShutDownHandler;
 import bisq.common.storage.CorruptedDatabaseFilesHandler;
@@ -61,7 +63,10 @@ public class BisqHeadlessApp implements HeadlessApp {
 
             setupHandlers();
 
-            UserThread.runPeriodically(() -> Profiler.printSystemLoad(log), LOG_MEMORY_PERIOD_MIN, TimeUnit.MINUTES);
+            UserThread.runPeriodically(() -> {
+                Profiler.printSystemLoad(log);
+                log.info(MessageDispatcher.getMetrics());
+            }, LOG_MEMORY_PERIOD_MIN, TimeUnit.MINUTES);
         } catch (Throwable throwable) {
             log.error("Error during app init", throwable);
             handleUncaughtException(throwable, false);
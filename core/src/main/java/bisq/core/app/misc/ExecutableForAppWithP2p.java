@@ -27,6 +27,7 @@ import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.offer.OpenOfferManager;
 
 import bisq.network.p2p.P2PService;
+import bisq.network.p2p.network.MessageDispatcher;
 
 import bisq.common.UserThread;
 import bisq.common.handlers.ResultHandler;
@@ -132,6 +133,7 @@ public abstract class ExecutableForAppWithP2p extends BisqExecutable implements
 
         UserThread.runPeriodically(() -> {
             Profiler.printSystemLoad(log);
+            log.info(MessageDispatcher.getMetrics());
             if (!stopped) {
                 long usedMemoryInMB = Profiler.getUsedMemoryInMB();
                 double warningTrigger = maxMemory * 0.8;
@@ -103,9 +103,7 @@ public class ArbitratorService {
         final List<String> bannedArbitrators = filterManager.getFilter() != null ? filterManager.getFilter().getArbitrators() : null;
         if (bannedArbitrators != null)
             log.warn("bannedArbitrators=" + bannedArbitrators);
-        Set<Arbitrator> arbitratorSet = p2PService.getDataMap().values().stream()
-                .filter(data -> data.getProtectedStoragePayload() instanceof Arbitrator)
-                .map(data -> (Arbitrator) data.getProtectedStoragePayload())
+        Set<Arbitrator> arbitratorSet = p2PService.getP2PDataStorage().getProtectedStoragePayloads(Arbitrator.class).stream()
                 .filter(a -> bannedArbitrators == null ||
                         !bannedArbitrators.contains(a.getNodeAddress().getFullAddress()))
                 .collect(Collectors.toSet());
@@ -0,0 +1,163 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import org.bitcoincashj.core.Address;
+import org.bitcoincashj.core.Transaction;
+import org.bitcoincashj.core.TransactionConfidence;
+import org.bitcoincashj.core.TransactionInput;
+import org.bitcoincashj.core.TransactionOutput;
+import org.bitcoincashj.wallet.Wallet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Index of the spend candidates of a wallet by address, so we do not need to iterate over all spend candidates of the
+ * wallet for looking up the balance of one address. It gets built from wallet.calculateAllSpendCandidates() at the
+ * first lookup and afterwards we only re-evaluate the outputs of the transactions we get wallet events for and the
+ * outputs they spend.
+ * <p/>
+ * At a reorg or if a tx got removed or dead we cannot reach the outputs which it has spent anymore, so in that case
+ * we rebuild the index at the next lookup.
+ */
+@Slf4j
+class AddressBalanceIndex {
+    @Nullable
+    private Wallet wallet;
+    private final Map<Address, Map<String, TransactionOutput>> spendCandidatesByAddress = new HashMap<>();
+    // Address of each indexed output, so we find the entry to remove if the output is not a spend candidate anymore
+    private final Map<String, Address> addressByOutputKey = new HashMap<>();
+    private boolean valid;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    synchronized List<TransactionOutput> getSpendCandidates(Wallet wallet, Address address) {
+        if (this.wallet != wallet || !valid)
+            rebuild(wallet);
+
+        Map<String, TransactionOutput> spendCandidates = spendCandidatesByAddress.get(address);
+        return spendCandidates != null ? new ArrayList<>(spendCandidates.values()) : new ArrayList<>();
+    }
+
+    synchronized void onTransaction(Wallet wallet, @Nullable Transaction tx) {
+        // If not valid we rebuild at the next lookup anyway
+        if (this.wallet != wallet || !valid || tx == null)
+            return;
+
+        Transaction walletTx = wallet.getTransaction(tx.getHash());
+        if (walletTx == null || walletTx.getConfidence().getConfidenceType() == TransactionConfidence.ConfidenceType.DEAD) {
+            invalidate();
+            return;
+        }
+
+        walletTx.getOutputs().forEach(this::update);
+        walletTx.getInputs().stream()
+                .map(TransactionInput::getConnectedOutput)
+                .filter(Objects::nonNull)
+                .forEach(this::update);
+    }
+
+    synchronized void invalidate() {
+        valid = false;
+        spendCandidatesByAddress.clear();
+        addressByOutputKey.clear();
+    }
+
+    synchronized int getNumIndexedOutputs() {
+        return addressByOutputKey.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void rebuild(Wallet wallet) {
+        long ts = System.currentTimeMillis();
+        invalidate();
+        this.wallet = wallet;
+        wallet.calculateAllSpendCandidates().forEach(this::add);
+        valid = true;
+        log.debug("Rebuilding the address balance index with {} outputs took {} ms",
+                addressByOutputKey.size(), System.currentTimeMillis() - ts);
+    }
+
+    private void update(TransactionOutput output) {
+        if (isSpendCandidate(output))
+            add(output);
+        else
+            remove(output);
+    }
+
+    private void add(TransactionOutput output) {
+        Address address = getAddress(output);
+        if (address == null)
+            return;
+
+        String key = getKey(output);
+        remove(output);
+        spendCandidatesByAddress.computeIfAbsent(address, e -> new LinkedHashMap<>()).put(key, output);
+        addressByOutputKey.put(key, address);
+    }
+
+    private void remove(TransactionOutput output) {
+        String key = getKey(output);
+        Address address = addressByOutputKey.remove(key);
+        if (address == null)
+            return;
+
+        Map<String, TransactionOutput> spendCandidates = spendCandidatesByAddress.get(address);
+        spendCandidates.remove(key);
+        if (spendCandidates.isEmpty())
+            spendCandidatesByAddress.remove(address);
+    }
+
+    // Same conditions as used in wallet.calculateAllSpendCandidates()
+    private boolean isSpendCandidate(TransactionOutput output) {
+        Transaction tx = output.getParentTransaction();
+        return tx != null &&
+                tx.getConfidence().getConfidenceType() != TransactionConfidence.ConfidenceType.DEAD &&
+                tx.isMature() &&
+                output.isAvailableForSpending() &&
+                output.isMine(wallet) &&
+                wallet.canSignFor(output.getScriptPubKey());
+    }
+
+    @Nullable
+    private Address getAddress(TransactionOutput output) {
+        return WalletService.isOutputScriptConvertibleToAddress(output) ?
+                output.getScriptPubKey().getToAddress(wallet.getParams()) :
+                null;
+    }
+
+    private static String getKey(TransactionOutput output) {
+        return output.getParentTransactionHash() + ":" + output.getIndex();
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+
+import org.bitcoincashj.core.Sha256Hash;
+import org.bitcoincashj.core.Transaction;
+import org.bitcoincashj.core.TransactionConfidence;
+import org.bitcoincashj.core.TransactionInput;
+import org.bitcoincashj.core.TransactionOutput;
+import org.bitcoincashj.wallet.Wallet;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the unverified, locked for voting, lockup and unlocking BSQ balances as the sum of the contributions of each
+ * wallet transaction. At wallet events we only re-calculate the contribution of the affected transaction and at a new
+ * DAO block those of the transactions in the block, of the transactions they spend from and of the transactions which
+ * depend on the DAO state independently of new transactions (pending, vote stake and bond transactions).
+ * <p/>
+ * At a reorg, if a block is not the successor of the last applied block or if the wallet or the DAO state changed
+ * without events (e.g. at batch processing of blocks) we rebuild from all wallet transactions.
+ */
+@Slf4j
+class BsqBalanceLedger {
+    private final DaoStateService daoStateService;
+    private final Map<String, TxBalances> txBalancesByTxId = new HashMap<>();
+    // Txs whose balances might change at a new block even if they are not part of the block
+    private final Set<String> txIdsToUpdateAtNewBlock = new HashSet<>();
+    @Nullable
+    private Wallet wallet;
+    private boolean valid;
+    private int lastBlockHeight;
+
+    @Getter
+    private long unverifiedBalance;
+    @Getter
+    private long lockedForVotingBalance;
+    @Getter
+    private long lockupBondsBalance;
+    @Getter
+    private long unlockingBondsBalance;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    BsqBalanceLedger(DaoStateService daoStateService) {
+        this.daoStateService = daoStateService;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void update(Wallet wallet) {
+        if (this.wallet == wallet && valid)
+            return;
+
+        long ts = System.currentTimeMillis();
+        invalidate();
+        this.wallet = wallet;
+        wallet.getTransactions(false).forEach(this::apply);
+        daoStateService.getLastBlock().ifPresent(block -> lastBlockHeight = block.getHeight());
+        valid = true;
+        log.info("Rebuilding the BSQ balances of {} transactions took {} ms",
+                txBalancesByTxId.size(), System.currentTimeMillis() - ts);
+    }
+
+    void invalidate() {
+        valid = false;
+        txBalancesByTxId.clear();
+        txIdsToUpdateAtNewBlock.clear();
+        unverifiedBalance = 0;
+        lockedForVotingBalance = 0;
+        lockupBondsBalance = 0;
+        unlockingBondsBalance = 0;
+    }
+
+    void onTransaction(Wallet wallet, @Nullable Transaction tx) {
+        // If not valid we rebuild at the next update anyway
+        if (this.wallet != wallet || !valid || tx == null)
+            return;
+
+        apply(tx.getHashAsString());
+        // The outputs spent by the tx are not available for spending anymore, which changes the unverified balance of
+        // a pending parent tx
+        tx.getInputs().stream()
+                .map(TransactionInput::getConnectedOutput)
+                .filter(Objects::nonNull)
+                .map(TransactionOutput::getParentTransaction)
+                .filter(Objects::nonNull)
+                .forEach(parentTx -> apply(parentTx.getHashAsString()));
+    }
+
+    void onParseBlock(Block block) {
+        if (!valid)
+            return;
+
+        if (block.getHeight() != lastBlockHeight + 1) {
+            // Reorg of the DAO state or we have missed blocks
+            invalidate();
+            return;
+        }
+        lastBlockHeight = block.getHeight();
+
+        Set<String> txIds = new HashSet<>(txIdsToUpdateAtNewBlock);
+        block.getTxs().forEach(tx -> {
+            txIds.add(tx.getId());
+            tx.getTxInputs().forEach(txInput -> txIds.add(txInput.getConnectedTxOutputTxId()));
+        });
+        txIds.forEach(this::apply);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void apply(String txId) {
+        Transaction walletTx = wallet.getTransaction(Sha256Hash.wrap(txId));
+        if (walletTx != null) {
+            apply(walletTx);
+        } else {
+            setTxBalances(txId, TxBalances.ZERO);
+            txIdsToUpdateAtNewBlock.remove(txId);
+        }
+    }
+
+    private void apply(Transaction tx) {
+        TxBalances txBalances = getTxBalances(tx);
+        setTxBalances(tx.getHashAsString(), txBalances);
+        if (tx.getConfidence().getConfidenceType() == TransactionConfidence.ConfidenceType.PENDING ||
+                !txBalances.isZero())
+            txIdsToUpdateAtNewBlock.add(tx.getHashAsString());
+        else
+            txIdsToUpdateAtNewBlock.remove(tx.getHashAsString());
+    }
+
+    private void setTxBalances(String txId, TxBalances txBalances) {
+        TxBalances previous = txBalances.isZero() ? txBalancesByTxId.remove(txId) : txBalancesByTxId.put(txId, txBalances);
+        if (previous != null) {
+            unverifiedBalance -= previous.getUnverified();
+            lockedForVotingBalance -= previous.getLockedForVoting();
+            lockupBondsBalance -= previous.getLockupBonds();
+            unlockingBondsBalance -= previous.getUnlockingBonds();
+        }
+        unverifiedBalance += txBalances.getUnverified();
+        lockedForVotingBalance += txBalances.getLockedForVoting();
+        lockupBondsBalance += txBalances.getLockupBonds();
+        unlockingBondsBalance += txBalances.getUnlockingBonds();
+    }
+
+    private TxBalances getTxBalances(Transaction tx) {
+        TransactionConfidence.ConfidenceType confidenceType = tx.getConfidence().getConfidenceType();
+        if (confidenceType == TransactionConfidence.ConfidenceType.PENDING)
+            return new TxBalances(getUnverifiedBalance(tx), 0, 0, 0);
+
+        if (confidenceType != TransactionConfidence.ConfidenceType.BUILDING)
+            return TxBalances.ZERO;
+
+        Optional<Tx> optionalTx = daoStateService.getTx(tx.getHashAsString());
+        if (!optionalTx.isPresent())
+            return TxBalances.ZERO;
+
+        long lockedForVoting = 0;
+        long lockupBonds = 0;
+        long unlockingBonds = 0;
+        String txId = optionalTx.get().getId();
+        for (TxOutput txOutput : optionalTx.get().getTxOutputs()) {
+            switch (txOutput.getTxOutputType()) {
+                case BLIND_VOTE_LOCK_STAKE_OUTPUT:
+                    if (daoStateService.isUnspent(txOutput.getKey()))
+                        lockedForVoting += txOutput.getValue();
+                    break;
+                case LOCKUP_OUTPUT:
+                    if (daoStateService.isUnspent(txOutput.getKey()) &&
+                            !daoStateService.isConfiscatedLockupTxOutput(txId))
+                        lockupBonds += txOutput.getValue();
+                    break;
+                case UNLOCK_OUTPUT:
+                    if (daoStateService.isUnlockingAndUnspent(txOutput) &&
+                            !daoStateService.isConfiscatedUnlockTxOutput(txId))
+                        unlockingBonds += txOutput.getValue();
+                    break;
+                default:
+                    break;
+            }
+        }
+        return new TxBalances(0, lockedForVoting, lockupBonds, unlockingBonds);
+    }
+
+    // Sum up outputs into BSQ wallet and subtract the inputs using lockup or unlocking outputs since those inputs will
+    // be accounted for in lockupBondsBalance and unlockingBondsBalance
+    private long getUnverifiedBalance(Transaction tx) {
+        long outputs = tx.getOutputs().stream()
+                .filter(out -> out.isMine(wallet))
+                .filter(TransactionOutput::isAvailableForSpending)
+                .mapToLong(out -> out.getValue().value)
+                .sum();
+        // Account for spending of locked connectedOutputs
+        long lockedInputs = tx.getInputs().stream()
+                .filter(in -> {
+                    TransactionOutput connectedOutput = in.getConnectedOutput();
+                    if (connectedOutput != null && connectedOutput.getParentTransaction() != null) {
+                        TxOutputKey key = new TxOutputKey(connectedOutput.getParentTransaction().getHashAsString(),
+                                connectedOutput.getIndex());
+                        return connectedOutput.isMine(wallet) &&
+                                (daoStateService.isLockupOutput(key) || daoStateService.isUnlockingAndUnspent(key));
+                    }
+                    return false;
+                })
+                .mapToLong(in -> in.getValue().value)
+                .sum();
+        return outputs - lockedInputs;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Inner class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Value
+    private static class TxBalances {
+        static final TxBalances ZERO = new TxBalances(0, 0, 0, 0);
+
+        private final long unverified;
+        private final long lockedForVoting;
+        private final long lockupBonds;
+        private final long unlockingBonds;
+
+        boolean isZero() {
+            return unverified == 0 && lockedForVoting == 0 && lockupBonds == 0 && unlockingBonds == 0;
+        }
+    }
+}
@@ -28,12 +28,13 @@ import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.Tx;
 import bisq.core.dao.state.model.blockchain.TxOutput;
-import bisq.core.dao.state.model.blockchain.TxOutputKey;
 import bisq.core.dao.state.model.blockchain.TxType;
 import bisq.core.dao.state.unconfirmed.UnconfirmedBsqChangeOutputListService;
 import bisq.core.provider.fee.FeeService;
 import bisq.core.user.Preferences;
 
+import bisq.common.UserThread;
+
 import org.bitcoincashj.core.Address;
 import org.bitcoincashj.core.AddressFormatException;
 import org.bitcoincashj.core.BlockChain;
@@ -42,6 +43,7 @@ import org.bitcoincashj.core.ECKey;
 import org.bitcoincashj.core.InsufficientMoneyException;
 import org.bitcoincashj.core.NetworkParameters;
 import org.bitcoincashj.core.ScriptException;
+import org.bitcoincashj.core.Sha256Hash;
 import org.bitcoincashj.core.Transaction;
 import org.bitcoincashj.core.TransactionConfidence;
 import org.bitcoincashj.core.TransactionInput;
@@ -62,6 +64,7 @@ import javafx.collections.ObservableList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -74,7 +77,6 @@ import lombok.extern.slf4j.Slf4j;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static org.bitcoincashj.core.TransactionConfidence.ConfidenceType.BUILDING;
 import static org.bitcoincashj.core.TransactionConfidence.ConfidenceType.PENDING;
 
 @Slf4j
@@ -85,6 +87,11 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     private final UnconfirmedBsqChangeOutputListService unconfirmedBsqChangeOutputListService;
     private final ObservableList<Transaction> walletTransactions = FXCollections.observableArrayList();
     private final CopyOnWriteArraySet<BsqBalanceListener> bsqBalanceListeners = new CopyOnWriteArraySet<>();
+    private final BsqBalanceLedger bsqBalanceLedger;
+    // Ids of the walletTransactions
+    private final Set<String> walletTransactionIds = new HashSet<>();
+    private boolean updateScheduled;
+    private boolean reconcileWalletTransactionsScheduled;
 
     // balance of non BSQ satoshis
     @Getter
@@ -123,6 +130,7 @@ public class BsqWalletService extends WalletService implements DaoStateListener
         this.nonBsqCoinSelector = nonBsqCoinSelector;
         this.daoStateService = daoStateService;
         this.unconfirmedBsqChangeOutputListService = unconfirmedBsqChangeOutputListService;
+        bsqBalanceLedger = new BsqBalanceLedger(daoStateService);
 
         walletsSetup.addSetupCompletedHandler(() -> {
             wallet = walletsSetup.getBsqWallet();
@@ -134,40 +142,55 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                 wallet.addEventListener(new AbstractWalletEventListener() {
                     @Override
                     public void onCoinsReceived(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
-                        updateBsqWalletTransactions();
+                        bsqBalanceLedger.onTransaction(wallet, tx);
+                        updateWalletTransaction(tx);
+                        scheduleUpdate(false);
                     }
 
                     @Override
                     public void onCoinsSent(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
-                        updateBsqWalletTransactions();
+                        bsqBalanceLedger.onTransaction(wallet, tx);
+                        updateWalletTransaction(tx);
+                        scheduleUpdate(false);
                     }
 
                     @Override
                     public void onReorganize(Wallet wallet) {
                         log.warn("onReorganize ");
-                        updateBsqWalletTransactions();
+                        bsqBalanceLedger.invalidate();
+                        reconcileWalletTransactions();
+                        scheduleUpdate(false);
                         unconfirmedBsqChangeOutputListService.onReorganize();
                     }
 
                     @Override
                     public void onTransactionConfidenceChanged(Wallet wallet, Transaction tx) {
-                        updateBsqWalletTransactions();
+                        bsqBalanceLedger.onTransaction(wallet, tx);
+                        updateWalletTransaction(tx);
+                        scheduleUpdate(false);
                         unconfirmedBsqChangeOutputListService.onTransactionConfidenceChanged(tx);
                     }
 
                     @Override
                     public void onKeysAdded(List<ECKey> keys) {
-                        updateBsqWalletTransactions();
+                        // Outputs might have become ours
+                        bsqBalanceLedger.invalidate();
+                        reconcileWalletTransactions();
+                        scheduleUpdate(false);
                     }
 
                     @Override
                     public void onScriptsChanged(Wallet wallet, List<Script> scripts, boolean isAddingScripts) {
-                        updateBsqWalletTransactions();
+                        bsqBalanceLedger.invalidate();
+                        reconcileWalletTransactions();
+                        scheduleUpdate(false);
                     }
 
                     @Override
                     public void onWalletChanged(Wallet wallet) {
-                        updateBsqWalletTransactions();
+                        // Called after most other events, but it also covers changes without an event for a tx
+                        // (e.g. removed txs at a wallet cleanup)
+                        scheduleUpdate(true);
                     }
 
                 });
@@ -191,8 +214,13 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     @Override
     public void onParseBlockCompleteAfterBatchProcessing(Block block) {
         if (isWalletReady()) {
-            wallet.getTransactions(false).forEach(unconfirmedBsqChangeOutputListService::onTransactionConfidenceChanged);
-            updateBsqWalletTransactions();
+            // Only the txs of the block can have been confirmed with that block
+            block.getTxs().stream()
+                    .map(tx -> wallet.getTransaction(Sha256Hash.wrap(tx.getId())))
+                    .filter(Objects::nonNull)
+                    .forEach(unconfirmedBsqChangeOutputListService::onTransactionConfidenceChanged);
+            bsqBalanceLedger.onParseBlock(block);
+            scheduleUpdate(false);
         }
     }
 
@@ -212,77 +240,21 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void updateBsqBalance() {
-        unverifiedBalance = Coin.valueOf(
-                getTransactions(false).stream()
-                        .filter(tx -> tx.getConfidence().getConfidenceType() == PENDING)
-                        .mapToLong(tx -> {
-                            // Sum up outputs into BSQ wallet and subtract the inputs using lockup or unlocking
-                            // outputs since those inputs will be accounted for in lockupBondsBalance and
-                            // unlockingBondsBalance
-                            long outputs = tx.getOutputs().stream()
-                                    .filter(out -> out.isMine(wallet))
-                                    .filter(TransactionOutput::isAvailableForSpending)
-                                    .mapToLong(out -> out.getValue().value)
-                                    .sum();
-                            // Account for spending of locked connectedOutputs
-                            long lockedInputs = tx.getInputs().stream()
-                                    .filter(in -> {
-                                        TransactionOutput connectedOutput = in.getConnectedOutput();
-                                        if (connectedOutput != null) {
-                                            Transaction parentTransaction = connectedOutput.getParentTransaction();
-                                            // TODO SQ
-                                            if (parentTransaction != null/* &&
-                                                    parentTransaction.getConfidence().getConfidenceType() == BUILDING*/) {
-                                                TxOutputKey key = new TxOutputKey(parentTransaction.getHashAsString(),
-                                                        connectedOutput.getIndex());
-
-                                                return (connectedOutput.isMine(wallet)
-                                                        && (daoStateService.isLockupOutput(key)
-                                                        || daoStateService.isUnlockingAndUnspent(key)));
-                                            }
-                                        }
-                                        return false;
-                                    })
-                                    .mapToLong(in -> in != null ? in.getValue().value : 0)
-                                    .sum();
-                            return outputs - lockedInputs;
-                        })
-                        .sum()
-        );
-
-        Set<String> confirmedTxIdSet = getTransactions(false).stream()
-                .filter(tx -> tx.getConfidence().getConfidenceType() == BUILDING)
-                .map(Transaction::getHashAsString)
-                .collect(Collectors.toSet());
-
-        lockedForVotingBalance = Coin.valueOf(daoStateService.getUnspentBlindVoteStakeTxOutputs().stream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
-
-        lockupBondsBalance = Coin.valueOf(daoStateService.getLockupTxOutputs().stream()
-                .filter(txOutput -> daoStateService.isUnspent(txOutput.getKey()))
-                .filter(txOutput -> !daoStateService.isConfiscatedLockupTxOutput(txOutput.getTxId()))
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
+        bsqBalanceLedger.update(wallet);
+        unverifiedBalance = Coin.valueOf(bsqBalanceLedger.getUnverifiedBalance());
+        lockedForVotingBalance = Coin.valueOf(bsqBalanceLedger.getLockedForVotingBalance());
+        lockupBondsBalance = Coin.valueOf(bsqBalanceLedger.getLockupBondsBalance());
+        unlockingBondsBalance = Coin.valueOf(bsqBalanceLedger.getUnlockingBondsBalance());
 
-        unlockingBondsBalance = Coin.valueOf(daoStateService.getUnspentUnlockingTxOutputsStream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .filter(txOutput -> !daoStateService.isConfiscatedUnlockTxOutput(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
-
-        availableConfirmedBalance = bsqCoinSelector.select(NetworkParameters.MAX_MONEY,
-                wallet.calculateAllSpendCandidates()).valueGathered;
+        List<TransactionOutput> spendCandidates = wallet.calculateAllSpendCandidates();
+        availableConfirmedBalance = bsqCoinSelector.select(NetworkParameters.MAX_MONEY, spendCandidates).valueGathered;
 
         if (availableConfirmedBalance.isNegative())
             availableConfirmedBalance = Coin.ZERO;
 
         unconfirmedChangeBalance = unconfirmedBsqChangeOutputListService.getBalance();
 
-        availableNonBsqBalance = nonBsqCoinSelector.select(NetworkParameters.MAX_MONEY,
-                wallet.calculateAllSpendCandidates()).valueGathered;
+        availableNonBsqBalance = nonBsqCoinSelector.select(NetworkParameters.MAX_MONEY, spendCandidates).valueGathered;
 
         bsqBalanceListeners.forEach(e -> e.onUpdateBalances(availableConfirmedBalance, availableNonBsqBalance, unverifiedBalance,
                 unconfirmedChangeBalance, lockedForVotingBalance, lockupBondsBalance, unlockingBondsBalance));
@@ -310,13 +282,53 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                 .filter(transaction -> transaction.getConfidence().getConfidenceType() == TransactionConfidence.ConfidenceType.PENDING);
     }
 
-    private void updateBsqWalletTransactions() {
-        walletTransactions.setAll(getTransactions(false));
-        if (daoStateService.isParseBlockChainComplete()) {
-            updateBsqBalance();
+    // Events for a tx update walletTransactions in place, so listeners and lookups see the tx right after the event.
+    private void updateWalletTransaction(Transaction tx) {
+        String txId = tx.getHashAsString();
+        Transaction walletTx = wallet.getTransaction(tx.getHash());
+        if (walletTx != null && walletTx.getConfidence().getConfidenceType() != TransactionConfidence.ConfidenceType.DEAD) {
+            if (walletTransactionIds.add(txId))
+                walletTransactions.add(walletTx);
+        } else if (walletTransactionIds.remove(txId)) {
+            walletTransactions.removeIf(transaction -> transaction.getHashAsString().equals(txId));
         }
     }
 
+    // Compares with all wallet txs. Only used for events without a tx and we only change the list if it differs.
+    private void reconcileWalletTransactions() {
+        Set<Transaction> transactions = getTransactions(false);
+        Set<String> txIds = transactions.stream().map(Transaction::getHashAsString).collect(Collectors.toSet());
+        if (!txIds.equals(walletTransactionIds)) {
+            walletTransactionIds.clear();
+            walletTransactionIds.addAll(txIds);
+            walletTransactions.setAll(transactions);
+        }
+    }
+
+    // We get many wallet events in a row (e.g. a confidence change for each tx at a new block, each followed by
+    // onWalletChanged), so we reconcile the list and update the balances only once after the events got processed.
+    // Until then the balances are the ones from before the events. Both steps iterate over the wallet: reconciling
+    // over all txs and the available balances over the spend candidates for the coin selectors, as bitcoinj does not
+    // report changes of the spend candidates.
+    private void scheduleUpdate(boolean reconcileWalletTransactions) {
+        if (reconcileWalletTransactions)
+            reconcileWalletTransactionsScheduled = true;
+        if (updateScheduled)
+            return;
+
+        updateScheduled = true;
+        UserThread.execute(() -> {
+            updateScheduled = false;
+            if (reconcileWalletTransactionsScheduled) {
+                reconcileWalletTransactionsScheduled = false;
+                reconcileWalletTransactions();
+            }
+            if (daoStateService.isParseBlockChainComplete()) {
+                updateBsqBalance();
+            }
+        });
+    }
+
     private Set<Transaction> getBsqWalletTransactions() {
         return getTransactions(false).stream()
                 .filter(transaction -> transaction.getConfidence().getConfidenceType() == PENDING ||
@@ -431,7 +443,9 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     }
 
     public Optional<Transaction> isWalletTransaction(String txId) {
-        return getWalletTransactions().stream().filter(e -> e.getHashAsString().equals(txId)).findAny();
+        return walletTransactionIds.contains(txId) ?
+                Optional.ofNullable(wallet.getTransaction(Sha256Hash.wrap(txId))) :
+                Optional.empty();
     }
 
 
@@ -102,6 +102,7 @@ public abstract class WalletService {
     protected final CopyOnWriteArraySet<AddressConfidenceListener> addressConfidenceListeners = new CopyOnWriteArraySet<>();
     protected final CopyOnWriteArraySet<TxConfidenceListener> txConfidenceListeners = new CopyOnWriteArraySet<>();
     protected final CopyOnWriteArraySet<BalanceListener> balanceListeners = new CopyOnWriteArraySet<>();
+    private final AddressBalanceIndex addressBalanceIndex = new AddressBalanceIndex();
     protected Wallet wallet;
     protected KeyParameter aesKey;
     @Getter
@@ -416,8 +417,10 @@ public abstract class WalletService {
         return wallet != null ? wallet.getBalance(Wallet.BalanceType.ESTIMATED) : Coin.ZERO;
     }
 
+    // We look up the spend candidates of the address in the index instead of iterating over all spend candidates of
+    // the wallet, as that method is called for each address entry at balance updates.
     public Coin getBalanceForAddress(Address address) {
-        return wallet != null ? getBalance(wallet.calculateAllSpendCandidates(), address) : Coin.ZERO;
+        return wallet != null ? getBalance(addressBalanceIndex.getSpendCandidates(wallet, address), address) : Coin.ZERO;
     }
 
     protected Coin getBalance(List<TransactionOutput> transactionOutputs, Address address) {
@@ -681,21 +684,25 @@ public abstract class WalletService {
     public class BisqWalletListener extends AbstractWalletEventListener {
         @Override
         public void onCoinsReceived(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+            addressBalanceIndex.onTransaction(wallet, tx);
             notifyBalanceListeners(tx);
         }
 
         @Override
         public void onCoinsSent(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+            addressBalanceIndex.onTransaction(wallet, tx);
             notifyBalanceListeners(tx);
         }
 
         @Override
         public void onReorganize(Wallet wallet) {
             log.warn("onReorganize ");
+            addressBalanceIndex.invalidate();
         }
 
         @Override
         public void onTransactionConfidenceChanged(Wallet wallet, Transaction tx) {
+            addressBalanceIndex.onTransaction(wallet, tx);
             for (AddressConfidenceListener addressConfidenceListener : addressConfidenceListeners) {
                 List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
                 transactionConfidenceList.add(getTransactionConfidence(tx, addressConfidenceListener.getAddress()));
@@ -52,6 +52,7 @@ import bisq.core.dao.governance.proposal.reimbursement.ReimbursementConsensus;
 import bisq.core.dao.governance.proposal.reimbursement.ReimbursementProposalFactory;
 import bisq.core.dao.governance.proposal.removeAsset.RemoveAssetProposalFactory;
 import bisq.core.dao.governance.proposal.role.RoleProposalFactory;
+import bisq.core.dao.governance.voteresult.VoteResultService;
 import bisq.core.dao.state.DaoStateListener;
 import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.DaoStateStorageService;
@@ -65,6 +66,8 @@ import bisq.core.dao.state.model.governance.Ballot;
 import bisq.core.dao.state.model.governance.BondedRoleType;
 import bisq.core.dao.state.model.governance.Cycle;
 import bisq.core.dao.state.model.governance.DaoPhase;
+import bisq.core.dao.state.model.governance.DecryptedBallotsWithMerits;
+import bisq.core.dao.state.model.governance.EvaluatedProposal;
 import bisq.core.dao.state.model.governance.IssuanceType;
 import bisq.core.dao.state.model.governance.Proposal;
 import bisq.core.dao.state.model.governance.Role;
@@ -133,6 +136,7 @@ public class DaoFacade implements DaoSetupService {
     private final LockupTxService lockupTxService;
     private final UnlockTxService unlockTxService;
     private final DaoStateStorageService daoStateStorageService;
+    private final VoteResultService voteResultService;
 
     private final ObjectProperty<DaoPhase.Phase> phaseProperty = new SimpleObjectProperty<>(DaoPhase.Phase.UNDEFINED);
 
@@ -158,7 +162,8 @@ public class DaoFacade implements DaoSetupService {
                      MyBondedReputationRepository myBondedReputationRepository,
                      LockupTxService lockupTxService,
                      UnlockTxService unlockTxService,
-                     DaoStateStorageService daoStateStorageService) {
+                     DaoStateStorageService daoStateStorageService,
+                     VoteResultService voteResultService) {
         this.proposalListPresentation = proposalListPresentation;
         this.proposalService = proposalService;
         this.ballotListService = ballotListService;
@@ -181,6 +186,7 @@ public class DaoFacade implements DaoSetupService {
         this.lockupTxService = lockupTxService;
         this.unlockTxService = unlockTxService;
         this.daoStateStorageService = daoStateStorageService;
+        this.voteResultService = voteResultService;
     }
 
 
@@ -382,6 +388,26 @@ public class DaoFacade implements DaoSetupService {
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    //
+    // Phase: Result
+    //
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Use case: Present results
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public List<EvaluatedProposal> getEvaluatedProposals(Cycle cycle) {
+        return voteResultService.getEvaluatedProposals(cycle);
+    }
+
+    public List<DecryptedBallotsWithMerits> getDecryptedBallotsWithMerits(Cycle cycle) {
+        return voteResultService.getDecryptedBallotsWithMerits(cycle);
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     //
     // Generic
@@ -79,6 +79,7 @@ import bisq.core.dao.node.lite.LiteNode;
 import bisq.core.dao.node.lite.network.LiteNodeNetworkService;
 import bisq.core.dao.node.parser.BlockParser;
 import bisq.core.dao.node.parser.TxParser;
+import bisq.core.dao.state.DaoStateBlockStore;
 import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.DaoStateSnapshotService;
 import bisq.core.dao.state.DaoStateStorageService;
@@ -123,6 +124,7 @@ public class DaoModule extends AppModule {
         bind(DaoStateService.class).in(Singleton.class);
         bind(DaoStateSnapshotService.class).in(Singleton.class);
         bind(DaoStateStorageService.class).in(Singleton.class);
+        bind(DaoStateBlockStore.class).in(Singleton.class);
         bind(DaoStateMonitoringService.class).in(Singleton.class);
         bind(DaoStateNetworkService.class).in(Singleton.class);
         bind(ProposalStateMonitoringService.class).in(Singleton.class);
@@ -228,10 +230,14 @@ public class DaoModule extends AppModule {
         bindConstant().annotatedWith(named(DaoOptionKeys.RPC_PORT)).to(environment.getRequiredProperty(DaoOptionKeys.RPC_PORT));
         bindConstant().annotatedWith(named(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT))
                 .to(environment.getRequiredProperty(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT));
+        bindConstant().annotatedWith(named(DaoOptionKeys.RPC_BLOCK_PREFETCH_DEPTH))
+                .to(environment.getRequiredProperty(DaoOptionKeys.RPC_BLOCK_PREFETCH_DEPTH));
         bindConstant().annotatedWith(named(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA))
                 .to(environment.getRequiredProperty(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA));
         bindConstant().annotatedWith(named(DaoOptionKeys.FULL_DAO_NODE))
                 .to(environment.getRequiredProperty(DaoOptionKeys.FULL_DAO_NODE));
+        bindConstant().annotatedWith(named(DaoOptionKeys.LEGACY_DAO_STATE_HASH))
+                .to(environment.getRequiredProperty(DaoOptionKeys.LEGACY_DAO_STATE_HASH));
 
         bind(Boolean.class).annotatedWith(Names.named(DaoOptionKeys.DAO_ACTIVATED)).toInstance(BisqEnvironment.isDaoActivated(environment));
     }
@@ -25,6 +25,7 @@ public class DaoOptionKeys {
     public static final String RPC_PASSWORD = "rpcPassword";
     public static final String RPC_PORT = "rpcPort";
     public static final String RPC_BLOCK_NOTIFICATION_PORT = "rpcBlockNotificationPort";
+    public static final String RPC_BLOCK_PREFETCH_DEPTH = "rpcBlockPrefetchDepth";
 
     public static final String DUMP_BLOCKCHAIN_DATA = "dumpBlockchainData";
     public static final String FULL_DAO_NODE = "fullDaoNode";
@@ -32,4 +33,5 @@ public class DaoOptionKeys {
     public static final String GENESIS_BLOCK_HEIGHT = "genesisBlockHeight";
     public static final String GENESIS_TOTAL_SUPPLY = "genesisTotalSupply";
     public static final String DAO_ACTIVATED = "daoActivated";
+    public static final String LEGACY_DAO_STATE_HASH = "legacyDaoStateHash";
 }
@@ -19,8 +19,9 @@ package bisq.core.dao.governance.blindvote.storage;
 
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
-import bisq.network.p2p.storage.persistence.MapStoreService;
+import bisq.network.p2p.storage.persistence.AppendOnlyLogMapStoreService;
 
+import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.storage.Storage;
 
 import com.google.inject.name.Named;
@@ -35,7 +36,7 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public class BlindVoteStorageService extends MapStoreService<BlindVoteStore, PersistableNetworkPayload> {
+public class BlindVoteStorageService extends AppendOnlyLogMapStoreService<BlindVoteStore> {
     private static final String FILE_NAME = "BlindVoteStore";
 
     // At startup it is true, so the data we receive from the seed node are not checked against the phase as we have
@@ -50,8 +51,9 @@ public class BlindVoteStorageService extends MapStoreService<BlindVoteStore, Per
 
     @Inject
     public BlindVoteStorageService(@Named(Storage.STORAGE_DIR) File storageDir,
-                                   Storage<BlindVoteStore> persistableNetworkPayloadMapStorage) {
-        super(storageDir, persistableNetworkPayloadMapStorage);
+                                   Storage<BlindVoteStore> persistableNetworkPayloadMapStorage,
+                                   PersistenceProtoResolver persistenceProtoResolver) {
+        super(storageDir, persistableNetworkPayloadMapStorage, persistenceProtoResolver);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -208,11 +208,11 @@ public class ProposalService implements HashMapChangedListener, AppendOnlyDataSt
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void fillListFromProtectedStore() {
-        p2PService.getDataMap().values().forEach(e -> onProtectedDataAdded(e, false));
+        p2PService.getP2PDataStorage().getProtectedStorageEntries(TempProposalPayload.class).forEach(e -> onProtectedDataAdded(e, false));
     }
 
     private void fillListFromAppendOnlyDataStore() {
-        p2PService.getP2PDataStorage().getAppendOnlyDataStoreMap().values().forEach(e -> onAppendOnlyDataAdded(e, false));
+        p2PService.getP2PDataStorage().getPersistableNetworkPayloads(ProposalPayload.class).forEach(e -> onAppendOnlyDataAdded(e, false));
     }
 
     private void maybePublishToAppendOnlyDataStore() {
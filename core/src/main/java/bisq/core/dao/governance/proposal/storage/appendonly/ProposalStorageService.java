@@ -19,8 +19,9 @@ package bisq.core.dao.governance.proposal.storage.appendonly;
 
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
-import bisq.network.p2p.storage.persistence.MapStoreService;
+import bisq.network.p2p.storage.persistence.AppendOnlyLogMapStoreService;
 
+import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.storage.Storage;
 
 import com.google.inject.name.Named;
@@ -34,7 +35,7 @@ import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public class ProposalStorageService extends MapStoreService<ProposalStore, PersistableNetworkPayload> {
+public class ProposalStorageService extends AppendOnlyLogMapStoreService<ProposalStore> {
     private static final String FILE_NAME = "ProposalStore";
 
 
@@ -44,8 +45,9 @@ public class ProposalStorageService extends MapStoreService<ProposalStore, Persi
 
     @Inject
     public ProposalStorageService(@Named(Storage.STORAGE_DIR) File storageDir,
-                                  Storage<ProposalStore> persistableNetworkPayloadMapStorage) {
-        super(storageDir, persistableNetworkPayloadMapStorage);
+                                  Storage<ProposalStore> persistableNetworkPayloadMapStorage,
+                                  PersistenceProtoResolver persistenceProtoResolver) {
+        super(storageDir, persistableNetworkPayloadMapStorage, persistenceProtoResolver);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -0,0 +1,90 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.voteresult;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.governance.Cycle;
+import bisq.core.dao.state.model.governance.DaoPhase;
+import bisq.core.dao.state.model.governance.DecryptedBallotsWithMerits;
+import bisq.core.dao.state.model.governance.EvaluatedProposal;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import lombok.Value;
+
+/**
+ * Serves the vote results per cycle. The results of all cycles are persisted in the DaoState, so we create the result
+ * of a past cycle from there at the first request and keep it by the height of the first block of the cycle.
+ */
+class CycleResultCache {
+    private final DaoStateService daoStateService;
+    private final Map<Integer, CycleResult> cycleResultByStartHeight = new HashMap<>();
+
+    CycleResultCache(DaoStateService daoStateService) {
+        this.daoStateService = daoStateService;
+    }
+
+    List<EvaluatedProposal> getEvaluatedProposals(Cycle cycle) {
+        return getCycleResult(cycle).getEvaluatedProposals();
+    }
+
+    List<DecryptedBallotsWithMerits> getDecryptedBallotsWithMerits(Cycle cycle) {
+        return getCycleResult(cycle).getDecryptedBallotsWithMerits();
+    }
+
+    // Called after the result of the cycle got added to the DaoState
+    void onResultCalculated(Cycle cycle) {
+        cycleResultByStartHeight.put(cycle.getHeightOfFirstBlock(), createCycleResult(cycle));
+    }
+
+    // At a reorg we parse again from a snapshot so the results of past cycles might change
+    void clear() {
+        cycleResultByStartHeight.clear();
+    }
+
+    private CycleResult getCycleResult(Cycle cycle) {
+        // The result of the cycle is only final after the first block of the result phase was parsed
+        if (daoStateService.getChainHeight() < cycle.getFirstBlockOfPhase(DaoPhase.Phase.RESULT))
+            return createCycleResult(cycle);
+
+        return cycleResultByStartHeight.computeIfAbsent(cycle.getHeightOfFirstBlock(), height -> createCycleResult(cycle));
+    }
+
+    private CycleResult createCycleResult(Cycle cycle) {
+        List<EvaluatedProposal> evaluatedProposals = daoStateService.getEvaluatedProposalList().stream()
+                .filter(evaluatedProposal -> isTxInCycle(evaluatedProposal.getProposalTxId(), cycle))
+                .collect(Collectors.toList());
+        List<DecryptedBallotsWithMerits> decryptedBallotsWithMerits = daoStateService.getDecryptedBallotsWithMeritsList().stream()
+                .filter(decryptedBallotsWithMerits -> isTxInCycle(decryptedBallotsWithMerits.getVoteRevealTxId(), cycle))
+                .collect(Collectors.toList());
+        return new CycleResult(evaluatedProposals, decryptedBallotsWithMerits);
+    }
+
+    private boolean isTxInCycle(String txId, Cycle cycle) {
+        return daoStateService.getTx(txId).filter(tx -> cycle.isInCycle(tx.getBlockHeight())).isPresent();
+    }
+
+    @Value
+    private static class CycleResult {
+        private final List<EvaluatedProposal> evaluatedProposals;
+        private final List<DecryptedBallotsWithMerits> decryptedBallotsWithMerits;
+    }
+}
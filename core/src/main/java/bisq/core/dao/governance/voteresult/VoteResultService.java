@@ -36,6 +36,7 @@ import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.Tx;
 import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
 import bisq.core.dao.state.model.governance.Ballot;
 import bisq.core.dao.state.model.governance.BallotList;
 import bisq.core.dao.state.model.governance.ChangeParamProposal;
@@ -62,6 +63,9 @@ import bisq.common.util.Utilities;
 
 import javax.inject.Inject;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
@@ -77,7 +81,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -97,6 +100,13 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Due to eventual consistency we use the hash of the data view of the voters (majority by merit+stake). If our local
  * blindVote list contains the blindVotes used by the voters we can calculate the result, otherwise we need to request
  * the missing blindVotes from the network.
+ * <p/>
+ * The vote reveal tx outputs of the current cycle are collected while the blocks get parsed, so at the result phase
+ * we do not need to look them up from all past cycles. Each vote reveal gets evaluated (decrypted and its merit stake
+ * calculated) when its block is parsed. At the result phase we only evaluate the vote reveals again whose blind vote
+ * payload or ballots from the P2P network have changed since, as those might arrive late.
+ * <p/>
+ * The results of past cycles are persisted in the DaoState and are served per cycle from the CycleResultCache.
  */
 @Slf4j
 public class VoteResultService implements DaoStateListener, DaoSetupService {
@@ -112,6 +122,11 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
     @Getter
     private Set<DecryptedBallotsWithMerits> invalidDecryptedBallotsWithMeritItems = new HashSet<>();
 
+    private final VoteRevealTxOutputCollector voteRevealTxOutputCollector = new VoteRevealTxOutputCollector();
+    private final VoteRevealEvaluationCache voteRevealEvaluationCache = new VoteRevealEvaluationCache();
+    private final CycleResultCache cycleResultCache;
+    private int lastParsedHeight;
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -132,6 +147,8 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
         this.blindVoteListService = blindVoteListService;
         this.issuanceService = issuanceService;
         this.missingDataRequestService = missingDataRequestService;
+
+        cycleResultCache = new CycleResultCache(daoStateService);
     }
 
 
@@ -155,7 +172,34 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
 
     @Override
     public void onParseBlockComplete(Block block) {
-        maybeCalculateVoteResult(block.getHeight());
+        int height = block.getHeight();
+        if (height <= lastParsedHeight) {
+            voteRevealTxOutputCollector.reset();
+            voteRevealEvaluationCache.reset();
+            cycleResultCache.clear();
+        }
+        lastParsedHeight = height;
+
+        Cycle currentCycle = periodService.getCurrentCycle();
+        if (currentCycle != null) {
+            voteRevealTxOutputCollector.onParseBlockComplete(block, currentCycle);
+            evaluateVoteReveals(block, currentCycle, height);
+        }
+
+        maybeCalculateVoteResult(height);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public List<EvaluatedProposal> getEvaluatedProposals(Cycle cycle) {
+        return cycleResultCache.getEvaluatedProposals(cycle);
+    }
+
+    public List<DecryptedBallotsWithMerits> getDecryptedBallotsWithMerits(Cycle cycle) {
+        return cycleResultCache.getDecryptedBallotsWithMerits(cycle);
     }
 
 
@@ -163,6 +207,23 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private void evaluateVoteReveals(Block block, Cycle currentCycle, int chainHeight) {
+        List<TxOutput> voteRevealTxOutputs = block.getTxs().stream()
+                .flatMap(tx -> tx.getTxOutputs().stream())
+                .filter(txOutput -> txOutput.getTxOutputType() == TxOutputType.VOTE_REVEAL_OP_RETURN_OUTPUT)
+                .filter(txOutput -> periodService.isTxInCorrectCycle(txOutput.getTxId(), chainHeight))
+                .filter(txOutput -> periodService.isTxInPhase(txOutput.getTxId(), DaoPhase.Phase.VOTE_REVEAL))
+                .collect(Collectors.toList());
+        if (voteRevealTxOutputs.isEmpty())
+            return;
+
+        Map<String, BlindVote> blindVoteByTxId = getBlindVoteByTxId();
+        Supplier<Map<String, Ballot>> ballotByTxIdMapSupplier = getBallotByTxIdMapSupplier();
+        List<String> ballotTxIds = getBallotTxIds();
+        voteRevealTxOutputs.forEach(txOutput -> voteRevealEvaluationCache.put(currentCycle,
+                evaluateVoteReveal(txOutput, chainHeight, blindVoteByTxId, ballotByTxIdMapSupplier, ballotTxIds)));
+    }
+
     private void maybeCalculateVoteResult(int chainHeight) {
         if (isInVoteResultPhase(chainHeight)) {
             log.info("CalculateVoteResult at chainHeight={}", chainHeight);
@@ -170,7 +231,14 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
             checkNotNull(currentCycle, "currentCycle must not be null");
             long startTs = System.currentTimeMillis();
 
-            Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet = getDecryptedBallotsWithMeritsSet(chainHeight);
+            List<VoteRevealEvaluation> voteRevealEvaluations = getVoteRevealEvaluations(currentCycle, chainHeight);
+            Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet = voteRevealEvaluations.stream()
+                    .map(VoteRevealEvaluation::getDecryptedBallotsWithMerits)
+                    .collect(Collectors.toSet());
+            // The merit stake is the same for all ballots of a voter
+            Map<String, Long> meritStakeByBlindVoteTxId = voteRevealEvaluations.stream()
+                    .collect(Collectors.toMap(VoteRevealEvaluation::getBlindVoteTxId, VoteRevealEvaluation::getMeritStake,
+                            (a, b) -> a));
             if (!decryptedBallotsWithMeritsSet.isEmpty()) {
                 // From the decryptedBallotsWithMeritsSet we create a map with the hash of the blind vote list as key and the
                 // aggregated stake as value (no merit as that is part of the P2P network data and might lead to inconsistency).
@@ -214,10 +282,12 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
                         // it to our state. Otherwise we are not in consensus with the network.
                         daoStateService.addDecryptedBallotsWithMeritsSet(filteredDecryptedBallotsWithMeritsSet);
 
-                        Set<EvaluatedProposal> evaluatedProposals = getEvaluatedProposals(filteredDecryptedBallotsWithMeritsSet, chainHeight);
+                        Set<EvaluatedProposal> evaluatedProposals = getEvaluatedProposals(filteredDecryptedBallotsWithMeritsSet,
+                                meritStakeByBlindVoteTxId, chainHeight);
                         daoStateService.addEvaluatedProposalSet(evaluatedProposals);
                         Set<EvaluatedProposal> acceptedEvaluatedProposals = getAcceptedEvaluatedProposals(evaluatedProposals);
                         applyAcceptedProposals(acceptedEvaluatedProposals, chainHeight);
+                        cycleResultCache.onResultCalculated(currentCycle);
                         log.info("processAllVoteResults completed");
                     } else {
                         String msg = "We could not find a list which matches the majority so we cannot calculate the vote result. Please restart and resync the DAO state.";
@@ -237,14 +307,46 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
         }
     }
 
-    private Set<DecryptedBallotsWithMerits> getDecryptedBallotsWithMeritsSet(int chainHeight) {
-        // We want all voteRevealTxOutputs which are in current cycle we are processing.
-        return daoStateService.getVoteRevealOpReturnTxOutputs().stream()
+    // Returns the evaluations of the vote reveals which are considered for the result
+    private List<VoteRevealEvaluation> getVoteRevealEvaluations(Cycle currentCycle, int chainHeight) {
+        Map<String, BlindVote> blindVoteByTxId = getBlindVoteByTxId();
+        Supplier<Map<String, Ballot>> ballotByTxIdMapSupplier = getBallotByTxIdMapSupplier();
+        List<String> ballotTxIds = getBallotTxIds();
+
+        // We want all voteRevealTxOutputs which are in current cycle we are processing. If we have not collected
+        // them while parsing the vote reveal phase we look them up from all cycles.
+        Set<TxOutput> voteRevealTxOutputs = voteRevealTxOutputCollector.getTxOutputs(currentCycle)
+                .orElseGet(daoStateService::getVoteRevealOpReturnTxOutputs);
+        return voteRevealTxOutputs.stream()
                 .filter(txOutput -> periodService.isTxInCorrectCycle(txOutput.getTxId(), chainHeight))
                 .filter(this::isInVoteRevealPhase)
-                .map(txOutputToDecryptedBallotsWithMerits(chainHeight))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+                .map(txOutput -> voteRevealEvaluationCache.get(currentCycle, txOutput.getTxId())
+                        .filter(evaluation -> evaluation.isBasedOn(blindVoteByTxId, ballotTxIds))
+                        .orElseGet(() -> evaluateVoteReveal(txOutput, chainHeight, blindVoteByTxId,
+                                ballotByTxIdMapSupplier, ballotTxIds)))
+                .filter(evaluation -> evaluation.getDecryptedBallotsWithMerits() != null)
+                .collect(Collectors.toList());
+    }
+
+    // The blind votes and ballots are the same for all vote reveals so we look them up only once. We use the first
+    // blind vote with a given txId of the sorted list as the lookup per vote reveal did before.
+    private Map<String, BlindVote> getBlindVoteByTxId() {
+        return BlindVoteConsensus.getSortedBlindVoteListOfCycle(blindVoteListService).stream()
+                .collect(Collectors.toMap(BlindVote::getTxId, blindVote -> blindVote, (a, b) -> a));
+    }
+
+    // Duplicate ballots let the decryption of each vote reveal fail. A memoized supplier does not cache an
+    // exception, so we get that failure for each vote reveal like before.
+    private Supplier<Map<String, Ballot>> getBallotByTxIdMapSupplier() {
+        return Suppliers.memoize(() -> ballotListService.getValidBallotsOfCycle().stream()
+                .collect(Collectors.toMap(Ballot::getTxId, ballot -> ballot)));
+    }
+
+    private List<String> getBallotTxIds() {
+        return ballotListService.getValidBallotsOfCycle().stream()
+                .map(Ballot::getTxId)
+                .sorted()
+                .collect(Collectors.toList());
     }
 
     private boolean isInVoteRevealPhase(TxOutput txOutput) {
@@ -256,57 +358,67 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
         return txInPhase;
     }
 
-    @NotNull
-    private Function<TxOutput, DecryptedBallotsWithMerits> txOutputToDecryptedBallotsWithMerits(int chainHeight) {
-        return voteRevealTxOutput -> {
-            String voteRevealTxId = voteRevealTxOutput.getTxId();
-            Cycle currentCycle = periodService.getCurrentCycle();
-            checkNotNull(currentCycle, "currentCycle must not be null");
-            try {
-                byte[] voteRevealOpReturnData = voteRevealTxOutput.getOpReturnData();
-                Optional<Tx> optionalVoteRevealTx = daoStateService.getTx(voteRevealTxId);
-                checkArgument(optionalVoteRevealTx.isPresent(), "optionalVoteRevealTx must be present. voteRevealTxId=" + voteRevealTxId);
-                Tx voteRevealTx = optionalVoteRevealTx.get();
-
-                // Here we use only blockchain tx data so far so we don't have risks with missing P2P network data.
-                // We work back from the voteRealTx to the blindVoteTx to calculate the majority hash. From that we
-                // will derive the blind vote list we will use for result calculation and as it was based on
-                // blockchain data it will be consistent for all peers independent on their P2P network data state.
-                TxOutput blindVoteStakeOutput = VoteResultConsensus.getConnectedBlindVoteStakeOutput(voteRevealTx, daoStateService);
-                String blindVoteTxId = blindVoteStakeOutput.getTxId();
-
-                // If we get a blind vote tx which was published too late we ignore it.
-                if (!periodService.isTxInPhaseAndCycle(blindVoteTxId, DaoPhase.Phase.BLIND_VOTE, chainHeight)) {
-                    log.warn("We got a blind vote tx with was not in the correct phase and/or cycle. " +
-                                    "We ignore that vote reveal and blind vote tx. voteRevealTx={}, blindVoteTxId={}",
-                            voteRevealTx, blindVoteTxId);
-                    return null;
-                }
-
-                VoteResultConsensus.validateBlindVoteTx(blindVoteTxId, daoStateService, periodService, chainHeight);
+    private VoteRevealEvaluation evaluateVoteReveal(TxOutput voteRevealTxOutput, int chainHeight,
+                                                    Map<String, BlindVote> blindVoteByTxId,
+                                                    Supplier<Map<String, Ballot>> ballotByTxIdMapSupplier,
+                                                    List<String> ballotTxIds) {
+        String voteRevealTxId = voteRevealTxOutput.getTxId();
+        String blindVoteTxId = null;
+        BlindVote blindVote = null;
+        DecryptedBallotsWithMerits decryptedBallotsWithMerits = null;
+        long meritStake = 0;
+        Cycle currentCycle = periodService.getCurrentCycle();
+        checkNotNull(currentCycle, "currentCycle must not be null");
+        try {
+            byte[] voteRevealOpReturnData = voteRevealTxOutput.getOpReturnData();
+            Optional<Tx> optionalVoteRevealTx = daoStateService.getTx(voteRevealTxId);
+            checkArgument(optionalVoteRevealTx.isPresent(), "optionalVoteRevealTx must be present. voteRevealTxId=" + voteRevealTxId);
+            Tx voteRevealTx = optionalVoteRevealTx.get();
+
+            // Here we use only blockchain tx data so far so we don't have risks with missing P2P network data.
+            // We work back from the voteRealTx to the blindVoteTx to calculate the majority hash. From that we
+            // will derive the blind vote list we will use for result calculation and as it was based on
+            // blockchain data it will be consistent for all peers independent on their P2P network data state.
+            TxOutput blindVoteStakeOutput = VoteResultConsensus.getConnectedBlindVoteStakeOutput(voteRevealTx, daoStateService);
+            String connectedBlindVoteTxId = blindVoteStakeOutput.getTxId();
+
+            // If we get a blind vote tx which was published too late we ignore it.
+            if (!periodService.isTxInPhaseAndCycle(connectedBlindVoteTxId, DaoPhase.Phase.BLIND_VOTE, chainHeight)) {
+                log.warn("We got a blind vote tx with was not in the correct phase and/or cycle. " +
+                                "We ignore that vote reveal and blind vote tx. voteRevealTx={}, blindVoteTxId={}",
+                        voteRevealTx, connectedBlindVoteTxId);
+                return new VoteRevealEvaluation(voteRevealTxId, null, null, ballotTxIds, null, 0);
+            }
 
-                byte[] hashOfBlindVoteList = VoteResultConsensus.getHashOfBlindVoteList(voteRevealOpReturnData);
-                long blindVoteStake = blindVoteStakeOutput.getValue();
+            VoteResultConsensus.validateBlindVoteTx(connectedBlindVoteTxId, daoStateService, periodService, chainHeight);
 
-                List<BlindVote> blindVoteList = BlindVoteConsensus.getSortedBlindVoteListOfCycle(blindVoteListService);
-                Optional<BlindVote> optionalBlindVote = blindVoteList.stream()
-                        .filter(blindVote -> blindVote.getTxId().equals(blindVoteTxId))
-                        .findAny();
-                if (optionalBlindVote.isPresent()) {
-                    return getDecryptedBallotsWithMerits(voteRevealTxId, currentCycle, voteRevealOpReturnData,
-                            blindVoteTxId, hashOfBlindVoteList, blindVoteStake, optionalBlindVote.get());
-                }
+            byte[] hashOfBlindVoteList = VoteResultConsensus.getHashOfBlindVoteList(voteRevealOpReturnData);
+            long blindVoteStake = blindVoteStakeOutput.getValue();
 
+            // From here on the result depends on the P2P network data
+            blindVoteTxId = connectedBlindVoteTxId;
+            blindVote = blindVoteByTxId.get(blindVoteTxId);
+            if (blindVote != null) {
+                decryptedBallotsWithMerits = getDecryptedBallotsWithMerits(voteRevealTxId, currentCycle,
+                        voteRevealOpReturnData, blindVoteTxId, hashOfBlindVoteList, blindVoteStake, blindVote,
+                        ballotByTxIdMapSupplier);
+            } else {
                 // We are missing P2P network data
-                return getEmptyDecryptedBallotsWithMerits(voteRevealTxId, blindVoteTxId, hashOfBlindVoteList,
-                        blindVoteStake);
-            } catch (Throwable e) {
-                log.error("Could not create DecryptedBallotsWithMerits from voteRevealTxId {} because of " +
-                        "exception: {}", voteRevealTxId, e.toString());
-                voteResultExceptions.add(new VoteResultException(currentCycle, e));
-                return null;
+                decryptedBallotsWithMerits = getEmptyDecryptedBallotsWithMerits(voteRevealTxId, blindVoteTxId,
+                        hashOfBlindVoteList, blindVoteStake);
             }
-        };
+
+            if (decryptedBallotsWithMerits != null)
+                meritStake = MeritConsensus.getMeritStake(blindVoteTxId, decryptedBallotsWithMerits.getMeritList(),
+                        daoStateService);
+        } catch (Throwable e) {
+            log.error("Could not create DecryptedBallotsWithMerits from voteRevealTxId {} because of " +
+                    "exception: {}", voteRevealTxId, e.toString());
+            voteResultExceptions.add(new VoteResultException(currentCycle, e));
+            decryptedBallotsWithMerits = null;
+        }
+        return new VoteRevealEvaluation(voteRevealTxId, blindVoteTxId, blindVote, ballotTxIds,
+                decryptedBallotsWithMerits, meritStake);
     }
 
     @NotNull
@@ -333,7 +445,8 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
     @Nullable
     private DecryptedBallotsWithMerits getDecryptedBallotsWithMerits(
             String voteRevealTxId, Cycle currentCycle, byte[] voteRevealOpReturnData, String blindVoteTxId,
-            byte[] hashOfBlindVoteList, long blindVoteStake, BlindVote blindVote)
+            byte[] hashOfBlindVoteList, long blindVoteStake, BlindVote blindVote,
+            Supplier<Map<String, Ballot>> ballotByTxIdMapSupplier)
             throws VoteResultException.MissingBallotException {
         SecretKey secretKey = VoteResultConsensus.getSecretKey(voteRevealOpReturnData);
         try {
@@ -342,7 +455,7 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
             // We lookup for the proposals we have in our local list which match the txId from the
             // voteWithProposalTxIdList and create a ballot list with the proposal and the vote from
             // the voteWithProposalTxIdList
-            BallotList ballotList = createBallotList(voteWithProposalTxIdList);
+            BallotList ballotList = createBallotList(voteWithProposalTxIdList, ballotByTxIdMapSupplier);
             log.debug("Add entry to decryptedBallotsWithMeritsSet: blindVoteTxId={}, voteRevealTxId={}, blindVoteStake={}, ballotList={}",
                     blindVoteTxId, voteRevealTxId, blindVoteStake, ballotList);
             return new DecryptedBallotsWithMerits(hashOfBlindVoteList, blindVoteTxId, voteRevealTxId, blindVoteStake, ballotList, meritList);
@@ -356,7 +469,8 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
         }
     }
 
-    private BallotList createBallotList(VoteWithProposalTxIdList voteWithProposalTxIdList)
+    private BallotList createBallotList(VoteWithProposalTxIdList voteWithProposalTxIdList,
+                                        Supplier<Map<String, Ballot>> ballotByTxIdMapSupplier)
             throws VoteResultException.MissingBallotException {
         // voteWithProposalTxIdList is the list of ProposalTxId + vote from the blind vote (decrypted vote data)
 
@@ -367,8 +481,7 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
 
         // We make a map with proposalTxId as key and the ballot as value out of our stored ballot list.
         // This can contain ballots which have been added later and have a null value for the vote.
-        Map<String, Ballot> ballotByTxIdMap = ballotListService.getValidBallotsOfCycle().stream()
-                .collect(Collectors.toMap(Ballot::getTxId, ballot -> ballot));
+        Map<String, Ballot> ballotByTxIdMap = ballotByTxIdMapSupplier.get();
 
         // It could be that we missed some proposalPayloads.
         // If we have votes with proposals which are not found in our ballots we add it to missingBallots.
@@ -513,9 +626,12 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
         return Arrays.equals(majorityVoteListHash, hashOfBlindVoteList);
     }
 
-    private Set<EvaluatedProposal> getEvaluatedProposals(Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet, int chainHeight) {
+    private Set<EvaluatedProposal> getEvaluatedProposals(Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet,
+                                                         Map<String, Long> meritStakeByBlindVoteTxId,
+                                                         int chainHeight) {
         // We reorganize the data structure to have a map of proposals with a list of VoteWithStake objects
-        Map<Proposal, List<VoteWithStake>> resultListByProposalMap = getVoteWithStakeListByProposalMap(decryptedBallotsWithMeritsSet);
+        Map<Proposal, List<VoteWithStake>> resultListByProposalMap = getVoteWithStakeListByProposalMap(
+                decryptedBallotsWithMeritsSet, meritStakeByBlindVoteTxId);
 
         Set<EvaluatedProposal> evaluatedProposals = new HashSet<>();
         resultListByProposalMap.forEach((proposal, voteWithStakeList) -> {
@@ -601,19 +717,21 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
         return MathUtils.roundDoubleToLong(paramValueAsPercentDouble * 10000);
     }
 
-    private Map<Proposal, List<VoteWithStake>> getVoteWithStakeListByProposalMap(Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet) {
+    private Map<Proposal, List<VoteWithStake>> getVoteWithStakeListByProposalMap(Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet,
+                                                                               Map<String, Long> meritStakeByBlindVoteTxId) {
         Map<Proposal, List<VoteWithStake>> voteWithStakeByProposalMap = new HashMap<>();
-        decryptedBallotsWithMeritsSet.forEach(decryptedBallotsWithMerits -> decryptedBallotsWithMerits.getBallotList()
-                .forEach(ballot -> {
-                    Proposal proposal = ballot.getProposal();
-                    voteWithStakeByProposalMap.putIfAbsent(proposal, new ArrayList<>());
-                    List<VoteWithStake> voteWithStakeList = voteWithStakeByProposalMap.get(proposal);
-                    long sumOfAllMerits = MeritConsensus.getMeritStake(decryptedBallotsWithMerits.getBlindVoteTxId(),
-                            decryptedBallotsWithMerits.getMeritList(), daoStateService);
-                    VoteWithStake voteWithStake = new VoteWithStake(ballot.getVote(), decryptedBallotsWithMerits.getStake(), sumOfAllMerits);
-                    voteWithStakeList.add(voteWithStake);
-                    log.debug("Add entry to voteWithStakeListByProposalMap: proposalTxId={}, voteWithStake={} ", proposal.getTxId(), voteWithStake);
-                }));
+        decryptedBallotsWithMeritsSet.forEach(decryptedBallotsWithMerits -> {
+            // The merit stake got calculated when the vote reveal was evaluated
+            long sumOfAllMerits = meritStakeByBlindVoteTxId.get(decryptedBallotsWithMerits.getBlindVoteTxId());
+            decryptedBallotsWithMerits.getBallotList().forEach(ballot -> {
+                Proposal proposal = ballot.getProposal();
+                voteWithStakeByProposalMap.putIfAbsent(proposal, new ArrayList<>());
+                List<VoteWithStake> voteWithStakeList = voteWithStakeByProposalMap.get(proposal);
+                VoteWithStake voteWithStake = new VoteWithStake(ballot.getVote(), decryptedBallotsWithMerits.getStake(), sumOfAllMerits);
+                voteWithStakeList.add(voteWithStake);
+                log.debug("Add entry to voteWithStakeListByProposalMap: proposalTxId={}, voteWithStake={} ", proposal.getTxId(), voteWithStake);
+            });
+        });
         return voteWithStakeByProposalMap;
     }
 
@@ -0,0 +1,57 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.voteresult;
+
+import bisq.core.dao.governance.blindvote.BlindVote;
+import bisq.core.dao.state.model.governance.DecryptedBallotsWithMerits;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import lombok.Value;
+
+import javax.annotation.Nullable;
+
+/**
+ * Result of the evaluation of a single vote reveal tx together with the P2P network data it was based on.
+ */
+@Value
+class VoteRevealEvaluation {
+    private final String voteRevealTxId;
+    // Null if the evaluation failed before the blind vote tx was known. Such a failure only depends on blockchain data.
+    @Nullable
+    private final String blindVoteTxId;
+    // The blind vote payload we had, null if it was missing
+    @Nullable
+    private final BlindVote blindVote;
+    // Sorted txIds of the valid ballots of the cycle we had
+    private final List<String> ballotTxIds;
+    // Null if the vote reveal is not considered for the result
+    @Nullable
+    private final DecryptedBallotsWithMerits decryptedBallotsWithMerits;
+    private final long meritStake;
+
+    // The evaluation only needs to be repeated if the blind vote payload or the ballots have changed since
+    boolean isBasedOn(Map<String, BlindVote> blindVoteByTxId, List<String> ballotTxIds) {
+        if (blindVoteTxId == null)
+            return true;
+
+        return Objects.equals(blindVote, blindVoteByTxId.get(blindVoteTxId)) && this.ballotTxIds.equals(ballotTxIds);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.voteresult;
+
+import bisq.core.dao.state.model.governance.Cycle;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the evaluations of the vote reveal txs of the current cycle. The vote reveals get evaluated when their block
+ * is parsed, so at the result phase we only need to evaluate those whose P2P network data has changed since.
+ */
+class VoteRevealEvaluationCache {
+    private final Map<String, VoteRevealEvaluation> evaluationByVoteRevealTxId = new HashMap<>();
+    private int cycleStartHeight = -1;
+
+    void put(Cycle cycle, VoteRevealEvaluation evaluation) {
+        if (cycle.getHeightOfFirstBlock() != cycleStartHeight) {
+            cycleStartHeight = cycle.getHeightOfFirstBlock();
+            evaluationByVoteRevealTxId.clear();
+        }
+        evaluationByVoteRevealTxId.put(evaluation.getVoteRevealTxId(), evaluation);
+    }
+
+    Optional<VoteRevealEvaluation> get(Cycle cycle, String voteRevealTxId) {
+        if (cycle.getHeightOfFirstBlock() != cycleStartHeight)
+            return Optional.empty();
+
+        return Optional.ofNullable(evaluationByVoteRevealTxId.get(voteRevealTxId));
+    }
+
+    // At a reorg we parse the blocks again from a snapshot
+    void reset() {
+        cycleStartHeight = -1;
+        evaluationByVoteRevealTxId.clear();
+    }
+}
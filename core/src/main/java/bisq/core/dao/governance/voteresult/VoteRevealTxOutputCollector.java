@@ -0,0 +1,67 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.voteresult;
+
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+import bisq.core.dao.state.model.governance.Cycle;
+import bisq.core.dao.state.model.governance.DaoPhase;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Collects the vote reveal tx outputs of the current cycle while the blocks get parsed, so at the result phase we do
+ * not need to look them up from all past cycles. The collected outputs are only complete if we have seen all blocks of
+ * the vote reveal phase.
+ */
+class VoteRevealTxOutputCollector {
+    private final Set<TxOutput> txOutputs = new LinkedHashSet<>();
+    private int cycleStartHeight = -1;
+    private int firstCollectedHeight;
+
+    void onParseBlockComplete(Block block, Cycle currentCycle) {
+        int height = block.getHeight();
+        if (currentCycle.getHeightOfFirstBlock() != cycleStartHeight) {
+            cycleStartHeight = currentCycle.getHeightOfFirstBlock();
+            firstCollectedHeight = height;
+            txOutputs.clear();
+        }
+
+        block.getTxs().forEach(tx -> tx.getTxOutputs().stream()
+                .filter(txOutput -> txOutput.getTxOutputType() == TxOutputType.VOTE_REVEAL_OP_RETURN_OUTPUT)
+                .forEach(txOutputs::add));
+    }
+
+    // At a reorg we parse the blocks again from a snapshot
+    void reset() {
+        cycleStartHeight = -1;
+        txOutputs.clear();
+    }
+
+    // Empty if we have not seen all blocks of the vote reveal phase of that cycle (e.g. if we started from a snapshot)
+    Optional<Set<TxOutput>> getTxOutputs(Cycle cycle) {
+        if (cycle.getHeightOfFirstBlock() == cycleStartHeight &&
+                firstCollectedHeight <= cycle.getFirstBlockOfPhase(DaoPhase.Phase.VOTE_REVEAL))
+            return Optional.of(txOutputs);
+
+        return Optional.empty();
+    }
+}
@@ -46,6 +46,7 @@ import javax.inject.Inject;
 import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
@@ -53,6 +54,7 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -71,6 +73,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * to listen for broadcast messages from our peers about dao state of new blocks.
  *
  * We do NOT persist that chain of hashes as there is only one per cycle and the performance costs are very low.
+ *
+ * If a peer's hash conflicts with ours we search once per peer for the first conflicting hash of our hash chain (see
+ * StateHashDivergenceFinder) and log it.
  */
 @Slf4j
 public class BlindVoteStateMonitoringService implements DaoSetupService, DaoStateListener, BlindVoteStateNetworkService.Listener<NewBlindVoteStateHashMessage, GetBlindVoteStateHashesRequest, BlindVoteStateHash> {
@@ -95,6 +100,8 @@ public class BlindVoteStateMonitoringService implements DaoSetupService, DaoStat
     @Getter
     private boolean isInConflictWithSeedNode;
     private boolean parseBlockChainComplete;
+    // Peers we have searched the first conflicting hash with
+    private final Set<String> peersSearchedForFirstConflict = new HashSet<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -191,9 +198,9 @@ public class BlindVoteStateMonitoringService implements DaoSetupService, DaoStat
 
     @Override
     public void onGetStateHashRequest(Connection connection, GetBlindVoteStateHashesRequest getStateHashRequest) {
-        int fromHeight = getStateHashRequest.getHeight();
+        IntPredicate requestedHeightFilter = getStateHashRequest.getRequestedHeightFilter();
         List<BlindVoteStateHash> blindVoteStateHashes = blindVoteStateBlockChain.stream()
-                .filter(e -> e.getHeight() >= fromHeight)
+                .filter(e -> requestedHeightFilter.test(e.getHeight()))
                 .map(BlindVoteStateBlock::getMyStateHash)
                 .collect(Collectors.toList());
         blindVoteStateNetworkService.sendGetStateHashesResponse(connection, getStateHashRequest.getNonce(), blindVoteStateHashes);
@@ -219,8 +226,9 @@ public class BlindVoteStateMonitoringService implements DaoSetupService, DaoStat
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // We do not request the whole hash chain from genesis on but search for the first conflicting hash
     public void requestHashesFromGenesisBlockHeight(String peersAddress) {
-        blindVoteStateNetworkService.requestHashes(genesisTxInfo.getGenesisBlockHeight(), peersAddress);
+        blindVoteStateNetworkService.findFirstConflict(blindVoteStateHashChain, peersAddress);
     }
 
 
@@ -287,6 +295,7 @@ public class BlindVoteStateMonitoringService implements DaoSetupService, DaoStat
         AtomicBoolean changed = new AtomicBoolean(false);
         AtomicBoolean inConflictWithNonSeedNode = new AtomicBoolean(this.isInConflictWithNonSeedNode);
         AtomicBoolean inConflictWithSeedNode = new AtomicBoolean(this.isInConflictWithSeedNode);
+        AtomicBoolean searchFirstConflict = new AtomicBoolean(false);
         StringBuilder sb = new StringBuilder();
         blindVoteStateBlockChain.stream()
                 .filter(e -> e.getHeight() == blindVoteStateHash.getHeight()).findAny()
@@ -301,6 +310,8 @@ public class BlindVoteStateMonitoringService implements DaoSetupService, DaoStat
                         } else {
                             inConflictWithNonSeedNode.set(true);
                         }
+                        if (peersNodeAddress.isPresent() && peersSearchedForFirstConflict.add(peersNodeAddressAsString))
+                            searchFirstConflict.set(true);
 
                         sb.append("We received a block hash from peer ")
                                 .append(peersNodeAddressAsString)
@@ -324,6 +335,9 @@ public class BlindVoteStateMonitoringService implements DaoSetupService, DaoStat
                 log.info("Conflict with non-seed nodes: {}", conflictMsg);
         }
 
+        if (searchFirstConflict.get())
+            blindVoteStateNetworkService.findFirstConflict(blindVoteStateHashChain, peersNodeAddress.get().getFullAddress());
+
         if (notifyListeners && changed.get()) {
             listeners.forEach(Listener::onBlindVoteStateBlockChainChanged);
         }
@@ -17,6 +17,7 @@
 
 package bisq.core.dao.monitoring;
 
+import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.monitoring.model.DaoStateBlock;
 import bisq.core.dao.monitoring.model.DaoStateHash;
@@ -36,22 +37,28 @@ import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.seed.SeedNodeRepository;
 
 import bisq.common.UserThread;
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
 import bisq.common.crypto.Hash;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
 import org.apache.commons.lang3.ArrayUtils;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -73,6 +80,14 @@ import static com.google.common.base.Preconditions.checkArgument;
  * state to the peers to not get ignored it in case they have not received the block yet.
  *
  * We do persist that chain of hashes with the snapshot.
+ *
+ * Creating the legacy hash requires to serialize the whole DaoState at each block, which takes most of the time at
+ * a full resync. We add the incremental state hash (see IncrementalDaoStateHash) to each DaoStateHash and compare
+ * that if the peer supports it. The legacy hash can be disabled with the legacyDaoStateHash option once most peers
+ * support the incremental hash.
+ *
+ * If a peer's hash conflicts with ours we search once per peer for the first conflicting hash of our hash chain (see
+ * StateHashDivergenceFinder) and log it.
  */
 @Slf4j
 public class DaoStateMonitoringService implements DaoSetupService, DaoStateListener,
@@ -86,6 +101,7 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
     private final DaoStateNetworkService daoStateNetworkService;
     private final GenesisTxInfo genesisTxInfo;
     private final Set<String> seedNodeAddresses;
+    private final boolean legacyDaoStateHash;
 
 
     @Getter
@@ -100,6 +116,11 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
     private boolean isInConflictWithSeedNode;
     @Getter
     private ObservableList<UtxoMismatch> utxoMismatches = FXCollections.observableArrayList();
+    // Time spent for creating the hashes, used to compare the legacy and the incremental hash
+    private long legacyHashNanos;
+    private long incrementalHashNanos;
+    // Peers we have searched the first conflicting hash with
+    private final Set<String> peersSearchedForFirstConflict = new HashSet<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -110,10 +131,12 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
     public DaoStateMonitoringService(DaoStateService daoStateService,
                                      DaoStateNetworkService daoStateNetworkService,
                                      GenesisTxInfo genesisTxInfo,
-                                     SeedNodeRepository seedNodeRepository) {
+                                     SeedNodeRepository seedNodeRepository,
+                                     @Named(DaoOptionKeys.LEGACY_DAO_STATE_HASH) boolean legacyDaoStateHash) {
         this.daoStateService = daoStateService;
         this.daoStateNetworkService = daoStateNetworkService;
         this.genesisTxInfo = genesisTxInfo;
+        this.legacyDaoStateHash = legacyDaoStateHash;
         seedNodeAddresses = seedNodeRepository.getSeedNodeAddresses().stream()
                 .map(NodeAddress::getFullAddress)
                 .collect(Collectors.toSet());
@@ -145,6 +168,11 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
     @Override
     public void onParseBlockChainComplete() {
         parseBlockChainComplete = true;
+        log.info("Creating the DaoState hashes took {} ms for the legacy hash and {} ms for the incremental hash " +
+                        "({} ms thereof for updating it at state changes)",
+                TimeUnit.NANOSECONDS.toMillis(legacyHashNanos),
+                TimeUnit.NANOSECONDS.toMillis(incrementalHashNanos + daoStateService.getIncrementalStateHashUpdateNanos()),
+                TimeUnit.NANOSECONDS.toMillis(daoStateService.getIncrementalStateHashUpdateNanos()));
         daoStateNetworkService.addListeners();
 
         // We wait for processing messages until we have completed batch processing
@@ -180,10 +208,14 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
 
     @Override
     public void onGetStateHashRequest(Connection connection, GetDaoStateHashesRequest getStateHashRequest) {
-        int fromHeight = getStateHashRequest.getHeight();
+        IntPredicate requestedHeightFilter = getStateHashRequest.getRequestedHeightFilter();
+        // Peers which do not support the incremental hash cannot compare hashes without the legacy hash
+        boolean supportsIncrementalHash = connection.getCapabilities()
+                .containsAll(new Capabilities(Capability.DAO_STATE_HASH_V2));
         List<DaoStateHash> daoStateHashes = daoStateBlockChain.stream()
-                .filter(e -> e.getHeight() >= fromHeight)
+                .filter(e -> requestedHeightFilter.test(e.getHeight()))
                 .map(DaoStateBlock::getMyStateHash)
+                .filter(e -> supportsIncrementalHash || e.hasLegacyHash())
                 .collect(Collectors.toList());
         daoStateNetworkService.sendGetStateHashesResponse(connection, getStateHashRequest.getNonce(), daoStateHashes);
     }
@@ -213,8 +245,9 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
         updateHashChain(block);
     }
 
+    // We do not request the whole hash chain from genesis on but search for the first conflicting hash
     public void requestHashesFromGenesisBlockHeight(String peersAddress) {
-        daoStateNetworkService.requestHashes(genesisTxInfo.getGenesisBlockHeight(), peersAddress);
+        daoStateNetworkService.findFirstConflict(daoStateHashChain, peersAddress);
     }
 
     public void applySnapshot(LinkedList<DaoStateHash> persistedDaoStateHashChain) {
@@ -222,6 +255,7 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
         daoStateHashChain.clear();
         daoStateBlockChain.clear();
         daoStateNetworkService.reset();
+        peersSearchedForFirstConflict.clear();
 
         if (!persistedDaoStateHashChain.isEmpty()) {
             log.info("Apply snapshot with {} daoStateHashes. Last daoStateHash={}",
@@ -268,13 +302,26 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
                     height, daoStateBlockChain.getLast().getHeight());
             prevHash = daoStateBlockChain.getLast().getHash();
         }
-        byte[] stateHash = daoStateService.getSerializedStateForHashChain();
-        // We include the prev. hash in our new hash so we can be sure that if one hash is matching all the past would
-        // match as well.
-        byte[] combined = ArrayUtils.addAll(prevHash, stateHash);
-        byte[] hash = Hash.getSha256Ripemd160hash(combined);
 
-        DaoStateHash myDaoStateHash = new DaoStateHash(height, hash, prevHash);
+        long ts = System.nanoTime();
+        byte[] hash;
+        if (legacyDaoStateHash) {
+            byte[] stateHash = daoStateService.getSerializedStateForHashChain();
+            // We include the prev. hash in our new hash so we can be sure that if one hash is matching all the past
+            // would match as well.
+            byte[] combined = ArrayUtils.addAll(prevHash, stateHash);
+            hash = Hash.getSha256Ripemd160hash(combined);
+        } else {
+            prevHash = new byte[0];
+            hash = new byte[0];
+        }
+        legacyHashNanos += System.nanoTime() - ts;
+
+        ts = System.nanoTime();
+        byte[] incrementalHash = daoStateService.getIncrementalStateHash();
+        incrementalHashNanos += System.nanoTime() - ts;
+
+        DaoStateHash myDaoStateHash = new DaoStateHash(height, hash, prevHash, incrementalHash);
         DaoStateBlock daoStateBlock = new DaoStateBlock(myDaoStateHash);
         daoStateBlockChain.add(daoStateBlock);
         daoStateHashChain.add(myDaoStateHash);
@@ -295,12 +342,20 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
         AtomicBoolean changed = new AtomicBoolean(false);
         AtomicBoolean inConflictWithNonSeedNode = new AtomicBoolean(this.isInConflictWithNonSeedNode);
         AtomicBoolean inConflictWithSeedNode = new AtomicBoolean(this.isInConflictWithSeedNode);
+        AtomicBoolean searchFirstConflict = new AtomicBoolean(false);
         StringBuilder sb = new StringBuilder();
         daoStateBlockChain.stream()
                 .filter(e -> e.getHeight() == daoStateHash.getHeight()).findAny()
                 .ifPresent(daoStateBlock -> {
                     String peersNodeAddressAsString = peersNodeAddress.map(NodeAddress::getFullAddress)
                             .orElseGet(() -> "Unknown peer " + new Random().nextInt(10000));
+                    if (!daoStateBlock.getMyStateHash().isComparable(daoStateHash)) {
+                        // E.g. the peer has only the legacy hash and we run with the legacy hash disabled
+                        log.debug("We ignore the daoStateHash of peer {} as we have no hash type in common. " +
+                                "daoStateHash={}", peersNodeAddressAsString, daoStateHash);
+                        return;
+                    }
+
                     daoStateBlock.putInPeersMap(peersNodeAddressAsString, daoStateHash);
                     if (!daoStateBlock.getMyStateHash().hasEqualHash(daoStateHash)) {
                         daoStateBlock.putInConflictMap(peersNodeAddressAsString, daoStateHash);
@@ -309,6 +364,8 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
                         } else {
                             inConflictWithNonSeedNode.set(true);
                         }
+                        if (peersNodeAddress.isPresent() && peersSearchedForFirstConflict.add(peersNodeAddressAsString))
+                            searchFirstConflict.set(true);
                         sb.append("We received a block hash from peer ")
                                 .append(peersNodeAddressAsString)
                                 .append(" which conflicts with our block hash.\n")
@@ -331,6 +388,9 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
                 log.info("Conflict with non-seed nodes: {}", conflictMsg);
         }
 
+        if (searchFirstConflict.get())
+            daoStateNetworkService.findFirstConflict(daoStateHashChain, peersNodeAddress.get().getFullAddress());
+
 
         if (notifyListeners && changed.get()) {
             listeners.forEach(Listener::onChangeAfterBatchProcessing);
@@ -46,6 +46,7 @@ import javax.inject.Inject;
 import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
@@ -53,6 +54,7 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -71,6 +73,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * to listen for broadcast messages from our peers about dao state of new blocks.
  *
  * We do NOT persist that chain of hashes as there is only one per cycle and the performance costs are very low.
+ *
+ * If a peer's hash conflicts with ours we search once per peer for the first conflicting hash of our hash chain (see
+ * StateHashDivergenceFinder) and log it.
  */
 @Slf4j
 public class ProposalStateMonitoringService implements DaoSetupService, DaoStateListener, ProposalStateNetworkService.Listener<NewProposalStateHashMessage, GetProposalStateHashesRequest, ProposalStateHash> {
@@ -96,6 +101,8 @@ public class ProposalStateMonitoringService implements DaoSetupService, DaoState
     @Getter
     private boolean isInConflictWithSeedNode;
     private boolean parseBlockChainComplete;
+    // Peers we have searched the first conflicting hash with
+    private final Set<String> peersSearchedForFirstConflict = new HashSet<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -194,9 +201,9 @@ public class ProposalStateMonitoringService implements DaoSetupService, DaoState
 
     @Override
     public void onGetStateHashRequest(Connection connection, GetProposalStateHashesRequest getStateHashRequest) {
-        int fromHeight = getStateHashRequest.getHeight();
+        IntPredicate requestedHeightFilter = getStateHashRequest.getRequestedHeightFilter();
         List<ProposalStateHash> proposalStateHashes = proposalStateBlockChain.stream()
-                .filter(e -> e.getHeight() >= fromHeight)
+                .filter(e -> requestedHeightFilter.test(e.getHeight()))
                 .map(ProposalStateBlock::getMyStateHash)
                 .collect(Collectors.toList());
         proposalStateNetworkService.sendGetStateHashesResponse(connection, getStateHashRequest.getNonce(), proposalStateHashes);
@@ -222,8 +229,9 @@ public class ProposalStateMonitoringService implements DaoSetupService, DaoState
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // We do not request the whole hash chain from genesis on but search for the first conflicting hash
     public void requestHashesFromGenesisBlockHeight(String peersAddress) {
-        proposalStateNetworkService.requestHashes(genesisTxInfo.getGenesisBlockHeight(), peersAddress);
+        proposalStateNetworkService.findFirstConflict(proposalStateHashChain, peersAddress);
     }
 
 
@@ -292,6 +300,7 @@ public class ProposalStateMonitoringService implements DaoSetupService, DaoState
         AtomicBoolean changed = new AtomicBoolean(false);
         AtomicBoolean inConflictWithNonSeedNode = new AtomicBoolean(this.isInConflictWithNonSeedNode);
         AtomicBoolean inConflictWithSeedNode = new AtomicBoolean(this.isInConflictWithSeedNode);
+        AtomicBoolean searchFirstConflict = new AtomicBoolean(false);
         StringBuilder sb = new StringBuilder();
         proposalStateBlockChain.stream()
                 .filter(e -> e.getHeight() == proposalStateHash.getHeight()).findAny()
@@ -306,6 +315,8 @@ public class ProposalStateMonitoringService implements DaoSetupService, DaoState
                         } else {
                             inConflictWithNonSeedNode.set(true);
                         }
+                        if (peersNodeAddress.isPresent() && peersSearchedForFirstConflict.add(peersNodeAddressAsString))
+                            searchFirstConflict.set(true);
                         sb.append("We received a block hash from peer ")
                                 .append(peersNodeAddressAsString)
                                 .append(" which conflicts with our block hash.\n")
@@ -328,6 +339,9 @@ public class ProposalStateMonitoringService implements DaoSetupService, DaoState
                 log.info("Conflict with non-seed nodes: {}", conflictMsg);
         }
 
+        if (searchFirstConflict.get())
+            proposalStateNetworkService.findFirstConflict(proposalStateHashChain, peersNodeAddress.get().getFullAddress());
+
         if (notifyListeners && changed.get()) {
             listeners.forEach(Listener::onProposalStateBlockChainChanged);
         }
@@ -17,16 +17,34 @@
 
 package bisq.core.dao.monitoring.model;
 
+import bisq.common.util.Utilities;
+
 import io.bisq.generated.protobuffer.PB;
 
 import com.google.protobuf.ByteString;
 
+import java.util.Arrays;
+
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 
+/**
+ * Besides the legacy hash chain we carry the incremental state hash (see IncrementalDaoStateHash) if the peer created
+ * it. Nodes which run with the legacy hash disabled only have the incremental hash.
+ */
 @EqualsAndHashCode(callSuper = true)
+@Getter
 public final class DaoStateHash extends StateHash {
+    // Empty if not created (old clients)
+    private final byte[] incrementalHash;
+
     public DaoStateHash(int height, byte[] hash, byte[] prevHash) {
+        this(height, hash, prevHash, new byte[0]);
+    }
+
+    public DaoStateHash(int height, byte[] hash, byte[] prevHash, byte[] incrementalHash) {
         super(height, hash, prevHash);
+        this.incrementalHash = incrementalHash;
     }
 
 
@@ -39,12 +57,63 @@ public final class DaoStateHash extends StateHash {
         return PB.DaoStateHash.newBuilder()
                 .setHeight(height)
                 .setHash(ByteString.copyFrom(hash))
-                .setPrevHash(ByteString.copyFrom(prevHash)).build();
+                .setPrevHash(ByteString.copyFrom(prevHash))
+                .setIncrementalHash(ByteString.copyFrom(incrementalHash)).build();
     }
 
     public static DaoStateHash fromProto(PB.DaoStateHash proto) {
         return new DaoStateHash(proto.getHeight(),
                 proto.getHash().toByteArray(),
-                proto.getPrevHash().toByteArray());
+                proto.getPrevHash().toByteArray(),
+                proto.getIncrementalHash().toByteArray());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public boolean hasLegacyHash() {
+        return hash.length > 0;
+    }
+
+    public boolean hasIncrementalHash() {
+        return incrementalHash.length > 0;
+    }
+
+    // A peer which has only the legacy hash and a node which has only the incremental hash (or the other way round)
+    // have no hash in common, so we cannot tell if their states match.
+    @Override
+    public boolean isComparable(StateHash other) {
+        if (!(other instanceof DaoStateHash))
+            return hasLegacyHash();
+
+        DaoStateHash otherDaoStateHash = (DaoStateHash) other;
+        return (hasIncrementalHash() && otherDaoStateHash.hasIncrementalHash()) ||
+                (hasLegacyHash() && otherDaoStateHash.hasLegacyHash());
+    }
+
+    // We compare the incremental hashes if both have one, otherwise the legacy hashes. Hashes which are not
+    // comparable are never equal.
+    @Override
+    public boolean hasEqualHash(StateHash other) {
+        if (!isComparable(other))
+            return false;
+
+        if (!(other instanceof DaoStateHash))
+            return super.hasEqualHash(other);
+
+        DaoStateHash otherDaoStateHash = (DaoStateHash) other;
+        if (hasIncrementalHash() && otherDaoStateHash.hasIncrementalHash())
+            return Arrays.equals(incrementalHash, otherDaoStateHash.getIncrementalHash());
+        else
+            return super.hasEqualHash(other);
+    }
+
+    @Override
+    public String toString() {
+        return "DaoStateHash{" +
+                "\n     incrementalHash=" + Utilities.bytesAsHexString(incrementalHash) +
+                "\n} " + super.toString();
     }
 }
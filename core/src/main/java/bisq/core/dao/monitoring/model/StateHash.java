@@ -53,6 +53,11 @@ public abstract class StateHash implements PersistablePayload, NetworkPayload {
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Hashes which are not comparable must not be counted as conflict or as agreement
+    public boolean isComparable(StateHash other) {
+        return true;
+    }
+
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
     public boolean hasEqualHash(StateHash other) {
         return Arrays.equals(hash, other.getHash());
@@ -26,6 +26,8 @@ import bisq.network.p2p.peers.PeerManager;
 
 import bisq.common.proto.network.NetworkEnvelope;
 
+import java.util.List;
+
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -38,8 +40,8 @@ public class RequestBlindVoteStateHashesHandler extends RequestStateHashesHandle
     }
 
     @Override
-    protected GetBlindVoteStateHashesRequest getGetStateHashesRequest(int fromHeight) {
-        return new GetBlindVoteStateHashesRequest(fromHeight, nonce);
+    protected GetBlindVoteStateHashesRequest getGetStateHashesRequest(int fromHeight, List<Integer> heights) {
+        return new GetBlindVoteStateHashesRequest(fromHeight, heights, nonce);
     }
 
     @Override
@@ -26,6 +26,8 @@ import bisq.network.p2p.peers.PeerManager;
 
 import bisq.common.proto.network.NetworkEnvelope;
 
+import java.util.List;
+
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -38,8 +40,8 @@ public class RequestDaoStateHashesHandler extends RequestStateHashesHandler<GetD
     }
 
     @Override
-    protected GetDaoStateHashesRequest getGetStateHashesRequest(int fromHeight) {
-        return new GetDaoStateHashesRequest(fromHeight, nonce);
+    protected GetDaoStateHashesRequest getGetStateHashesRequest(int fromHeight, List<Integer> heights) {
+        return new GetDaoStateHashesRequest(fromHeight, heights, nonce);
     }
 
     @Override
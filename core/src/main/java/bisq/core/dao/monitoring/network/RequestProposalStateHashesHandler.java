@@ -26,6 +26,8 @@ import bisq.network.p2p.peers.PeerManager;
 
 import bisq.common.proto.network.NetworkEnvelope;
 
+import java.util.List;
+
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -38,8 +40,8 @@ public class RequestProposalStateHashesHandler extends RequestStateHashesHandler
     }
 
     @Override
-    protected GetProposalStateHashesRequest getGetStateHashesRequest(int fromHeight) {
-        return new GetProposalStateHashesRequest(fromHeight, nonce);
+    protected GetProposalStateHashesRequest getGetStateHashesRequest(int fromHeight, List<Integer> heights) {
+        return new GetProposalStateHashesRequest(fromHeight, heights, nonce);
     }
 
     @Override
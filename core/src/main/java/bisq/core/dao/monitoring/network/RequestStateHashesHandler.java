@@ -35,6 +35,7 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.SettableFuture;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 
@@ -92,7 +93,7 @@ abstract class RequestStateHashesHandler<Req extends GetStateHashesRequest, Res
     // Abstract
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    protected abstract Req getGetStateHashesRequest(int fromHeight);
+    protected abstract Req getGetStateHashesRequest(int fromHeight, List<Integer> heights);
 
     protected abstract Res castToGetStateHashesResponse(NetworkEnvelope networkEnvelope);
 
@@ -103,9 +104,10 @@ abstract class RequestStateHashesHandler<Req extends GetStateHashesRequest, Res
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public void requestStateHashes(int fromHeight) {
+    // If heights is not empty we request only the hashes at those heights
+    public void requestStateHashes(int fromHeight, List<Integer> heights) {
         if (!stopped) {
-            Req getStateHashesRequest = getGetStateHashesRequest(fromHeight);
+            Req getStateHashesRequest = getGetStateHashesRequest(fromHeight, heights);
             if (timeoutTimer == null) {
                 timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
                             if (!stopped) {
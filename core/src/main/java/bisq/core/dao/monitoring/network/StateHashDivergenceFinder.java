@@ -0,0 +1,135 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.monitoring.network;
+
+import bisq.core.dao.monitoring.model.StateHash;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Finds the first of our state hashes which conflicts with the state hashes of a peer without requesting the whole
+ * hash chain. We request the peers hashes at a few checkpoint heights of our hash chain and narrow the searched range
+ * to the range between the last matching and the first conflicting checkpoint. Each hash covers the history up to its
+ * height: the legacy hashes include the previous hash and the incremental DAO state hash includes all blocks. So a
+ * matching hash means that all hashes before match as well and we need O(log n) requests for a hash chain of n hashes.
+ * <p/>
+ * Peers which do not support requesting hashes at particular heights respond with all hashes from the lowest
+ * requested height on, which we handle as well.
+ */
+@Slf4j
+class StateHashDivergenceFinder<StH extends StateHash> {
+    static final int NUM_CHECKPOINTS = 16;
+
+    private final List<StH> myStateHashes;
+    private final Map<Integer, Integer> indexByHeight = new HashMap<>();
+    // Hashes up to lowIndex are known to match (-1 if none), the first conflict is at or below highIndex
+    private int lowIndex = -1;
+    private int highIndex;
+    @Getter
+    private boolean complete;
+    private boolean conflictFound;
+    @Getter
+    private int numResponses;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    StateHashDivergenceFinder(List<StH> myStateHashes) {
+        this.myStateHashes = new ArrayList<>(myStateHashes);
+        this.myStateHashes.sort(Comparator.comparing(StateHash::getHeight));
+        for (int i = 0; i < this.myStateHashes.size(); i++)
+            indexByHeight.put(this.myStateHashes.get(i).getHeight(), i);
+
+        highIndex = this.myStateHashes.size() - 1;
+        complete = this.myStateHashes.isEmpty();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    List<Integer> getCheckpointHeights() {
+        List<Integer> heights = new ArrayList<>();
+        int range = highIndex - lowIndex;
+        if (range <= NUM_CHECKPOINTS) {
+            for (int index = lowIndex + 1; index <= highIndex; index++)
+                heights.add(myStateHashes.get(index).getHeight());
+        } else {
+            for (int i = 1; i <= NUM_CHECKPOINTS; i++)
+                heights.add(myStateHashes.get(lowIndex + (int) ((long) range * i / NUM_CHECKPOINTS)).getHeight());
+        }
+        return heights;
+    }
+
+    void onPeersStateHashes(List<StH> peersStateHashes) {
+        numResponses++;
+        List<StH> sorted = new ArrayList<>(peersStateHashes);
+        sorted.sort(Comparator.comparing(StateHash::getHeight));
+
+        int lastMatchingIndex = lowIndex;
+        int conflictIndex = -1;
+        for (StH peersStateHash : sorted) {
+            Integer index = indexByHeight.get(peersStateHash.getHeight());
+            if (index == null || index <= lowIndex || index > highIndex)
+                continue;
+
+            if (!myStateHashes.get(index).isComparable(peersStateHash))
+                continue;
+
+            if (myStateHashes.get(index).hasEqualHash(peersStateHash)) {
+                lastMatchingIndex = index;
+            } else {
+                conflictIndex = index;
+                break;
+            }
+        }
+
+        if (conflictIndex == -1) {
+            // If the peer has not all hashes up to highIndex (e.g. it has not parsed the latest blocks yet) we continue
+            // above the last matching hash as long as we get new hashes.
+            if (lastMatchingIndex == highIndex || lastMatchingIndex == lowIndex)
+                complete = true;
+            lowIndex = lastMatchingIndex;
+            return;
+        }
+
+        conflictFound = true;
+        lowIndex = lastMatchingIndex;
+        highIndex = conflictIndex;
+        if (highIndex - lowIndex <= 1)
+            complete = true;
+    }
+
+    // The height of our first hash which conflicts with the peers hash once complete
+    Optional<Integer> getFirstConflictHeight() {
+        return complete && conflictFound ?
+                Optional.of(myStateHashes.get(highIndex).getHeight()) :
+                Optional.empty();
+    }
+}
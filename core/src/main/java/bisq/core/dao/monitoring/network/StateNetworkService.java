@@ -33,11 +33,13 @@ import bisq.common.proto.network.NetworkEnvelope;
 
 import javax.inject.Inject;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -120,10 +122,18 @@ public abstract class StateNetworkService<Msg extends NewStateHashMessage,
             listeners.forEach(e -> e.onNewStateHashMessage(newStateHashMessage, connection));
         } else if (isGetStateHashesRequest(networkEnvelope)) {
             Req getStateHashRequest = castToGetStateHashRequest(networkEnvelope);
-            log.debug("We received a {} from peer {} for height={} ",
+            log.debug("We received a {} from peer {} for height={} and {} heights",
                     getStateHashRequest.getClass().getSimpleName(),
                     connection.getPeersNodeAddressOptional(),
-                    getStateHashRequest.getHeight());
+                    getStateHashRequest.getHeight(),
+                    getStateHashRequest.getHeights().size());
+            if (getStateHashRequest.getHeights().size() > GetStateHashesRequest.MAX_NUM_HEIGHTS) {
+                log.warn("We received a {} with {} heights from peer {}. We ignore that request.",
+                        getStateHashRequest.getClass().getSimpleName(),
+                        getStateHashRequest.getHeights().size(),
+                        connection.getPeersNodeAddressOptional());
+                return;
+            }
             listeners.forEach(e -> e.onGetStateHashRequest(connection, getStateHashRequest));
         }
     }
@@ -163,6 +173,13 @@ public abstract class StateNetworkService<Msg extends NewStateHashMessage,
         requestHashesFromSeedNode(fromHeight, new NodeAddress(peersAddress));
     }
 
+    // Instead of requesting all hashes from the peer we search for the first conflicting hash with requesting only the
+    // hashes at a few checkpoint heights per request (see StateHashDivergenceFinder). The received hashes are
+    // delivered to the listeners like the responses of other requests.
+    public void findFirstConflict(List<StH> myStateHashes, String peersAddress) {
+        requestCheckpoints(new StateHashDivergenceFinder<>(myStateHashes), new NodeAddress(peersAddress));
+    }
+
     public void reset() {
         requestStateHashHandlerMap.clear();
     }
@@ -181,13 +198,37 @@ public abstract class StateNetworkService<Msg extends NewStateHashMessage,
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private void requestCheckpoints(StateHashDivergenceFinder<StH> finder, NodeAddress nodeAddress) {
+        if (finder.isComplete()) {
+            log.info("Searching the first conflicting state hash with peer {} took {} requests. First conflict: {}",
+                    nodeAddress, finder.getNumResponses(),
+                    finder.getFirstConflictHeight().map(height -> "at height " + height).orElse("none"));
+            return;
+        }
+
+        List<Integer> heights = finder.getCheckpointHeights();
+        requestHashesFromSeedNode(heights.get(0), heights, nodeAddress, stateHashes -> {
+            finder.onPeersStateHashes(stateHashes);
+            requestCheckpoints(finder, nodeAddress);
+        });
+    }
+
     private void requestHashesFromSeedNode(int fromHeight, NodeAddress nodeAddress) {
+        requestHashesFromSeedNode(fromHeight, new ArrayList<>(), nodeAddress, null);
+    }
+
+    private void requestHashesFromSeedNode(int fromHeight,
+                                           List<Integer> heights,
+                                           NodeAddress nodeAddress,
+                                           @Nullable Consumer<List<StH>> resultHandler) {
         RequestStateHashesHandler.Listener<Res> listener = new RequestStateHashesHandler.Listener<>() {
             @Override
             public void onComplete(Res getStateHashesResponse, Optional<NodeAddress> peersNodeAddress) {
                 requestStateHashHandlerMap.remove(nodeAddress);
                 List<StH> stateHashes = getStateHashesResponse.getStateHashes();
                 listeners.forEach(e -> e.onPeersStateHashes(stateHashes, peersNodeAddress));
+                if (resultHandler != null)
+                    resultHandler.accept(stateHashes);
             }
 
             @Override
@@ -199,6 +240,6 @@ public abstract class StateNetworkService<Msg extends NewStateHashMessage,
         };
         Han requestStateHashesHandler = getRequestStateHashesHandler(nodeAddress, listener);
         requestStateHashHandlerMap.put(nodeAddress, requestStateHashesHandler);
-        requestStateHashesHandler.requestStateHashes(fromHeight);
+        requestStateHashesHandler.requestStateHashes(fromHeight, heights);
     }
 }
@@ -22,14 +22,17 @@ import bisq.common.proto.network.NetworkEnvelope;
 
 import io.bisq.generated.protobuffer.PB;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 @EqualsAndHashCode(callSuper = true)
 @Getter
 public final class GetBlindVoteStateHashesRequest extends GetStateHashesRequest {
-    public GetBlindVoteStateHashesRequest(int fromCycleStartHeight, int nonce) {
-        super(fromCycleStartHeight, nonce, Version.getP2PMessageVersion());
+    public GetBlindVoteStateHashesRequest(int fromCycleStartHeight, List<Integer> heights, int nonce) {
+        super(fromCycleStartHeight, heights, nonce, Version.getP2PMessageVersion());
     }
 
 
@@ -37,8 +40,8 @@ public final class GetBlindVoteStateHashesRequest extends GetStateHashesRequest
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private GetBlindVoteStateHashesRequest(int height, int nonce, int messageVersion) {
-        super(height, nonce, messageVersion);
+    private GetBlindVoteStateHashesRequest(int height, List<Integer> heights, int nonce, int messageVersion) {
+        super(height, heights, nonce, messageVersion);
     }
 
     @Override
@@ -46,11 +49,15 @@ public final class GetBlindVoteStateHashesRequest extends GetStateHashesRequest
         return getNetworkEnvelopeBuilder()
                 .setGetBlindVoteStateHashesRequest(PB.GetBlindVoteStateHashesRequest.newBuilder()
                         .setHeight(height)
+                        .addAllHeights(heights)
                         .setNonce(nonce))
                 .build();
     }
 
     public static NetworkEnvelope fromProto(PB.GetBlindVoteStateHashesRequest proto, int messageVersion) {
-        return new GetBlindVoteStateHashesRequest(proto.getHeight(), proto.getNonce(), messageVersion);
+        return new GetBlindVoteStateHashesRequest(proto.getHeight(),
+                new ArrayList<>(proto.getHeightsList()),
+                proto.getNonce(),
+                messageVersion);
     }
 }
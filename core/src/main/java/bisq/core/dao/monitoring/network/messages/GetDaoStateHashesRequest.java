@@ -22,14 +22,17 @@ import bisq.common.proto.network.NetworkEnvelope;
 
 import io.bisq.generated.protobuffer.PB;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 @EqualsAndHashCode(callSuper = true)
 @Getter
 public final class GetDaoStateHashesRequest extends GetStateHashesRequest {
-    public GetDaoStateHashesRequest(int height, int nonce) {
-        super(height, nonce, Version.getP2PMessageVersion());
+    public GetDaoStateHashesRequest(int height, List<Integer> heights, int nonce) {
+        super(height, heights, nonce, Version.getP2PMessageVersion());
     }
 
 
@@ -37,8 +40,8 @@ public final class GetDaoStateHashesRequest extends GetStateHashesRequest {
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private GetDaoStateHashesRequest(int height, int nonce, int messageVersion) {
-        super(height, nonce, messageVersion);
+    private GetDaoStateHashesRequest(int height, List<Integer> heights, int nonce, int messageVersion) {
+        super(height, heights, nonce, messageVersion);
     }
 
     @Override
@@ -46,11 +49,15 @@ public final class GetDaoStateHashesRequest extends GetStateHashesRequest {
         return getNetworkEnvelopeBuilder()
                 .setGetDaoStateHashesRequest(PB.GetDaoStateHashesRequest.newBuilder()
                         .setHeight(height)
+                        .addAllHeights(heights)
                         .setNonce(nonce))
                 .build();
     }
 
     public static NetworkEnvelope fromProto(PB.GetDaoStateHashesRequest proto, int messageVersion) {
-        return new GetDaoStateHashesRequest(proto.getHeight(), proto.getNonce(), messageVersion);
+        return new GetDaoStateHashesRequest(proto.getHeight(),
+                new ArrayList<>(proto.getHeightsList()),
+                proto.getNonce(),
+                messageVersion);
     }
 }
@@ -22,14 +22,17 @@ import bisq.common.proto.network.NetworkEnvelope;
 
 import io.bisq.generated.protobuffer.PB;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 @EqualsAndHashCode(callSuper = true)
 @Getter
 public final class GetProposalStateHashesRequest extends GetStateHashesRequest {
-    public GetProposalStateHashesRequest(int fromCycleStartHeight, int nonce) {
-        super(fromCycleStartHeight, nonce, Version.getP2PMessageVersion());
+    public GetProposalStateHashesRequest(int fromCycleStartHeight, List<Integer> heights, int nonce) {
+        super(fromCycleStartHeight, heights, nonce, Version.getP2PMessageVersion());
     }
 
 
@@ -37,8 +40,8 @@ public final class GetProposalStateHashesRequest extends GetStateHashesRequest {
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private GetProposalStateHashesRequest(int height, int nonce, int messageVersion) {
-        super(height, nonce, messageVersion);
+    private GetProposalStateHashesRequest(int height, List<Integer> heights, int nonce, int messageVersion) {
+        super(height, heights, nonce, messageVersion);
     }
 
     @Override
@@ -46,11 +49,15 @@ public final class GetProposalStateHashesRequest extends GetStateHashesRequest {
         return getNetworkEnvelopeBuilder()
                 .setGetProposalStateHashesRequest(PB.GetProposalStateHashesRequest.newBuilder()
                         .setHeight(height)
+                        .addAllHeights(heights)
                         .setNonce(nonce))
                 .build();
     }
 
     public static NetworkEnvelope fromProto(PB.GetProposalStateHashesRequest proto, int messageVersion) {
-        return new GetProposalStateHashesRequest(proto.getHeight(), proto.getNonce(), messageVersion);
+        return new GetProposalStateHashesRequest(proto.getHeight(),
+                new ArrayList<>(proto.getHeightsList()),
+                proto.getNonce(),
+                messageVersion);
     }
 }
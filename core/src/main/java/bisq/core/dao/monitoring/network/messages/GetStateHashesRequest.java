@@ -24,21 +24,41 @@ import bisq.common.app.Capabilities;
 import bisq.common.app.Capability;
 import bisq.common.proto.network.NetworkEnvelope;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 @EqualsAndHashCode(callSuper = true)
 @Getter
 public abstract class GetStateHashesRequest extends NetworkEnvelope implements DirectMessage, CapabilityRequiringPayload {
+    // We do not respond to requests with more heights
+    public static final int MAX_NUM_HEIGHTS = 1000;
+
     protected final int height;
     protected final int nonce;
+    // If not empty only the hashes at those heights are requested, otherwise all hashes from height on. Old peers
+    // ignore the heights, so height is set to the lowest requested height.
+    protected final List<Integer> heights;
 
-    protected GetStateHashesRequest(int height, int nonce, int messageVersion) {
+    protected GetStateHashesRequest(int height, List<Integer> heights, int nonce, int messageVersion) {
         super(messageVersion);
         this.height = height;
+        this.heights = heights;
         this.nonce = nonce;
     }
 
+    public IntPredicate getRequestedHeightFilter() {
+        if (heights.isEmpty())
+            return height -> height >= this.height;
+
+        Set<Integer> heightSet = new HashSet<>(heights);
+        return heightSet::contains;
+    }
+
     @Override
     public Capabilities getRequiredCapabilities() {
         return new Capabilities(Capability.DAO_STATE);
@@ -48,6 +68,7 @@ public abstract class GetStateHashesRequest extends NetworkEnvelope implements D
     public String toString() {
         return "GetStateHashesRequest{" +
                 ",\n     height=" + height +
+                ",\n     heights=" + heights +
                 ",\n     nonce=" + nonce +
                 "\n} " + super.toString();
     }
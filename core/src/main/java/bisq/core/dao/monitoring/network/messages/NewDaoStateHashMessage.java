@@ -59,6 +59,10 @@ public final class NewDaoStateHashMessage extends NewStateHashMessage<DaoStateHa
 
     @Override
     public Capabilities getRequiredCapabilities() {
-        return new Capabilities(Capability.DAO_STATE);
+        // Without the legacy hash only peers supporting the incremental hash can compare it
+        if (stateHash.hasLegacyHash())
+            return new Capabilities(Capability.DAO_STATE);
+        else
+            return new Capabilities(Capability.DAO_STATE, Capability.DAO_STATE_HASH_V2);
     }
 }
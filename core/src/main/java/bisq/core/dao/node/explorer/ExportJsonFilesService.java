@@ -20,13 +20,15 @@ package bisq.core.dao.node.explorer;
 import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.state.DaoStateService;
-import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.PubKeyScript;
 import bisq.core.dao.state.model.blockchain.Tx;
 import bisq.core.dao.state.model.blockchain.TxOutput;
 import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
 
+import bisq.common.UserThread;
 import bisq.common.storage.FileUtil;
 import bisq.common.storage.JsonFileManager;
 import bisq.common.storage.Storage;
@@ -42,6 +44,7 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import java.nio.file.Paths;
 
@@ -49,24 +52,73 @@ import java.io.File;
 import java.io.IOException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
+/**
+ * Exports the BSQ blocks, txs and tx outputs as json files for the block explorer.
+ * <p/>
+ * All blocks are written to json/all/blocks.json as before. In addition the blocks are written in files of
+ * BLOCKS_PER_FILE blocks (json/blocks/blocks_[startHeight]), so consumers can read only the blocks which changed.
+ * <p/>
+ * After the first export we only collect the txs which changed with the new blocks: the txs of the new blocks, the txs
+ * whose outputs got spent by them and the txs of new issuances. Only the files of those txs, their outputs and the
+ * blocks files containing them get written. We keep the json blocks of each blocks file, so blocks.json is assembled
+ * from them without creating the json objects of the whole chain again. At a reorg we fall back to a full export.
+ * <p/>
+ * If an export is still in progress when new blocks arrive we accumulate the changes and write them with the next
+ * export, so at catching up with the chain we do not write each block separately. The files of an export are written
+ * in parallel and a manifest file is written last, so consumers can poll that file to detect updates.
+ */
 @Slf4j
 public class ExportJsonFilesService implements DaoSetupService {
+    private static final int NUM_WRITE_THREADS = 4;
+    static final int BLOCKS_PER_FILE = 1000;
+
     private final DaoStateService daoStateService;
     private final File storageDir;
     private final boolean dumpBlockchainData;
 
-    private final ListeningExecutorService executor = Utilities.getListeningExecutorService("JsonExporter",
-            1, 1, 1200);
-    private JsonFileManager txFileManager, txOutputFileManager, bsqStateFileManager;
+    // Runs one export at a time, the files of an export are written by the writeExecutor
+    private final ListeningExecutorService executor = Utilities.getListeningSingleThreadExecutor("JsonExporter");
+    private final ExecutorService writeExecutor = Executors.newFixedThreadPool(NUM_WRITE_THREADS,
+            new ThreadFactoryBuilder().setNameFormat("JsonExporter-write-%d").setDaemon(true).build());
+    private JsonFileManager txFileManager, txOutputFileManager, blocksFileManager, bsqStateFileManager;
+
+    // State of the last export. Only accessed from the user thread.
+    private int lastExportedHeight;
+    @Nullable
+    private String lastExportedBlockHash;
+    private final Set<String> exportedIssuanceTxIds = new HashSet<>();
+    private long exportId;
+
+    // Changes which are not written yet
+    private final Map<String, JsonTx> pendingJsonTxs = new LinkedHashMap<>();
+    // Start heights of the blocks files to write
+    private final Set<Integer> pendingBlocksFiles = new TreeSet<>();
+    // Json blocks of the written blocks files by start height of the file
+    private final Map<Integer, List<JsonBlock>> jsonBlocksByStartHeight = new TreeMap<>();
+    private boolean pendingFullExport;
+    private boolean hasPendingChanges;
+    private boolean writeInProgress;
 
     @Inject
     public ExportJsonFilesService(DaoStateService daoStateService,
@@ -92,12 +144,15 @@ public class ExportJsonFilesService implements DaoSetupService {
             File jsonDir = new File(Paths.get(storageDir.getAbsolutePath(), "json").toString());
             File txDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "tx").toString());
             File txOutputDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "txo").toString());
+            File blocksDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "blocks").toString());
             File bsqStateDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "all").toString());
             try {
                 if (txDir.exists())
                     FileUtil.deleteDirectory(txDir);
                 if (txOutputDir.exists())
                     FileUtil.deleteDirectory(txOutputDir);
+                if (blocksDir.exists())
+                    FileUtil.deleteDirectory(blocksDir);
                 if (bsqStateDir.exists())
                     FileUtil.deleteDirectory(bsqStateDir);
                 if (jsonDir.exists())
@@ -116,11 +171,15 @@ public class ExportJsonFilesService implements DaoSetupService {
             if (!txOutputDir.mkdir())
                 log.warn("make txOutputDir failed.\ntxOutputDir=" + txOutputDir.getAbsolutePath());
 
+            if (!blocksDir.mkdir())
+                log.warn("make blocksDir failed.\nblocksDir=" + blocksDir.getAbsolutePath());
+
             if (!bsqStateDir.mkdir())
                 log.warn("make bsqStateDir failed.\nbsqStateDir=" + bsqStateDir.getAbsolutePath());
 
             txFileManager = new JsonFileManager(txDir);
             txOutputFileManager = new JsonFileManager(txOutputDir);
+            blocksFileManager = new JsonFileManager(blocksDir);
             bsqStateFileManager = new JsonFileManager(bsqStateDir);
         }
     }
@@ -129,51 +188,195 @@ public class ExportJsonFilesService implements DaoSetupService {
         if (dumpBlockchainData && txFileManager != null) {
             txFileManager.shutDown();
             txOutputFileManager.shutDown();
+            blocksFileManager.shutDown();
             bsqStateFileManager.shutDown();
         }
+        executor.shutdown();
+        writeExecutor.shutdown();
     }
 
     public void maybeExportToJson() {
-        if (dumpBlockchainData) {
-            // We store the data we need once we write the data to disk (in the thread) locally.
-            // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
-            List<JsonTxOutput> allJsonTxOutputs = new ArrayList<>();
-
-            List<JsonTx> jsonTxs = daoStateService.getTxStream()
-                    .map(tx -> {
-                        JsonTx jsonTx = getJsonTx(tx);
-                        allJsonTxOutputs.addAll(jsonTx.getOutputs());
-                        return jsonTx;
-                    }).collect(Collectors.toList());
-
-            DaoState daoState = daoStateService.getClone();
-            List<JsonBlock> jsonBlockList = daoState.getBlocks().stream()
-                    .map(this::getJsonBlock)
-                    .collect(Collectors.toList());
-            JsonBlocks jsonBlocks = new JsonBlocks(daoState.getChainHeight(), jsonBlockList);
-
-            ListenableFuture<Void> future = executor.submit(() -> {
-                bsqStateFileManager.writeToDisc(Utilities.objectToJson(jsonBlocks), "blocks");
-                allJsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
-                jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
+        if (!dumpBlockchainData)
+            return;
+
+        Optional<Block> optionalLastBlock = daoStateService.getLastBlock();
+        if (!optionalLastBlock.isPresent())
+            return;
+
+        // Access to daoStateService is single threaded, we must not access daoStateService from the thread, so we
+        // create the json objects here.
+        Block lastBlock = optionalLastBlock.get();
+        if (isLastExportedBlockInChain()) {
+            if (lastBlock.getHeight() == lastExportedHeight)
+                return;
+
+            collectChangedTxs();
+        } else {
+            collectAllTxs();
+        }
+
+        lastExportedHeight = lastBlock.getHeight();
+        lastExportedBlockHash = lastBlock.getHash();
+        hasPendingChanges = true;
+        if (!writeInProgress)
+            writePendingChanges();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private boolean isLastExportedBlockInChain() {
+        return lastExportedBlockHash != null &&
+                daoStateService.getBlockAtHeight(lastExportedHeight)
+                        .filter(block -> block.getHash().equals(lastExportedBlockHash))
+                        .isPresent();
+    }
+
+    private void collectAllTxs() {
+        pendingFullExport = true;
+        pendingJsonTxs.clear();
+        pendingBlocksFiles.clear();
+        jsonBlocksByStartHeight.clear();
+        daoStateService.getBlocks().forEach(block -> {
+            block.getTxs().forEach(tx -> pendingJsonTxs.put(tx.getId(), getJsonTx(tx)));
+            pendingBlocksFiles.add(getBlocksFileStartHeight(block.getHeight()));
+        });
+
+        exportedIssuanceTxIds.clear();
+        exportedIssuanceTxIds.addAll(getIssuanceTxIds());
+    }
+
+    private void collectChangedTxs() {
+        Map<String, Tx> changedTxs = new LinkedHashMap<>();
+        daoStateService.getBlocksFromBlockHeight(lastExportedHeight + 1).forEach(block -> block.getTxs().forEach(tx -> {
+            changedTxs.put(tx.getId(), tx);
+            // The spent info of the connected outputs has changed
+            tx.getTxInputs().forEach(txInput -> daoStateService.getTx(txInput.getConnectedTxOutputTxId())
+                    .ifPresent(connectedTx -> changedTxs.put(connectedTx.getId(), connectedTx)));
+        }));
+
+        // An issuance changes the issuance candidate output to a BSQ output
+        getIssuanceTxIds().stream()
+                .filter(exportedIssuanceTxIds::add)
+                .forEach(txId -> daoStateService.getTx(txId).ifPresent(tx -> changedTxs.put(txId, tx)));
+
+        changedTxs.values().forEach(tx -> {
+            pendingJsonTxs.put(tx.getId(), getJsonTx(tx));
+            // The blocks files contain the txs as well
+            pendingBlocksFiles.add(getBlocksFileStartHeight(tx.getBlockHeight()));
+        });
+    }
+
+    private int getBlocksFileStartHeight(int height) {
+        int genesisBlockHeight = daoStateService.getGenesisBlockHeight();
+        return genesisBlockHeight + (height - genesisBlockHeight) / BLOCKS_PER_FILE * BLOCKS_PER_FILE;
+    }
+
+    private List<JsonBlock> getJsonBlocks(int startHeight, int chainHeight) {
+        List<JsonBlock> jsonBlocks = new ArrayList<>();
+        for (int height = startHeight; height < startHeight + BLOCKS_PER_FILE && height <= chainHeight; height++) {
+            daoStateService.getBlockAtHeight(height)
+                    .ifPresent(block -> jsonBlocks.add(getJsonBlock(block, pendingJsonTxs)));
+        }
+        return jsonBlocks;
+    }
+
+    private static String getBlocksFileName(int startHeight) {
+        return "blocks_" + startHeight;
+    }
+
+    private Set<String> getIssuanceTxIds() {
+        return Arrays.stream(IssuanceType.values())
+                .flatMap(issuanceType -> daoStateService.getIssuanceSet(issuanceType).stream())
+                .map(Issuance::getTxId)
+                .collect(Collectors.toSet());
+    }
+
+    private void writePendingChanges() {
+        if (executor.isShutdown())
+            return;
+
+        int chainHeight = daoStateService.getChainHeight();
+        // The json blocks are only created for the files we write, the others are unchanged
+        Map<String, JsonBlocks> jsonBlocksByFileName = new LinkedHashMap<>();
+        pendingBlocksFiles.forEach(startHeight -> {
+            List<JsonBlock> jsonBlocks = getJsonBlocks(startHeight, chainHeight);
+            jsonBlocksByStartHeight.put(startHeight, jsonBlocks);
+            jsonBlocksByFileName.put(getBlocksFileName(startHeight), new JsonBlocks(chainHeight, jsonBlocks));
+        });
+        List<JsonBlock> allJsonBlocks = new ArrayList<>();
+        jsonBlocksByStartHeight.values().forEach(allJsonBlocks::addAll);
+        JsonBlocks allBlocks = new JsonBlocks(chainHeight, allJsonBlocks);
+        List<String> blocksFiles = jsonBlocksByStartHeight.keySet().stream()
+                .map(ExportJsonFilesService::getBlocksFileName)
+                .collect(Collectors.toList());
+        List<JsonTx> jsonTxs = new ArrayList<>(pendingJsonTxs.values());
+        boolean fullExport = pendingFullExport;
+        List<String> changedTxIds = fullExport ?
+                new ArrayList<>() :
+                jsonTxs.stream().map(JsonTx::getId).collect(Collectors.toList());
+        List<String> changedBlocksFiles = fullExport ?
+                new ArrayList<>() :
+                new ArrayList<>(jsonBlocksByFileName.keySet());
+        JsonExportManifest manifest = new JsonExportManifest(++exportId, chainHeight, lastExportedBlockHash,
+                System.currentTimeMillis(), fullExport, changedTxIds, blocksFiles, changedBlocksFiles);
+
+        pendingJsonTxs.clear();
+        pendingBlocksFiles.clear();
+        pendingFullExport = false;
+        hasPendingChanges = false;
+        writeInProgress = true;
+
+        ListenableFuture<Void> future = executor.submit(() -> {
+            long ts = System.currentTimeMillis();
+            List<Callable<Void>> writeTasks = new ArrayList<>();
+            writeTasks.add(() -> {
+                bsqStateFileManager.writeToDiscSync(Utilities.objectToJson(allBlocks), "blocks");
                 return null;
             });
+            jsonBlocksByFileName.forEach((fileName, jsonBlocks) -> writeTasks.add(() -> {
+                blocksFileManager.writeToDiscSync(Utilities.objectToJson(jsonBlocks), fileName);
+                return null;
+            }));
+            jsonTxs.forEach(jsonTx -> writeTasks.add(() -> {
+                jsonTx.getOutputs().forEach(jsonTxOutput ->
+                        txOutputFileManager.writeToDiscSync(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
+                txFileManager.writeToDiscSync(Utilities.objectToJson(jsonTx), jsonTx.getId());
+                return null;
+            }));
+            writeExecutor.invokeAll(writeTasks);
+
+            // We write the manifest after all other files so consumers can rely on them once it got updated
+            bsqStateFileManager.writeToDiscSync(Utilities.objectToJson(manifest), "manifest");
+            log.info("Exported {} txs to json at chain height {} (fullExport={}) took {} ms",
+                    jsonTxs.size(), chainHeight, fullExport, System.currentTimeMillis() - ts);
+            return null;
+        });
+
+        Futures.addCallback(future, new FutureCallback<>() {
+            public void onSuccess(Void ignore) {
+                UserThread.execute(() -> onWriteCompleted());
+            }
 
-            Futures.addCallback(future, new FutureCallback<>() {
-                public void onSuccess(Void ignore) {
-                }
+            public void onFailure(@NotNull Throwable throwable) {
+                log.error(throwable.toString());
+                throwable.printStackTrace();
+                UserThread.execute(() -> onWriteCompleted());
+            }
+        });
+    }
 
-                public void onFailure(@NotNull Throwable throwable) {
-                    log.error(throwable.toString());
-                    throwable.printStackTrace();
-                }
-            });
-        }
+    private void onWriteCompleted() {
+        writeInProgress = false;
+        if (hasPendingChanges)
+            writePendingChanges();
     }
 
-    private JsonBlock getJsonBlock(Block block) {
+    private JsonBlock getJsonBlock(Block block, Map<String, JsonTx> jsonTxById) {
         List<JsonTx> jsonTxs = block.getTxs().stream()
-                .map(this::getJsonTx)
+                .map(tx -> jsonTxById.containsKey(tx.getId()) ? jsonTxById.get(tx.getId()) : getJsonTx(tx))
                 .collect(Collectors.toList());
         return new JsonBlock(block.getHeight(),
                 block.getTime(),
@@ -0,0 +1,41 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.explorer;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Written as last file of each export, so consumers only need to poll that file to detect updates.
+ */
+@Value
+class JsonExportManifest {
+    // Increases with each export since the start of the application
+    private final long exportId;
+    private final int chainHeight;
+    private final String blockHash;
+    private final long exportTime; // in ms
+    // If true all files got rewritten, otherwise only the files of the changed txs, their outputs and the blocks files
+    // containing them
+    private final boolean fullExport;
+    private final List<String> changedTxIds;
+    // All files in the json/blocks directory. The json/all/blocks.json file contains all blocks.
+    private final List<String> blocksFiles;
+    private final List<String> changedBlocksFiles;
+}
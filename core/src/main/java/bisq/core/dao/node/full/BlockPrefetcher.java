@@ -0,0 +1,185 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.full;
+
+import bisq.common.UserThread;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Requests the blocks from Bitcoin Core ahead of parsing when a full node catches up with the chain, so catching up
+ * is not bound by the rpc latency of each block.
+ * <p/>
+ * We keep up to prefetchDepth requested blocks in a queue ordered by height. The requests are executed in parallel,
+ * but the blocks are delivered strictly in order of height, so parsing stays sequential. Blocks which got prefetched
+ * but are not requested anymore (e.g. at a reorg) are cancelled.
+ * <p/>
+ * Must be used from the user thread only.
+ */
+@Slf4j
+class BlockPrefetcher {
+    private static final long LOG_PROGRESS_INTERVAL = TimeUnit.SECONDS.toMillis(10);
+
+    private static class PendingBlock {
+        private final int height;
+        private final ListenableFuture<RawBlock> future;
+
+        private PendingBlock(int height, ListenableFuture<RawBlock> future) {
+            this.height = height;
+            this.future = future;
+        }
+    }
+
+    private final IntFunction<ListenableFuture<RawBlock>> blockRequester;
+    @Getter
+    private final int prefetchDepth;
+    private final ArrayDeque<PendingBlock> pendingBlocks = new ArrayDeque<>();
+    private int nextHeightToRequest;
+    private int toHeight;
+
+    // Metrics of the current run
+    private int fromHeight;
+    private long startTime;
+    private long lastLogTime;
+    @Getter
+    private int numDeliveredBlocks;
+    // Number of blocks which were already fetched when the parser asked for them
+    @Getter
+    private int numPrefetchedBlocks;
+    // Time the parser had to wait for blocks
+    @Getter
+    private long waitTime;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    BlockPrefetcher(IntFunction<ListenableFuture<RawBlock>> blockRequester, int prefetchDepth) {
+        this.blockRequester = blockRequester;
+        this.prefetchDepth = Math.max(1, prefetchDepth);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void start(int fromHeight, int toHeight) {
+        cancel();
+        this.fromHeight = fromHeight;
+        this.toHeight = toHeight;
+        nextHeightToRequest = fromHeight;
+        startTime = System.currentTimeMillis();
+        lastLogTime = startTime;
+        numDeliveredBlocks = 0;
+        numPrefetchedBlocks = 0;
+        waitTime = 0;
+        fillQueue();
+    }
+
+    void requestBlock(int height, Consumer<RawBlock> resultHandler, Consumer<Throwable> errorHandler) {
+        PendingBlock pendingBlock = pendingBlocks.peekFirst();
+        if (pendingBlock == null || pendingBlock.height != height) {
+            log.warn("Block at height {} was not prefetched. We start prefetching from that height.", height);
+            start(height, Math.max(height, toHeight));
+        }
+
+        pendingBlock = pendingBlocks.pollFirst();
+        fillQueue();
+
+        if (pendingBlock.future.isDone())
+            numPrefetchedBlocks++;
+        long requestTime = System.currentTimeMillis();
+        Futures.addCallback(pendingBlock.future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(RawBlock rawBlock) {
+                UserThread.execute(() -> {
+                    waitTime += System.currentTimeMillis() - requestTime;
+                    numDeliveredBlocks++;
+                    maybeLogProgress(height);
+                    resultHandler.accept(rawBlock);
+                });
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                if (throwable instanceof CancellationException)
+                    return;
+
+                log.error("Error at requesting block at height " + height, throwable);
+                UserThread.execute(() -> {
+                    cancel();
+                    errorHandler.accept(throwable);
+                });
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    void cancel() {
+        if (!pendingBlocks.isEmpty())
+            log.info("Cancel {} prefetched blocks", pendingBlocks.size());
+
+        pendingBlocks.forEach(pendingBlock -> pendingBlock.future.cancel(false));
+        pendingBlocks.clear();
+    }
+
+    int getNumPendingBlocks() {
+        return pendingBlocks.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void fillQueue() {
+        while (pendingBlocks.size() < prefetchDepth && nextHeightToRequest <= toHeight) {
+            pendingBlocks.addLast(new PendingBlock(nextHeightToRequest, blockRequester.apply(nextHeightToRequest)));
+            nextHeightToRequest++;
+        }
+    }
+
+    private void maybeLogProgress(int height) {
+        long now = System.currentTimeMillis();
+        if (height < toHeight && now - lastLogTime < LOG_PROGRESS_INTERVAL)
+            return;
+
+        lastLogTime = now;
+        double durationInSec = Math.max(1, now - startTime) / 1000d;
+        log.info("Block prefetch progress: delivered {} of {} blocks from height {} to {}. " +
+                        "{} blocks/sec, {} of the blocks were prefetched, waited {} ms for rpc, prefetchDepth={}",
+                numDeliveredBlocks, toHeight - fromHeight + 1, fromHeight, toHeight,
+                String.format("%.1f", numDeliveredBlocks / durationInSec),
+                numPrefetchedBlocks, waitTime, prefetchDepth);
+    }
+}
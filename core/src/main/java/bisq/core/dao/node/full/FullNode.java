@@ -54,6 +54,7 @@ public class FullNode extends BsqNode {
 
     private final RpcService rpcService;
     private final FullNodeNetworkService fullNodeNetworkService;
+    private final BlockPrefetcher blockPrefetcher;
     private boolean addBlockHandlerAdded;
     private int blocksToParseInBatch;
     private long parseInBatchStartTime;
@@ -76,6 +77,7 @@ public class FullNode extends BsqNode {
         this.rpcService = rpcService;
 
         this.fullNodeNetworkService = fullNodeNetworkService;
+        blockPrefetcher = new BlockPrefetcher(rpcService::requestBtcBlockAsync, rpcService.getBlockPrefetchDepth());
     }
 
 
@@ -95,6 +97,7 @@ public class FullNode extends BsqNode {
     }
 
     public void shutDown() {
+        blockPrefetcher.cancel();
         super.shutDown();
         fullNodeNetworkService.shutDown();
     }
@@ -111,6 +114,8 @@ public class FullNode extends BsqNode {
 
     @Override
     protected void startReOrgFromLastSnapshot() {
+        // Prefetched blocks might not connect anymore
+        blockPrefetcher.cancel();
         super.startReOrgFromLastSnapshot();
 
         int startBlockHeight = getStartBlockHeight();
@@ -228,6 +233,8 @@ public class FullNode extends BsqNode {
                              Consumer<Block> newBlockHandler,
                              ResultHandler resultHandler,
                              Consumer<Throwable> errorHandler) {
+        // Blocks get requested ahead in parallel but are delivered in order of height, so parsing stays sequential
+        blockPrefetcher.start(startBlockHeight, chainHeight);
         parseBlockRecursively(startBlockHeight, chainHeight, newBlockHandler, resultHandler, errorHandler);
     }
 
@@ -236,7 +243,7 @@ public class FullNode extends BsqNode {
                                        Consumer<Block> newBlockHandler,
                                        ResultHandler resultHandler,
                                        Consumer<Throwable> errorHandler) {
-        rpcService.requestBtcBlock(blockHeight,
+        blockPrefetcher.requestBlock(blockHeight,
                 rawBlock -> {
                     try {
                         doParseBlock(rawBlock).ifPresent(newBlockHandler);
@@ -251,6 +258,7 @@ public class FullNode extends BsqNode {
                         }
                     } catch (RequiredReorgFromSnapshotException ignore) {
                         // If we get a reorg we don't continue to call parseBlockRecursively
+                        blockPrefetcher.cancel();
                     }
                 },
                 errorHandler);
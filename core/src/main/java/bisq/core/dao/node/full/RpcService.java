@@ -53,12 +53,16 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
@@ -70,17 +74,23 @@ import org.jetbrains.annotations.NotNull;
  */
 @Slf4j
 public class RpcService {
+    // Bitcoin Core handles 4 rpc requests in parallel by default (rpcthreads)
+    private static final int MAX_PREFETCH_THREADS = 4;
+
     private final String rpcUser;
     private final String rpcPassword;
     private final String rpcPort;
     private final String rpcBlockPort;
+    @Getter
+    private final int blockPrefetchDepth;
 
     private BtcdClient client;
     private BtcdDaemon daemon;
 
-    // We could use multiple threads but then we need to support ordering of results in a queue
-    // Keep that for optimization after measuring performance differences
     private final ListeningExecutorService executor = Utilities.getSingleThreadExecutor("RpcService");
+    // Used for fetching blocks ahead of parsing when catching up, see BlockPrefetcher. The number of pending requests
+    // is limited by the BlockPrefetcher, so we can use an unbounded queue.
+    private final ListeningExecutorService prefetchExecutor;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -91,7 +101,8 @@ public class RpcService {
     @Inject
     public RpcService(Preferences preferences,
                       @Named(DaoOptionKeys.RPC_PORT) String rpcPort,
-                      @Named(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT) String rpcBlockPort) {
+                      @Named(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT) String rpcBlockPort,
+                      @Named(DaoOptionKeys.RPC_BLOCK_PREFETCH_DEPTH) int blockPrefetchDepth) {
         this.rpcUser = preferences.getRpcUser();
         this.rpcPassword = preferences.getRpcPw();
 
@@ -105,6 +116,14 @@ public class RpcService {
                         isTestnet ? "18332" :
                                         "18443"; // regtest
         this.rpcBlockPort = rpcBlockPort != null && !rpcBlockPort.isEmpty() ? rpcBlockPort : "5125";
+        this.blockPrefetchDepth = Math.max(1, blockPrefetchDepth);
+
+        int numPrefetchThreads = Math.min(this.blockPrefetchDepth, MAX_PREFETCH_THREADS);
+        prefetchExecutor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(numPrefetchThreads,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("RpcService-prefetch-%d")
+                        .setDaemon(true)
+                        .build()));
 
         log.info("Version of btcd-cli4j library: {}", BtcdCli4jVersion.VERSION);
     }
@@ -119,6 +138,10 @@ public class RpcService {
             try {
                 long startTs = System.currentTimeMillis();
                 PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+                // The default of 2 connections per route would serialize the parallel block requests
+                int maxConnections = MAX_PREFETCH_THREADS + 1;
+                cm.setDefaultMaxPerRoute(maxConnections);
+                cm.setMaxTotal(maxConnections);
                 CloseableHttpClient httpProvider = HttpClients.custom().setConnectionManager(cm).build();
                 Properties nodeConfig = new Properties();
                 nodeConfig.setProperty("node.bitcoind.rpc.protocol", "http");
@@ -208,37 +231,10 @@ public class RpcService {
         });
     }
 
-    void requestBtcBlock(int blockHeight,
-                         Consumer<RawBlock> resultHandler,
-                         Consumer<Throwable> errorHandler) {
-        ListenableFuture<RawBlock> future = executor.submit(() -> {
-            long startTs = System.currentTimeMillis();
-            String blockHash = client.getBlockHash(blockHeight);
-            com.neemre.btcdcli4j.core.domain.RawBlock rawBtcBlock = client.getBlock(blockHash, 2);
-            List<RawTx> txList = rawBtcBlock.getTx().stream()
-                    .map(e -> getTxFromRawTransaction(e, rawBtcBlock))
-                    .collect(Collectors.toList());
-            log.info("requestBtcBlock from bitcoind at blockHeight {} with {} txs took {} ms",
-                    blockHeight, txList.size(), System.currentTimeMillis() - startTs);
-            return new RawBlock(rawBtcBlock.getHeight(),
-                    rawBtcBlock.getTime() * 1000, // rawBtcBlock.getTime() is in sec but we want ms
-                    rawBtcBlock.getHash(),
-                    rawBtcBlock.getPreviousBlockHash(),
-                    ImmutableList.copyOf(txList));
-        });
-
-        Futures.addCallback(future, new FutureCallback<>() {
-            @Override
-            public void onSuccess(RawBlock block) {
-                UserThread.execute(() -> resultHandler.accept(block));
-            }
-
-            @Override
-            public void onFailure(@NotNull Throwable throwable) {
-                log.error("Error at requestBtcBlock: blockHeight={}", blockHeight);
-                UserThread.execute(() -> errorHandler.accept(throwable));
-            }
-        });
+    // Requests the block on the prefetch executor, so multiple blocks can be requested in parallel. The future
+    // completes on the prefetch thread.
+    ListenableFuture<RawBlock> requestBtcBlockAsync(int blockHeight) {
+        return prefetchExecutor.submit(() -> getBtcBlock(blockHeight));
     }
 
 
@@ -246,6 +242,22 @@ public class RpcService {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private RawBlock getBtcBlock(int blockHeight) throws BitcoindException, CommunicationException {
+        long startTs = System.currentTimeMillis();
+        String blockHash = client.getBlockHash(blockHeight);
+        com.neemre.btcdcli4j.core.domain.RawBlock rawBtcBlock = client.getBlock(blockHash, 2);
+        List<RawTx> txList = rawBtcBlock.getTx().stream()
+                .map(e -> getTxFromRawTransaction(e, rawBtcBlock))
+                .collect(Collectors.toList());
+        log.info("requestBtcBlock from bitcoind at blockHeight {} with {} txs took {} ms",
+                blockHeight, txList.size(), System.currentTimeMillis() - startTs);
+        return new RawBlock(rawBtcBlock.getHeight(),
+                rawBtcBlock.getTime() * 1000, // rawBtcBlock.getTime() is in sec but we want ms
+                rawBtcBlock.getHash(),
+                rawBtcBlock.getPreviousBlockHash(),
+                ImmutableList.copyOf(txList));
+    }
+
     private RawTx getTxFromRawTransaction(RawTransaction rawBtcTx, com.neemre.btcdcli4j.core.domain.RawBlock rawBtcBlock) {
         String txId = rawBtcTx.getTxId();
         long blockTime = rawBtcBlock.getTime() * 1000; // We convert block time from sec to ms
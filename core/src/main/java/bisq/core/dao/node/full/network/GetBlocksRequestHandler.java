@@ -29,12 +29,14 @@ import bisq.network.p2p.network.NetworkNode;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
 
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.SettableFuture;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -49,6 +51,10 @@ import org.jetbrains.annotations.NotNull;
 @Slf4j
 class GetBlocksRequestHandler {
     private static final long TIMEOUT = 120;
+    // Limits for the blocks we send in one response to lite nodes which support BSQ_BLOCK_CHUNKS. The lite node
+    // requests the next chunk while it parses the current one.
+    static final int MAX_BLOCKS_PER_CHUNK = 2000;
+    static final int MAX_CHUNK_SIZE = 1024 * 1024;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -89,11 +95,16 @@ class GetBlocksRequestHandler {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void onGetBlocksRequest(GetBlocksRequest getBlocksRequest, final Connection connection) {
-        List<Block> blocks = new LinkedList<>(daoStateService.getBlocksFromBlockHeight(getBlocksRequest.getFromBlockHeight()));
-        List<RawBlock> rawBlocks = blocks.stream().map(RawBlock::fromBlock).collect(Collectors.toList());
-        GetBlocksResponse getBlocksResponse = new GetBlocksResponse(rawBlocks, getBlocksRequest.getNonce());
-        log.info("Received GetBlocksRequest from {} for blocks from height {}",
-                connection.getPeersNodeAddressOptional(), getBlocksRequest.getFromBlockHeight());
+        List<Block> blocks = daoStateService.getBlocksFromBlockHeight(getBlocksRequest.getFromBlockHeight());
+        List<RawBlock> rawBlocks = supportsCapability(getBlocksRequest, Capability.BSQ_BLOCK_CHUNKS) ?
+                getRawBlocksChunk(blocks, MAX_BLOCKS_PER_CHUNK, MAX_CHUNK_SIZE) :
+                blocks.stream().map(RawBlock::fromBlock).collect(Collectors.toList());
+        GetBlocksResponse getBlocksResponse = new GetBlocksResponse(rawBlocks, getBlocksRequest.getNonce(),
+                daoStateService.getChainHeight(),
+                supportsCapability(getBlocksRequest, Capability.BSQ_COMPACT_BLOCKS));
+        log.info("Received GetBlocksRequest from {} for blocks from height {}. We send {} of {} blocks.",
+                connection.getPeersNodeAddressOptional(), getBlocksRequest.getFromBlockHeight(),
+                rawBlocks.size(), blocks.size());
         if (timeoutTimer == null) {
             timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
                         String errorMessage = "A timeout occurred for getBlocksResponse.requestNonce:" +
@@ -137,10 +148,35 @@ class GetBlocksRequestHandler {
     }
 
 
+    // We always add at least one block so the lite node makes progress even if a single block exceeds maxChunkSize
+    static List<RawBlock> getRawBlocksChunk(List<Block> blocks, int maxBlocks, int maxChunkSize) {
+        List<RawBlock> rawBlocks = new ArrayList<>();
+        int chunkSize = 0;
+        for (Block block : blocks) {
+            if (rawBlocks.size() >= maxBlocks)
+                break;
+
+            RawBlock rawBlock = RawBlock.fromBlock(block);
+            int size = rawBlock.toProtoMessage().getSerializedSize();
+            if (!rawBlocks.isEmpty() && chunkSize + size > maxChunkSize)
+                break;
+
+            rawBlocks.add(rawBlock);
+            chunkSize += size;
+        }
+        return rawBlocks;
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private boolean supportsCapability(GetBlocksRequest getBlocksRequest, Capability capability) {
+        Capabilities supportedCapabilities = getBlocksRequest.getSupportedCapabilities();
+        return supportedCapabilities != null && supportedCapabilities.containsAll(new Capabilities(capability));
+    }
+
     private void handleFault(String errorMessage, CloseConnectionReason closeConnectionReason, Connection connection) {
         if (!stopped) {
             log.debug(errorMessage + "\n\tcloseConnectionReason=" + closeConnectionReason);
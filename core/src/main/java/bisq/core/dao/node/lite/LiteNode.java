@@ -37,7 +37,7 @@ import bisq.common.UserThread;
 
 import com.google.inject.Inject;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.List;
 
 import lombok.extern.slf4j.Slf4j;
@@ -51,10 +51,27 @@ import org.jetbrains.annotations.Nullable;
 @Slf4j
 public class LiteNode extends BsqNode {
     private static final int CHECK_FOR_BLOCK_RECEIVED_DELAY_SEC = 10;
+    // LiteNodeNetworkService retries with other seed nodes after 10 sec. We only request again if that has not
+    // delivered the blocks.
+    private static final int RETRY_REQUEST_BLOCKS_DELAY_SEC = 30;
 
     private final LiteNodeNetworkService liteNodeNetworkService;
     private final BsqWalletService bsqWalletService;
     private Timer checkForBlockReceivedTimer;
+    @Nullable
+    private Timer retryRequestBlocksTimer;
+
+    // Blocks received from the full node which are not parsed yet. Full nodes supporting BSQ_BLOCK_CHUNKS send the
+    // blocks in chunks and we request the next chunk while we parse the current one.
+    private final ArrayDeque<RawBlock> blocksToParse = new ArrayDeque<>();
+    private boolean batchProcessingRunning;
+    private boolean blocksRequested;
+    private int lastRequestedBlockHeight;
+    // Start height of the chunk we still need to request, 0 if we have received all blocks.
+    private int nextChunkStartHeight;
+    private int lastChunkSize;
+    private long batchStartTime;
+    private int numParsedBlocksInBatch;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -108,7 +125,7 @@ public class LiteNode extends BsqNode {
                     log.warn("We did not receive a block from the network {} seconds after we saw the new block in BicoinJ. " +
                                     "We request from our seed nodes missing blocks from block height {}.",
                             CHECK_FOR_BLOCK_RECEIVED_DELAY_SEC, chainHeight + 1);
-                    liteNodeNetworkService.requestBlocks(chainHeight + 1);
+                    requestBlocks(chainHeight + 1);
                 }
             }, CHECK_FOR_BLOCK_RECEIVED_DELAY_SEC);
         });
@@ -117,6 +134,7 @@ public class LiteNode extends BsqNode {
     @Override
     public void shutDown() {
         super.shutDown();
+        stopRetryRequestBlocksTimer();
         liteNodeNetworkService.shutDown();
     }
 
@@ -132,7 +150,7 @@ public class LiteNode extends BsqNode {
         liteNodeNetworkService.addListener(new LiteNodeNetworkService.Listener() {
             @Override
             public void onRequestedBlocksReceived(GetBlocksResponse getBlocksResponse) {
-                LiteNode.this.onRequestedBlocksReceived(new ArrayList<>(getBlocksResponse.getBlocks()));
+                LiteNode.this.onRequestedBlocksReceived(getBlocksResponse);
             }
 
             @Override
@@ -142,10 +160,12 @@ public class LiteNode extends BsqNode {
 
             @Override
             public void onNoSeedNodeAvailable() {
+                onRequestBlocksFailed();
             }
 
             @Override
             public void onFault(String errorMessage, @Nullable Connection connection) {
+                onRequestBlocksFailed();
             }
         });
 
@@ -157,16 +177,21 @@ public class LiteNode extends BsqNode {
     @Override
     protected void startParseBlocks() {
         log.info("startParseBlocks");
-        liteNodeNetworkService.requestBlocks(getStartBlockHeight());
+        requestBlocks(getStartBlockHeight());
     }
 
     @Override
     protected void startReOrgFromLastSnapshot() {
         super.startReOrgFromLastSnapshot();
 
+        // Blocks received after the snapshot height are not valid anymore
+        blocksToParse.clear();
+        nextChunkStartHeight = 0;
+        stopRetryRequestBlocksTimer();
+
         int startBlockHeight = getStartBlockHeight();
         liteNodeNetworkService.reset();
-        liteNodeNetworkService.requestBlocks(startBlockHeight);
+        requestBlocks(startBlockHeight);
     }
 
 
@@ -174,11 +199,55 @@ public class LiteNode extends BsqNode {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    // We received the missing blocks
-    private void onRequestedBlocksReceived(List<RawBlock> blockList) {
+    private void requestBlocks(int startBlockHeight) {
+        blocksRequested = true;
+        lastRequestedBlockHeight = startBlockHeight;
+        liteNodeNetworkService.requestBlocks(startBlockHeight);
+    }
+
+    // The request failed or no seed node is available. We keep the height as the chunk we still need and request it
+    // again after a delay. Until then the batch processing must not complete.
+    private void onRequestBlocksFailed() {
+        if (!blocksRequested)
+            return;
+
+        blocksRequested = false;
+        nextChunkStartHeight = lastRequestedBlockHeight;
+        if (retryRequestBlocksTimer == null) {
+            log.warn("Requesting blocks from height {} failed. We request them again in {} sec.",
+                    lastRequestedBlockHeight, RETRY_REQUEST_BLOCKS_DELAY_SEC);
+            retryRequestBlocksTimer = UserThread.runAfter(() -> {
+                retryRequestBlocksTimer = null;
+                if (!blocksRequested && nextChunkStartHeight > 0) {
+                    int startBlockHeight = nextChunkStartHeight;
+                    nextChunkStartHeight = 0;
+                    requestBlocks(startBlockHeight);
+                }
+            }, RETRY_REQUEST_BLOCKS_DELAY_SEC);
+        }
+    }
+
+    private void stopRetryRequestBlocksTimer() {
+        if (retryRequestBlocksTimer != null) {
+            retryRequestBlocksTimer.stop();
+            retryRequestBlocksTimer = null;
+        }
+    }
+
+    // We received the missing blocks or a chunk of them
+    private void onRequestedBlocksReceived(GetBlocksResponse getBlocksResponse) {
+        List<RawBlock> blockList = getBlocksResponse.getBlocks();
+        blocksRequested = false;
+        nextChunkStartHeight = 0;
+        stopRetryRequestBlocksTimer();
         if (!blockList.isEmpty()) {
-            chainTipHeight = blockList.get(blockList.size() - 1).getHeight();
-            log.info("We received blocks from height {} to {}", blockList.get(0).getHeight(), chainTipHeight);
+            int lastBlockHeight = blockList.get(blockList.size() - 1).getHeight();
+            // Older full nodes don't send their chain height
+            chainTipHeight = Math.max(lastBlockHeight, getBlocksResponse.getChainHeight());
+            log.info("We received blocks from height {} to {}. Chain height of full node is {}",
+                    blockList.get(0).getHeight(), lastBlockHeight, chainTipHeight);
+            if (getBlocksResponse.hasMoreBlocks())
+                nextChunkStartHeight = lastBlockHeight + 1;
         }
 
         // We delay the parsing to next render frame to avoid that the UI get blocked in case we parse a lot of blocks.
@@ -189,33 +258,53 @@ public class LiteNode extends BsqNode {
         // release it will be a bit of a performance hit. It is a one time event as the snapshots gets created and be
         // used at next startup. New users will get the shipped snapshot. Users who have not used Bisq for longer might
         // experience longer durations for batch processing.
-        long ts = System.currentTimeMillis();
-
-        if (blockList.isEmpty()) {
-            onParseBlockChainComplete();
-            return;
+        lastChunkSize = blockList.size();
+        blocksToParse.addAll(blockList);
+        maybeRequestNextChunk();
+
+        if (!batchProcessingRunning) {
+            batchProcessingRunning = true;
+            batchStartTime = System.currentTimeMillis();
+            numParsedBlocksInBatch = 0;
+            runDelayedBatchProcessing();
         }
+    }
 
-        runDelayedBatchProcessing(new ArrayList<>(blockList),
-                () -> {
-                    log.info("Parsing {} blocks took {} seconds.", blockList.size(), (System.currentTimeMillis() - ts) / 1000d);
-                    onParseBlockChainComplete();
-                });
+    // We request the next chunk as soon as we have no more than one chunk left to parse, so the download overlaps
+    // with parsing while we keep at most two chunks in memory.
+    private void maybeRequestNextChunk() {
+        if (nextChunkStartHeight > 0 && !blocksRequested && retryRequestBlocksTimer == null &&
+                blocksToParse.size() <= lastChunkSize) {
+            log.info("We request the next chunk of blocks from height {}", nextChunkStartHeight);
+            int startBlockHeight = nextChunkStartHeight;
+            nextChunkStartHeight = 0;
+            requestBlocks(startBlockHeight);
+        }
     }
 
-    private void runDelayedBatchProcessing(List<RawBlock> blocks, Runnable resultHandler) {
+    private void runDelayedBatchProcessing() {
         UserThread.execute(() -> {
-            if (blocks.isEmpty()) {
-                resultHandler.run();
+            maybeRequestNextChunk();
+            RawBlock block = blocksToParse.pollFirst();
+            if (block == null) {
+                batchProcessingRunning = false;
+                // If we wait for the next chunk we continue when it arrives
+                if (!blocksRequested && nextChunkStartHeight == 0) {
+                    log.info("Parsing {} blocks took {} seconds.", numParsedBlocksInBatch,
+                            (System.currentTimeMillis() - batchStartTime) / 1000d);
+                    onParseBlockChainComplete();
+                }
                 return;
             }
 
-            RawBlock block = blocks.remove(0);
             try {
                 doParseBlock(block);
-                runDelayedBatchProcessing(blocks, resultHandler);
+                numParsedBlocksInBatch++;
+                runDelayedBatchProcessing();
             } catch (RequiredReorgFromSnapshotException e) {
-                resultHandler.run();
+                // startReOrgFromLastSnapshot has cleared blocksToParse and requested the blocks again. We complete
+                // after those got parsed.
+                batchProcessingRunning = false;
             }
         });
     }
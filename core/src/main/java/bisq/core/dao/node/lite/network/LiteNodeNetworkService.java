@@ -25,6 +25,7 @@ import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.network.CloseConnectionReason;
 import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.ConnectionListener;
+import bisq.network.p2p.network.MessageDispatcher;
 import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.Broadcaster;
@@ -47,6 +48,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
@@ -99,7 +101,8 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
     private final Map<Tuple2<NodeAddress, Integer>, RequestBlocksHandler> requestBlocksHandlerMap = new HashMap<>();
     private Timer retryTimer;
     private boolean stopped;
-    private Set<String> receivedBlocks = new HashSet<>();
+    // Accessed from the DAO dispatch thread
+    private final Set<String> receivedBlocks = ConcurrentHashMap.newKeySet();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -223,6 +226,13 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
     // MessageListener implementation
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // De-duplication of the new blocks is done at the DAO dispatch thread, broadcasting and block parsing at the
+    // UserThread.
+    @Override
+    public MessageDispatcher.Domain getDispatchDomain() {
+        return MessageDispatcher.Domain.DAO;
+    }
+
     @Override
     public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
         if (networkEnvelope instanceof NewBlockBroadcastMessage) {
@@ -230,12 +240,13 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
             // We combine blockHash and txId list in case we receive blocks with different transactions.
             List<String> txIds = newBlockBroadcastMessage.getBlock().getRawTxs().stream().map(BaseTx::getId).collect(Collectors.toList());
             String extBlockId = newBlockBroadcastMessage.getBlock().getHash() + ":" + txIds;
-            if (!receivedBlocks.contains(extBlockId)) {
+            if (receivedBlocks.add(extBlockId)) {
                 log.info("We received a new message from peer {} and broadcast it to our peers. extBlockId={}",
                         connection.getPeersNodeAddressOptional(), extBlockId);
-                receivedBlocks.add(extBlockId);
-                broadcaster.broadcast(newBlockBroadcastMessage, networkNode.getNodeAddress(), null, false);
-                listeners.forEach(listener -> listener.onNewBlockReceived(newBlockBroadcastMessage));
+                UserThread.execute(() -> {
+                    broadcaster.broadcast(newBlockBroadcastMessage, networkNode.getNodeAddress(), null, false);
+                    listeners.forEach(listener -> listener.onNewBlockReceived(newBlockBroadcastMessage));
+                });
             } else {
                 log.debug("We had that message already and do not further broadcast it. extBlockId={}", extBlockId);
             }
@@ -0,0 +1,433 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.messages;
+
+import bisq.core.dao.node.full.RawBlock;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.common.io.BaseEncoding;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact binary encoding of the blocks in a GetBlocksResponse, used if the requesting lite node supports
+ * BSQ_COMPACT_BLOCKS. The protobuf model sends hashes and txIds as hex strings, repeats the addresses and script
+ * opcodes of each output and repeats block height, block hash and txId in each tx and output.
+ * <p/>
+ * The encoding transcodes the protobuf model, so decoding results in exactly the same PB.BaseBlock as before:
+ * <ul>
+ * <li>Hex strings (hashes, txIds, pubKeys, script hex and data pushes of the script asm) are sent as raw bytes.
+ * Strings which are not lower case hex are sent as UTF-8, so any string survives the round trip.</li>
+ * <li>Connected txIds of inputs which refer to a tx earlier in the same response are sent as back-reference.</li>
+ * <li>Block height, block hash, time, txId and output index are omitted if they match the enclosing block, tx or
+ * position.</li>
+ * <li>Each block has a dictionary for addresses, tx versions and script opcodes.</li>
+ * <li>Integers are varints, height and time as delta to the previous block.</li>
+ * </ul>
+ * <p/>
+ * The data is received from the network, so decoding validates all counts and references.
+ */
+final class CompactBlockEncoding {
+    private static final int VERSION = 1;
+    private static final BaseEncoding HEX = BaseEncoding.base16().lowerCase();
+
+    // Flags of a tx
+    private static final int TX_BLOCK_DATA_DIFFERS = 1;
+
+    // Flags of a tx output
+    private static final int OUTPUT_INDEX_DIFFERS = 1;
+    private static final int OUTPUT_TX_ID_DIFFERS = 1 << 1;
+    private static final int OUTPUT_BLOCK_HEIGHT_DIFFERS = 1 << 2;
+    private static final int OUTPUT_HAS_PUB_KEY_SCRIPT = 1 << 3;
+
+    private CompactBlockEncoding() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    static byte[] encode(List<RawBlock> blocks) {
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            CodedOutputStream out = CodedOutputStream.newInstance(outputStream);
+            out.writeUInt32NoTag(VERSION);
+            out.writeUInt32NoTag(blocks.size());
+            Encoder encoder = new Encoder();
+            for (RawBlock block : blocks)
+                encoder.writeBlock(block.toProtoMessage(), out);
+            out.flush();
+            return outputStream.toByteArray();
+        } catch (IOException e) {
+            // We write to memory only
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static List<RawBlock> decode(byte[] bytes) throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(bytes);
+        int version = in.readUInt32();
+        if (version != VERSION)
+            throw new IOException("Unsupported version of compact block encoding: " + version);
+
+        Decoder decoder = new Decoder(bytes.length);
+        int numBlocks = decoder.readCount(in);
+        List<RawBlock> blocks = new ArrayList<>(numBlocks);
+        for (int i = 0; i < numBlocks; i++)
+            blocks.add(RawBlock.fromProto(decoder.readBlock(in)));
+
+        if (!in.isAtEnd())
+            throw new IOException("Unexpected data after last block");
+        return blocks;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Encoder
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class Encoder {
+        // Position of the txs in the response, used for back-references of tx inputs
+        private final Map<String, Integer> txIdPositions = new HashMap<>();
+        private int previousHeight;
+        private long previousTime;
+        private String previousHash;
+
+        // Per block
+        private Map<String, Integer> dictionary;
+
+        private void writeBlock(PB.BaseBlock block, CodedOutputStream out) throws IOException {
+            dictionary = new LinkedHashMap<>();
+            ByteArrayOutputStream bodyStream = new ByteArrayOutputStream();
+            CodedOutputStream body = CodedOutputStream.newInstance(bodyStream);
+
+            body.writeSInt32NoTag(block.getHeight() - previousHeight);
+            body.writeSInt64NoTag(block.getTime() - previousTime);
+            writeHexString(block.getHash(), body);
+            boolean connectsToPrevious = block.getPreviousBlockHash().equals(previousHash);
+            body.writeBoolNoTag(connectsToPrevious);
+            if (!connectsToPrevious)
+                writeHexString(block.getPreviousBlockHash(), body);
+
+            List<PB.BaseTx> txs = block.getRawBlock().getRawTxsList();
+            body.writeUInt32NoTag(txs.size());
+            for (PB.BaseTx tx : txs)
+                writeTx(block, tx, body);
+            body.flush();
+
+            // The dictionary is filled while writing the body, so we write it before the body only now
+            out.writeUInt32NoTag(dictionary.size());
+            for (String value : dictionary.keySet())
+                out.writeStringNoTag(value);
+            out.writeByteArrayNoTag(bodyStream.toByteArray());
+
+            previousHeight = block.getHeight();
+            previousTime = block.getTime();
+            previousHash = block.getHash();
+        }
+
+        private void writeTx(PB.BaseBlock block, PB.BaseTx tx, CodedOutputStream out) throws IOException {
+            boolean blockDataDiffers = tx.getBlockHeight() != block.getHeight() ||
+                    !tx.getBlockHash().equals(block.getHash()) ||
+                    tx.getTime() != block.getTime();
+            out.writeUInt32NoTag(blockDataDiffers ? TX_BLOCK_DATA_DIFFERS : 0);
+            writeDictionaryIndex(tx.getTxVersion(), out);
+            writeHexString(tx.getId(), out);
+            if (blockDataDiffers) {
+                out.writeInt32NoTag(tx.getBlockHeight());
+                writeHexString(tx.getBlockHash(), out);
+                out.writeInt64NoTag(tx.getTime());
+            }
+
+            out.writeUInt32NoTag(tx.getTxInputsCount());
+            for (PB.TxInput txInput : tx.getTxInputsList()) {
+                Integer position = txIdPositions.get(txInput.getConnectedTxOutputTxId());
+                if (position != null) {
+                    out.writeUInt32NoTag(position + 1);
+                } else {
+                    out.writeUInt32NoTag(0);
+                    writeHexString(txInput.getConnectedTxOutputTxId(), out);
+                }
+                out.writeInt32NoTag(txInput.getConnectedTxOutputIndex());
+                writeHexString(txInput.getPubKey(), out);
+            }
+
+            List<PB.BaseTxOutput> txOutputs = tx.getRawTx().getRawTxOutputsList();
+            out.writeUInt32NoTag(txOutputs.size());
+            for (int i = 0; i < txOutputs.size(); i++)
+                writeTxOutput(tx, i, txOutputs.get(i), out);
+
+            txIdPositions.putIfAbsent(tx.getId(), txIdPositions.size());
+        }
+
+        private void writeTxOutput(PB.BaseTx tx, int position, PB.BaseTxOutput txOutput, CodedOutputStream out)
+                throws IOException {
+            int flags = 0;
+            if (txOutput.getIndex() != position)
+                flags |= OUTPUT_INDEX_DIFFERS;
+            if (!txOutput.getTxId().equals(tx.getId()))
+                flags |= OUTPUT_TX_ID_DIFFERS;
+            if (txOutput.getBlockHeight() != tx.getBlockHeight())
+                flags |= OUTPUT_BLOCK_HEIGHT_DIFFERS;
+            if (txOutput.hasPubKeyScript())
+                flags |= OUTPUT_HAS_PUB_KEY_SCRIPT;
+            out.writeUInt32NoTag(flags);
+
+            if ((flags & OUTPUT_INDEX_DIFFERS) != 0)
+                out.writeInt32NoTag(txOutput.getIndex());
+            if ((flags & OUTPUT_TX_ID_DIFFERS) != 0)
+                writeHexString(txOutput.getTxId(), out);
+            if ((flags & OUTPUT_BLOCK_HEIGHT_DIFFERS) != 0)
+                out.writeInt32NoTag(txOutput.getBlockHeight());
+
+            out.writeInt64NoTag(txOutput.getValue());
+            writeDictionaryIndex(txOutput.getAddress(), out);
+            out.writeBytesNoTag(txOutput.getOpReturnData());
+            if (txOutput.hasPubKeyScript())
+                writePubKeyScript(txOutput.getPubKeyScript(), out);
+        }
+
+        private void writePubKeyScript(PB.PubKeyScript pubKeyScript, CodedOutputStream out) throws IOException {
+            out.writeInt32NoTag(pubKeyScript.getReqSigs());
+            out.writeEnumNoTag(pubKeyScript.getScriptTypeValue());
+            out.writeUInt32NoTag(pubKeyScript.getAddressesCount());
+            for (String address : pubKeyScript.getAddressesList())
+                writeDictionaryIndex(address, out);
+
+            // Asm consists of opcodes and hex data pushes separated by spaces
+            String[] tokens = pubKeyScript.getAsm().split(" ", -1);
+            out.writeUInt32NoTag(tokens.length);
+            for (String token : tokens) {
+                if (!token.isEmpty() && isHex(token)) {
+                    byte[] data = HEX.decode(token);
+                    out.writeUInt32NoTag(data.length * 2 + 1);
+                    out.writeRawBytes(data);
+                } else {
+                    out.writeUInt32NoTag(getDictionaryIndex(token) * 2);
+                }
+            }
+            writeHexString(pubKeyScript.getHex(), out);
+        }
+
+        private void writeDictionaryIndex(String value, CodedOutputStream out) throws IOException {
+            out.writeUInt32NoTag(getDictionaryIndex(value));
+        }
+
+        private int getDictionaryIndex(String value) {
+            return dictionary.computeIfAbsent(value, e -> dictionary.size());
+        }
+
+        // Odd tags are followed by hex decoded bytes, even tags by UTF-8 bytes, the length is tag / 2
+        private static void writeHexString(String value, CodedOutputStream out) throws IOException {
+            if (isHex(value)) {
+                byte[] data = HEX.decode(value);
+                out.writeUInt32NoTag(data.length * 2 + 1);
+                out.writeRawBytes(data);
+            } else {
+                byte[] data = value.getBytes(StandardCharsets.UTF_8);
+                out.writeUInt32NoTag(data.length * 2);
+                out.writeRawBytes(data);
+            }
+        }
+
+        private static boolean isHex(String value) {
+            if (value.length() % 2 != 0)
+                return false;
+
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if ((c < '0' || c > '9') && (c < 'a' || c > 'f'))
+                    return false;
+            }
+            return true;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Decoder
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class Decoder {
+        // Each encoded element has at least one byte, so no count can be larger than the data
+        private final int maxCount;
+        private final List<String> txIds = new ArrayList<>();
+        private final Set<String> txIdSet = new HashSet<>();
+        private int previousHeight;
+        private long previousTime;
+        private String previousHash;
+
+        // Per block
+        private List<String> dictionary;
+
+        private Decoder(int maxCount) {
+            this.maxCount = maxCount;
+        }
+
+        private PB.BaseBlock readBlock(CodedInputStream in) throws IOException {
+            int dictionarySize = readCount(in);
+            dictionary = new ArrayList<>(dictionarySize);
+            for (int i = 0; i < dictionarySize; i++)
+                dictionary.add(in.readStringRequireUtf8());
+
+            CodedInputStream body = CodedInputStream.newInstance(in.readByteArray());
+            int height = previousHeight + body.readSInt32();
+            long time = previousTime + body.readSInt64();
+            String hash = readHexString(body);
+            String previousBlockHash = body.readBool() ? previousHash : readHexString(body);
+            if (previousBlockHash == null)
+                throw new IOException("First block must contain the previous block hash");
+
+            PB.BaseBlock.Builder builder = PB.BaseBlock.newBuilder()
+                    .setHeight(height)
+                    .setTime(time)
+                    .setHash(hash)
+                    .setPreviousBlockHash(previousBlockHash);
+            PB.RawBlock.Builder rawBlockBuilder = PB.RawBlock.newBuilder();
+            int numTxs = readCount(body);
+            for (int i = 0; i < numTxs; i++)
+                rawBlockBuilder.addRawTxs(readTx(height, hash, time, body));
+            if (!body.isAtEnd())
+                throw new IOException("Unexpected data after last tx of block " + height);
+
+            previousHeight = height;
+            previousTime = time;
+            previousHash = hash;
+            return builder.setRawBlock(rawBlockBuilder).build();
+        }
+
+        private PB.BaseTx readTx(int height, String hash, long time, CodedInputStream in) throws IOException {
+            int flags = in.readUInt32();
+            String txVersion = readDictionaryEntry(in);
+            String id = readHexString(in);
+            if ((flags & TX_BLOCK_DATA_DIFFERS) != 0) {
+                height = in.readInt32();
+                hash = readHexString(in);
+                time = in.readInt64();
+            }
+            PB.BaseTx.Builder builder = PB.BaseTx.newBuilder()
+                    .setTxVersion(txVersion)
+                    .setId(id)
+                    .setBlockHeight(height)
+                    .setBlockHash(hash)
+                    .setTime(time);
+
+            int numTxInputs = readCount(in);
+            for (int i = 0; i < numTxInputs; i++) {
+                int position = in.readUInt32();
+                String connectedTxOutputTxId;
+                if (position == 0) {
+                    connectedTxOutputTxId = readHexString(in);
+                } else if (position <= txIds.size()) {
+                    connectedTxOutputTxId = txIds.get(position - 1);
+                } else {
+                    throw new IOException("Invalid tx reference " + position + " in tx " + id);
+                }
+                builder.addTxInputs(PB.TxInput.newBuilder()
+                        .setConnectedTxOutputTxId(connectedTxOutputTxId)
+                        .setConnectedTxOutputIndex(in.readInt32())
+                        .setPubKey(readHexString(in)));
+            }
+
+            PB.RawTx.Builder rawTxBuilder = PB.RawTx.newBuilder();
+            int numTxOutputs = readCount(in);
+            for (int i = 0; i < numTxOutputs; i++)
+                rawTxBuilder.addRawTxOutputs(readTxOutput(id, height, i, in));
+
+            if (txIdSet.add(id))
+                txIds.add(id);
+            return builder.setRawTx(rawTxBuilder).build();
+        }
+
+        private PB.BaseTxOutput readTxOutput(String txId, int blockHeight, int position, CodedInputStream in)
+                throws IOException {
+            int flags = in.readUInt32();
+            PB.BaseTxOutput.Builder builder = PB.BaseTxOutput.newBuilder()
+                    .setIndex((flags & OUTPUT_INDEX_DIFFERS) != 0 ? in.readInt32() : position)
+                    .setTxId((flags & OUTPUT_TX_ID_DIFFERS) != 0 ? readHexString(in) : txId)
+                    .setBlockHeight((flags & OUTPUT_BLOCK_HEIGHT_DIFFERS) != 0 ? in.readInt32() : blockHeight)
+                    .setValue(in.readInt64())
+                    .setAddress(readDictionaryEntry(in))
+                    .setOpReturnData(in.readBytes())
+                    .setRawTxOutput(PB.RawTxOutput.newBuilder());
+            if ((flags & OUTPUT_HAS_PUB_KEY_SCRIPT) != 0)
+                builder.setPubKeyScript(readPubKeyScript(in));
+            return builder.build();
+        }
+
+        private PB.PubKeyScript readPubKeyScript(CodedInputStream in) throws IOException {
+            PB.PubKeyScript.Builder builder = PB.PubKeyScript.newBuilder()
+                    .setReqSigs(in.readInt32())
+                    .setScriptTypeValue(in.readEnum());
+            int numAddresses = readCount(in);
+            for (int i = 0; i < numAddresses; i++)
+                builder.addAddresses(readDictionaryEntry(in));
+
+            int numTokens = readCount(in);
+            List<String> tokens = new ArrayList<>(numTokens);
+            for (int i = 0; i < numTokens; i++) {
+                int tag = in.readUInt32();
+                tokens.add(tag % 2 == 1 ? HEX.encode(in.readRawBytes(tag / 2)) : getDictionaryEntry(tag / 2));
+            }
+            return builder.setAsm(String.join(" ", tokens))
+                    .setHex(readHexString(in))
+                    .build();
+        }
+
+        private int readCount(CodedInputStream in) throws IOException {
+            int count = in.readUInt32();
+            if (count < 0 || count > maxCount)
+                throw new IOException("Invalid count " + count);
+            return count;
+        }
+
+        private String readDictionaryEntry(CodedInputStream in) throws IOException {
+            return getDictionaryEntry(in.readUInt32());
+        }
+
+        private String getDictionaryEntry(int index) throws IOException {
+            if (index < 0 || index >= dictionary.size())
+                throw new IOException("Invalid dictionary index " + index);
+            return dictionary.get(index);
+        }
+
+        private String readHexString(CodedInputStream in) throws IOException {
+            int tag = in.readUInt32();
+            if (tag < 0)
+                throw new IOException("Invalid tag " + tag);
+            byte[] data = in.readRawBytes(tag / 2);
+            return tag % 2 == 1 ? HEX.encode(data) : new String(data, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -23,10 +23,15 @@ import bisq.network.p2p.DirectMessage;
 import bisq.network.p2p.ExtendedDataSizePermission;
 
 import bisq.common.app.Version;
+import bisq.common.proto.ProtobufferRuntimeException;
 import bisq.common.proto.network.NetworkEnvelope;
 
 import io.bisq.generated.protobuffer.PB;
 
+import com.google.protobuf.ByteString;
+
+import java.io.IOException;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -39,9 +44,13 @@ import lombok.Getter;
 public final class GetBlocksResponse extends NetworkEnvelope implements DirectMessage, ExtendedDataSizePermission {
     private final List<RawBlock> blocks;
     private final int requestNonce;
+    // Height of the last block of the full node. 0 if received from older clients.
+    private final int chainHeight;
+    // If true the blocks are sent with the CompactBlockEncoding. Only used if the peer supports BSQ_COMPACT_BLOCKS.
+    private final boolean compactEncoding;
 
-    public GetBlocksResponse(List<RawBlock> blocks, int requestNonce) {
-        this(blocks, requestNonce, Version.getP2PMessageVersion());
+    public GetBlocksResponse(List<RawBlock> blocks, int requestNonce, int chainHeight, boolean compactEncoding) {
+        this(blocks, requestNonce, chainHeight, compactEncoding, Version.getP2PMessageVersion());
     }
 
 
@@ -49,39 +58,73 @@ public final class GetBlocksResponse extends NetworkEnvelope implements DirectMe
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private GetBlocksResponse(List<RawBlock> blocks, int requestNonce, int messageVersion) {
+    private GetBlocksResponse(List<RawBlock> blocks,
+                              int requestNonce,
+                              int chainHeight,
+                              boolean compactEncoding,
+                              int messageVersion) {
         super(messageVersion);
         this.blocks = blocks;
         this.requestNonce = requestNonce;
+        this.chainHeight = chainHeight;
+        this.compactEncoding = compactEncoding;
     }
 
     @Override
     public PB.NetworkEnvelope toProtoNetworkEnvelope() {
-        return getNetworkEnvelopeBuilder()
-                .setGetBlocksResponse(PB.GetBlocksResponse.newBuilder()
-                        .addAllRawBlocks(blocks.stream()
-                                .map(RawBlock::toProtoMessage)
-                                .collect(Collectors.toList()))
-                        .setRequestNonce(requestNonce))
-                .build();
+        PB.GetBlocksResponse.Builder builder = PB.GetBlocksResponse.newBuilder()
+                .setRequestNonce(requestNonce)
+                .setChainHeight(chainHeight);
+        if (compactEncoding)
+            builder.setCompactBlocks(ByteString.copyFrom(CompactBlockEncoding.encode(blocks)));
+        else
+            builder.addAllRawBlocks(blocks.stream()
+                    .map(RawBlock::toProtoMessage)
+                    .collect(Collectors.toList()));
+        return getNetworkEnvelopeBuilder().setGetBlocksResponse(builder).build();
     }
 
     public static NetworkEnvelope fromProto(PB.GetBlocksResponse proto, int messageVersion) {
-        return new GetBlocksResponse(proto.getRawBlocksList().isEmpty() ?
-                new ArrayList<>() :
-                proto.getRawBlocksList().stream()
-                        .map(RawBlock::fromProto)
-                        .collect(Collectors.toList()),
+        boolean compactEncoding = !proto.getCompactBlocks().isEmpty();
+        List<RawBlock> blocks;
+        if (compactEncoding) {
+            try {
+                blocks = CompactBlockEncoding.decode(proto.getCompactBlocks().toByteArray());
+            } catch (IOException e) {
+                throw new ProtobufferRuntimeException("Invalid compact blocks in GetBlocksResponse", e);
+            }
+        } else {
+            blocks = proto.getRawBlocksList().isEmpty() ?
+                    new ArrayList<>() :
+                    proto.getRawBlocksList().stream()
+                            .map(RawBlock::fromProto)
+                            .collect(Collectors.toList());
+        }
+        return new GetBlocksResponse(blocks,
                 proto.getRequestNonce(),
+                proto.getChainHeight(),
+                compactEncoding,
                 messageVersion);
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // True if the full node sent only a chunk of the requested blocks
+    public boolean hasMoreBlocks() {
+        return !blocks.isEmpty() && chainHeight > blocks.get(blocks.size() - 1).getHeight();
+    }
+
+
     @Override
     public String toString() {
         return "GetBlocksResponse{" +
                 "\n     blocks=" + blocks +
                 ",\n     requestNonce=" + requestNonce +
+                ",\n     chainHeight=" + chainHeight +
+                ",\n     compactEncoding=" + compactEncoding +
                 "\n} " + super.toString();
     }
 }
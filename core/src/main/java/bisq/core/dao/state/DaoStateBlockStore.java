@@ -0,0 +1,251 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.blockchain.Block;
+
+import bisq.common.storage.ContainerOutputStream;
+import bisq.common.storage.FileUtil;
+import bisq.common.storage.Storage;
+import bisq.common.storage.StorageContainer;
+
+import io.bisq.generated.protobuffer.PB;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persists the blocks of the DaoState in segment files of SEGMENT_SIZE blocks ([storageDir]/DaoStateBlocks/
+ * blocks_[startHeight]), so the DaoStateStore written at each snapshot only contains the blocks of the open segment.
+ * <p/>
+ * Only completed segments are written here, the blocks of the open segment stay in the DaoStateStore. Completed
+ * segments are far below the snapshot height and don't change at reorgs, so usually each segment is written once.
+ * If the blocks differ from a segment on disk (e.g. after a resync) we write it again.
+ * <p/>
+ * This is a change of the layout on disk only. At startup all segments are read in parallel and prepended to the
+ * blocks of the DaoStateStore, so the DaoState keeps all blocks in memory as before. The tx index, bonds, the issuance
+ * and the supply are derived from the blocks, and the explorer, GetBlocksRequestHandler and the reorg handling read
+ * them from the DaoState. We don't read segments after startup.
+ */
+@Slf4j
+public class DaoStateBlockStore {
+    static final int SEGMENT_SIZE = 1000;
+    private static final String DIR_NAME = "DaoStateBlocks";
+    private static final String FILE_PREFIX = "blocks_";
+
+    private final File dir;
+    @Getter
+    private final int genesisBlockHeight;
+    // Hash of the last block of the segments on disk by start height of the segment
+    private final Map<Integer, String> lastBlockHashBySegment = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public DaoStateBlockStore(@Named(Storage.STORAGE_DIR) File storageDir, GenesisTxInfo genesisTxInfo) {
+        this(new File(storageDir, DIR_NAME), genesisTxInfo.getGenesisBlockHeight());
+    }
+
+    DaoStateBlockStore(File dir, int genesisBlockHeight) {
+        this.dir = dir;
+        this.genesisBlockHeight = genesisBlockHeight;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Writes the completed segments of the blocks which are not on disk yet.
+     *
+     * @param blocks All blocks starting with the genesis block
+     * @return The height from which on the blocks are not covered by segments and need to be persisted by the caller
+     */
+    public synchronized int writeCompletedSegments(Iterable<Block> blocks) {
+        int segmentStartHeight = genesisBlockHeight;
+        List<Block> segment = new ArrayList<>(SEGMENT_SIZE);
+        for (Block block : blocks) {
+            if (block.getHeight() != segmentStartHeight + segment.size()) {
+                log.warn("Blocks are not continuous at height {}. We don't write segments from height {} on.",
+                        block.getHeight(), segmentStartHeight);
+                return segmentStartHeight;
+            }
+
+            segment.add(block);
+            if (segment.size() == SEGMENT_SIZE) {
+                String lastBlockHash = block.getHash();
+                if (!lastBlockHash.equals(lastBlockHashBySegment.get(segmentStartHeight))) {
+                    try {
+                        writeSegment(segmentStartHeight, segment);
+                        lastBlockHashBySegment.put(segmentStartHeight, lastBlockHash);
+                    } catch (IOException e) {
+                        log.error("Could not write segment " + segmentStartHeight + ". The blocks from that height " +
+                                "on will be persisted with the DaoStateStore.", e);
+                        return segmentStartHeight;
+                    }
+                }
+                segmentStartHeight += SEGMENT_SIZE;
+                segment.clear();
+            }
+        }
+        return segmentStartHeight;
+    }
+
+    /**
+     * Reads the blocks from the genesis block up to firstBlock, which is the first block persisted in the DaoStateStore.
+     *
+     * @throws IOException if a segment is missing or corrupted or if the blocks don't form a chain leading to firstBlock
+     */
+    public synchronized List<Block> readBlocks(Block firstBlock) throws IOException {
+        int toHeight = firstBlock.getHeight();
+        if ((toHeight - genesisBlockHeight) % SEGMENT_SIZE != 0)
+            throw new IOException("Height " + toHeight + " is not the start of a segment");
+
+        long ts = System.currentTimeMillis();
+        List<List<Block>> segments;
+        try {
+            segments = IntStream.iterate(genesisBlockHeight, height -> height + SEGMENT_SIZE)
+                    .limit((toHeight - genesisBlockHeight) / SEGMENT_SIZE)
+                    .boxed()
+                    .collect(Collectors.toList())
+                    .parallelStream()
+                    .map(startHeight -> {
+                        try {
+                            return readSegment(startHeight);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        List<Block> blocks = new ArrayList<>(toHeight - genesisBlockHeight);
+        segments.forEach(blocks::addAll);
+        Block previousBlock = null;
+        for (Block block : blocks) {
+            verifyConnects(previousBlock, block);
+            previousBlock = block;
+        }
+        verifyConnects(previousBlock, firstBlock);
+
+        for (int i = 0; i < segments.size(); i++)
+            lastBlockHashBySegment.put(genesisBlockHeight + i * SEGMENT_SIZE, getLast(segments.get(i)).getHash());
+        log.info("Reading {} blocks from {} segments took {} ms",
+                blocks.size(), segments.size(), System.currentTimeMillis() - ts);
+        return blocks;
+    }
+
+    public synchronized void deleteAll() {
+        lastBlockHashBySegment.clear();
+        File[] files = dir.listFiles((d, name) -> name.startsWith(FILE_PREFIX));
+        if (files == null)
+            return;
+
+        for (File file : files) {
+            try {
+                FileUtil.deleteFileIfExists(file);
+            } catch (IOException e) {
+                log.error("Could not delete " + file, e);
+            }
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private File getSegmentFile(int startHeight) {
+        return new File(dir, FILE_PREFIX + startHeight);
+    }
+
+    private void writeSegment(int startHeight, List<Block> blocks) throws IOException {
+        if (!dir.exists() && !dir.mkdirs())
+            throw new IOException("Could not create directory " + dir);
+
+        File tempFile = File.createTempFile("temp", null, dir);
+        try {
+            try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                ContainerOutputStream containerOutputStream = new ContainerOutputStream(fileOutputStream,
+                        StorageContainer.Compression.DEFLATE);
+                for (Block block : blocks)
+                    block.toProtoMessage().writeDelimitedTo(containerOutputStream);
+                containerOutputStream.finish();
+                fileOutputStream.flush();
+                fileOutputStream.getFD().sync();
+            }
+            FileUtil.renameFile(tempFile, getSegmentFile(startHeight));
+        } finally {
+            if (tempFile.exists() && !tempFile.delete())
+                log.warn("Could not delete temp file {}", tempFile);
+        }
+    }
+
+    private List<Block> readSegment(int startHeight) throws IOException {
+        File file = getSegmentFile(startHeight);
+        if (!file.exists())
+            throw new IOException("Missing segment " + file);
+
+        List<Block> blocks = new ArrayList<>(SEGMENT_SIZE);
+        try (InputStream inputStream = StorageContainer.getPayloadInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            PB.BaseBlock proto;
+            while ((proto = PB.BaseBlock.parseDelimitedFrom(inputStream)) != null)
+                blocks.add(Block.fromProto(proto));
+        }
+
+        if (blocks.size() != SEGMENT_SIZE || blocks.get(0).getHeight() != startHeight)
+            throw new IOException("Segment " + file + " does not contain the expected blocks");
+        return blocks;
+    }
+
+    private static void verifyConnects(Block previousBlock, Block block) throws IOException {
+        if (previousBlock != null && (previousBlock.getHeight() + 1 != block.getHeight() ||
+                !Objects.equals(previousBlock.getHash(), block.getPreviousBlockHash())))
+            throw new IOException("Block at height " + block.getHeight() + " does not connect to the previous block");
+    }
+
+    private static Block getLast(List<Block> blocks) {
+        return blocks.get(blocks.size() - 1);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * In-memory indexes of the blocks, txs and tx outputs in the DaoState. The DaoState is persisted and only holds the
+ * list of blocks, so without the indexes each lookup would need to iterate over all blocks.
+ * <p/>
+ * A block gets indexed by height and hash as soon it is added. Its txs are added by the parser after that, so we
+ * index them when parsing of the block is completed. Until then we look up txs of that pending block by iterating
+ * its txs. Blocks and txs are immutable, so the indexes stay valid until the list of blocks gets replaced by a
+ * snapshot (e.g. at reorgs), where we rebuild all indexes.
+ * <p/>
+ * Not thread safe. Like the DaoState it must be accessed from the user thread only.
+ */
+@Slf4j
+class DaoStateIndex {
+    private final Map<Integer, Block> blockByHeight = new HashMap<>();
+    private final Set<String> blockHashes = new HashSet<>();
+    private final Map<String, Tx> txById = new HashMap<>();
+    private final Map<TxOutputKey, TxOutput> txOutputByKey = new HashMap<>();
+    private final Map<TxOutputType, Set<TxOutput>> txOutputsByType = new EnumMap<>(TxOutputType.class);
+    // Block which got added but the txs are not indexed yet
+    @Nullable
+    private Block pendingBlock;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Update
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void rebuild(Collection<Block> blocks) {
+        long ts = System.currentTimeMillis();
+        blockByHeight.clear();
+        blockHashes.clear();
+        txById.clear();
+        txOutputByKey.clear();
+        txOutputsByType.clear();
+        pendingBlock = null;
+
+        blocks.forEach(block -> {
+            addBlock(block);
+            addTxsOfBlock(block);
+        });
+        log.info("Rebuilding indexes for {} blocks and {} txs took {} ms",
+                blocks.size(), txById.size(), System.currentTimeMillis() - ts);
+    }
+
+    void onBlockAdded(Block block) {
+        // In case parsing of the previous block did not complete we index the txs it got
+        if (pendingBlock != null)
+            addTxsOfBlock(pendingBlock);
+
+        addBlock(block);
+        pendingBlock = block;
+    }
+
+    void onParseBlockComplete(Block block) {
+        // If the block was not added (e.g. it was already known) we must not index its txs
+        if (pendingBlock != block)
+            return;
+
+        addTxsOfBlock(block);
+        pendingBlock = null;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Lookup
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    Optional<Block> getBlockAtHeight(int height) {
+        return Optional.ofNullable(blockByHeight.get(height));
+    }
+
+    boolean containsBlockHash(String blockHash) {
+        return blockHashes.contains(blockHash);
+    }
+
+    Optional<Tx> getTx(String txId) {
+        Tx tx = txById.get(txId);
+        if (tx == null && pendingBlock != null) {
+            return pendingBlock.getTxs().stream()
+                    .filter(e -> e.getId().equals(txId))
+                    .findAny();
+        }
+        return Optional.ofNullable(tx);
+    }
+
+    Map<String, Tx> getTxById() {
+        return Collections.unmodifiableMap(txById);
+    }
+
+    Optional<TxOutput> getTxOutput(TxOutputKey txOutputKey) {
+        TxOutput txOutput = txOutputByKey.get(txOutputKey);
+        if (txOutput == null && pendingBlock != null) {
+            return getTx(txOutputKey.getTxId())
+                    .filter(tx -> txOutputKey.getIndex() < tx.getTxOutputs().size())
+                    .map(tx -> tx.getTxOutputs().get(txOutputKey.getIndex()));
+        }
+        return Optional.ofNullable(txOutput);
+    }
+
+    Set<TxOutput> getTxOutputsByTxOutputType(TxOutputType txOutputType) {
+        Set<TxOutput> txOutputs = new HashSet<>(txOutputsByType.getOrDefault(txOutputType, Collections.emptySet()));
+        if (pendingBlock != null) {
+            pendingBlock.getTxs().stream()
+                    .flatMap(tx -> tx.getTxOutputs().stream())
+                    .filter(txOutput -> txOutput.getTxOutputType() == txOutputType)
+                    .forEach(txOutputs::add);
+        }
+        return txOutputs;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addBlock(Block block) {
+        blockByHeight.put(block.getHeight(), block);
+        blockHashes.add(block.getHash());
+    }
+
+    private void addTxsOfBlock(Block block) {
+        block.getTxs().forEach(tx -> {
+            txById.put(tx.getId(), tx);
+            tx.getTxOutputs().forEach(txOutput -> {
+                txOutputByKey.put(txOutput.getKey(), txOutput);
+                txOutputsByType.computeIfAbsent(txOutput.getTxOutputType(), key -> new HashSet<>()).add(txOutput);
+            });
+        });
+    }
+}
@@ -42,8 +42,10 @@ import org.bitcoincashj.core.Coin;
 import javax.inject.Inject;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
@@ -69,6 +71,8 @@ public class DaoStateService implements DaoSetupService {
     private final GenesisTxInfo genesisTxInfo;
     private final BsqFormatter bsqFormatter;
     private final List<DaoStateListener> daoStateListeners = new CopyOnWriteArrayList<>();
+    private final DaoStateIndex daoStateIndex = new DaoStateIndex();
+    private final IncrementalDaoStateHash incrementalDaoStateHash = new IncrementalDaoStateHash();
     @Getter
     private boolean parseBlockChainComplete;
     private boolean allowDaoStateChange;
@@ -99,6 +103,7 @@ public class DaoStateService implements DaoSetupService {
         allowDaoStateChange = true;
         assertDaoStateChange();
         daoState.setChainHeight(genesisTxInfo.getGenesisBlockHeight());
+        incrementalDaoStateHash.rebuild(daoState);
     }
 
 
@@ -116,6 +121,7 @@ public class DaoStateService implements DaoSetupService {
 
         daoState.getBlocks().clear();
         daoState.getBlocks().addAll(snapshot.getBlocks());
+        daoStateIndex.rebuild(daoState.getBlocks());
 
         daoState.getCycles().clear();
         daoState.getCycles().addAll(snapshot.getCycles());
@@ -140,20 +146,28 @@ public class DaoStateService implements DaoSetupService {
 
         daoState.getDecryptedBallotsWithMeritsList().clear();
         daoState.getDecryptedBallotsWithMeritsList().addAll(snapshot.getDecryptedBallotsWithMeritsList());
+
+        incrementalDaoStateHash.rebuild(daoState);
     }
 
     public DaoState getClone() {
         return DaoState.getClone(daoState);
     }
 
-    DaoState getClone(DaoState snapshotCandidate) {
-        return DaoState.getClone(snapshotCandidate);
-    }
-
     public byte[] getSerializedStateForHashChain() {
         return daoState.getSerializedStateForHashChain();
     }
 
+    // Hash of the current state which gets updated with each change, see IncrementalDaoStateHash
+    public byte[] getIncrementalStateHash() {
+        return incrementalDaoStateHash.getHash(daoState.getChainHeight());
+    }
+
+    // Accumulated time spent for updating the incremental hash, used for comparing it with the legacy hash
+    public long getIncrementalStateHashUpdateNanos() {
+        return incrementalDaoStateHash.getUpdateNanos();
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // ChainHeight
@@ -175,6 +189,7 @@ public class DaoStateService implements DaoSetupService {
     public void addCycle(Cycle cycle) {
         assertDaoStateChange();
         getCycles().add(cycle);
+        incrementalDaoStateHash.add(IncrementalDaoStateHash.Part.CYCLES, cycle.toProtoMessage());
     }
 
     @Nullable
@@ -219,6 +234,7 @@ public class DaoStateService implements DaoSetupService {
                     "That might happen in edge cases at reorgs. Received block={}", block);
         } else {
             daoState.getBlocks().add(block);
+            daoStateIndex.onBlockAdded(block);
 
             if (parseBlockChainComplete)
                 log.info("New Block added at blockHeight {}", block.getHeight());
@@ -230,6 +246,12 @@ public class DaoStateService implements DaoSetupService {
         if (parseBlockChainComplete)
             log.info("Parse block completed: Block height {}, {} BSQ transactions.", block.getHeight(), block.getTxs().size());
 
+        // The txs of the block are complete now so we add them to the indexes before any listener gets called
+        daoStateIndex.onParseBlockComplete(block);
+        // Ignored blocks (see onNewBlockWithEmptyTxs) are not part of the state
+        if (!daoState.getBlocks().isEmpty() && daoState.getBlocks().getLast() == block)
+            incrementalDaoStateHash.add(IncrementalDaoStateHash.Part.BLOCKS, block.toProtoMessage());
+
         // Need to be called before onParseTxsCompleteAfterBatchProcessing as we use it in
         // VoteResult and other listeners like balances usually listen on onParseTxsCompleteAfterBatchProcessing
         // so we need to make sure that vote result calculation is completed before (e.g. for comp. request to
@@ -274,7 +296,7 @@ public class DaoStateService implements DaoSetupService {
      * {@code false}.
      */
     public boolean isBlockHashKnown(String blockHash) {
-        return getBlocks().stream().anyMatch(block -> block.getHash().equals(blockHash));
+        return daoStateIndex.containsBlockHash(blockHash);
     }
 
     public Optional<Block> getLastBlock() {
@@ -289,17 +311,15 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public Optional<Block> getBlockAtHeight(int height) {
-        return getBlocks().stream()
-                .filter(block -> block.getHeight() == height)
-                .findAny();
+        return daoStateIndex.getBlockAtHeight(height);
     }
 
     public boolean containsBlock(Block block) {
-        return getBlocks().contains(block);
+        return getBlockAtHeight(block.getHeight()).filter(block::equals).isPresent();
     }
 
     public boolean containsBlockHash(String blockHash) {
-        return getBlocks().stream().anyMatch(block -> block.getHash().equals(blockHash));
+        return daoStateIndex.containsBlockHash(blockHash);
     }
 
     public long getBlockTime(int height) {
@@ -307,9 +327,17 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public List<Block> getBlocksFromBlockHeight(int fromBlockHeight) {
-        return getBlocks().stream()
-                .filter(block -> block.getHeight() >= fromBlockHeight)
-                .collect(Collectors.toList());
+        // Blocks are sorted by height and usually we request only the latest blocks, so we iterate from the end
+        List<Block> blocks = new ArrayList<>();
+        Iterator<Block> iterator = getBlocks().descendingIterator();
+        while (iterator.hasNext()) {
+            Block block = iterator.next();
+            if (block.getHeight() < fromBlockHeight)
+                break;
+            blocks.add(block);
+        }
+        Collections.reverse(blocks);
+        return blocks;
     }
 
 
@@ -344,7 +372,7 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public TreeMap<String, Tx> getTxMap() {
-        return new TreeMap<>(getTxStream().collect(Collectors.toMap(Tx::getId, tx -> tx)));
+        return new TreeMap<>(daoStateIndex.getTxById());
     }
 
     public Set<Tx> getTxs() {
@@ -352,7 +380,7 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public Optional<Tx> getTx(String txId) {
-        return getTxStream().filter(tx -> tx.getId().equals(txId)).findAny();
+        return daoStateIndex.getTx(txId);
     }
 
     public List<Tx> getInvalidTxs() {
@@ -419,13 +447,11 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public boolean existsTxOutput(TxOutputKey key) {
-        return getTxOutputStream().anyMatch(txOutput -> txOutput.getKey().equals(key));
+        return getTxOutput(key).isPresent();
     }
 
     public Optional<TxOutput> getTxOutput(TxOutputKey txOutputKey) {
-        return getTxOutputStream()
-                .filter(txOutput -> txOutput.getKey().equals(txOutputKey))
-                .findAny();
+        return daoStateIndex.getTxOutput(txOutputKey);
     }
 
 
@@ -439,12 +465,17 @@ public class DaoStateService implements DaoSetupService {
 
     public void addUnspentTxOutput(TxOutput txOutput) {
         assertDaoStateChange();
-        getUnspentTxOutputMap().put(txOutput.getKey(), txOutput);
+        TxOutput previous = getUnspentTxOutputMap().put(txOutput.getKey(), txOutput);
+        if (previous != null)
+            incrementalDaoStateHash.remove(IncrementalDaoStateHash.Part.UNSPENT_TX_OUTPUTS, previous.toProtoMessage());
+        incrementalDaoStateHash.add(IncrementalDaoStateHash.Part.UNSPENT_TX_OUTPUTS, txOutput.toProtoMessage());
     }
 
     public void removeUnspentTxOutput(TxOutput txOutput) {
         assertDaoStateChange();
-        getUnspentTxOutputMap().remove(txOutput.getKey());
+        TxOutput removed = getUnspentTxOutputMap().remove(txOutput.getKey());
+        if (removed != null)
+            incrementalDaoStateHash.remove(IncrementalDaoStateHash.Part.UNSPENT_TX_OUTPUTS, removed.toProtoMessage());
     }
 
     public boolean isUnspent(TxOutputKey key) {
@@ -509,9 +540,7 @@ public class DaoStateService implements DaoSetupService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public Set<TxOutput> getTxOutputsByTxOutputType(TxOutputType txOutputType) {
-        return getTxOutputStream()
-                .filter(txOutput -> txOutput.getTxOutputType() == txOutputType)
-                .collect(Collectors.toSet());
+        return daoStateIndex.getTxOutputsByTxOutputType(txOutputType);
     }
 
     public boolean isBsqTxOutputType(TxOutput txOutput) {
@@ -578,7 +607,10 @@ public class DaoStateService implements DaoSetupService {
 
     public void addIssuance(Issuance issuance) {
         assertDaoStateChange();
-        daoState.getIssuanceMap().put(issuance.getTxId(), issuance);
+        Issuance previous = daoState.getIssuanceMap().put(issuance.getTxId(), issuance);
+        if (previous != null)
+            incrementalDaoStateHash.remove(IncrementalDaoStateHash.Part.ISSUANCES, previous.toProtoMessage());
+        incrementalDaoStateHash.add(IncrementalDaoStateHash.Part.ISSUANCES, issuance.toProtoMessage());
     }
 
     public Set<Issuance> getIssuanceSet(IssuanceType issuanceType) {
@@ -860,6 +892,7 @@ public class DaoStateService implements DaoSetupService {
         assertDaoStateChange();
         log.warn("TxId {} added to confiscatedLockupTxIdList.", lockupTxId);
         daoState.getConfiscatedLockupTxList().add(lockupTxId);
+        incrementalDaoStateHash.addConfiscatedLockupTx(lockupTxId);
     }
 
     public boolean isConfiscatedOutput(TxOutputKey txOutputKey) {
@@ -892,6 +925,7 @@ public class DaoStateService implements DaoSetupService {
                 .ifPresent(heightOfNewCycle -> {
                     ParamChange paramChange = new ParamChange(param.name(), paramValue, heightOfNewCycle);
                     paramChangeList.add(paramChange);
+                    incrementalDaoStateHash.add(IncrementalDaoStateHash.Part.PARAM_CHANGES, paramChange.toProtoMessage());
                     // Addition with older height should not be possible but to ensure correct sorting lets run a sort.
                     paramChangeList.sort(Comparator.comparingInt(ParamChange::getActivationHeight));
                 });
@@ -945,7 +979,10 @@ public class DaoStateService implements DaoSetupService {
 
     public void setSpentInfo(TxOutputKey txOutputKey, SpentInfo spentInfo) {
         assertDaoStateChange();
-        daoState.getSpentInfoMap().put(txOutputKey, spentInfo);
+        SpentInfo previous = daoState.getSpentInfoMap().put(txOutputKey, spentInfo);
+        if (previous != null)
+            incrementalDaoStateHash.removeSpentInfo(txOutputKey, previous);
+        incrementalDaoStateHash.addSpentInfo(txOutputKey, spentInfo);
     }
 
     public Optional<SpentInfo> getSpentInfo(TxOutput txOutput) {
@@ -966,7 +1003,11 @@ public class DaoStateService implements DaoSetupService {
 
         evaluatedProposals.stream()
                 .filter(e -> !daoState.getEvaluatedProposalList().contains(e))
-                .forEach(daoState.getEvaluatedProposalList()::add);
+                .forEach(evaluatedProposal -> {
+                    daoState.getEvaluatedProposalList().add(evaluatedProposal);
+                    incrementalDaoStateHash.add(IncrementalDaoStateHash.Part.EVALUATED_PROPOSALS,
+                            evaluatedProposal.toProtoMessage());
+                });
 
         // We need deterministic order for the hash chain
         daoState.getEvaluatedProposalList().sort(Comparator.comparing(EvaluatedProposal::getProposalTxId));
@@ -981,7 +1022,11 @@ public class DaoStateService implements DaoSetupService {
 
         decryptedBallotsWithMeritsSet.stream()
                 .filter(e -> !daoState.getDecryptedBallotsWithMeritsList().contains(e))
-                .forEach(daoState.getDecryptedBallotsWithMeritsList()::add);
+                .forEach(decryptedBallotsWithMerits -> {
+                    daoState.getDecryptedBallotsWithMeritsList().add(decryptedBallotsWithMerits);
+                    incrementalDaoStateHash.add(IncrementalDaoStateHash.Part.DECRYPTED_BALLOTS_WITH_MERITS,
+                            decryptedBallotsWithMerits.toProtoMessage());
+                });
 
         // We need deterministic order for the hash chain
         daoState.getDecryptedBallotsWithMeritsList().sort(Comparator.comparing(DecryptedBallotsWithMerits::getBlindVoteTxId));
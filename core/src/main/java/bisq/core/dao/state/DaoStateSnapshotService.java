@@ -92,11 +92,9 @@ public class DaoStateSnapshotService {
             // At trigger event we store the latest snapshotCandidate to disc
             long ts = System.currentTimeMillis();
             if (daoStateSnapshotCandidate != null) {
-                // We clone because storage is in a threaded context and we set the snapshotCandidate to our current
-                // state in the next step
-                DaoState clonedDaoState = daoStateService.getClone(daoStateSnapshotCandidate);
-                LinkedList<DaoStateHash> clonedDaoStateHashChain = new LinkedList<>(daoStateHashChainSnapshotCandidate);
-                daoStateStorageService.persist(clonedDaoState, clonedDaoStateHashChain);
+                // The snapshotCandidate is a clone which never gets changed and we replace it with a new clone in the
+                // next step, so we can pass it to the storage which runs in a threaded context without cloning again.
+                daoStateStorageService.persist(daoStateSnapshotCandidate, daoStateHashChainSnapshotCandidate);
 
                 log.info("Saved snapshotCandidate with height {} to Disc at height {} took {} ms",
                         daoStateSnapshotCandidate.getChainHeight(), chainHeight, System.currentTimeMillis() - ts);
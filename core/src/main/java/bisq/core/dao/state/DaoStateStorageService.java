@@ -20,25 +20,32 @@ package bisq.core.dao.state;
 import bisq.core.dao.monitoring.DaoStateMonitoringService;
 import bisq.core.dao.monitoring.model.DaoStateHash;
 import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
 
 import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
 import bisq.network.p2p.storage.persistence.StoreService;
 
 import bisq.common.UserThread;
 import bisq.common.storage.Storage;
+import bisq.common.util.Utilities;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 
 import java.io.File;
+import java.io.IOException;
 
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Manages persistence of the daoState.
+ * Manages persistence of the daoState. The blocks of completed segments are persisted in the DaoStateBlockStore, the
+ * DaoStateStore only contains the blocks after those. When reading the store we add the blocks from the segments
+ * again, so the daoState in memory contains all blocks.
  */
 @Slf4j
 public class DaoStateStorageService extends StoreService<DaoStateStore> {
@@ -51,6 +58,9 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
 
     private final DaoState daoState;
     private final DaoStateMonitoringService daoStateMonitoringService;
+    private final DaoStateBlockStore daoStateBlockStore;
+    // Writes the segments of the DaoStateBlockStore in the order of the persist calls
+    private final ExecutorService executor = Utilities.getSingleThreadExecutor("DaoStateStorageService");
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -61,11 +71,13 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
     public DaoStateStorageService(ResourceDataStoreService resourceDataStoreService,
                                   DaoState daoState,
                                   DaoStateMonitoringService daoStateMonitoringService,
+                                  DaoStateBlockStore daoStateBlockStore,
                                   @Named(Storage.STORAGE_DIR) File storageDir,
                                   Storage<DaoStateStore> daoSnapshotStorage) {
         super(storageDir, daoSnapshotStorage);
         this.daoState = daoState;
         this.daoStateMonitoringService = daoStateMonitoringService;
+        this.daoStateBlockStore = daoStateBlockStore;
 
         resourceDataStoreService.addService(this);
     }
@@ -80,14 +92,23 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
         return FILE_NAME;
     }
 
+    /**
+     * Writes the blocks of completed segments to the DaoStateBlockStore and then the store with the remaining blocks.
+     * The daoState must be a clone which does not get changed anymore as the segments are written on the executor.
+     */
     public void persist(DaoState daoState, LinkedList<DaoStateHash> daoStateHashChain) {
-        persist(daoState, daoStateHashChain, 200);
-    }
-
-    private void persist(DaoState daoState, LinkedList<DaoStateHash> daoStateHashChain, long delayInMilli) {
         store.setDaoState(daoState);
         store.setDaoStateHashChain(daoStateHashChain);
-        storage.queueUpForSave(store, delayInMilli);
+        executor.execute(() -> {
+            int firstBlockHeightToPersist = daoStateBlockStore.writeCompletedSegments(daoState.getBlocks());
+            UserThread.execute(() -> {
+                // If a newer daoState got set in the meantime its own persist call writes the store
+                if (store.getDaoState() == daoState) {
+                    store.setFirstBlockHeightToPersist(firstBlockHeightToPersist);
+                    storage.queueUpForSave(store, 200);
+                }
+            });
+        });
     }
 
     public DaoState getPersistedBsqState() {
@@ -99,7 +120,11 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
     }
 
     public void resetDaoState(Runnable resultHandler) {
-        persist(new DaoState(), new LinkedList<>(), 1);
+        executor.execute(daoStateBlockStore::deleteAll);
+        store.setDaoState(new DaoState());
+        store.setDaoStateHashChain(new LinkedList<>());
+        store.setFirstBlockHeightToPersist(0);
+        storage.queueUpForSave(store, 1);
         UserThread.runAfter(resultHandler, 300, TimeUnit.MILLISECONDS);
     }
 
@@ -108,6 +133,23 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
     // Protected
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    @Override
+    protected void readStore() {
+        super.readStore();
+
+        // Files written by older versions and the resource file contain all blocks
+        LinkedList<Block> blocks = store.getDaoState().getBlocks();
+        if (!blocks.isEmpty() && blocks.getFirst().getHeight() > daoStateBlockStore.getGenesisBlockHeight()) {
+            try {
+                List<Block> blocksFromSegments = daoStateBlockStore.readBlocks(blocks.getFirst());
+                blocks.addAll(0, blocksFromSegments);
+            } catch (IOException e) {
+                log.error("Could not read the blocks of the persisted DaoState. We start over with an empty DaoState.", e);
+                store = createStore();
+            }
+        }
+    }
+
     @Override
     protected DaoStateStore createStore() {
         return new DaoStateStore(DaoState.getClone(daoState), new LinkedList<>(daoStateMonitoringService.getDaoStateHashChain()));
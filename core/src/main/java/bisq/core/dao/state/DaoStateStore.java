@@ -19,6 +19,7 @@ package bisq.core.dao.state;
 
 import bisq.core.dao.monitoring.model.DaoStateHash;
 import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
 
 import bisq.common.proto.persistable.PersistableEnvelope;
 
@@ -26,7 +27,14 @@ import io.bisq.generated.protobuffer.PB;
 
 import com.google.protobuf.Message;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -47,6 +55,14 @@ public class DaoStateStore implements PersistableEnvelope {
     @Setter
     private LinkedList<DaoStateHash> daoStateHashChain;
 
+    // Serialized envelopes of single blocks and hashes from the last write. Blocks and hashes are immutable and
+    // shared between the snapshots, so at each write we only need to serialize the new ones.
+    private Map<Block, byte[]> serializedBlocks = new IdentityHashMap<>();
+    private Map<DaoStateHash, byte[]> serializedDaoStateHashes = new IdentityHashMap<>();
+    // Blocks below that height are persisted in the segments of the DaoStateBlockStore and not in this store
+    @Setter
+    private volatile int firstBlockHeightToPersist;
+
     DaoStateStore(DaoState daoState, LinkedList<DaoStateHash> daoStateHashChain) {
         this.daoState = daoState;
         this.daoStateHashChain = daoStateHashChain;
@@ -69,6 +85,58 @@ public class DaoStateStore implements PersistableEnvelope {
                 .build();
     }
 
+    /**
+     * Parses to the same message as toProtoMessage(). We write the envelope without blocks and hashes, followed by one
+     * envelope for each block and hash. Protobuf merges concatenated messages at parsing and appends repeated fields,
+     * so the file format does not change.
+     * <p/>
+     * We only write the blocks from firstBlockHeightToPersist on, the blocks below are in the segments of the
+     * DaoStateBlockStore. DaoStateStorageService adds the blocks from the segments again when reading the store.
+     */
+    @Override
+    public synchronized byte[] toSerializedBytes() {
+        checkNotNull(daoState, "daoState must not be null when toSerializedBytes is invoked");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            toEnvelope(PB.DaoStateStore.newBuilder().setDaoState(daoState.getBsqStateBuilderExcludingBlocks()))
+                    .writeTo(outputStream);
+
+            List<Block> blocks = daoState.getBlocks().stream()
+                    .filter(block -> block.getHeight() >= firstBlockHeightToPersist)
+                    .collect(Collectors.toList());
+            serializedBlocks = writeEntries(blocks, serializedBlocks, block ->
+                    toEnvelope(PB.DaoStateStore.newBuilder()
+                            .setDaoState(PB.DaoState.newBuilder().addBlocks(block.toProtoMessage())))
+                            .toByteArray(), outputStream);
+            serializedDaoStateHashes = writeEntries(daoStateHashChain, serializedDaoStateHashes, daoStateHash ->
+                    toEnvelope(PB.DaoStateStore.newBuilder().addDaoStateHash(daoStateHash.toProtoMessage()))
+                            .toByteArray(), outputStream);
+        } catch (IOException e) {
+            // Cannot happen with a ByteArrayOutputStream
+            throw new RuntimeException(e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static PB.PersistableEnvelope toEnvelope(PB.DaoStateStore.Builder builder) {
+        return PB.PersistableEnvelope.newBuilder().setDaoStateStore(builder).build();
+    }
+
+    private static <T> Map<T, byte[]> writeEntries(List<T> entries,
+                                                   Map<T, byte[]> cache,
+                                                   Function<T, byte[]> serializer,
+                                                   ByteArrayOutputStream outputStream) throws IOException {
+        Map<T, byte[]> newCache = new IdentityHashMap<>();
+        for (T entry : entries) {
+            byte[] bytes = cache.get(entry);
+            if (bytes == null)
+                bytes = serializer.apply(entry);
+            newCache.put(entry, bytes);
+            outputStream.write(bytes);
+        }
+        return newCache;
+    }
+
     public static PersistableEnvelope fromProto(PB.DaoStateStore proto) {
         LinkedList<DaoStateHash> daoStateHashList = proto.getDaoStateHashList().isEmpty() ?
                 new LinkedList<>() :
@@ -0,0 +1,196 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.SpentInfo;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+
+import bisq.common.crypto.Hash;
+
+import com.google.protobuf.Message;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import java.math.BigInteger;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Commitment to the DaoState which gets updated with each change instead of serializing the whole state for each
+ * block as done for the legacy hash (DaoState.getSerializedStateForHashChain).
+ * <p/>
+ * For each collection of the DaoState we keep a multiset hash: the sum of the SHA-256 hashes of the serialized
+ * elements modulo 2^256 and the number of elements. Adding or removing an element is one hash and one addition, and
+ * the result does not depend on the order of the changes, so it matches the state of a node which got the same
+ * state from a snapshot. The state hash is the hash over the chain height and all collection hashes.
+ * <p/>
+ * All blocks are included, so unlike the legacy hash we don't need to include the previous hash to cover the history.
+ * <p/>
+ * Not thread safe. Like the DaoState it must be accessed from the user thread only.
+ */
+@Slf4j
+class IncrementalDaoStateHash {
+    enum Part {
+        BLOCKS,
+        CYCLES,
+        UNSPENT_TX_OUTPUTS,
+        SPENT_INFOS,
+        CONFISCATED_LOCKUP_TXS,
+        ISSUANCES,
+        PARAM_CHANGES,
+        EVALUATED_PROPOSALS,
+        DECRYPTED_BALLOTS_WITH_MERITS
+    }
+
+    private static final int HASH_SIZE = 32;
+    private static final BigInteger MODULUS = BigInteger.ONE.shiftLeft(HASH_SIZE * 8);
+
+    private final Map<Part, Accumulator> accumulators = new EnumMap<>(Part.class);
+    @Getter
+    private long updateNanos;
+
+    IncrementalDaoStateHash() {
+        reset();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Update
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void reset() {
+        for (Part part : Part.values())
+            accumulators.put(part, new Accumulator());
+    }
+
+    void rebuild(DaoState daoState) {
+        long ts = System.currentTimeMillis();
+        reset();
+        daoState.getBlocks().forEach(e -> add(Part.BLOCKS, e.toProtoMessage()));
+        daoState.getCycles().forEach(e -> add(Part.CYCLES, e.toProtoMessage()));
+        daoState.getUnspentTxOutputMap().values().forEach(e -> add(Part.UNSPENT_TX_OUTPUTS, e.toProtoMessage()));
+        daoState.getSpentInfoMap().forEach(this::addSpentInfo);
+        daoState.getConfiscatedLockupTxList().forEach(this::addConfiscatedLockupTx);
+        daoState.getIssuanceMap().values().forEach(e -> add(Part.ISSUANCES, e.toProtoMessage()));
+        daoState.getParamChangeList().forEach(e -> add(Part.PARAM_CHANGES, e.toProtoMessage()));
+        daoState.getEvaluatedProposalList().forEach(e -> add(Part.EVALUATED_PROPOSALS, e.toProtoMessage()));
+        daoState.getDecryptedBallotsWithMeritsList().forEach(e -> add(Part.DECRYPTED_BALLOTS_WITH_MERITS, e.toProtoMessage()));
+        log.info("Rebuilding incremental DaoState hash took {} ms", System.currentTimeMillis() - ts);
+    }
+
+    void add(Part part, Message message) {
+        long ts = System.nanoTime();
+        accumulators.get(part).add(getElementHash(part, message.toByteArray()));
+        updateNanos += System.nanoTime() - ts;
+    }
+
+    void remove(Part part, Message message) {
+        long ts = System.nanoTime();
+        accumulators.get(part).remove(getElementHash(part, message.toByteArray()));
+        updateNanos += System.nanoTime() - ts;
+    }
+
+    void addSpentInfo(TxOutputKey txOutputKey, SpentInfo spentInfo) {
+        long ts = System.nanoTime();
+        accumulators.get(Part.SPENT_INFOS).add(getSpentInfoHash(txOutputKey, spentInfo));
+        updateNanos += System.nanoTime() - ts;
+    }
+
+    void removeSpentInfo(TxOutputKey txOutputKey, SpentInfo spentInfo) {
+        long ts = System.nanoTime();
+        accumulators.get(Part.SPENT_INFOS).remove(getSpentInfoHash(txOutputKey, spentInfo));
+        updateNanos += System.nanoTime() - ts;
+    }
+
+    void addConfiscatedLockupTx(String lockupTxId) {
+        long ts = System.nanoTime();
+        accumulators.get(Part.CONFISCATED_LOCKUP_TXS).add(getElementHash(Part.CONFISCATED_LOCKUP_TXS,
+                lockupTxId.getBytes(StandardCharsets.UTF_8)));
+        updateNanos += System.nanoTime() - ts;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Hash
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    byte[] getHash(int chainHeight) {
+        Part[] parts = Part.values();
+        ByteBuffer byteBuffer = ByteBuffer.allocate(4 + parts.length * (8 + HASH_SIZE));
+        byteBuffer.putInt(chainHeight);
+        for (Part part : parts) {
+            Accumulator accumulator = accumulators.get(part);
+            byteBuffer.putLong(accumulator.count);
+            byteBuffer.put(toFixedSizeBytes(accumulator.sum));
+        }
+        return Hash.getSha256Ripemd160hash(byteBuffer.array());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static BigInteger getElementHash(Part part, byte[] bytes) {
+        // We prefix the part so equal bytes in different collections result in different hashes
+        byte[] prefixed = new byte[bytes.length + 1];
+        prefixed[0] = (byte) part.ordinal();
+        System.arraycopy(bytes, 0, prefixed, 1, bytes.length);
+        return new BigInteger(1, Hash.getSha256Hash(prefixed));
+    }
+
+    private static BigInteger getSpentInfoHash(TxOutputKey txOutputKey, SpentInfo spentInfo) {
+        byte[] keyBytes = txOutputKey.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = spentInfo.toProtoMessage().toByteArray();
+        ByteBuffer byteBuffer = ByteBuffer.allocate(4 + keyBytes.length + valueBytes.length);
+        byteBuffer.putInt(keyBytes.length);
+        byteBuffer.put(keyBytes);
+        byteBuffer.put(valueBytes);
+        return getElementHash(Part.SPENT_INFOS, byteBuffer.array());
+    }
+
+    private static byte[] toFixedSizeBytes(BigInteger value) {
+        // BigInteger.toByteArray is minimal and can have a leading sign byte, so we copy it right aligned
+        byte[] bytes = value.toByteArray();
+        byte[] result = new byte[HASH_SIZE];
+        int length = Math.min(bytes.length, HASH_SIZE);
+        System.arraycopy(bytes, bytes.length - length, result, HASH_SIZE - length, length);
+        return result;
+    }
+
+    private static class Accumulator {
+        private BigInteger sum = BigInteger.ZERO;
+        private long count;
+
+        private void add(BigInteger elementHash) {
+            sum = sum.add(elementHash).mod(MODULUS);
+            count++;
+        }
+
+        private void remove(BigInteger elementHash) {
+            sum = sum.subtract(elementHash).mod(MODULUS);
+            count--;
+        }
+    }
+}
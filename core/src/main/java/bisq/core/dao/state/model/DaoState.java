@@ -62,8 +62,20 @@ public class DaoState implements PersistablePayload {
     // Static
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // All elements of the DaoState are immutable, so we only copy the collections and share the elements with the
+    // original. That is much cheaper than a protobuf round trip, which would copy all blocks and txs.
+    // The last block must be completely parsed as its list of txs is still mutable during parsing.
     public static DaoState getClone(DaoState daoState) {
-        return DaoState.fromProto(daoState.getBsqStateBuilder().build());
+        return new DaoState(daoState.getChainHeight(),
+                new LinkedList<>(daoState.getBlocks()),
+                new LinkedList<>(daoState.getCycles()),
+                new TreeMap<>(daoState.getUnspentTxOutputMap()),
+                new TreeMap<>(daoState.getSpentInfoMap()),
+                new ArrayList<>(daoState.getConfiscatedLockupTxList()),
+                new TreeMap<>(daoState.getIssuanceMap()),
+                new ArrayList<>(daoState.getParamChangeList()),
+                new ArrayList<>(daoState.getEvaluatedProposalList()),
+                new ArrayList<>(daoState.getDecryptedBallotsWithMeritsList()));
     }
 
 
@@ -160,7 +172,7 @@ public class DaoState implements PersistablePayload {
                 .collect(Collectors.toList()));
     }
 
-    private PB.DaoState.Builder getBsqStateBuilderExcludingBlocks() {
+    public PB.DaoState.Builder getBsqStateBuilderExcludingBlocks() {
         PB.DaoState.Builder builder = PB.DaoState.newBuilder();
         builder.setChainHeight(chainHeight)
                 .addAllCycles(cycles.stream().map(Cycle::toProtoMessage).collect(Collectors.toList()))
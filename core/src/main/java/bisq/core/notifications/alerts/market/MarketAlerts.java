@@ -101,8 +101,13 @@ public class MarketAlerts {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Only offers with the payment method of one of the filters can trigger an alert
     private void applyFilterOnAllOffers() {
-        offerBookService.getOffers().forEach(this::onOfferAdded);
+        user.getMarketAlertFilters().stream()
+                .map(marketAlertFilter -> marketAlertFilter.getPaymentAccount().getPaymentMethod().getId())
+                .distinct()
+                .flatMap(paymentMethodId -> offerBookService.getOffersByPaymentMethodId(paymentMethodId).stream())
+                .forEach(this::onOfferAdded);
     }
 
     // We combine the offer ID and the price (either as % price or as fixed price) to get also updates for edited offers
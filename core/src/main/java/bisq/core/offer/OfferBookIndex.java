@@ -0,0 +1,256 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.core.locale.CurrencyUtil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Offer payloads of the offer book by offer ID, by market (currency code and direction) and by payment method, so
+ * queries for one market or payment method do not need to iterate over the whole P2P data map.
+ * <p/>
+ * We store the payloads and not the offers as the market based price of an offer changes with the market price and
+ * as the offers we hand out have a mutable state.
+ * <p/>
+ * The offers of a market are kept sorted with the best price first (see MarketOfferPayloads), so price queries only
+ * need to merge the fixed price and the market based price offers.
+ */
+class OfferBookIndex {
+    private final Map<String, OfferPayload> offerPayloadById = new LinkedHashMap<>();
+    private final Map<String, MarketOfferPayloads> offerPayloadsByMarket = new HashMap<>();
+    private final Map<String, Map<String, OfferPayload>> offerPayloadsByPaymentMethodId = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // An offer with the same ID gets replaced (e.g. an edited offer)
+    void add(OfferPayload offerPayload) {
+        OfferPayload previous = offerPayloadById.get(offerPayload.getId());
+        if (previous != null)
+            remove(previous);
+
+        offerPayloadById.put(offerPayload.getId(), offerPayload);
+        offerPayloadsByMarket.computeIfAbsent(getMarketKey(offerPayload),
+                e -> new MarketOfferPayloads(isHighestPriceFirst(offerPayload.getCurrencyCode(), offerPayload.getDirection())))
+                .add(offerPayload);
+        offerPayloadsByPaymentMethodId.computeIfAbsent(offerPayload.getPaymentMethodId(), e -> new LinkedHashMap<>())
+                .put(offerPayload.getId(), offerPayload);
+    }
+
+    // We only remove the offer if it is the same as the indexed one, as the remove of an old version of an edited offer
+    // might arrive after the add of the new version.
+    void remove(OfferPayload offerPayload) {
+        if (!offerPayloadById.remove(offerPayload.getId(), offerPayload))
+            return;
+
+        String marketKey = getMarketKey(offerPayload);
+        MarketOfferPayloads marketOfferPayloads = offerPayloadsByMarket.get(marketKey);
+        if (marketOfferPayloads != null && marketOfferPayloads.remove(offerPayload))
+            offerPayloadsByMarket.remove(marketKey);
+        remove(offerPayloadsByPaymentMethodId, offerPayload.getPaymentMethodId(), offerPayload);
+    }
+
+    List<OfferPayload> getOfferPayloads() {
+        return new ArrayList<>(offerPayloadById.values());
+    }
+
+    // The fixed price offers with the best price first, followed by the market based price offers with the best price
+    // first
+    List<OfferPayload> getOfferPayloads(String currencyCode, OfferPayload.Direction direction) {
+        List<OfferPayload> offerPayloads = getFixedPriceOfferPayloads(currencyCode, direction);
+        offerPayloads.addAll(getMarketBasedPriceOfferPayloads(currencyCode, direction));
+        return offerPayloads;
+    }
+
+    List<OfferPayload> getFixedPriceOfferPayloads(String currencyCode, OfferPayload.Direction direction) {
+        return getMarketOfferPayloads(currencyCode, direction)
+                .map(MarketOfferPayloads::getFixedPriceOfferPayloads)
+                .orElseGet(ArrayList::new);
+    }
+
+    // Fixed price offers with a price value between minPrice and maxPrice (inclusive)
+    List<OfferPayload> getFixedPriceOfferPayloads(String currencyCode,
+                                                  OfferPayload.Direction direction,
+                                                  long minPrice,
+                                                  long maxPrice) {
+        return getMarketOfferPayloads(currencyCode, direction)
+                .map(e -> e.getFixedPriceOfferPayloads(minPrice, maxPrice))
+                .orElseGet(ArrayList::new);
+    }
+
+    List<OfferPayload> getMarketBasedPriceOfferPayloads(String currencyCode, OfferPayload.Direction direction) {
+        return getMarketOfferPayloads(currencyCode, direction)
+                .map(MarketOfferPayloads::getMarketBasedPriceOfferPayloads)
+                .orElseGet(ArrayList::new);
+    }
+
+    Optional<OfferPayload> getBestFixedPriceOfferPayload(String currencyCode, OfferPayload.Direction direction) {
+        return getMarketOfferPayloads(currencyCode, direction)
+                .flatMap(MarketOfferPayloads::getBestFixedPriceOfferPayload);
+    }
+
+    Optional<OfferPayload> getBestMarketBasedPriceOfferPayload(String currencyCode, OfferPayload.Direction direction) {
+        return getMarketOfferPayloads(currencyCode, direction)
+                .flatMap(MarketOfferPayloads::getBestMarketBasedPriceOfferPayload);
+    }
+
+    List<OfferPayload> getOfferPayloadsByPaymentMethodId(String paymentMethodId) {
+        return get(offerPayloadsByPaymentMethodId, paymentMethodId);
+    }
+
+    int size() {
+        return offerPayloadById.size();
+    }
+
+    // The highest price is the best for buy offers and the lowest for sell offers, inverted for altcoins as the price is
+    // in BTC
+    static boolean isHighestPriceFirst(String currencyCode, OfferPayload.Direction direction) {
+        return (direction == OfferPayload.Direction.BUY) != CurrencyUtil.isCryptoCurrency(currencyCode);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Optional<MarketOfferPayloads> getMarketOfferPayloads(String currencyCode, OfferPayload.Direction direction) {
+        return Optional.ofNullable(offerPayloadsByMarket.get(getMarketKey(currencyCode, direction)));
+    }
+
+    private static void remove(Map<String, Map<String, OfferPayload>> map, String key, OfferPayload offerPayload) {
+        Map<String, OfferPayload> offerPayloads = map.get(key);
+        if (offerPayloads == null)
+            return;
+
+        offerPayloads.remove(offerPayload.getId());
+        if (offerPayloads.isEmpty())
+            map.remove(key);
+    }
+
+    private static List<OfferPayload> get(Map<String, Map<String, OfferPayload>> map, String key) {
+        Map<String, OfferPayload> offerPayloads = map.get(key);
+        return offerPayloads != null ? new ArrayList<>(offerPayloads.values()) : new ArrayList<>();
+    }
+
+    private static String getMarketKey(OfferPayload offerPayload) {
+        return getMarketKey(offerPayload.getCurrencyCode(), offerPayload.getDirection());
+    }
+
+    private static String getMarketKey(String currencyCode, OfferPayload.Direction direction) {
+        return currencyCode + "_" + direction.name();
+    }
+
+    private static <K> Optional<OfferPayload> getFirst(NavigableMap<K, Map<String, OfferPayload>> map) {
+        return map.isEmpty() ? Optional.empty() : map.firstEntry().getValue().values().stream().findFirst();
+    }
+
+    private static <K> List<OfferPayload> getValues(NavigableMap<K, Map<String, OfferPayload>> map) {
+        List<OfferPayload> offerPayloads = new ArrayList<>();
+        map.values().forEach(e -> offerPayloads.addAll(e.values()));
+        return offerPayloads;
+    }
+
+    private static <K> void removeFromPriceLevel(NavigableMap<K, Map<String, OfferPayload>> map, K key, String offerId) {
+        Map<String, OfferPayload> offerPayloads = map.get(key);
+        if (offerPayloads == null)
+            return;
+
+        offerPayloads.remove(offerId);
+        if (offerPayloads.isEmpty())
+            map.remove(key);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // MarketOfferPayloads
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * The offer payloads of one market (currency code and direction) with the best price first. Fixed price offers are
+     * sorted by their price. Market based price offers are sorted by their market price margin, as in all markets a
+     * lower margin gives a better price at any market price (see Offer.getPrice). Offers with the same price or margin
+     * keep the order they were added in.
+     */
+    private static class MarketOfferPayloads {
+        private final NavigableMap<Long, Map<String, OfferPayload>> fixedPriceOfferPayloadsByPrice;
+        private final NavigableMap<Double, Map<String, OfferPayload>> marketBasedPriceOfferPayloadsByMargin = new TreeMap<>();
+        private final boolean isHighestPriceFirst;
+
+        MarketOfferPayloads(boolean isHighestPriceFirst) {
+            this.isHighestPriceFirst = isHighestPriceFirst;
+            fixedPriceOfferPayloadsByPrice = new TreeMap<>(isHighestPriceFirst ?
+                    Comparator.<Long>reverseOrder() :
+                    Comparator.<Long>naturalOrder());
+        }
+
+        void add(OfferPayload offerPayload) {
+            if (offerPayload.isUseMarketBasedPrice())
+                marketBasedPriceOfferPayloadsByMargin.computeIfAbsent(offerPayload.getMarketPriceMargin(), e -> new LinkedHashMap<>())
+                        .put(offerPayload.getId(), offerPayload);
+            else
+                fixedPriceOfferPayloadsByPrice.computeIfAbsent(offerPayload.getPrice(), e -> new LinkedHashMap<>())
+                        .put(offerPayload.getId(), offerPayload);
+        }
+
+        // Returns true if the market has no offers anymore
+        boolean remove(OfferPayload offerPayload) {
+            if (offerPayload.isUseMarketBasedPrice())
+                removeFromPriceLevel(marketBasedPriceOfferPayloadsByMargin, offerPayload.getMarketPriceMargin(), offerPayload.getId());
+            else
+                removeFromPriceLevel(fixedPriceOfferPayloadsByPrice, offerPayload.getPrice(), offerPayload.getId());
+            return fixedPriceOfferPayloadsByPrice.isEmpty() && marketBasedPriceOfferPayloadsByMargin.isEmpty();
+        }
+
+        List<OfferPayload> getFixedPriceOfferPayloads() {
+            return getValues(fixedPriceOfferPayloadsByPrice);
+        }
+
+        List<OfferPayload> getFixedPriceOfferPayloads(long minPrice, long maxPrice) {
+            if (minPrice > maxPrice)
+                return new ArrayList<>();
+
+            // The map is in descending order if the highest price is first
+            return getValues(isHighestPriceFirst ?
+                    fixedPriceOfferPayloadsByPrice.subMap(maxPrice, true, minPrice, true) :
+                    fixedPriceOfferPayloadsByPrice.subMap(minPrice, true, maxPrice, true));
+        }
+
+        List<OfferPayload> getMarketBasedPriceOfferPayloads() {
+            return getValues(marketBasedPriceOfferPayloadsByMargin);
+        }
+
+        Optional<OfferPayload> getBestFixedPriceOfferPayload() {
+            return getFirst(fixedPriceOfferPayloadsByPrice);
+        }
+
+        Optional<OfferPayload> getBestMarketBasedPriceOfferPayload() {
+            return getFirst(marketBasedPriceOfferPayloadsByMargin);
+        }
+    }
+}
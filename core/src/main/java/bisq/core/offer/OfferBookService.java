@@ -18,6 +18,7 @@
 package bisq.core.offer;
 
 import bisq.core.app.AppOptionKeys;
+import bisq.core.monetary.Price;
 import bisq.core.provider.price.PriceFeedService;
 
 import bisq.network.p2p.BootstrapListener;
@@ -38,9 +39,13 @@ import javax.inject.Inject;
 
 import java.io.File;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,6 +55,8 @@ import javax.annotation.Nullable;
 /**
  * Handles storage and retrieval of offers.
  * Uses an invalidation flag to only request the full offer map in case there was a change (anyone has added or removed an offer).
+ * The offers are retrieved from an index by market and payment method which is updated at the add and remove events of
+ * the P2P data storage.
  */
 public class OfferBookService {
     private static final Logger log = LoggerFactory.getLogger(OfferBookService.class);
@@ -64,6 +71,8 @@ public class OfferBookService {
     private final PriceFeedService priceFeedService;
     private final List<OfferBookChangedListener> offerBookChangedListeners = new LinkedList<>();
     private final JsonFileManager jsonFileManager;
+    private final OfferBookIndex offerBookIndex = new OfferBookIndex();
+    private boolean offerBookIndexInitialized;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -82,26 +91,20 @@ public class OfferBookService {
         p2PService.addHashSetChangedListener(new HashMapChangedListener() {
             @Override
             public void onAdded(ProtectedStorageEntry data) {
-                offerBookChangedListeners.stream().forEach(listener -> {
-                    if (data.getProtectedStoragePayload() instanceof OfferPayload) {
-                        OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                        Offer offer = new Offer(offerPayload);
-                        offer.setPriceFeedService(priceFeedService);
-                        listener.onAdded(offer);
-                    }
-                });
+                if (data.getProtectedStoragePayload() instanceof OfferPayload) {
+                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
+                    offerBookIndex.add(offerPayload);
+                    offerBookChangedListeners.forEach(listener -> listener.onAdded(toOffer(offerPayload)));
+                }
             }
 
             @Override
             public void onRemoved(ProtectedStorageEntry data) {
-                offerBookChangedListeners.stream().forEach(listener -> {
-                    if (data.getProtectedStoragePayload() instanceof OfferPayload) {
-                        OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                        Offer offer = new Offer(offerPayload);
-                        offer.setPriceFeedService(priceFeedService);
-                        listener.onRemoved(offer);
-                    }
-                });
+                if (data.getProtectedStoragePayload() instanceof OfferPayload) {
+                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
+                    offerBookIndex.remove(offerPayload);
+                    offerBookChangedListeners.forEach(listener -> listener.onRemoved(toOffer(offerPayload)));
+                }
             }
         });
 
@@ -140,12 +143,12 @@ public class OfferBookService {
         }
     }
 
-    public void refreshTTL(OfferPayload offerPayload, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
-        boolean result = p2PService.refreshTTL(offerPayload, true);
+    public void refreshTTL(List<OfferPayload> offerPayloads, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
+        boolean result = p2PService.refreshTTL(offerPayloads, true);
         if (result) {
             resultHandler.handleResult();
         } else {
-            errorMessageHandler.handleErrorMessage("Refresh TTL failed.");
+            errorMessageHandler.handleErrorMessage("Refresh TTL of " + offerPayloads.size() + " offers failed.");
         }
     }
 
@@ -168,15 +171,48 @@ public class OfferBookService {
     }
 
     public List<Offer> getOffers() {
-        return p2PService.getDataMap().values().stream()
-                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayload)
-                .map(data -> {
-                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                    Offer offer = new Offer(offerPayload);
-                    offer.setPriceFeedService(priceFeedService);
-                    return offer;
-                })
+        return toOffers(getOfferBookIndex().getOfferPayloads());
+    }
+
+    public List<Offer> getOffersByPaymentMethodId(String paymentMethodId) {
+        return toOffers(getOfferBookIndex().getOfferPayloadsByPaymentMethodId(paymentMethodId));
+    }
+
+    // Sorted with the best price first (the highest price for buy offers and the lowest for sell offers, inverted for
+    // altcoins as the price is in BTC). The offer book index keeps the fixed price offers and the market based price
+    // offers of a market sorted with the best price first, so we only merge them. Offers without a price (market price
+    // not available) are at the end.
+    public List<Offer> getOffersSortedByPrice(String currencyCode, OfferPayload.Direction direction) {
+        OfferBookIndex offerBookIndex = getOfferBookIndex();
+        return merge(toOffers(offerBookIndex.getFixedPriceOfferPayloads(currencyCode, direction)),
+                toOffers(offerBookIndex.getMarketBasedPriceOfferPayloads(currencyCode, direction)),
+                getBestPriceFirstComparator(currencyCode, direction));
+    }
+
+    // The offer with the best price, not considering offers without a price
+    public Optional<Offer> getBestOffer(String currencyCode, OfferPayload.Direction direction) {
+        OfferBookIndex offerBookIndex = getOfferBookIndex();
+        return Stream.of(offerBookIndex.getBestFixedPriceOfferPayload(currencyCode, direction),
+                offerBookIndex.getBestMarketBasedPriceOfferPayload(currencyCode, direction))
+                .flatMap(Optional::stream)
+                .map(this::toOffer)
+                .filter(offer -> offer.getPrice() != null)
+                .min(getBestPriceFirstComparator(currencyCode, direction));
+    }
+
+    // Offers with a price value between minPrice and maxPrice (inclusive), sorted with the best price first
+    public List<Offer> getOffersInPriceRange(String currencyCode,
+                                             OfferPayload.Direction direction,
+                                             long minPrice,
+                                             long maxPrice) {
+        OfferBookIndex offerBookIndex = getOfferBookIndex();
+        List<Offer> marketBasedPriceOffers = toOffers(offerBookIndex.getMarketBasedPriceOfferPayloads(currencyCode, direction)).stream()
+                .filter(offer -> offer.getPrice() != null)
+                .filter(offer -> offer.getPrice().getValue() >= minPrice && offer.getPrice().getValue() <= maxPrice)
                 .collect(Collectors.toList());
+        return merge(toOffers(offerBookIndex.getFixedPriceOfferPayloads(currencyCode, direction, minPrice, maxPrice)),
+                marketBasedPriceOffers,
+                getBestPriceFirstComparator(currencyCode, direction));
     }
 
     public void removeOfferAtShutDown(OfferPayload offerPayload) {
@@ -197,6 +233,48 @@ public class OfferBookService {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private OfferBookIndex getOfferBookIndex() {
+        // We might have received offers before we registered our listener
+        if (!offerBookIndexInitialized) {
+            p2PService.getP2PDataStorage().getProtectedStoragePayloads(OfferPayload.class).forEach(offerBookIndex::add);
+            offerBookIndexInitialized = true;
+        }
+        return offerBookIndex;
+    }
+
+    private Offer toOffer(OfferPayload offerPayload) {
+        Offer offer = new Offer(offerPayload);
+        offer.setPriceFeedService(priceFeedService);
+        return offer;
+    }
+
+    private List<Offer> toOffers(List<OfferPayload> offerPayloads) {
+        return offerPayloads.stream().map(this::toOffer).collect(Collectors.toList());
+    }
+
+    static Comparator<Offer> getBestPriceFirstComparator(String currencyCode, OfferPayload.Direction direction) {
+        Comparator<Price> priceComparator = Comparator.comparingLong(Price::getValue);
+        if (OfferBookIndex.isHighestPriceFirst(currencyCode, direction))
+            priceComparator = priceComparator.reversed();
+        return Comparator.comparing(Offer::getPrice, Comparator.nullsLast(priceComparator));
+    }
+
+    // Merges two lists which are sorted with the comparator
+    private static List<Offer> merge(List<Offer> offers, List<Offer> otherOffers, Comparator<Offer> comparator) {
+        List<Offer> merged = new ArrayList<>(offers.size() + otherOffers.size());
+        int i = 0;
+        int j = 0;
+        while (i < offers.size() && j < otherOffers.size()) {
+            if (comparator.compare(offers.get(i), otherOffers.get(j)) <= 0)
+                merged.add(offers.get(i++));
+            else
+                merged.add(otherOffers.get(j++));
+        }
+        merged.addAll(offers.subList(i, offers.size()));
+        merged.addAll(otherOffers.subList(j, otherOffers.size()));
+        return merged;
+    }
+
     private void doDumpStatistics() {
         // We filter the case that it is a MarketBasedPrice but the price is not available
         // That should only be possible if the price feed provider is not available
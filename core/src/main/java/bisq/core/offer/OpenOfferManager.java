@@ -91,6 +91,8 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private static final long REPUBLISH_AGAIN_AT_STARTUP_DELAY_SEC = 30;
     private static final long REPUBLISH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(40);
     private static final long REFRESH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(6);
+    private static final int REFRESH_BATCH_SIZE = 50;
+    private static final long REFRESH_BATCH_DELAY_MS = 1000;
 
     private final KeyRing keyRing;
     private final User user;
@@ -747,22 +749,18 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         if (periodicRefreshOffersTimer == null)
             periodicRefreshOffersTimer = UserThread.runPeriodically(() -> {
                         if (!stopped) {
-                            int size = openOffers.size();
                             //we clone our list as openOffers might change during our delayed call
                             final ArrayList<OpenOffer> openOffersList = new ArrayList<>(openOffers.getList());
-                            for (int i = 0; i < size; i++) {
-                                // we delay to avoid reaching throttle limits
-                                // roughly 4 offers per second
-
-                                long delay = 300;
-                                final long minDelay = (i + 1) * delay;
-                                final long maxDelay = (i + 2) * delay;
-                                final OpenOffer openOffer = openOffersList.get(i);
-                                UserThread.runAfterRandomDelay(() -> {
-                                    // we need to check if in the meantime the offer has been removed
-                                    if (openOffers.contains(openOffer) && !openOffer.isDeactivated())
-                                        refreshOffer(openOffer);
-                                }, minDelay, maxDelay, TimeUnit.MILLISECONDS);
+                            int numBatches = (openOffersList.size() + REFRESH_BATCH_SIZE - 1) / REFRESH_BATCH_SIZE;
+                            for (int i = 0; i < numBatches; i++) {
+                                // We send the refreshes of up to REFRESH_BATCH_SIZE offers in one message and use a
+                                // random delay to spread the batches, so we do not reach throttle limits
+                                final long minDelay = (i + 1) * REFRESH_BATCH_DELAY_MS;
+                                final long maxDelay = (i + 2) * REFRESH_BATCH_DELAY_MS;
+                                final List<OpenOffer> batch = openOffersList.subList(i * REFRESH_BATCH_SIZE,
+                                        Math.min((i + 1) * REFRESH_BATCH_SIZE, openOffersList.size()));
+                                UserThread.runAfterRandomDelay(() -> refreshOffers(batch),
+                                        minDelay, maxDelay, TimeUnit.MILLISECONDS);
                             }
                         } else {
                             log.debug("We have stopped already. We ignore that periodicRefreshOffersTimer.run call.");
@@ -774,9 +772,17 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
             log.trace("periodicRefreshOffersTimer already stated");
     }
 
-    private void refreshOffer(OpenOffer openOffer) {
-        offerBookService.refreshTTL(openOffer.getOffer().getOfferPayload(),
-                () -> log.debug("Successful refreshed TTL for offer"),
+    private void refreshOffers(List<OpenOffer> batch) {
+        // we need to check if in the meantime the offers have been removed
+        List<OfferPayload> offerPayloads = batch.stream()
+                .filter(openOffer -> openOffers.contains(openOffer) && !openOffer.isDeactivated())
+                .map(openOffer -> openOffer.getOffer().getOfferPayload())
+                .collect(Collectors.toList());
+        if (offerPayloads.isEmpty())
+            return;
+
+        offerBookService.refreshTTL(offerPayloads,
+                () -> log.debug("Successful refreshed TTL for {} offers", offerPayloads.size()),
                 log::warn);
     }
 
@@ -19,8 +19,9 @@ package bisq.core.payment;
 
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
-import bisq.network.p2p.storage.persistence.MapStoreService;
+import bisq.network.p2p.storage.persistence.AppendOnlyLogMapStoreService;
 
+import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.storage.Storage;
 
 import com.google.inject.name.Named;
@@ -36,7 +37,7 @@ import lombok.extern.slf4j.Slf4j;
 import static com.google.common.base.Preconditions.checkArgument;
 
 @Slf4j
-public class AccountAgeWitnessStorageService extends MapStoreService<AccountAgeWitnessStore, PersistableNetworkPayload> {
+public class AccountAgeWitnessStorageService extends AppendOnlyLogMapStoreService<AccountAgeWitnessStore> {
     private static final String FILE_NAME = "AccountAgeWitnessStore";
 
 
@@ -46,8 +47,9 @@ public class AccountAgeWitnessStorageService extends MapStoreService<AccountAgeW
 
     @Inject
     public AccountAgeWitnessStorageService(@Named(Storage.STORAGE_DIR) File storageDir,
-                                           Storage<AccountAgeWitnessStore> persistableNetworkPayloadMapStorage) {
-        super(storageDir, persistableNetworkPayloadMapStorage);
+                                           Storage<AccountAgeWitnessStore> persistableNetworkPayloadMapStorage,
+                                           PersistenceProtoResolver persistenceProtoResolver) {
+        super(storageDir, persistableNetworkPayloadMapStorage, persistenceProtoResolver);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
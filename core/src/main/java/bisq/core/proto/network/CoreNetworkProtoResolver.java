@@ -64,6 +64,7 @@ import bisq.network.p2p.peers.peerexchange.messages.GetPeersRequest;
 import bisq.network.p2p.peers.peerexchange.messages.GetPeersResponse;
 import bisq.network.p2p.storage.messages.AddDataMessage;
 import bisq.network.p2p.storage.messages.AddPersistableNetworkPayloadMessage;
+import bisq.network.p2p.storage.messages.RefreshOfferBatchMessage;
 import bisq.network.p2p.storage.messages.RefreshOfferMessage;
 import bisq.network.p2p.storage.messages.RemoveDataMessage;
 import bisq.network.p2p.storage.messages.RemoveMailboxDataMessage;
@@ -118,6 +119,8 @@ public class CoreNetworkProtoResolver extends CoreProtoResolver implements Netwo
                     return OfferAvailabilityResponse.fromProto(proto.getOfferAvailabilityResponse(), messageVersion);
                 case REFRESH_OFFER_MESSAGE:
                     return RefreshOfferMessage.fromProto(proto.getRefreshOfferMessage(), messageVersion);
+                case REFRESH_OFFER_BATCH_MESSAGE:
+                    return RefreshOfferBatchMessage.fromProto(proto.getRefreshOfferBatchMessage(), messageVersion);
 
                 case ADD_DATA_MESSAGE:
                     return AddDataMessage.fromProto(proto.getAddDataMessage(), this, messageVersion);
@@ -0,0 +1,296 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.trade;
+
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only file of old tradables which we do not keep in the persisted TradableList anymore. Each entry is a
+ * length delimited PB.ArchivedTradable. At the first access (a lookup or an append) we read the index (id, date,
+ * peers address and position of each entry) and only the tradables of the requested pages get parsed. The managers
+ * append a while after startup, so the file is not read on the startup path.
+ * <p/>
+ * If the application stopped while appending, the last entry might be incomplete. We cut it off when reading the
+ * index, so the next append starts at a valid position. We only cut off an entry which is longer than the rest of
+ * the file. If an entry cannot be read or parsed we stop reading there and leave the file as it is. We do not append
+ * to such a file, so the tradables stay in the TradableList.
+ */
+@Slf4j
+public class TradableArchive<T extends Tradable> {
+    private final File file;
+    private final PersistenceProtoResolver persistenceProtoResolver;
+    // Newest first
+    private final List<IndexEntry> index = new ArrayList<>();
+    private final Map<String, IndexEntry> indexEntryById = new HashMap<>();
+    private boolean indexLoaded;
+    // False if we stopped reading the index at an entry we could not read
+    private boolean indexComplete;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public TradableArchive(File storageDir, String fileName, PersistenceProtoResolver persistenceProtoResolver) {
+        this.file = new File(storageDir, fileName);
+        this.persistenceProtoResolver = persistenceProtoResolver;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns false if the tradables could not be written. Tradables which are in the archive already get skipped (e.g.
+    // if the application stopped before they got removed from the TradableList). We need to read the index before
+    // appending to cut off an incomplete entry.
+    public boolean append(Collection<T> tradables) {
+        loadIndex();
+        if (!indexComplete) {
+            log.warn("We do not append to the archive {} as we could not read all of it.", file.getName());
+            return false;
+        }
+
+        long position = file.length();
+        List<IndexEntry> newIndexEntries = new ArrayList<>();
+        try (FileOutputStream fileOutputStream = new FileOutputStream(file, true);
+             BufferedOutputStream outputStream = new BufferedOutputStream(fileOutputStream)) {
+            for (T tradable : tradables) {
+                if (indexEntryById.containsKey(tradable.getId()))
+                    continue;
+
+                PB.ArchivedTradable proto = toProto(tradable);
+                int size = proto.getSerializedSize();
+                position += CodedOutputStream.computeUInt32SizeNoTag(size);
+                proto.writeDelimitedTo(outputStream);
+                newIndexEntries.add(new IndexEntry(proto.getId(), proto.getDate(), proto.getTradingPeerFullAddress(),
+                        position, size));
+                position += size;
+            }
+            outputStream.flush();
+            // The tradables get removed from the TradableList afterwards, so we want them to hit the disk first
+            fileOutputStream.getFD().sync();
+        } catch (IOException e) {
+            log.error("Appending to the archive {} failed. {}", file.getName(), e.toString());
+            // We read the index again at the next access to pick up what got written and to cut off an incomplete entry
+            indexLoaded = false;
+            return false;
+        }
+
+        newIndexEntries.forEach(this::addToIndex);
+        index.sort(Comparator.comparing(IndexEntry::getDate).reversed());
+        return true;
+    }
+
+    public int size() {
+        loadIndex();
+        return index.size();
+    }
+
+    public boolean contains(String id) {
+        loadIndex();
+        return indexEntryById.containsKey(id);
+    }
+
+    // Newest first
+    public List<T> getTradables(int pageIndex, int pageSize) {
+        loadIndex();
+        int from = Math.min(pageIndex * pageSize, index.size());
+        int to = Math.min(from + pageSize, index.size());
+        return read(index.subList(from, to));
+    }
+
+    public Optional<T> getTradableById(String id) {
+        loadIndex();
+        IndexEntry indexEntry = indexEntryById.get(id);
+        if (indexEntry == null)
+            return Optional.empty();
+
+        List<IndexEntry> indexEntries = new ArrayList<>();
+        indexEntries.add(indexEntry);
+        return read(indexEntries).stream().findAny();
+    }
+
+    public int getNumTradablesWithPeer(String tradingPeerFullAddress) {
+        loadIndex();
+        return (int) index.stream()
+                .filter(indexEntry -> indexEntry.getTradingPeerFullAddress().equals(tradingPeerFullAddress))
+                .count();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void loadIndex() {
+        if (indexLoaded)
+            return;
+
+        index.clear();
+        indexEntryById.clear();
+        indexLoaded = true;
+        indexComplete = true;
+        if (!file.exists())
+            return;
+
+        long ts = System.currentTimeMillis();
+        long fileLength = file.length();
+        long position = 0;
+        boolean lastEntryIncomplete = false;
+        try (CountingInputStream inputStream = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int firstByte;
+            while ((firstByte = inputStream.read()) != -1) {
+                int size;
+                try {
+                    size = CodedInputStream.readRawVarint32(firstByte, inputStream);
+                } catch (InvalidProtocolBufferException e) {
+                    // The end of the file is within the size prefix
+                    if (inputStream.getCount() < fileLength)
+                        throw e;
+
+                    lastEntryIncomplete = true;
+                    break;
+                }
+
+                long tradablePosition = inputStream.getCount();
+                if (size < 0)
+                    throw new IOException("Invalid entry size " + size);
+
+                // We check the size before we allocate the bytes, a corrupt size might be huge
+                if (size > fileLength - tradablePosition) {
+                    lastEntryIncomplete = true;
+                    break;
+                }
+
+                byte[] bytes = new byte[size];
+                ByteStreams.readFully(inputStream, bytes);
+                PB.ArchivedTradable proto = PB.ArchivedTradable.parseFrom(bytes);
+                addToIndex(new IndexEntry(proto.getId(), proto.getDate(), proto.getTradingPeerFullAddress(),
+                        tradablePosition, size));
+                position = tradablePosition + size;
+            }
+        } catch (IOException e) {
+            indexComplete = false;
+            log.error("Reading the archive {} failed at position {}. We only use the tradables before that position " +
+                    "and leave the file as it is. {}", file.getName(), position, e.toString());
+        }
+
+        if (lastEntryIncomplete)
+            truncate(position);
+
+        index.sort(Comparator.comparing(IndexEntry::getDate).reversed());
+        log.info("Reading the index of {} tradables of the archive {} took {} ms",
+                index.size(), file.getName(), System.currentTimeMillis() - ts);
+    }
+
+    private void addToIndex(IndexEntry indexEntry) {
+        if (indexEntryById.containsKey(indexEntry.getId()))
+            return;
+
+        index.add(indexEntry);
+        indexEntryById.put(indexEntry.getId(), indexEntry);
+    }
+
+    private void truncate(long validLength) {
+        log.warn("The archive {} has an incomplete entry at position {}. We cut it off.", file.getName(), validLength);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(validLength);
+        } catch (IOException e) {
+            log.error("Truncating the archive {} failed. {}", file.getName(), e.toString());
+        }
+    }
+
+    // We read all tradables of the page in one TradableList so we use the same proto resolving as for the persisted
+    // TradableList
+    @SuppressWarnings("unchecked")
+    private List<T> read(List<IndexEntry> indexEntries) {
+        if (indexEntries.isEmpty())
+            return new ArrayList<>();
+
+        PB.TradableList.Builder builder = PB.TradableList.newBuilder();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            for (IndexEntry indexEntry : indexEntries) {
+                byte[] bytes = new byte[indexEntry.getSize()];
+                randomAccessFile.seek(indexEntry.getPosition());
+                randomAccessFile.readFully(bytes);
+                builder.addTradable(PB.Tradable.parseFrom(PB.ArchivedTradable.parseFrom(bytes).getTradable()));
+            }
+        } catch (IOException e) {
+            log.error("Reading from the archive {} failed. {}", file.getName(), e.toString());
+            return new ArrayList<>();
+        }
+
+        TradableList<T> tradableList = (TradableList<T>) persistenceProtoResolver.fromProto(
+                PB.PersistableEnvelope.newBuilder().setTradableList(builder).build());
+        return tradableList != null ? new ArrayList<>(tradableList.getList()) : new ArrayList<>();
+    }
+
+    private static PB.ArchivedTradable toProto(Tradable tradable) {
+        String tradingPeerFullAddress = "";
+        if (tradable instanceof Trade && ((Trade) tradable).getTradingPeerNodeAddress() != null)
+            tradingPeerFullAddress = ((Trade) tradable).getTradingPeerNodeAddress().getFullAddress();
+
+        return PB.ArchivedTradable.newBuilder()
+                .setId(tradable.getId())
+                .setDate(tradable.getDate().getTime())
+                .setTradingPeerFullAddress(tradingPeerFullAddress)
+                .setTradable(tradable.toProtoMessage().toByteString())
+                .build();
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Inner class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Value
+    private static class IndexEntry {
+        private final String id;
+        private final long date;
+        private final String tradingPeerFullAddress;
+        private final long position;
+        private final int size;
+    }
+}
@@ -31,10 +31,15 @@ import io.bisq.generated.protobuffer.PB;
 import com.google.protobuf.Message;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -49,6 +54,8 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
     transient final private Storage<TradableList<T>> storage;
     @Getter
     private final ObservableList<T> list = FXCollections.observableArrayList();
+    // Tradables have unique IDs. We maintain the index from the list changes as clients also change the list directly.
+    transient final private Map<String, T> tradableById = new HashMap<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -57,6 +64,7 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
 
     public TradableList(Storage<TradableList<T>> storage, String fileName) {
         this.storage = storage;
+        list.addListener(this::onListChanged);
 
         TradableList<T> persisted = storage.initAndGetPersisted(this, fileName, 50);
         if (persisted != null)
@@ -70,6 +78,7 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
 
     private TradableList(Storage<TradableList<T>> storage, List<T> list) {
         this.storage = storage;
+        this.list.addListener(this::onListChanged);
         this.list.addAll(list);
     }
 
@@ -131,6 +140,17 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
         return changed;
     }
 
+    public boolean removeAll(Collection<T> tradables) {
+        boolean changed = list.removeAll(tradables);
+        if (changed)
+            storage.queueUpForSave();
+        return changed;
+    }
+
+    public Optional<T> getTradableById(String id) {
+        return Optional.ofNullable(tradableById.get(id));
+    }
+
     public Stream<T> stream() {
         return list.stream();
     }
@@ -144,6 +164,19 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
     }
 
     public boolean contains(T thing) {
-        return list.contains(thing);
+        T tradable = tradableById.get(thing.getId());
+        return tradable != null && tradable.equals(thing);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void onListChanged(ListChangeListener.Change<? extends T> change) {
+        while (change.next()) {
+            change.getRemoved().forEach(tradable -> tradableById.remove(tradable.getId(), tradable));
+            change.getAddedSubList().forEach(tradable -> tradableById.put(tradable.getId(), tradable));
+        }
     }
 }
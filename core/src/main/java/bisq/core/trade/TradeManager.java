@@ -187,7 +187,7 @@ public class TradeManager implements PersistedDataHost {
             if (networkEnvelope instanceof TradeMessage) {
                 TradeMessage tradeMessage = (TradeMessage) networkEnvelope;
                 String tradeId = tradeMessage.getTradeId();
-                Optional<Trade> tradeOptional = tradableList.stream().filter(e -> e.getId().equals(tradeId)).findAny();
+                Optional<Trade> tradeOptional = tradableList.getTradableById(tradeId);
                 // The mailbox message will be removed inside the tasks after they are processed successfully
                 tradeOptional.ifPresent(trade -> trade.addDecryptedMessageWithPubKey(decryptedMessageWithPubKey));
             } else if (networkEnvelope instanceof AckMessage) {
@@ -585,7 +585,7 @@ public class TradeManager implements PersistedDataHost {
     }
 
     public Optional<Trade> getTradeById(String tradeId) {
-        return tradableList.stream().filter(e -> e.getId().equals(tradeId)).findFirst();
+        return tradableList.getTradableById(tradeId);
     }
 
     public Stream<AddressEntry> getAddressEntriesForAvailableBalanceStream() {
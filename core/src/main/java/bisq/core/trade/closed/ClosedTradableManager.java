@@ -21,9 +21,13 @@ import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.offer.Offer;
 import bisq.core.provider.price.PriceFeedService;
 import bisq.core.trade.Tradable;
+import bisq.core.trade.TradableArchive;
 import bisq.core.trade.TradableList;
 import bisq.core.trade.Trade;
 
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.UserThread;
 import bisq.common.crypto.KeyRing;
 import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
@@ -41,12 +45,22 @@ import java.io.File;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 public class ClosedTradableManager implements PersistedDataHost {
+    // Closed tradables older than that get moved to the archive
+    private static final long ARCHIVE_AFTER_MS = TimeUnit.DAYS.toMillis(90);
+    // Appending to the archive reads its index, so we do it a while after startup
+    private static final long ARCHIVE_DELAY_SEC = 60;
+
     private final Storage<TradableList<Tradable>> tradableListStorage;
     private TradableList<Tradable> closedTradables;
+    private final TradableArchive<Tradable> archive;
     private final KeyRing keyRing;
     private final PriceFeedService priceFeedService;
     private final BtcWalletService btcWalletService;
@@ -62,19 +76,14 @@ public class ClosedTradableManager implements PersistedDataHost {
         tradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
         // The ClosedTrades object can become a few MB so we don't keep so many backups
         tradableListStorage.setNumMaxBackupFiles(3);
-
+        archive = new TradableArchive<>(storageDir, "ClosedTradesArchive", persistenceProtoResolver);
     }
 
     @Override
     public void readPersisted() {
         closedTradables = new TradableList<>(tradableListStorage, "ClosedTrades");
-        closedTradables.forEach(tradable -> {
-            tradable.getOffer().setPriceFeedService(priceFeedService);
-            if (tradable instanceof Trade) {
-                Trade trade = (Trade) tradable;
-                trade.setTransientFields(tradableListStorage, btcWalletService);
-            }
-        });
+        closedTradables.forEach(this::setTransientFields);
+        UserThread.runAfter(this::archiveOldTradables, ARCHIVE_DELAY_SEC);
     }
 
     public void add(Tradable tradable) {
@@ -96,12 +105,67 @@ public class ClosedTradableManager implements PersistedDataHost {
                 .collect(Collectors.toList()));
     }
 
+    // We look up archived tradables as well
     public Optional<Tradable> getTradableById(String id) {
-        return closedTradables.stream().filter(e -> e.getId().equals(id)).findFirst();
+        Optional<Tradable> tradableOptional = closedTradables.getTradableById(id);
+        if (tradableOptional.isPresent())
+            return tradableOptional;
+
+        tradableOptional = archive.getTradableById(id);
+        tradableOptional.ifPresent(this::setTransientFields);
+        return tradableOptional;
+    }
+
+    // Archived tradables, newest first
+    public List<Tradable> getArchivedTradables(int pageIndex, int pageSize) {
+        List<Tradable> tradables = archive.getTradables(pageIndex, pageSize);
+        tradables.forEach(this::setTransientFields);
+        return tradables;
+    }
+
+    public int getNumArchivedTradables() {
+        return archive.size();
+    }
+
+    // Number of closed and archived trades with that peer
+    public int getNumPastTrades(NodeAddress tradingPeerNodeAddress) {
+        String fullAddress = tradingPeerNodeAddress.getFullAddress();
+        long numClosedTrades = getClosedTradables().stream()
+                .filter(e -> e instanceof Trade)
+                .map(e -> ((Trade) e).getTradingPeerNodeAddress())
+                .filter(nodeAddress -> nodeAddress != null && nodeAddress.getFullAddress().equals(fullAddress))
+                .count();
+        return (int) numClosedTrades + archive.getNumTradablesWithPeer(fullAddress);
     }
 
     public Stream<Trade> getLockedTradesStream() {
         return getClosedTrades().stream()
                 .filter(Trade::isFundsLockedIn);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void setTransientFields(Tradable tradable) {
+        tradable.getOffer().setPriceFeedService(priceFeedService);
+        if (tradable instanceof Trade) {
+            Trade trade = (Trade) tradable;
+            trade.setTransientFields(tradableListStorage, btcWalletService);
+        }
+    }
+
+    // Trades with locked funds stay in the list as they need to be found by getLockedTradesStream
+    private void archiveOldTradables() {
+        long archiveBeforeDate = System.currentTimeMillis() - ARCHIVE_AFTER_MS;
+        List<Tradable> oldTradables = closedTradables.stream()
+                .filter(tradable -> tradable.getDate().getTime() < archiveBeforeDate)
+                .filter(tradable -> !(tradable instanceof Trade) || !((Trade) tradable).isFundsLockedIn())
+                .collect(Collectors.toList());
+        if (!oldTradables.isEmpty() && archive.append(oldTradables)) {
+            closedTradables.removeAll(oldTradables);
+            log.info("We moved {} closed tradables to the archive", oldTradables.size());
+        }
+    }
 }
@@ -20,9 +20,11 @@ package bisq.core.trade.failed;
 import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.offer.Offer;
 import bisq.core.provider.price.PriceFeedService;
+import bisq.core.trade.TradableArchive;
 import bisq.core.trade.TradableList;
 import bisq.core.trade.Trade;
 
+import bisq.common.UserThread;
 import bisq.common.crypto.KeyRing;
 import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
@@ -36,7 +38,10 @@ import javafx.collections.ObservableList;
 
 import java.io.File;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -44,7 +49,13 @@ import org.slf4j.LoggerFactory;
 
 public class FailedTradesManager implements PersistedDataHost {
     private static final Logger log = LoggerFactory.getLogger(FailedTradesManager.class);
+    // Failed trades older than that get moved to the archive
+    private static final long ARCHIVE_AFTER_MS = TimeUnit.DAYS.toMillis(90);
+    // Appending to the archive reads its index, so we do it a while after startup
+    private static final long ARCHIVE_DELAY_SEC = 60;
+
     private TradableList<Trade> failedTrades;
+    private final TradableArchive<Trade> archive;
     private final KeyRing keyRing;
     private final PriceFeedService priceFeedService;
     private final BtcWalletService btcWalletService;
@@ -59,17 +70,14 @@ public class FailedTradesManager implements PersistedDataHost {
         this.priceFeedService = priceFeedService;
         this.btcWalletService = btcWalletService;
         tradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
-
+        archive = new TradableArchive<>(storageDir, "FailedTradesArchive", persistenceProtoResolver);
     }
 
     @Override
     public void readPersisted() {
         this.failedTrades = new TradableList<>(tradableListStorage, "FailedTrades");
-        failedTrades.forEach(e -> e.getOffer().setPriceFeedService(priceFeedService));
-        failedTrades.forEach(trade -> {
-            trade.getOffer().setPriceFeedService(priceFeedService);
-            trade.setTransientFields(tradableListStorage, btcWalletService);
-        });
+        failedTrades.forEach(this::setTransientFields);
+        UserThread.runAfter(this::archiveOldTrades, ARCHIVE_DELAY_SEC);
     }
 
     public void add(Trade trade) {
@@ -85,12 +93,53 @@ public class FailedTradesManager implements PersistedDataHost {
         return failedTrades.getList();
     }
 
+    // We look up archived trades as well
     public Optional<Trade> getTradeById(String id) {
-        return failedTrades.stream().filter(e -> e.getId().equals(id)).findFirst();
+        Optional<Trade> tradeOptional = failedTrades.getTradableById(id);
+        if (tradeOptional.isPresent())
+            return tradeOptional;
+
+        tradeOptional = archive.getTradableById(id);
+        tradeOptional.ifPresent(this::setTransientFields);
+        return tradeOptional;
+    }
+
+    // Archived trades, newest first
+    public List<Trade> getArchivedTrades(int pageIndex, int pageSize) {
+        List<Trade> trades = archive.getTradables(pageIndex, pageSize);
+        trades.forEach(this::setTransientFields);
+        return trades;
+    }
+
+    public int getNumArchivedTrades() {
+        return archive.size();
     }
 
     public Stream<Trade> getLockedTradesStream() {
         return failedTrades.stream()
                 .filter(Trade::isFundsLockedIn);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void setTransientFields(Trade trade) {
+        trade.getOffer().setPriceFeedService(priceFeedService);
+        trade.setTransientFields(tradableListStorage, btcWalletService);
+    }
+
+    // Trades with locked funds stay in the list as they need to be found by getLockedTradesStream
+    private void archiveOldTrades() {
+        long archiveBeforeDate = System.currentTimeMillis() - ARCHIVE_AFTER_MS;
+        List<Trade> oldTrades = failedTrades.stream()
+                .filter(trade -> trade.getDate().getTime() < archiveBeforeDate)
+                .filter(trade -> !trade.isFundsLockedIn())
+                .collect(Collectors.toList());
+        if (!oldTrades.isEmpty() && archive.append(oldTrades)) {
+            failedTrades.removeAll(oldTrades);
+            log.info("We moved {} failed trades to the archive", oldTrades.size());
+        }
+    }
 }
@@ -101,9 +101,7 @@ public class TradeStatisticsManager {
         });
 
         Map<String, TradeStatistics2> map = new HashMap<>();
-        p2PService.getP2PDataStorage().getAppendOnlyDataStoreMap().values().stream()
-                .filter(e -> e instanceof TradeStatistics2)
-                .map(e -> (TradeStatistics2) e)
+        p2PService.getP2PDataStorage().getPersistableNetworkPayloads(TradeStatistics2.class).stream()
                 .filter(TradeStatistics2::isValid)
                 .forEach(e -> addToMap(e, map));
         observableTradeStatisticsSet.addAll(map.values());
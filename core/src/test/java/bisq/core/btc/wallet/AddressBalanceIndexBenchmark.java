@@ -0,0 +1,127 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import org.bitcoincashj.core.Address;
+import org.bitcoincashj.core.Coin;
+import org.bitcoincashj.core.NetworkParameters;
+import org.bitcoincashj.core.Sha256Hash;
+import org.bitcoincashj.core.Transaction;
+import org.bitcoincashj.core.TransactionOutput;
+import org.bitcoincashj.params.RegTestParams;
+import org.bitcoincashj.script.Script;
+import org.bitcoincashj.wallet.Wallet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the balance lookup of an address by iterating over all spend candidates of the wallet (as done before we
+ * had the AddressBalanceIndex) with the lookup from the AddressBalanceIndex.
+ * <p/>
+ * Run with main() from the IDE or the test classpath. It is not executed as part of the unit tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddressBalanceIndexBenchmark {
+    private static final NetworkParameters PARAMS = RegTestParams.get();
+
+    @Param({"1000"})
+    public int numAddresses;
+    @Param({"10"})
+    public int numOutputsPerTx;
+
+    private final AddressBalanceIndex addressBalanceIndex = new AddressBalanceIndex();
+    private final List<Address> addresses = new ArrayList<>();
+    private final Random random = new Random(1);
+    private Wallet wallet;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AddressBalanceIndexBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setup() {
+        wallet = new Wallet(PARAMS);
+        wallet.setAcceptRiskyTransactions(true);
+        for (int i = 0; i < numAddresses; i++)
+            addresses.add(wallet.freshReceiveAddress());
+        for (int i = 0; i < numAddresses / numOutputsPerTx; i++) {
+            Transaction tx = createReceivingTx(PARAMS, addresses, i, numOutputsPerTx);
+            wallet.receivePending(tx, null);
+            addressBalanceIndex.onTransaction(wallet, tx);
+        }
+    }
+
+    // Receives numOutputsPerTx outputs to consecutive addresses starting at txIndex * numOutputsPerTx
+    static Transaction createReceivingTx(NetworkParameters params, List<Address> addresses, int txIndex,
+                                         int numOutputsPerTx) {
+        Transaction tx = new Transaction(params);
+        tx.addInput(Sha256Hash.of(("funding" + txIndex).getBytes()), 0, new Script(new byte[0]));
+        for (int i = 0; i < numOutputsPerTx; i++)
+            tx.addOutput(Coin.valueOf(100_000 + i), addresses.get((txIndex * numOutputsPerTx + i) % addresses.size()));
+        return tx;
+    }
+
+    static List<TransactionOutput> getSpendCandidatesByIteration(Wallet wallet, Address address) {
+        List<TransactionOutput> outputs = new ArrayList<>();
+        for (TransactionOutput output : wallet.calculateAllSpendCandidates()) {
+            if (address.equals(output.getScriptPubKey().getToAddress(wallet.getParams())))
+                outputs.add(output);
+        }
+        return outputs;
+    }
+
+    private Address randomAddress() {
+        return addresses.get(random.nextInt(addresses.size()));
+    }
+
+    @Benchmark
+    public List<TransactionOutput> getSpendCandidatesByIteration() {
+        return getSpendCandidatesByIteration(wallet, randomAddress());
+    }
+
+    @Benchmark
+    public List<TransactionOutput> getSpendCandidates() {
+        return addressBalanceIndex.getSpendCandidates(wallet, randomAddress());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import org.bitcoincashj.core.Address;
+import org.bitcoincashj.core.Coin;
+import org.bitcoincashj.core.ECKey;
+import org.bitcoincashj.core.NetworkParameters;
+import org.bitcoincashj.core.Transaction;
+import org.bitcoincashj.core.TransactionOutput;
+import org.bitcoincashj.params.RegTestParams;
+import org.bitcoincashj.wallet.Wallet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AddressBalanceIndexTest {
+    private static final int NUM_ADDRESSES = 1000;
+    private static final int NUM_OUTPUTS_PER_TX = 10;
+
+    private final NetworkParameters params = RegTestParams.get();
+    private final AddressBalanceIndex addressBalanceIndex = new AddressBalanceIndex();
+    private final List<Address> addresses = new ArrayList<>();
+    private Wallet wallet;
+
+    @Before
+    public void setup() {
+        wallet = new Wallet(params);
+        wallet.setAcceptRiskyTransactions(true);
+        for (int i = 0; i < NUM_ADDRESSES; i++)
+            addresses.add(wallet.freshReceiveAddress());
+    }
+
+    @Test
+    public void testIndexMatchesSpendCandidates() {
+        Transaction fundingTx = receive(0);
+        assertBalancesMatch();
+
+        // Spending an indexed output removes it from the index
+        Transaction spendingTx = new Transaction(params);
+        spendingTx.addInput(fundingTx.getOutput(0));
+        spendingTx.addOutput(Coin.valueOf(50_000), new ECKey().toAddress(params));
+        wallet.receivePending(spendingTx, null);
+        addressBalanceIndex.onTransaction(wallet, spendingTx);
+        assertBalancesMatch();
+
+        receive(1);
+        assertBalancesMatch();
+
+        // After a reorg we rebuild at the next lookup
+        addressBalanceIndex.invalidate();
+        assertBalancesMatch();
+    }
+
+    @Test
+    public void testLookupMatchesSpendCandidatesWithAllAddressesFunded() {
+        for (int i = 0; i < NUM_ADDRESSES / NUM_OUTPUTS_PER_TX; i++)
+            receive(i);
+
+        assertEquals(NUM_ADDRESSES, addressBalanceIndex.getNumIndexedOutputs());
+        assertBalancesMatch();
+    }
+
+    private Transaction receive(int txIndex) {
+        Transaction tx = AddressBalanceIndexBenchmark.createReceivingTx(params, addresses, txIndex, NUM_OUTPUTS_PER_TX);
+        wallet.receivePending(tx, null);
+        addressBalanceIndex.onTransaction(wallet, tx);
+        return tx;
+    }
+
+    private void assertBalancesMatch() {
+        for (Address address : addresses)
+            assertEquals(getBalanceFromAllSpendCandidates(address), getBalanceFromIndex(address));
+    }
+
+    private Coin getBalanceFromIndex(Address address) {
+        return sum(addressBalanceIndex.getSpendCandidates(wallet, address));
+    }
+
+    private Coin getBalanceFromAllSpendCandidates(Address address) {
+        return sum(AddressBalanceIndexBenchmark.getSpendCandidatesByIteration(wallet, address));
+    }
+
+    private static Coin sum(List<TransactionOutput> outputs) {
+        return outputs.stream().map(TransactionOutput::getValue).reduce(Coin.ZERO, Coin::add);
+    }
+}
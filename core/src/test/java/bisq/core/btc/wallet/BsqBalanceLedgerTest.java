@@ -0,0 +1,172 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.core.dao.DaoTestFixtures;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+
+import io.bisq.generated.protobuffer.PB;
+
+import org.bitcoincashj.core.Coin;
+import org.bitcoincashj.core.ECKey;
+import org.bitcoincashj.core.NetworkParameters;
+import org.bitcoincashj.core.Sha256Hash;
+import org.bitcoincashj.core.Transaction;
+import org.bitcoincashj.core.TransactionConfidence;
+import org.bitcoincashj.params.RegTestParams;
+import org.bitcoincashj.script.Script;
+import org.bitcoincashj.wallet.Wallet;
+
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BsqBalanceLedgerTest {
+    private final NetworkParameters params = RegTestParams.get();
+    private DaoStateService daoStateService;
+    private BsqBalanceLedger ledger;
+    private Wallet wallet;
+
+    @Before
+    public void setup() {
+        wallet = new Wallet(params);
+        wallet.setAcceptRiskyTransactions(true);
+        daoStateService = mock(DaoStateService.class);
+        when(daoStateService.getLastBlock()).thenReturn(Optional.of(DaoTestFixtures.createBlock(100)));
+        when(daoStateService.getTx(anyString())).thenReturn(Optional.empty());
+        ledger = new BsqBalanceLedger(daoStateService);
+        ledger.update(wallet);
+    }
+
+    @Test
+    public void testAddAndSpendPendingTx() {
+        Transaction tx = receive(1000);
+        assertEquals(1000, ledger.getUnverifiedBalance());
+
+        // The spent output is not available anymore and the change of the spending tx is unverified
+        Transaction spendingTx = new Transaction(params);
+        spendingTx.addInput(tx.getOutput(0));
+        spendingTx.addOutput(Coin.valueOf(600), new ECKey().toAddress(params));
+        spendingTx.addOutput(Coin.valueOf(300), wallet.freshReceiveAddress());
+        wallet.receivePending(spendingTx, null);
+        ledger.onTransaction(wallet, spendingTx);
+        assertEquals(300, ledger.getUnverifiedBalance());
+        assertRebuildMatches();
+    }
+
+    @Test
+    public void testConfidenceChange() {
+        Transaction tx = receive(1000);
+        String txId = tx.getHashAsString();
+        when(daoStateService.getTx(txId)).thenReturn(Optional.of(createLockupTx(txId, 1000)));
+        when(daoStateService.isUnspent(any(TxOutputKey.class))).thenReturn(true);
+
+        // Once confirmed the tx is not unverified anymore but counts as lockup bond
+        tx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.BUILDING);
+        ledger.onTransaction(wallet, tx);
+        assertEquals(0, ledger.getUnverifiedBalance());
+        assertEquals(1000, ledger.getLockupBondsBalance());
+        assertRebuildMatches();
+
+        // A dead tx does not count anymore
+        tx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.DEAD);
+        ledger.onTransaction(wallet, tx);
+        assertEquals(0, ledger.getLockupBondsBalance());
+    }
+
+    @Test
+    public void testDaoStateReorg() {
+        Transaction tx = receive(1000);
+        String txId = tx.getHashAsString();
+        when(daoStateService.getTx(txId)).thenReturn(Optional.of(createLockupTx(txId, 1000)));
+        when(daoStateService.isUnspent(any(TxOutputKey.class))).thenReturn(true);
+        tx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.BUILDING);
+        ledger.onTransaction(wallet, tx);
+        ledger.onParseBlock(DaoTestFixtures.createBlock(101));
+        assertEquals(1000, ledger.getLockupBondsBalance());
+
+        // After the reorg the lockup output got spent. We rebuild at the next update.
+        when(daoStateService.isUnspent(any(TxOutputKey.class))).thenReturn(false);
+        ledger.onParseBlock(DaoTestFixtures.createBlock(101, "otherBlockHash101"));
+        ledger.update(wallet);
+        assertEquals(0, ledger.getLockupBondsBalance());
+    }
+
+    @Test
+    public void testBlockHeightGap() {
+        Transaction tx = receive(1000);
+        String txId = tx.getHashAsString();
+        tx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.BUILDING);
+        ledger.onTransaction(wallet, tx);
+        assertEquals(0, ledger.getLockupBondsBalance());
+
+        // The tx became a lockup tx in block 101, which we missed. We cannot apply block 102 only but rebuild at the
+        // next update.
+        when(daoStateService.getTx(txId)).thenReturn(Optional.of(createLockupTx(txId, 1000)));
+        when(daoStateService.isUnspent(any(TxOutputKey.class))).thenReturn(true);
+        ledger.onParseBlock(DaoTestFixtures.createBlock(102));
+        ledger.update(wallet);
+        assertEquals(1000, ledger.getLockupBondsBalance());
+    }
+
+    @Test
+    public void testNewBlockUpdatesBondTx() {
+        Transaction tx = receive(1000);
+        String txId = tx.getHashAsString();
+        when(daoStateService.getTx(txId)).thenReturn(Optional.of(createLockupTx(txId, 1000)));
+        when(daoStateService.isUnspent(any(TxOutputKey.class))).thenReturn(true);
+        tx.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.BUILDING);
+        ledger.onTransaction(wallet, tx);
+
+        // A confiscation in a block without our txs changes the lockup balance
+        when(daoStateService.isConfiscatedLockupTxOutput(txId)).thenReturn(true);
+        ledger.onParseBlock(DaoTestFixtures.createBlock(101));
+        assertEquals(0, ledger.getLockupBondsBalance());
+    }
+
+    private Transaction receive(long value) {
+        Transaction tx = new Transaction(params);
+        tx.addInput(Sha256Hash.of(("funding" + value).getBytes()), 0, new Script(new byte[0]));
+        tx.addOutput(Coin.valueOf(value), wallet.freshReceiveAddress());
+        wallet.receivePending(tx, null);
+        ledger.onTransaction(wallet, tx);
+        return tx;
+    }
+
+    private void assertRebuildMatches() {
+        BsqBalanceLedger rebuilt = new BsqBalanceLedger(daoStateService);
+        rebuilt.update(wallet);
+        assertEquals(rebuilt.getUnverifiedBalance(), ledger.getUnverifiedBalance());
+        assertEquals(rebuilt.getLockedForVotingBalance(), ledger.getLockedForVotingBalance());
+        assertEquals(rebuilt.getLockupBondsBalance(), ledger.getLockupBondsBalance());
+        assertEquals(rebuilt.getUnlockingBondsBalance(), ledger.getUnlockingBondsBalance());
+    }
+
+    private static Tx createLockupTx(String txId, long value) {
+        return DaoTestFixtures.createTx(txId, 101, PB.TxType.LOCKUP, value, PB.TxOutputType.LOCKUP_OUTPUT);
+    }
+}
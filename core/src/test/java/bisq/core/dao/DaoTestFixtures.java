@@ -0,0 +1,74 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao;
+
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+
+import io.bisq.generated.protobuffer.PB;
+
+/**
+ * Blocks and txs of a synthetic DAO chain shared by the DAO tests. A block at height h has the time h * 600 and the
+ * hash "blockHash" + h and connects to the block at height h - 1. Txs carry the height, hash and time of their block.
+ */
+public class DaoTestFixtures {
+
+    public static String getBlockHash(int height) {
+        return "blockHash" + height;
+    }
+
+    public static Block createBlock(int height) {
+        return createBlock(height, getBlockHash(height));
+    }
+
+    // Used to create a block of another chain at the same height
+    public static Block createBlock(int height, String hash) {
+        return new Block(height, height * 600L, hash, getBlockHash(height - 1));
+    }
+
+    public static Tx createTx(String txId, int height, PB.TxType txType) {
+        return Tx.fromProto(getBaseTxBuilder(txId, height, txType).build());
+    }
+
+    // The tx has one output at index 0
+    public static Tx createTx(String txId, int height, PB.TxType txType, long value, PB.TxOutputType txOutputType) {
+        PB.BaseTx.Builder builder = getBaseTxBuilder(txId, height, txType);
+        builder.getTxBuilder().addTxOutputs(getTxOutputBuilder(txId, height, value, txOutputType));
+        return Tx.fromProto(builder.build());
+    }
+
+    public static PB.BaseTx.Builder getBaseTxBuilder(String txId, int height, PB.TxType txType) {
+        return PB.BaseTx.newBuilder()
+                .setTxVersion("1")
+                .setId(txId)
+                .setBlockHeight(height)
+                .setBlockHash(getBlockHash(height))
+                .setTime(height * 600L)
+                .setTx(PB.Tx.newBuilder().setTxType(txType));
+    }
+
+    public static PB.BaseTxOutput.Builder getTxOutputBuilder(String txId, int height, long value,
+                                                             PB.TxOutputType txOutputType) {
+        return PB.BaseTxOutput.newBuilder()
+                .setIndex(0)
+                .setValue(value)
+                .setTxId(txId)
+                .setBlockHeight(height)
+                .setTxOutput(PB.TxOutput.newBuilder().setTxOutputType(txOutputType));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.voteresult;
+
+import bisq.core.dao.DaoTestFixtures;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.governance.BallotList;
+import bisq.core.dao.state.model.governance.Cycle;
+import bisq.core.dao.state.model.governance.DaoPhase;
+import bisq.core.dao.state.model.governance.DecryptedBallotsWithMerits;
+import bisq.core.dao.state.model.governance.EvaluatedProposal;
+import bisq.core.dao.state.model.governance.MeritList;
+import bisq.core.dao.state.model.governance.ProposalVoteResult;
+import bisq.core.dao.state.model.governance.RemoveAssetProposal;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CycleResultCacheTest {
+    // The result phase starts at height 106
+    private static final Cycle CYCLE = new Cycle(100, ImmutableList.of(
+            new DaoPhase(DaoPhase.Phase.PROPOSAL, 2),
+            new DaoPhase(DaoPhase.Phase.BLIND_VOTE, 2),
+            new DaoPhase(DaoPhase.Phase.VOTE_REVEAL, 2),
+            new DaoPhase(DaoPhase.Phase.RESULT, 2)));
+
+    private DaoStateService daoStateService;
+    private CycleResultCache cycleResultCache;
+
+    @Before
+    public void setup() {
+        daoStateService = mock(DaoStateService.class);
+        // The txIds end with the height of the tx
+        when(daoStateService.getTx(anyString())).thenAnswer(invocation -> {
+            String txId = invocation.getArgument(0);
+            return Optional.of(DaoTestFixtures.createTx(txId, Integer.parseInt(txId.replaceAll("\\D", "")),
+                    PB.TxType.PROPOSAL));
+        });
+        when(daoStateService.getEvaluatedProposalList()).thenReturn(List.of(
+                createEvaluatedProposal("proposal90"), createEvaluatedProposal("proposal100")));
+        when(daoStateService.getDecryptedBallotsWithMeritsList()).thenReturn(List.of(
+                createDecryptedBallotsWithMerits("voteReveal96"), createDecryptedBallotsWithMerits("voteReveal104")));
+        cycleResultCache = new CycleResultCache(daoStateService);
+    }
+
+    @Test
+    public void testResultOfPastCycleIsCached() {
+        when(daoStateService.getChainHeight()).thenReturn(106);
+        assertEquals(List.of("proposal100"), getProposalTxIds(cycleResultCache.getEvaluatedProposals(CYCLE)));
+        assertEquals(List.of("voteReveal104"), getVoteRevealTxIds(cycleResultCache.getDecryptedBallotsWithMerits(CYCLE)));
+        cycleResultCache.getEvaluatedProposals(CYCLE);
+        verify(daoStateService, times(1)).getEvaluatedProposalList();
+
+        // After a reorg we create the result again
+        cycleResultCache.clear();
+        cycleResultCache.getEvaluatedProposals(CYCLE);
+        verify(daoStateService, times(2)).getEvaluatedProposalList();
+    }
+
+    @Test
+    public void testResultBeforeResultPhaseIsNotCached() {
+        when(daoStateService.getChainHeight()).thenReturn(105);
+        cycleResultCache.getEvaluatedProposals(CYCLE);
+        cycleResultCache.getEvaluatedProposals(CYCLE);
+        verify(daoStateService, times(2)).getEvaluatedProposalList();
+    }
+
+    @Test
+    public void testCalculatedResultIsCached() {
+        cycleResultCache.onResultCalculated(CYCLE);
+        when(daoStateService.getChainHeight()).thenReturn(106);
+        assertEquals(List.of("proposal100"), getProposalTxIds(cycleResultCache.getEvaluatedProposals(CYCLE)));
+        verify(daoStateService, times(1)).getEvaluatedProposalList();
+    }
+
+    private static EvaluatedProposal createEvaluatedProposal(String txId) {
+        RemoveAssetProposal proposal = (RemoveAssetProposal) new RemoveAssetProposal("name", "link", "BCH", null)
+                .cloneProposalAndAddTxId(txId);
+        return new EvaluatedProposal(true, new ProposalVoteResult(proposal, 0, 0, 0, 0, 0));
+    }
+
+    private static DecryptedBallotsWithMerits createDecryptedBallotsWithMerits(String voteRevealTxId) {
+        return new DecryptedBallotsWithMerits(new byte[20], "blindVote", voteRevealTxId, 1000,
+                new BallotList(new ArrayList<>()), new MeritList(new ArrayList<>()));
+    }
+
+    private static List<String> getProposalTxIds(List<EvaluatedProposal> evaluatedProposals) {
+        return evaluatedProposals.stream().map(EvaluatedProposal::getProposalTxId).collect(Collectors.toList());
+    }
+
+    private static List<String> getVoteRevealTxIds(List<DecryptedBallotsWithMerits> decryptedBallotsWithMerits) {
+        return decryptedBallotsWithMerits.stream()
+                .map(DecryptedBallotsWithMerits::getVoteRevealTxId)
+                .collect(Collectors.toList());
+    }
+}
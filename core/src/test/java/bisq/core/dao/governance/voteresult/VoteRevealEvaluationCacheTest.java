@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.voteresult;
+
+import bisq.core.dao.governance.blindvote.BlindVote;
+import bisq.core.dao.state.model.governance.BallotList;
+import bisq.core.dao.state.model.governance.Cycle;
+import bisq.core.dao.state.model.governance.DaoPhase;
+import bisq.core.dao.state.model.governance.DecryptedBallotsWithMerits;
+import bisq.core.dao.state.model.governance.MeritList;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class VoteRevealEvaluationCacheTest {
+    private static final Cycle CYCLE = createCycle(100);
+    private static final Cycle NEXT_CYCLE = createCycle(108);
+
+    @Test
+    public void testEvaluationsOfCurrentCycle() {
+        VoteRevealEvaluationCache cache = new VoteRevealEvaluationCache();
+        VoteRevealEvaluation evaluation = createEvaluation("voteReveal104", createBlindVote("blindVote102", 1000),
+                List.of("proposal100"));
+        cache.put(CYCLE, evaluation);
+        assertEquals(evaluation, cache.get(CYCLE, "voteReveal104").get());
+        assertFalse(cache.get(CYCLE, "voteReveal105").isPresent());
+        assertFalse(cache.get(NEXT_CYCLE, "voteReveal104").isPresent());
+
+        // The evaluations of the past cycle get dropped with the first evaluation of the next cycle
+        cache.put(NEXT_CYCLE, createEvaluation("voteReveal112", null, List.of()));
+        assertFalse(cache.get(CYCLE, "voteReveal104").isPresent());
+        assertTrue(cache.get(NEXT_CYCLE, "voteReveal112").isPresent());
+
+        cache.reset();
+        assertFalse(cache.get(NEXT_CYCLE, "voteReveal112").isPresent());
+    }
+
+    @Test
+    public void testIsBasedOn() {
+        BlindVote blindVote = createBlindVote("blindVote102", 1000);
+        VoteRevealEvaluation evaluation = createEvaluation("voteReveal104", blindVote, List.of("proposal100"));
+        Map<String, BlindVote> blindVoteByTxId = new HashMap<>();
+        blindVoteByTxId.put("blindVote102", createBlindVote("blindVote102", 1000));
+        assertTrue(evaluation.isBasedOn(blindVoteByTxId, List.of("proposal100")));
+
+        // A ballot arrived late
+        assertFalse(evaluation.isBasedOn(blindVoteByTxId, List.of("proposal100", "proposal101")));
+
+        // Another blind vote payload
+        blindVoteByTxId.put("blindVote102", createBlindVote("blindVote102", 2000));
+        assertFalse(evaluation.isBasedOn(blindVoteByTxId, List.of("proposal100")));
+
+        // The blind vote payload was missing and arrived late
+        VoteRevealEvaluation evaluationWithoutBlindVote = new VoteRevealEvaluation("voteReveal104", "blindVote102",
+                null, List.of("proposal100"), createDecryptedBallotsWithMerits("voteReveal104"), 0);
+        assertFalse(evaluationWithoutBlindVote.isBasedOn(blindVoteByTxId, List.of("proposal100")));
+        assertTrue(evaluationWithoutBlindVote.isBasedOn(new HashMap<>(), List.of("proposal100")));
+
+        // A failure before the blind vote tx was known does not depend on P2P network data
+        VoteRevealEvaluation failedEvaluation = new VoteRevealEvaluation("voteReveal104", null, null,
+                List.of("proposal100"), null, 0);
+        assertTrue(failedEvaluation.isBasedOn(blindVoteByTxId, List.of("proposal100", "proposal101")));
+    }
+
+    private static VoteRevealEvaluation createEvaluation(String voteRevealTxId, BlindVote blindVote,
+                                                         List<String> ballotTxIds) {
+        return new VoteRevealEvaluation(voteRevealTxId, blindVote != null ? blindVote.getTxId() : null, blindVote,
+                ballotTxIds, createDecryptedBallotsWithMerits(voteRevealTxId), 0);
+    }
+
+    private static DecryptedBallotsWithMerits createDecryptedBallotsWithMerits(String voteRevealTxId) {
+        return new DecryptedBallotsWithMerits(new byte[20], "blindVote102", voteRevealTxId, 1000,
+                new BallotList(new ArrayList<>()), new MeritList(new ArrayList<>()));
+    }
+
+    private static BlindVote createBlindVote(String txId, long stake) {
+        return new BlindVote(new byte[]{1}, txId, stake, new byte[]{2}, 0, null);
+    }
+
+    private static Cycle createCycle(int heightOfFirstBlock) {
+        return new Cycle(heightOfFirstBlock, ImmutableList.of(
+                new DaoPhase(DaoPhase.Phase.PROPOSAL, 2),
+                new DaoPhase(DaoPhase.Phase.BLIND_VOTE, 2),
+                new DaoPhase(DaoPhase.Phase.VOTE_REVEAL, 2),
+                new DaoPhase(DaoPhase.Phase.RESULT, 2)));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.voteresult;
+
+import bisq.core.dao.DaoTestFixtures;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.governance.Cycle;
+import bisq.core.dao.state.model.governance.DaoPhase;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class VoteRevealTxOutputCollectorTest {
+    // The vote reveal phase starts at height 104 and the cycle ends at height 107
+    private static final Cycle CYCLE = createCycle(100);
+    private static final Cycle NEXT_CYCLE = createCycle(108);
+
+    @Test
+    public void testCollectVoteRevealTxOutputsOfCycle() {
+        VoteRevealTxOutputCollector collector = new VoteRevealTxOutputCollector();
+        for (int height = 100; height < 108; height++)
+            collector.onParseBlockComplete(createBlock(height), CYCLE);
+
+        assertEquals(4, getTxIds(collector.getTxOutputs(CYCLE).get()).size());
+        assertTrue(getTxIds(collector.getTxOutputs(CYCLE).get()).contains("voteReveal104"));
+        assertFalse(collector.getTxOutputs(NEXT_CYCLE).isPresent());
+
+        // The outputs of the past cycle get dropped with the first block of the next cycle
+        collector.onParseBlockComplete(createBlock(108), NEXT_CYCLE);
+        assertFalse(collector.getTxOutputs(CYCLE).isPresent());
+        assertEquals(1, collector.getTxOutputs(NEXT_CYCLE).get().size());
+    }
+
+    @Test
+    public void testNotCompleteIfStartedInVoteRevealPhase() {
+        VoteRevealTxOutputCollector collector = new VoteRevealTxOutputCollector();
+        collector.onParseBlockComplete(createBlock(104), CYCLE);
+        assertFalse(collector.getTxOutputs(CYCLE).isPresent());
+
+        // Starting at the last block before the vote reveal phase is enough
+        collector = new VoteRevealTxOutputCollector();
+        collector.onParseBlockComplete(createBlock(103), CYCLE);
+        collector.onParseBlockComplete(createBlock(104), CYCLE);
+        assertEquals(2, collector.getTxOutputs(CYCLE).get().size());
+    }
+
+    @Test
+    public void testReset() {
+        VoteRevealTxOutputCollector collector = new VoteRevealTxOutputCollector();
+        for (int height = 100; height < 106; height++)
+            collector.onParseBlockComplete(createBlock(height), CYCLE);
+
+        // At a reorg we parse again from a snapshot inside the vote reveal phase
+        collector.reset();
+        collector.onParseBlockComplete(createBlock(105), CYCLE);
+        assertFalse(collector.getTxOutputs(CYCLE).isPresent());
+    }
+
+    private static Cycle createCycle(int heightOfFirstBlock) {
+        return new Cycle(heightOfFirstBlock, ImmutableList.of(
+                new DaoPhase(DaoPhase.Phase.PROPOSAL, 2),
+                new DaoPhase(DaoPhase.Phase.BLIND_VOTE, 2),
+                new DaoPhase(DaoPhase.Phase.VOTE_REVEAL, 2),
+                new DaoPhase(DaoPhase.Phase.RESULT, 2)));
+    }
+
+    // Each block has a vote reveal tx and a tx with a BSQ output
+    private static Block createBlock(int height) {
+        Block block = DaoTestFixtures.createBlock(height);
+        block.getTxs().add(DaoTestFixtures.createTx("voteReveal" + height, height, PB.TxType.TRANSFER_BSQ, 0,
+                PB.TxOutputType.VOTE_REVEAL_OP_RETURN_OUTPUT));
+        block.getTxs().add(DaoTestFixtures.createTx("transfer" + height, height, PB.TxType.TRANSFER_BSQ, 0,
+                PB.TxOutputType.BSQ_OUTPUT));
+        return block;
+    }
+
+    private static Set<String> getTxIds(Set<TxOutput> txOutputs) {
+        return txOutputs.stream().map(TxOutput::getTxId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.monitoring;
+
+import bisq.core.dao.DaoTestFixtures;
+import bisq.core.dao.governance.blindvote.BlindVoteListService;
+import bisq.core.dao.governance.period.PeriodService;
+import bisq.core.dao.monitoring.model.BlindVoteStateHash;
+import bisq.core.dao.monitoring.network.BlindVoteStateNetworkService;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.governance.Cycle;
+import bisq.core.dao.state.model.governance.DaoPhase;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.seed.SeedNodeRepository;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mock;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({PeriodService.class, GenesisTxInfo.class, DaoStateService.class})
+@PowerMockIgnore({"com.sun.org.apache.xerces.*", "javax.xml.*", "org.xml.*"})
+public class BlindVoteStateMonitoringServiceTest {
+    // We create our hash at the first block of the VOTE_REVEAL phase
+    private static final int HASH_HEIGHT = 100;
+    private static final NodeAddress PEER = new NodeAddress("peer.onion:9999");
+
+    private BlindVoteStateNetworkService blindVoteStateNetworkService;
+    private BlindVoteStateMonitoringService service;
+
+    @Before
+    public void setup() {
+        blindVoteStateNetworkService = mock(BlindVoteStateNetworkService.class);
+        GenesisTxInfo genesisTxInfo = mock(GenesisTxInfo.class);
+        when(genesisTxInfo.getGenesisBlockHeight()).thenReturn(HASH_HEIGHT);
+        PeriodService periodService = mock(PeriodService.class);
+        when(periodService.getFirstBlockOfPhase(anyInt(), eq(DaoPhase.Phase.VOTE_REVEAL))).thenReturn(HASH_HEIGHT);
+        when(periodService.getCycle(HASH_HEIGHT)).thenReturn(Optional.of(new Cycle(HASH_HEIGHT,
+                ImmutableList.of(new DaoPhase(DaoPhase.Phase.PROPOSAL, 10)))));
+        BlindVoteListService blindVoteListService = mock(BlindVoteListService.class);
+        SeedNodeRepository seedNodeRepository = mock(SeedNodeRepository.class);
+        when(seedNodeRepository.getSeedNodeAddresses()).thenReturn(List.of());
+
+        service = new BlindVoteStateMonitoringService(mock(DaoStateService.class), blindVoteStateNetworkService, genesisTxInfo,
+                periodService, blindVoteListService, seedNodeRepository);
+        service.onDaoStateChanged(DaoTestFixtures.createBlock(HASH_HEIGHT));
+    }
+
+    @Test
+    public void testConflictingHashStartsSearchForFirstConflictOncePerPeer() {
+        BlindVoteStateHash peersHash = new BlindVoteStateHash(HASH_HEIGHT, new byte[]{1}, new byte[0], 1);
+
+        service.onPeersStateHashes(List.of(peersHash), Optional.of(PEER));
+        assertTrue(service.isInConflictWithNonSeedNode());
+        verify(blindVoteStateNetworkService).findFirstConflict(service.getBlindVoteStateHashChain(), PEER.getFullAddress());
+
+        service.onPeersStateHashes(List.of(peersHash), Optional.of(PEER));
+        verify(blindVoteStateNetworkService, times(1)).findFirstConflict(any(), anyString());
+    }
+
+    @Test
+    public void testMatchingHashDoesNotStartSearchForFirstConflict() {
+        BlindVoteStateHash myHash = service.getBlindVoteStateHashChain().getLast();
+
+        service.onPeersStateHashes(List.of(myHash), Optional.of(PEER));
+        verify(blindVoteStateNetworkService, never()).findFirstConflict(any(), anyString());
+    }
+}
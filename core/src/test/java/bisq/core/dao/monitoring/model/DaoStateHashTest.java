@@ -0,0 +1,49 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.dao.monitoring.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DaoStateHashTest {
+    private static final byte[] EMPTY = new byte[0];
+
+    @Test
+    public void testHasEqualHash() {
+        DaoStateHash legacyAndIncremental = new DaoStateHash(1, new byte[]{1}, EMPTY, new byte[]{2});
+        DaoStateHash legacyOnly = new DaoStateHash(1, new byte[]{1}, EMPTY);
+        DaoStateHash incrementalOnly = new DaoStateHash(1, EMPTY, EMPTY, new byte[]{2});
+
+        assertTrue(legacyAndIncremental.hasEqualHash(legacyOnly));
+        assertTrue(legacyAndIncremental.hasEqualHash(incrementalOnly));
+        assertFalse(legacyAndIncremental.hasEqualHash(new DaoStateHash(1, new byte[]{1}, EMPTY, new byte[]{3})));
+        assertFalse(legacyOnly.hasEqualHash(new DaoStateHash(1, new byte[]{3}, EMPTY)));
+    }
+
+    @Test
+    public void testNoCommonHashType() {
+        DaoStateHash legacyOnly = new DaoStateHash(1, new byte[]{1}, EMPTY);
+        DaoStateHash incrementalOnly = new DaoStateHash(1, EMPTY, EMPTY, new byte[]{2});
+
+        assertFalse(legacyOnly.isComparable(incrementalOnly));
+        assertFalse(incrementalOnly.isComparable(legacyOnly));
+        assertFalse(legacyOnly.hasEqualHash(incrementalOnly));
+        assertFalse(incrementalOnly.hasEqualHash(legacyOnly));
+    }
+}
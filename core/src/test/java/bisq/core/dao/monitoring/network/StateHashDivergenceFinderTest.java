@@ -0,0 +1,105 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.monitoring.network;
+
+import bisq.core.dao.monitoring.model.DaoStateHash;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StateHashDivergenceFinderTest {
+    private static final int GENESIS_HEIGHT = 100;
+
+    @Test
+    public void testFindConflict() {
+        List<DaoStateHash> myHashes = createHashes(10_000, Integer.MAX_VALUE);
+        List<DaoStateHash> peersHashes = createHashes(10_000, GENESIS_HEIGHT + 4321);
+        StateHashDivergenceFinder<DaoStateHash> finder = new StateHashDivergenceFinder<>(myHashes);
+        while (!finder.isComplete()) {
+            List<Integer> heights = finder.getCheckpointHeights();
+            assertTrue(heights.size() <= StateHashDivergenceFinder.NUM_CHECKPOINTS);
+            finder.onPeersStateHashes(getHashesAtHeights(peersHashes, heights));
+        }
+        assertEquals(Optional.of(GENESIS_HEIGHT + 4321), finder.getFirstConflictHeight());
+        assertTrue(finder.getNumResponses() <= 4);
+    }
+
+    @Test
+    public void testPeerRespondsWithAllHashesFromLowestHeight() {
+        // Peers not supporting the heights field respond with all hashes from the requested height on
+        List<DaoStateHash> myHashes = createHashes(1000, Integer.MAX_VALUE);
+        List<DaoStateHash> peersHashes = createHashes(1000, GENESIS_HEIGHT + 500);
+        StateHashDivergenceFinder<DaoStateHash> finder = new StateHashDivergenceFinder<>(myHashes);
+        while (!finder.isComplete()) {
+            int fromHeight = finder.getCheckpointHeights().get(0);
+            finder.onPeersStateHashes(peersHashes.stream()
+                    .filter(e -> e.getHeight() >= fromHeight)
+                    .collect(Collectors.toList()));
+        }
+        assertEquals(Optional.of(GENESIS_HEIGHT + 500), finder.getFirstConflictHeight());
+    }
+
+    @Test
+    public void testNoConflict() {
+        List<DaoStateHash> myHashes = createHashes(1000, Integer.MAX_VALUE);
+        StateHashDivergenceFinder<DaoStateHash> finder = new StateHashDivergenceFinder<>(myHashes);
+        finder.onPeersStateHashes(getHashesAtHeights(myHashes, finder.getCheckpointHeights()));
+        assertTrue(finder.isComplete());
+        assertFalse(finder.getFirstConflictHeight().isPresent());
+        assertEquals(1, finder.getNumResponses());
+    }
+
+    @Test
+    public void testPeerIsBehind() {
+        List<DaoStateHash> myHashes = createHashes(1000, Integer.MAX_VALUE);
+        List<DaoStateHash> peersHashes = createHashes(900, Integer.MAX_VALUE);
+        StateHashDivergenceFinder<DaoStateHash> finder = new StateHashDivergenceFinder<>(myHashes);
+        while (!finder.isComplete())
+            finder.onPeersStateHashes(getHashesAtHeights(peersHashes, finder.getCheckpointHeights()));
+        assertFalse(finder.getFirstConflictHeight().isPresent());
+    }
+
+    // All hashes from conflictHeight on differ as each hash covers the history up to its height
+    private static List<DaoStateHash> createHashes(int numHashes, int conflictHeight) {
+        List<DaoStateHash> hashes = new ArrayList<>();
+        byte[] prevHash = new byte[0];
+        for (int height = GENESIS_HEIGHT; height < GENESIS_HEIGHT + numHashes; height++) {
+            String prefix = height >= conflictHeight ? "conflict" : "hash";
+            byte[] hash = (prefix + height).getBytes();
+            hashes.add(new DaoStateHash(height, hash, prevHash));
+            prevHash = hash;
+        }
+        return hashes;
+    }
+
+    private static List<DaoStateHash> getHashesAtHeights(List<DaoStateHash> hashes, List<Integer> heights) {
+        Set<Integer> heightSet = Set.copyOf(heights);
+        return hashes.stream()
+                .filter(e -> heightSet.contains(e.getHeight()))
+                .collect(Collectors.toList());
+    }
+}
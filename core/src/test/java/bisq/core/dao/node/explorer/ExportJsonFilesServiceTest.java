@@ -0,0 +1,208 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.explorer;
+
+import bisq.core.dao.DaoTestFixtures;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.util.BsqFormatter;
+
+import bisq.common.UserThread;
+import bisq.common.storage.FileUtil;
+import bisq.common.storage.JsonFileManager;
+
+import io.bisq.generated.protobuffer.PB;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import java.io.File;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExportJsonFilesServiceTest {
+    private static final int GENESIS_HEIGHT = 100;
+
+    private File dir;
+    private Executor userThreadExecutor;
+    private ExecutorService executor;
+    private DaoStateService daoStateService;
+    private ExportJsonFilesService exportJsonFilesService;
+    private JsonFileManager bsqStateFileManager;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("ExportJsonFilesServiceTest").toFile();
+        // The service expects all calls and its callbacks on a single user thread
+        userThreadExecutor = UserThread.getExecutor();
+        executor = Executors.newSingleThreadExecutor();
+        UserThread.setExecutor(executor);
+
+        daoStateService = new DaoStateService(new DaoState(),
+                new GenesisTxInfo(getTxId(GENESIS_HEIGHT), GENESIS_HEIGHT, 2_500_000),
+                new BsqFormatter());
+        daoStateService.start();
+        exportJsonFilesService = new ExportJsonFilesService(daoStateService, dir, true);
+        runOnUserThread(() -> exportJsonFilesService.start());
+        bsqStateFileManager = new JsonFileManager(new File(Paths.get(dir.getAbsolutePath(), "json", "all").toString()));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        runOnUserThread(() -> exportJsonFilesService.shutDown());
+        executor.shutdown();
+        UserThread.setExecutor(userThreadExecutor);
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testExportChangedTxs() throws Exception {
+        for (int height = GENESIS_HEIGHT; height < GENESIS_HEIGHT + 3; height++)
+            addBlock(height, "", null);
+        export();
+
+        JSONObject manifest = awaitManifest(1);
+        assertTrue((Boolean) manifest.get("fullExport"));
+        assertEquals(GENESIS_HEIGHT + 2, ((Long) manifest.get("chainHeight")).intValue());
+        assertTrue(getTxFile(getTxId(GENESIS_HEIGHT + 1)).exists());
+        assertEquals(3, getBlocks("blocks_" + GENESIS_HEIGHT).size());
+        assertEquals(3, getAllBlocks().size());
+        assertEquals(Arrays.asList("blocks_" + GENESIS_HEIGHT), manifest.get("blocksFiles"));
+
+        // A new block in the next blocks file which spends an output of the tx at GENESIS_HEIGHT + 1
+        int height = GENESIS_HEIGHT + ExportJsonFilesService.BLOCKS_PER_FILE;
+        addBlock(height, "", getTxId(GENESIS_HEIGHT + 1));
+        export();
+
+        manifest = awaitManifest(2);
+        assertFalse((Boolean) manifest.get("fullExport"));
+        assertEquals(Arrays.asList(getTxId(height), getTxId(GENESIS_HEIGHT + 1)), manifest.get("changedTxIds"));
+        assertEquals(Arrays.asList("blocks_" + GENESIS_HEIGHT, "blocks_" + height), manifest.get("changedBlocksFiles"));
+        assertTrue(getTxFile(getTxId(height)).exists());
+        assertEquals(1, getBlocks("blocks_" + height).size());
+        // blocks.json still contains all blocks
+        JSONArray allBlocks = getAllBlocks();
+        assertEquals(4, allBlocks.size());
+        assertEquals((long) height, ((JSONObject) allBlocks.get(3)).get("height"));
+        assertEquals(Arrays.asList("blocks_" + GENESIS_HEIGHT, "blocks_" + height), manifest.get("blocksFiles"));
+    }
+
+    @Test
+    public void testFullExportAtReorg() throws Exception {
+        for (int height = GENESIS_HEIGHT; height < GENESIS_HEIGHT + 3; height++)
+            addBlock(height, "", null);
+        export();
+        awaitManifest(1);
+
+        // We replace the last exported block
+        runOnUserThread(() -> {
+            DaoState snapshot = daoStateService.getClone();
+            snapshot.getBlocks().removeLast();
+            daoStateService.applySnapshot(snapshot);
+        });
+        addBlock(GENESIS_HEIGHT + 2, "reorg", null);
+        export();
+
+        JSONObject manifest = awaitManifest(2);
+        assertTrue((Boolean) manifest.get("fullExport"));
+        assertTrue(((List<?>) manifest.get("changedTxIds")).isEmpty());
+        assertEquals("blockHash" + (GENESIS_HEIGHT + 2) + "reorg", manifest.get("blockHash"));
+        assertEquals("blockHash" + (GENESIS_HEIGHT + 2) + "reorg", ((JSONObject) getAllBlocks().get(2)).get("hash"));
+    }
+
+    private void addBlock(int height, String hashSuffix, String spentTxId) throws Exception {
+        runOnUserThread(() -> {
+            daoStateService.onNewBlockHeight(height);
+            Block block = DaoTestFixtures.createBlock(height, DaoTestFixtures.getBlockHash(height) + hashSuffix);
+            daoStateService.onNewBlockWithEmptyTxs(block);
+            Tx tx = createTx(height, spentTxId);
+            block.getTxs().add(tx);
+            tx.getTxOutputs().forEach(daoStateService::addUnspentTxOutput);
+            daoStateService.onParseBlockComplete(block);
+        });
+    }
+
+    private void export() throws Exception {
+        runOnUserThread(() -> exportJsonFilesService.maybeExportToJson());
+    }
+
+    private void runOnUserThread(Runnable runnable) throws Exception {
+        executor.submit(runnable).get();
+    }
+
+    private JSONObject awaitManifest(long exportId) throws Exception {
+        File manifestFile = new File(Paths.get(dir.getAbsolutePath(), "json", "all", "manifest.json").toString());
+        long timeout = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < timeout) {
+            if (manifestFile.exists()) {
+                JSONObject manifest = (JSONObject) bsqStateFileManager.readJsonFromDisc("manifest");
+                if ((Long) manifest.get("exportId") == exportId)
+                    return manifest;
+            }
+            Thread.sleep(10);
+        }
+        fail("Export " + exportId + " was not written");
+        return null;
+    }
+
+    private JSONArray getBlocks(String fileName) {
+        JsonFileManager blocksFileManager = new JsonFileManager(new File(Paths.get(dir.getAbsolutePath(), "json", "blocks").toString()));
+        return (JSONArray) ((JSONObject) blocksFileManager.readJsonFromDisc(fileName)).get("blocks");
+    }
+
+    private JSONArray getAllBlocks() {
+        return (JSONArray) ((JSONObject) bsqStateFileManager.readJsonFromDisc("blocks")).get("blocks");
+    }
+
+    private File getTxFile(String txId) {
+        return new File(Paths.get(dir.getAbsolutePath(), "json", "tx", txId + ".json").toString());
+    }
+
+    private static String getTxId(int height) {
+        return "txId" + height;
+    }
+
+    private static Tx createTx(int height, String spentTxId) {
+        String txId = getTxId(height);
+        PB.BaseTx.Builder builder = DaoTestFixtures.getBaseTxBuilder(txId, height, PB.TxType.TRANSFER_BSQ);
+        builder.getTxBuilder().addTxOutputs(DaoTestFixtures.getTxOutputBuilder(txId, height, 1000,
+                PB.TxOutputType.BSQ_OUTPUT));
+        if (spentTxId != null)
+            builder.addTxInputs(PB.TxInput.newBuilder().setConnectedTxOutputTxId(spentTxId).setConnectedTxOutputIndex(0));
+        return Tx.fromProto(builder.build());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.full;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BlockPrefetcherTest {
+    private final Map<Integer, SettableFuture<RawBlock>> requestedBlocks = new LinkedHashMap<>();
+    private final BlockPrefetcher blockPrefetcher = new BlockPrefetcher(height -> {
+        SettableFuture<RawBlock> future = SettableFuture.create();
+        requestedBlocks.put(height, future);
+        return future;
+    }, 3);
+
+    @Test
+    public void testPrefetchDepthAndOrder() {
+        List<Integer> parsedHeights = new ArrayList<>();
+        blockPrefetcher.start(100, 109);
+        assertEquals(List.of(100, 101, 102), new ArrayList<>(requestedBlocks.keySet()));
+
+        blockPrefetcher.requestBlock(100, rawBlock -> parsedHeights.add(rawBlock.getHeight()), Throwable::printStackTrace);
+        // We keep prefetchDepth blocks in the queue
+        assertEquals(List.of(100, 101, 102, 103), new ArrayList<>(requestedBlocks.keySet()));
+
+        // Later blocks completing first must not be delivered before the requested one
+        complete(102);
+        complete(101);
+        assertTrue(parsedHeights.isEmpty());
+        complete(100);
+        assertEquals(List.of(100), parsedHeights);
+
+        blockPrefetcher.requestBlock(101, rawBlock -> parsedHeights.add(rawBlock.getHeight()), Throwable::printStackTrace);
+        assertEquals(List.of(100, 101), parsedHeights);
+        assertEquals(1, blockPrefetcher.getNumPrefetchedBlocks());
+        assertEquals(2, blockPrefetcher.getNumDeliveredBlocks());
+    }
+
+    @Test
+    public void testDoesNotRequestAboveToHeight() {
+        blockPrefetcher.start(100, 101);
+        assertEquals(List.of(100, 101), new ArrayList<>(requestedBlocks.keySet()));
+        assertEquals(2, blockPrefetcher.getNumPendingBlocks());
+    }
+
+    @Test
+    public void testCancel() {
+        blockPrefetcher.start(100, 109);
+        blockPrefetcher.cancel();
+        assertEquals(0, blockPrefetcher.getNumPendingBlocks());
+        requestedBlocks.values().forEach(future -> assertTrue(future.isCancelled()));
+
+        // A request for a block which is not prefetched starts prefetching from that height
+        requestedBlocks.clear();
+        blockPrefetcher.requestBlock(105, rawBlock -> {
+        }, Throwable::printStackTrace);
+        assertEquals(List.of(105, 106, 107, 108), new ArrayList<>(requestedBlocks.keySet()));
+    }
+
+    @Test
+    public void testError() {
+        List<Throwable> errors = new ArrayList<>();
+        blockPrefetcher.start(100, 109);
+        blockPrefetcher.requestBlock(100, rawBlock -> {
+        }, errors::add);
+        requestedBlocks.get(100).setException(new RpcException("test", null));
+        assertEquals(1, errors.size());
+        // Pending requests get cancelled at an error
+        assertEquals(0, blockPrefetcher.getNumPendingBlocks());
+    }
+
+    private void complete(int height) {
+        requestedBlocks.get(height).set(new RawBlock(height, height * 600L, "hash" + height,
+                "hash" + (height - 1), ImmutableList.of()));
+    }
+}
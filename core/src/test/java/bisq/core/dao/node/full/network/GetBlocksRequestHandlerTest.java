@@ -0,0 +1,58 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.full.network;
+
+import bisq.core.dao.DaoTestFixtures;
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.state.model.blockchain.Block;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class GetBlocksRequestHandlerTest {
+    private final List<Block> blocks = new ArrayList<>();
+
+    public GetBlocksRequestHandlerTest() {
+        for (int height = 100; height < 110; height++)
+            blocks.add(DaoTestFixtures.createBlock(height));
+    }
+
+    @Test
+    public void testChunkLimitedByNumBlocks() {
+        List<RawBlock> chunk = GetBlocksRequestHandler.getRawBlocksChunk(blocks, 4, Integer.MAX_VALUE);
+        assertEquals(4, chunk.size());
+        assertEquals(100, chunk.get(0).getHeight());
+        assertEquals(103, chunk.get(3).getHeight());
+
+        assertEquals(10, GetBlocksRequestHandler.getRawBlocksChunk(blocks, 20, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    public void testChunkLimitedBySize() {
+        int blockSize = RawBlock.fromBlock(blocks.get(0)).toProtoMessage().getSerializedSize();
+        assertEquals(3, GetBlocksRequestHandler.getRawBlocksChunk(blocks, 20, blockSize * 3 + 1).size());
+
+        // We always send at least one block
+        assertEquals(1, GetBlocksRequestHandler.getRawBlocksChunk(blocks, 20, 1).size());
+        assertEquals(0, GetBlocksRequestHandler.getRawBlocksChunk(new ArrayList<>(), 20, 1).size());
+    }
+}
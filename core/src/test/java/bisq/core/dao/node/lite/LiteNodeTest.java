@@ -0,0 +1,184 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.dao.node.lite;
+
+import bisq.core.btc.wallet.BsqWalletService;
+import bisq.core.dao.DaoTestFixtures;
+import bisq.core.dao.node.explorer.ExportJsonFilesService;
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.lite.network.LiteNodeNetworkService;
+import bisq.core.dao.node.messages.GetBlocksResponse;
+import bisq.core.dao.node.parser.BlockParser;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.DaoStateSnapshotService;
+import bisq.core.dao.state.model.blockchain.Block;
+
+import bisq.network.p2p.P2PService;
+
+import bisq.common.FrameRateTimer;
+import bisq.common.Timer;
+import bisq.common.UserThread;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.mockito.ArgumentCaptor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LiteNodeTest {
+    private static final int GENESIS_HEIGHT = 100;
+    private static final int CHAIN_HEIGHT = 105;
+
+    private final List<Integer> parsedHeights = new ArrayList<>();
+    private DaoStateService daoStateService;
+    private LiteNodeNetworkService liteNodeNetworkService;
+    private LiteNodeNetworkService.Listener networkListener;
+
+    @Before
+    public void setup() throws Exception {
+        UserThread.setTimerClass(ManualTimer.class);
+        ManualTimer.scheduled.clear();
+
+        BlockParser blockParser = mock(BlockParser.class);
+        when(blockParser.parseBlock(any())).thenAnswer(invocation -> {
+            RawBlock rawBlock = invocation.getArgument(0);
+            parsedHeights.add(rawBlock.getHeight());
+            return new Block(rawBlock.getHeight(), rawBlock.getTime(), rawBlock.getHash(), rawBlock.getPreviousBlockHash());
+        });
+        daoStateService = mock(DaoStateService.class);
+        when(daoStateService.getGenesisBlockHeight()).thenReturn(GENESIS_HEIGHT);
+        when(daoStateService.getChainHeight()).thenReturn(GENESIS_HEIGHT);
+        P2PService p2PService = mock(P2PService.class);
+        when(p2PService.isBootstrapped()).thenReturn(true);
+        liteNodeNetworkService = mock(LiteNodeNetworkService.class);
+
+        LiteNode liteNode = new LiteNode(blockParser,
+                daoStateService,
+                mock(DaoStateSnapshotService.class),
+                p2PService,
+                liteNodeNetworkService,
+                mock(BsqWalletService.class),
+                mock(ExportJsonFilesService.class));
+        liteNode.start();
+
+        ArgumentCaptor<LiteNodeNetworkService.Listener> captor = ArgumentCaptor.forClass(LiteNodeNetworkService.Listener.class);
+        verify(liteNodeNetworkService).addListener(captor.capture());
+        networkListener = captor.getValue();
+    }
+
+    @After
+    public void tearDown() {
+        UserThread.setTimerClass(FrameRateTimer.class);
+    }
+
+    @Test
+    public void testChunkPipeline() {
+        verify(liteNodeNetworkService).requestBlocks(100);
+
+        networkListener.onRequestedBlocksReceived(getBlocksResponse(100, 102));
+        // The next chunk gets requested while we parse the current one
+        verify(liteNodeNetworkService).requestBlocks(103);
+        assertEquals(List.of(100, 101, 102), parsedHeights);
+        verify(daoStateService, never()).onParseBlockChainComplete();
+
+        networkListener.onRequestedBlocksReceived(getBlocksResponse(103, 105));
+        assertEquals(List.of(100, 101, 102, 103, 104, 105), parsedHeights);
+        verify(daoStateService).onParseBlockChainComplete();
+    }
+
+    @Test
+    public void testRetryAfterFailedChunkRequest() {
+        networkListener.onRequestedBlocksReceived(getBlocksResponse(100, 102));
+        verify(liteNodeNetworkService).requestBlocks(103);
+
+        networkListener.onFault("timeout", null);
+        verify(daoStateService, never()).onParseBlockChainComplete();
+        assertEquals(1, ManualTimer.scheduled.size());
+
+        ManualTimer.runScheduled();
+        verify(liteNodeNetworkService, times(2)).requestBlocks(103);
+
+        networkListener.onRequestedBlocksReceived(getBlocksResponse(103, 105));
+        assertEquals(List.of(100, 101, 102, 103, 104, 105), parsedHeights);
+        verify(daoStateService).onParseBlockChainComplete();
+    }
+
+    @Test
+    public void testRetryIfNoSeedNodeAvailable() {
+        networkListener.onNoSeedNodeAvailable();
+        // Repeated failure callbacks don't schedule more retries
+        networkListener.onFault("no connection", null);
+        assertEquals(1, ManualTimer.scheduled.size());
+
+        ManualTimer.runScheduled();
+        verify(liteNodeNetworkService, times(2)).requestBlocks(100);
+
+        networkListener.onRequestedBlocksReceived(getBlocksResponse(100, 105));
+        assertEquals(6, parsedHeights.size());
+        verify(daoStateService).onParseBlockChainComplete();
+    }
+
+    private static GetBlocksResponse getBlocksResponse(int fromHeight, int toHeight) {
+        List<RawBlock> blocks = IntStream.rangeClosed(fromHeight, toHeight)
+                .mapToObj(height -> RawBlock.fromBlock(DaoTestFixtures.createBlock(height)))
+                .collect(Collectors.toList());
+        return new GetBlocksResponse(blocks, 0, CHAIN_HEIGHT, false);
+    }
+
+    public static class ManualTimer implements Timer {
+        static final List<ManualTimer> scheduled = new ArrayList<>();
+        private Runnable action;
+
+        static void runScheduled() {
+            List<ManualTimer> timers = new ArrayList<>(scheduled);
+            scheduled.clear();
+            timers.forEach(timer -> timer.action.run());
+        }
+
+        @Override
+        public Timer runLater(Duration delay, Runnable action) {
+            this.action = action;
+            scheduled.add(this);
+            return this;
+        }
+
+        @Override
+        public Timer runPeriodically(Duration interval, Runnable runnable) {
+            return runLater(interval, runnable);
+        }
+
+        @Override
+        public void stop() {
+            scheduled.remove(this);
+        }
+    }
+}
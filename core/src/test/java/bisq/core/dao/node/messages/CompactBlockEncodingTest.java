@@ -0,0 +1,151 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.messages;
+
+import bisq.core.dao.node.full.RawBlock;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.ByteString;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompactBlockEncodingTest {
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<RawBlock> blocks = new ArrayList<>();
+        for (int height = 100; height < 105; height++)
+            blocks.add(createBlock(height));
+
+        byte[] compact = CompactBlockEncoding.encode(blocks);
+        List<RawBlock> decoded = CompactBlockEncoding.decode(compact);
+        assertEquals(toProto(blocks), toProto(decoded));
+
+        int protoSize = toProto(blocks).stream().mapToInt(PB.BaseBlock::getSerializedSize).sum();
+        assertTrue("compact size " + compact.length + " must be less than half of " + protoSize,
+                compact.length * 2 < protoSize);
+    }
+
+    @Test
+    public void testRoundTripOfUnusualValues() throws IOException {
+        // Values which are not hex, which differ from the enclosing block or tx and optional fields not set
+        PB.BaseTxOutput txOutput = PB.BaseTxOutput.newBuilder()
+                .setIndex(7)
+                .setValue(-1)
+                .setTxId("Not hex")
+                .setBlockHeight(99)
+                .setRawTxOutput(PB.RawTxOutput.newBuilder())
+                .build();
+        PB.BaseTx tx = PB.BaseTx.newBuilder()
+                .setTxVersion("1")
+                .setId("ABCD")
+                .setBlockHeight(1)
+                .setBlockHash("other")
+                .setTime(5)
+                .addTxInputs(PB.TxInput.newBuilder().setConnectedTxOutputTxId("abc").setConnectedTxOutputIndex(2))
+                .setRawTx(PB.RawTx.newBuilder().addRawTxOutputs(txOutput))
+                .build();
+        PB.BaseBlock block = PB.BaseBlock.newBuilder()
+                .setHeight(0)
+                .setTime(0)
+                .setHash("hash0")
+                .setRawBlock(PB.RawBlock.newBuilder().addRawTxs(tx))
+                .build();
+        List<RawBlock> blocks = List.of(RawBlock.fromProto(block));
+        assertEquals(toProto(blocks), toProto(CompactBlockEncoding.decode(CompactBlockEncoding.encode(blocks))));
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedData() throws IOException {
+        byte[] compact = CompactBlockEncoding.encode(List.of(createBlock(100)));
+        byte[] truncated = new byte[compact.length - 1];
+        System.arraycopy(compact, 0, truncated, 0, truncated.length);
+        CompactBlockEncoding.decode(truncated);
+    }
+
+    private static List<PB.BaseBlock> toProto(List<RawBlock> blocks) {
+        return blocks.stream().map(RawBlock::toProtoMessage).collect(Collectors.toList());
+    }
+
+    private static RawBlock createBlock(int height) {
+        String blockHash = getHash("block", height);
+        PB.RawBlock.Builder rawBlockBuilder = PB.RawBlock.newBuilder();
+        for (int i = 0; i < 3; i++) {
+            String txId = getHash("tx" + i, height);
+            String address = "1BsqAddress" + (i % 2);
+            PB.PubKeyScript pubKeyScript = PB.PubKeyScript.newBuilder()
+                    .setReqSigs(1)
+                    .setScriptType(PB.ScriptType.PUB_KEY_HASH)
+                    .addAddresses(address)
+                    .setAsm("OP_DUP OP_HASH160 89abcdef0123456789abcdef0123456789abcdef OP_EQUALVERIFY OP_CHECKSIG")
+                    .setHex("76a91489abcdef0123456789abcdef0123456789abcdef88ac")
+                    .build();
+            PB.RawTx.Builder rawTxBuilder = PB.RawTx.newBuilder();
+            for (int index = 0; index < 2; index++) {
+                rawTxBuilder.addRawTxOutputs(PB.BaseTxOutput.newBuilder()
+                        .setIndex(index)
+                        .setValue(100_000 + index)
+                        .setTxId(txId)
+                        .setPubKeyScript(pubKeyScript)
+                        .setAddress(address)
+                        .setBlockHeight(height)
+                        .setRawTxOutput(PB.RawTxOutput.newBuilder()));
+            }
+            rawTxBuilder.addRawTxOutputs(PB.BaseTxOutput.newBuilder()
+                    .setIndex(2)
+                    .setTxId(txId)
+                    .setOpReturnData(ByteString.copyFrom(new byte[]{0x14, 0x01, 0x02}))
+                    .setBlockHeight(height)
+                    .setRawTxOutput(PB.RawTxOutput.newBuilder()));
+
+            // The first tx spends an output of the previous block, the others one of the tx before
+            String connectedTxId = i == 0 ? getHash("tx2", height - 1) : getHash("tx" + (i - 1), height);
+            rawBlockBuilder.addRawTxs(PB.BaseTx.newBuilder()
+                    .setTxVersion("1")
+                    .setId(txId)
+                    .setBlockHeight(height)
+                    .setBlockHash(blockHash)
+                    .setTime(height * 600_000L)
+                    .addTxInputs(PB.TxInput.newBuilder()
+                            .setConnectedTxOutputTxId(connectedTxId)
+                            .setConnectedTxOutputIndex(0)
+                            .setPubKey("02" + getHash("pubKey", height)))
+                    .setRawTx(rawTxBuilder));
+        }
+        return RawBlock.fromProto(PB.BaseBlock.newBuilder()
+                .setHeight(height)
+                .setTime(height * 600_000L)
+                .setHash(blockHash)
+                .setPreviousBlockHash(getHash("block", height - 1))
+                .setRawBlock(rawBlockBuilder)
+                .build());
+    }
+
+    private static String getHash(String prefix, int height) {
+        return String.format("%064x", (prefix + height).hashCode() & 0xffffffffL);
+    }
+}
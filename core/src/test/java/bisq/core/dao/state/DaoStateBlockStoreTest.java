@@ -0,0 +1,110 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.blockchain.Block;
+
+import bisq.common.storage.FileUtil;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DaoStateBlockStoreTest {
+    private static final int GENESIS_HEIGHT = 100;
+
+    private File dir;
+
+    @Before
+    public void setup() throws IOException {
+        dir = File.createTempFile("temp_tests", "");
+        //noinspection ResultOfMethodCallIgnored
+        dir.delete();
+        //noinspection ResultOfMethodCallIgnored
+        dir.mkdir();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testWriteAndReadSegments() throws IOException {
+        List<Block> blocks = createBlocks(2 * DaoStateBlockStore.SEGMENT_SIZE + 10, "");
+        DaoStateBlockStore store = new DaoStateBlockStore(dir, GENESIS_HEIGHT);
+        int fromHeight = store.writeCompletedSegments(blocks);
+        assertEquals(GENESIS_HEIGHT + 2 * DaoStateBlockStore.SEGMENT_SIZE, fromHeight);
+
+        Block firstBlockOfOpenSegment = blocks.get(2 * DaoStateBlockStore.SEGMENT_SIZE);
+        List<Block> blocksFromSegments = new DaoStateBlockStore(dir, GENESIS_HEIGHT).readBlocks(firstBlockOfOpenSegment);
+        assertEquals(blocks.subList(0, 2 * DaoStateBlockStore.SEGMENT_SIZE), blocksFromSegments);
+    }
+
+    @Test
+    public void testSegmentGetsRewrittenIfBlocksChanged() throws IOException {
+        DaoStateBlockStore store = new DaoStateBlockStore(dir, GENESIS_HEIGHT);
+        store.writeCompletedSegments(createBlocks(DaoStateBlockStore.SEGMENT_SIZE + 1, "a"));
+
+        List<Block> otherBlocks = createBlocks(DaoStateBlockStore.SEGMENT_SIZE + 1, "b");
+        store.writeCompletedSegments(otherBlocks);
+        Block firstBlockOfOpenSegment = otherBlocks.get(DaoStateBlockStore.SEGMENT_SIZE);
+        assertEquals(otherBlocks.subList(0, DaoStateBlockStore.SEGMENT_SIZE),
+                new DaoStateBlockStore(dir, GENESIS_HEIGHT).readBlocks(firstBlockOfOpenSegment));
+    }
+
+    @Test(expected = IOException.class)
+    public void testBlocksMustConnectToFirstBlock() throws IOException {
+        DaoStateBlockStore store = new DaoStateBlockStore(dir, GENESIS_HEIGHT);
+        store.writeCompletedSegments(createBlocks(DaoStateBlockStore.SEGMENT_SIZE + 1, "a"));
+        store.readBlocks(createBlocks(DaoStateBlockStore.SEGMENT_SIZE + 1, "b").get(DaoStateBlockStore.SEGMENT_SIZE));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingSegment() throws IOException {
+        DaoStateBlockStore store = new DaoStateBlockStore(dir, GENESIS_HEIGHT);
+        List<Block> blocks = createBlocks(DaoStateBlockStore.SEGMENT_SIZE + 1, "");
+        store.writeCompletedSegments(blocks);
+        store.deleteAll();
+        store.readBlocks(blocks.get(DaoStateBlockStore.SEGMENT_SIZE));
+    }
+
+    @Test
+    public void testIncompleteBlocksAreNotWritten() {
+        DaoStateBlockStore store = new DaoStateBlockStore(dir, GENESIS_HEIGHT);
+        assertEquals(GENESIS_HEIGHT, store.writeCompletedSegments(createBlocks(10, "")));
+        String[] files = dir.list();
+        assertTrue(files == null || files.length == 0);
+    }
+
+    private static List<Block> createBlocks(int numBlocks, String chain) {
+        List<Block> blocks = new ArrayList<>();
+        for (int height = GENESIS_HEIGHT; height < GENESIS_HEIGHT + numBlocks; height++)
+            blocks.add(new Block(height, height * 600L, chain + "hash" + height, chain + "hash" + (height - 1)));
+        return blocks;
+    }
+}
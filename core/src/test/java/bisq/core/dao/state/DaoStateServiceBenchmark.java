@@ -0,0 +1,226 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.DaoTestFixtures;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+import bisq.core.util.BsqFormatter;
+
+import bisq.common.crypto.Hash;
+
+import io.bisq.generated.protobuffer.PB;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the lookups by iterating over all blocks (as done before we had the DaoStateIndex) with the indexed
+ * lookups of DaoStateService on a synthetic chain. We also compare the legacy state hash, which serializes the state
+ * at each block, with the incremental state hash.
+ * <p/>
+ * Run with main() from the IDE or the test classpath. It is not executed as part of the unit tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoStateServiceBenchmark {
+    private static final int GENESIS_HEIGHT = 100;
+
+    @Param({"50000"})
+    public int numBlocks;
+    @Param({"2"})
+    public int numTxsPerBlock;
+
+    private DaoStateService daoStateService;
+    private final Random random = new Random(1);
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DaoStateServiceBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setup() {
+        daoStateService = createDaoStateService(numBlocks, numTxsPerBlock);
+    }
+
+    static DaoStateService createDaoStateService(int numBlocks, int numTxsPerBlock) {
+        DaoStateService daoStateService = new DaoStateService(new DaoState(),
+                new GenesisTxInfo(getTxId(GENESIS_HEIGHT, 0), GENESIS_HEIGHT, 2_500_000),
+                new BsqFormatter());
+        daoStateService.start();
+        for (int height = GENESIS_HEIGHT; height < GENESIS_HEIGHT + numBlocks; height++) {
+            daoStateService.onNewBlockHeight(height);
+            Block block = DaoTestFixtures.createBlock(height);
+            daoStateService.onNewBlockWithEmptyTxs(block);
+            for (int i = 0; i < numTxsPerBlock; i++) {
+                Tx tx = createTx(height, i);
+                block.getTxs().add(tx);
+                tx.getTxOutputs().forEach(daoStateService::addUnspentTxOutput);
+            }
+            daoStateService.onParseBlockComplete(block);
+        }
+        return daoStateService;
+    }
+
+    static String getTxId(int height, int index) {
+        return "txId" + height + "_" + index;
+    }
+
+    static Tx createTx(int height, int index) {
+        PB.TxOutputType txOutputType = index == 0 ? PB.TxOutputType.BSQ_OUTPUT : PB.TxOutputType.LOCKUP_OUTPUT;
+        return DaoTestFixtures.createTx(getTxId(height, index), height, PB.TxType.TRANSFER_BSQ, 1000, txOutputType);
+    }
+
+    private int randomHeight() {
+        return GENESIS_HEIGHT + random.nextInt(numBlocks);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Lookups by iterating the blocks
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Stream<Tx> getTxStream() {
+        return daoStateService.getBlocks().stream().flatMap(block -> block.getTxs().stream());
+    }
+
+    @Benchmark
+    public Optional<Tx> getTxByIteration() {
+        String txId = getTxId(randomHeight(), 0);
+        return getTxStream().filter(tx -> tx.getId().equals(txId)).findAny();
+    }
+
+    @Benchmark
+    public Optional<Block> getBlockAtHeightByIteration() {
+        int height = randomHeight();
+        return daoStateService.getBlocks().stream().filter(block -> block.getHeight() == height).findAny();
+    }
+
+    @Benchmark
+    public boolean containsBlockHashByIteration() {
+        String blockHash = DaoTestFixtures.getBlockHash(randomHeight());
+        return daoStateService.getBlocks().stream().anyMatch(block -> block.getHash().equals(blockHash));
+    }
+
+    @Benchmark
+    public Optional<TxOutput> getTxOutputByIteration() {
+        TxOutputKey key = new TxOutputKey(getTxId(randomHeight(), 0), 0);
+        return getTxStream()
+                .flatMap(tx -> tx.getTxOutputs().stream())
+                .filter(txOutput -> txOutput.getKey().equals(key))
+                .findAny();
+    }
+
+    @Benchmark
+    public Set<TxOutput> getTxOutputsByTxOutputTypeByIteration() {
+        return getTxStream()
+                .flatMap(tx -> tx.getTxOutputs().stream())
+                .filter(txOutput -> txOutput.getTxOutputType() == TxOutputType.LOCKUP_OUTPUT)
+                .collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public List<Block> getBlocksFromBlockHeightByIteration() {
+        int fromBlockHeight = GENESIS_HEIGHT + numBlocks - 10;
+        return daoStateService.getBlocks().stream()
+                .filter(block -> block.getHeight() >= fromBlockHeight)
+                .collect(Collectors.toList());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Indexed lookups
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Benchmark
+    public Optional<Tx> getTx() {
+        return daoStateService.getTx(getTxId(randomHeight(), 0));
+    }
+
+    @Benchmark
+    public Optional<Block> getBlockAtHeight() {
+        return daoStateService.getBlockAtHeight(randomHeight());
+    }
+
+    @Benchmark
+    public boolean containsBlockHash() {
+        return daoStateService.containsBlockHash(DaoTestFixtures.getBlockHash(randomHeight()));
+    }
+
+    @Benchmark
+    public Optional<TxOutput> getTxOutput() {
+        return daoStateService.getTxOutput(new TxOutputKey(getTxId(randomHeight(), 0), 0));
+    }
+
+    @Benchmark
+    public Set<TxOutput> getTxOutputsByTxOutputType() {
+        return daoStateService.getTxOutputsByTxOutputType(TxOutputType.LOCKUP_OUTPUT);
+    }
+
+    @Benchmark
+    public List<Block> getBlocksFromBlockHeight() {
+        return daoStateService.getBlocksFromBlockHeight(GENESIS_HEIGHT + numBlocks - 10);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // State hash
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Benchmark
+    public byte[] legacyStateHash() {
+        return Hash.getSha256Ripemd160hash(daoStateService.getSerializedStateForHashChain());
+    }
+
+    // Does not include the updates at state changes, those are logged at a resync by the DaoStateMonitoringService
+    @Benchmark
+    public byte[] incrementalStateHash() {
+        return daoStateService.getIncrementalStateHash();
+    }
+}
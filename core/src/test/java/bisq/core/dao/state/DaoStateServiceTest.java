@@ -17,12 +17,17 @@
 
 package bisq.core.dao.state;
 
+import bisq.core.dao.DaoTestFixtures;
 import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
 import bisq.core.util.BsqFormatter;
 
 import org.bitcoinj.core.Coin;
 
+import java.util.List;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -69,4 +74,49 @@ public class DaoStateServiceTest {
                 stateService.isBlockHashKnown("fakeblockhash4")
         );
     }
+
+    @Test
+    public void testIndexedLookups() {
+        DaoStateService stateService = DaoStateServiceBenchmark.createDaoStateService(10, 2);
+        assertIndexedLookups(stateService);
+
+        // Indexes get rebuilt when a snapshot is applied
+        stateService.applySnapshot(stateService.getClone());
+        assertIndexedLookups(stateService);
+
+        // Txs of a block in parsing can be looked up before the block is completed
+        stateService.onNewBlockHeight(110);
+        Block block = DaoTestFixtures.createBlock(110);
+        stateService.onNewBlockWithEmptyTxs(block);
+        block.getTxs().add(DaoStateServiceBenchmark.createTx(110, 0));
+        Assert.assertTrue(stateService.getTx("txId110_0").isPresent());
+        Assert.assertTrue(stateService.getTxOutput(new TxOutputKey("txId110_0", 0)).isPresent());
+        stateService.onParseBlockComplete(block);
+        Assert.assertTrue(stateService.getTx("txId110_0").isPresent());
+        Assert.assertEquals(21, stateService.getTxMap().size());
+    }
+
+    private void assertIndexedLookups(DaoStateService stateService) {
+        Assert.assertTrue(stateService.isBlockHashKnown("blockHash105"));
+        Assert.assertFalse(stateService.isBlockHashKnown("blockHash110"));
+        Assert.assertEquals(105, stateService.getBlockAtHeight(105).get().getHeight());
+        Assert.assertFalse(stateService.getBlockAtHeight(99).isPresent());
+        Assert.assertTrue(stateService.containsBlock(stateService.getBlockAtHeight(105).get()));
+
+        Assert.assertEquals("txId103_1", stateService.getTx("txId103_1").get().getId());
+        Assert.assertFalse(stateService.getTx("txId110_0").isPresent());
+        Assert.assertEquals(20, stateService.getTxMap().size());
+
+        Assert.assertEquals(TxOutputType.LOCKUP_OUTPUT,
+                stateService.getTxOutput(new TxOutputKey("txId103_1", 0)).get().getTxOutputType());
+        Assert.assertFalse(stateService.existsTxOutput(new TxOutputKey("txId103_1", 1)));
+        Assert.assertEquals(10, stateService.getTxOutputsByTxOutputType(TxOutputType.BSQ_OUTPUT).size());
+        Assert.assertEquals(10, stateService.getTxOutputsByTxOutputType(TxOutputType.LOCKUP_OUTPUT).size());
+        Assert.assertTrue(stateService.getTxOutputsByTxOutputType(TxOutputType.UNLOCK_OUTPUT).isEmpty());
+
+        List<Block> blocks = stateService.getBlocksFromBlockHeight(107);
+        Assert.assertEquals(3, blocks.size());
+        Assert.assertEquals(107, blocks.get(0).getHeight());
+        Assert.assertEquals(109, blocks.get(2).getHeight());
+    }
 }
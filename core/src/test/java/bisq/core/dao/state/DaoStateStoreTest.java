@@ -0,0 +1,84 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.DaoTestFixtures;
+import bisq.core.dao.monitoring.model.DaoStateHash;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+
+import io.bisq.generated.protobuffer.PB;
+
+import java.util.LinkedList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DaoStateStoreTest {
+
+    @Test
+    public void testToSerializedBytes() throws Exception {
+        DaoStateService daoStateService = DaoStateServiceBenchmark.createDaoStateService(10, 2);
+        LinkedList<DaoStateHash> daoStateHashChain = new LinkedList<>();
+        daoStateService.getBlocks().forEach(block ->
+                daoStateHashChain.add(new DaoStateHash(block.getHeight(), new byte[]{1}, new byte[]{0})));
+        DaoStateStore store = new DaoStateStore(daoStateService.getClone(), daoStateHashChain);
+        assertParsesEqual(store);
+
+        // Next snapshot with more blocks reuses the serialized blocks of the previous one
+        daoStateService.onNewBlockHeight(110);
+        Block block = DaoTestFixtures.createBlock(110);
+        daoStateService.onNewBlockWithEmptyTxs(block);
+        block.getTxs().add(DaoStateServiceBenchmark.createTx(110, 0));
+        daoStateService.onParseBlockComplete(block);
+        LinkedList<DaoStateHash> newDaoStateHashChain = new LinkedList<>(daoStateHashChain);
+        newDaoStateHashChain.add(new DaoStateHash(110, new byte[]{2}, new byte[]{1}));
+        store.setDaoState(daoStateService.getClone());
+        store.setDaoStateHashChain(newDaoStateHashChain);
+        assertParsesEqual(store);
+    }
+
+    @Test
+    public void testFirstBlockHeightToPersist() throws Exception {
+        DaoStateService daoStateService = DaoStateServiceBenchmark.createDaoStateService(10, 1);
+        DaoStateStore store = new DaoStateStore(daoStateService.getClone(), new LinkedList<>());
+        store.setFirstBlockHeightToPersist(105);
+
+        PB.DaoState daoState = PB.PersistableEnvelope.parseFrom(store.toSerializedBytes()).getDaoStateStore().getDaoState();
+        Assert.assertEquals(5, daoState.getBlocksCount());
+        Assert.assertEquals(105, daoState.getBlocks(0).getHeight());
+    }
+
+    @Test
+    public void testCloneSharesElements() {
+        DaoStateService daoStateService = DaoStateServiceBenchmark.createDaoStateService(3, 1);
+        DaoState clone = daoStateService.getClone();
+        Assert.assertSame(daoStateService.getBlocks().getLast(), clone.getBlocks().getLast());
+
+        // Changes of the original collections do not affect the clone
+        daoStateService.onNewBlockHeight(103);
+        daoStateService.onNewBlockWithEmptyTxs(DaoTestFixtures.createBlock(103));
+        Assert.assertEquals(4, daoStateService.getBlocks().size());
+        Assert.assertEquals(3, clone.getBlocks().size());
+    }
+
+    private static void assertParsesEqual(DaoStateStore store) throws Exception {
+        PB.PersistableEnvelope expected = (PB.PersistableEnvelope) store.toProtoMessage();
+        Assert.assertEquals(expected, PB.PersistableEnvelope.parseFrom(store.toSerializedBytes()));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.SpentInfo;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.util.BsqFormatter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+
+public class IncrementalDaoStateHashTest {
+    @Test
+    public void testOrderIndependentAndRemovable() {
+        List<TxOutput> txOutputs = new ArrayList<>();
+        for (int height = 100; height < 110; height++)
+            txOutputs.addAll(DaoStateServiceBenchmark.createTx(height, 0).getTxOutputs());
+
+        IncrementalDaoStateHash incrementalDaoStateHash = new IncrementalDaoStateHash();
+        byte[] emptyHash = incrementalDaoStateHash.getHash(110);
+        txOutputs.forEach(e -> incrementalDaoStateHash.add(IncrementalDaoStateHash.Part.UNSPENT_TX_OUTPUTS, e.toProtoMessage()));
+        byte[] hash = incrementalDaoStateHash.getHash(110);
+        assertFalse(Arrays.equals(emptyHash, hash));
+
+        List<TxOutput> reversed = new ArrayList<>(txOutputs);
+        Collections.reverse(reversed);
+        IncrementalDaoStateHash reversedDaoStateHash = new IncrementalDaoStateHash();
+        reversed.forEach(e -> reversedDaoStateHash.add(IncrementalDaoStateHash.Part.UNSPENT_TX_OUTPUTS, e.toProtoMessage()));
+        assertArrayEquals(hash, reversedDaoStateHash.getHash(110));
+
+        // Same elements in another collection must not result in the same hash
+        IncrementalDaoStateHash otherPartDaoStateHash = new IncrementalDaoStateHash();
+        txOutputs.forEach(e -> otherPartDaoStateHash.add(IncrementalDaoStateHash.Part.BLOCKS, e.toProtoMessage()));
+        assertFalse(Arrays.equals(hash, otherPartDaoStateHash.getHash(110)));
+
+        TxOutput txOutput = DaoStateServiceBenchmark.createTx(110, 0).getTxOutputs().get(0);
+        incrementalDaoStateHash.add(IncrementalDaoStateHash.Part.UNSPENT_TX_OUTPUTS, txOutput.toProtoMessage());
+        assertFalse(Arrays.equals(hash, incrementalDaoStateHash.getHash(110)));
+        incrementalDaoStateHash.remove(IncrementalDaoStateHash.Part.UNSPENT_TX_OUTPUTS, txOutput.toProtoMessage());
+        assertArrayEquals(hash, incrementalDaoStateHash.getHash(110));
+
+        txOutputs.forEach(e -> incrementalDaoStateHash.remove(IncrementalDaoStateHash.Part.UNSPENT_TX_OUTPUTS, e.toProtoMessage()));
+        assertArrayEquals(emptyHash, incrementalDaoStateHash.getHash(110));
+    }
+
+    @Test
+    public void testIncrementalHashMatchesSnapshot() {
+        DaoStateService daoStateService = DaoStateServiceBenchmark.createDaoStateService(20, 3);
+        byte[] hash = daoStateService.getIncrementalStateHash();
+
+        // Spend an output and overwrite another one
+        TxOutput spent = daoStateService.getUnspentTxOutputs().iterator().next();
+        daoStateService.onNewBlockHeight(daoStateService.getChainHeight());
+        daoStateService.removeUnspentTxOutput(spent);
+        daoStateService.setSpentInfo(spent.getKey(), new SpentInfo(119, "spendingTxId", 0));
+        daoStateService.addUnspentTxOutput(DaoStateServiceBenchmark.createTx(110, 0).getTxOutputs().get(0));
+        byte[] changedHash = daoStateService.getIncrementalStateHash();
+        assertFalse(Arrays.equals(hash, changedHash));
+
+        DaoStateService snapshotDaoStateService = new DaoStateService(new DaoState(),
+                new GenesisTxInfo(DaoStateServiceBenchmark.getTxId(100, 0), 100, 2_500_000),
+                new BsqFormatter());
+        snapshotDaoStateService.applySnapshot(daoStateService.getClone());
+        assertArrayEquals(changedHash, snapshotDaoStateService.getIncrementalStateHash());
+    }
+}
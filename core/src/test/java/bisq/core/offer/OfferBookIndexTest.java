@@ -0,0 +1,109 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.offer.OfferMaker.counterCurrencyCode;
+import static bisq.core.offer.OfferMaker.direction;
+import static bisq.core.offer.OfferMaker.id;
+import static bisq.core.offer.OfferMaker.marketPriceMargin;
+import static bisq.core.offer.OfferMaker.price;
+import static bisq.core.offer.OfferMaker.useMarketBasedPrice;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OfferBookIndexTest {
+    private final OfferBookIndex offerBookIndex = new OfferBookIndex();
+
+    @Test
+    public void testQueryByMarketAndPaymentMethod() {
+        OfferPayload usdBuy = createOfferPayload("1", "USD", OfferPayload.Direction.BUY, 100000L);
+        OfferPayload usdSell = createOfferPayload("2", "USD", OfferPayload.Direction.SELL, 100000L);
+        OfferPayload eurBuy = createOfferPayload("3", "EUR", OfferPayload.Direction.BUY, 100000L);
+        offerBookIndex.add(usdBuy);
+        offerBookIndex.add(usdSell);
+        offerBookIndex.add(eurBuy);
+
+        assertEquals(List.of(usdBuy), offerBookIndex.getOfferPayloads("USD", OfferPayload.Direction.BUY));
+        assertEquals(List.of(usdSell), offerBookIndex.getOfferPayloads("USD", OfferPayload.Direction.SELL));
+        assertTrue(offerBookIndex.getOfferPayloads("EUR", OfferPayload.Direction.SELL).isEmpty());
+        assertEquals(List.of(usdBuy, usdSell, eurBuy), offerBookIndex.getOfferPayloadsByPaymentMethodId("SEPA"));
+
+        offerBookIndex.remove(usdBuy);
+        assertTrue(offerBookIndex.getOfferPayloads("USD", OfferPayload.Direction.BUY).isEmpty());
+        assertEquals(2, offerBookIndex.size());
+    }
+
+    @Test
+    public void testEditedOffer() {
+        OfferPayload offerPayload = createOfferPayload("1", "USD", OfferPayload.Direction.BUY, 100000L);
+        OfferPayload editedOfferPayload = createOfferPayload("1", "EUR", OfferPayload.Direction.BUY, 110000L);
+        offerBookIndex.add(offerPayload);
+        offerBookIndex.add(editedOfferPayload);
+        assertTrue(offerBookIndex.getOfferPayloads("USD", OfferPayload.Direction.BUY).isEmpty());
+        assertEquals(List.of(editedOfferPayload), offerBookIndex.getOfferPayloads("EUR", OfferPayload.Direction.BUY));
+
+        // The remove of the old version must not remove the edited offer
+        offerBookIndex.remove(offerPayload);
+        assertEquals(List.of(editedOfferPayload), offerBookIndex.getOfferPayloads());
+    }
+
+    @Test
+    public void testMarketIsSortedWithBestPriceFirst() {
+        OfferPayload low = createOfferPayload("1", "USD", OfferPayload.Direction.BUY, 100000L);
+        OfferPayload high = createOfferPayload("2", "USD", OfferPayload.Direction.BUY, 200000L);
+        OfferPayload highMargin = make(btcUsdOffer.but(with(id, "3"),
+                with(useMarketBasedPrice, true),
+                with(marketPriceMargin, 0.1))).getOfferPayload();
+        OfferPayload lowMargin = make(btcUsdOffer.but(with(id, "4"),
+                with(useMarketBasedPrice, true),
+                with(marketPriceMargin, 0.0))).getOfferPayload();
+        offerBookIndex.add(low);
+        offerBookIndex.add(highMargin);
+        offerBookIndex.add(high);
+        offerBookIndex.add(lowMargin);
+
+        // The highest price is the best for a fiat buy offer and a lower margin is the better price
+        assertEquals(List.of(high, low), offerBookIndex.getFixedPriceOfferPayloads("USD", OfferPayload.Direction.BUY));
+        assertEquals(List.of(lowMargin, highMargin), offerBookIndex.getMarketBasedPriceOfferPayloads("USD", OfferPayload.Direction.BUY));
+        assertEquals(List.of(high), offerBookIndex.getFixedPriceOfferPayloads("USD", OfferPayload.Direction.BUY, 150000, 250000));
+
+        // An edited offer moves to its new price
+        OfferPayload editedLow = createOfferPayload("1", "USD", OfferPayload.Direction.BUY, 300000L);
+        offerBookIndex.add(editedLow);
+        assertEquals(List.of(editedLow, high), offerBookIndex.getFixedPriceOfferPayloads("USD", OfferPayload.Direction.BUY));
+        assertEquals(editedLow, offerBookIndex.getBestFixedPriceOfferPayload("USD", OfferPayload.Direction.BUY).get());
+        assertEquals(lowMargin, offerBookIndex.getBestMarketBasedPriceOfferPayload("USD", OfferPayload.Direction.BUY).get());
+    }
+
+    private static OfferPayload createOfferPayload(String offerId,
+                                                   String currencyCode,
+                                                   OfferPayload.Direction offerDirection,
+                                                   long offerPrice) {
+        return make(btcUsdOffer.but(with(id, offerId),
+                with(counterCurrencyCode, currencyCode),
+                with(direction, offerDirection),
+                with(price, offerPrice))).getOfferPayload();
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.core.provider.price.MarketPrice;
+import bisq.core.provider.price.PriceFeedService;
+
+import bisq.network.p2p.P2PService;
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import java.io.File;
+
+import java.time.Instant;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static bisq.core.offer.OfferMaker.baseCurrencyCode;
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.offer.OfferMaker.counterCurrencyCode;
+import static bisq.core.offer.OfferMaker.direction;
+import static bisq.core.offer.OfferMaker.id;
+import static bisq.core.offer.OfferMaker.marketPriceMargin;
+import static bisq.core.offer.OfferMaker.price;
+import static bisq.core.offer.OfferMaker.useMarketBasedPrice;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OfferBookServiceTest {
+    private final List<OfferPayload> offerPayloads = new ArrayList<>();
+    private PriceFeedService priceFeedService;
+    private OfferBookService offerBookService;
+
+    @Before
+    public void setup() {
+        P2PDataStorage p2PDataStorage = mock(P2PDataStorage.class);
+        when(p2PDataStorage.getProtectedStoragePayloads(OfferPayload.class)).thenReturn(offerPayloads);
+        P2PService p2PService = mock(P2PService.class);
+        when(p2PService.getP2PDataStorage()).thenReturn(p2PDataStorage);
+        priceFeedService = mock(PriceFeedService.class);
+        // 15 USD and 0.01 BTC for 1 XMR
+        when(priceFeedService.getMarketPrice("USD")).thenReturn(new MarketPrice("USD", 15, Instant.now().getEpochSecond(), true));
+        when(priceFeedService.getMarketPrice("XMR")).thenReturn(new MarketPrice("XMR", 0.01, Instant.now().getEpochSecond(), true));
+        offerBookService = new OfferBookService(p2PService, priceFeedService, new File("."), false);
+    }
+
+    @Test
+    public void testOffersSortedByPriceForFiat() {
+        addUsdBuyOffers();
+
+        // Buyers of BTC paying more are the best. The market based prices are 225000, 150000 and 120000.
+        assertEquals(List.of("margin-50", "fixed200000", "margin0", "margin20", "fixed100000"),
+                getIds(offerBookService.getOffersSortedByPrice("USD", OfferPayload.Direction.BUY)));
+        assertEquals(List.of("sell"), getIds(offerBookService.getOffersSortedByPrice("USD", OfferPayload.Direction.SELL)));
+    }
+
+    @Test
+    public void testOffersSortedByPriceForAltcoin() {
+        // Sellers of XMR asking more BTC are the best. The market based prices are 1000000 and 900000.
+        offerPayloads.add(createMarketBasedPriceOfferPayload("margin10", "XMR", "BCH", OfferPayload.Direction.SELL, 0.1));
+        offerPayloads.add(createOfferPayload("fixed950000", "XMR", "BCH", OfferPayload.Direction.SELL, 950000L));
+        offerPayloads.add(createMarketBasedPriceOfferPayload("margin0", "XMR", "BCH", OfferPayload.Direction.SELL, 0));
+        offerPayloads.add(createOfferPayload("fixed1100000", "XMR", "BCH", OfferPayload.Direction.SELL, 1100000L));
+
+        assertEquals(List.of("fixed1100000", "margin0", "fixed950000", "margin10"),
+                getIds(offerBookService.getOffersSortedByPrice("XMR", OfferPayload.Direction.SELL)));
+    }
+
+    @Test
+    public void testOffersWithoutPriceAreLast() {
+        addUsdBuyOffers();
+        when(priceFeedService.getMarketPrice("USD")).thenReturn(null);
+
+        assertEquals(List.of("fixed200000", "fixed100000", "margin-50", "margin0", "margin20"),
+                getIds(offerBookService.getOffersSortedByPrice("USD", OfferPayload.Direction.BUY)));
+    }
+
+    @Test
+    public void testBestOffer() {
+        addUsdBuyOffers();
+        assertEquals("margin-50", offerBookService.getBestOffer("USD", OfferPayload.Direction.BUY).get().getId());
+        assertEquals("sell", offerBookService.getBestOffer("USD", OfferPayload.Direction.SELL).get().getId());
+        assertFalse(offerBookService.getBestOffer("EUR", OfferPayload.Direction.BUY).isPresent());
+
+        // Offers without a price are ignored
+        when(priceFeedService.getMarketPrice("USD")).thenReturn(null);
+        assertEquals("fixed200000", offerBookService.getBestOffer("USD", OfferPayload.Direction.BUY).get().getId());
+        assertEquals("sell", offerBookService.getBestOffer("USD", OfferPayload.Direction.SELL).get().getId());
+    }
+
+    @Test
+    public void testOffersInPriceRange() {
+        addUsdBuyOffers();
+
+        assertEquals(List.of("fixed200000", "margin0", "margin20"),
+                getIds(offerBookService.getOffersInPriceRange("USD", OfferPayload.Direction.BUY, 120000, 200000)));
+        assertEquals(List.of("margin0"),
+                getIds(offerBookService.getOffersInPriceRange("USD", OfferPayload.Direction.BUY, 130000, 160000)));
+        assertEquals(List.of(),
+                getIds(offerBookService.getOffersInPriceRange("USD", OfferPayload.Direction.BUY, 200001, 100000)));
+    }
+
+    @Test
+    public void testBestPriceFirstForFiat() {
+        Offer low = createOffer("low", "BCH", "USD", 100000L);
+        Offer high = createOffer("high", "BCH", "USD", 200000L);
+        Offer noPrice = createOfferWithoutPrice("noPrice", "BCH", "USD");
+
+        // Buyers of BTC paying more are the best, sellers asking less are the best
+        assertEquals(Arrays.asList(high, low, noPrice), sort(Arrays.asList(noPrice, low, high), "USD", OfferPayload.Direction.BUY));
+        assertEquals(Arrays.asList(low, high, noPrice), sort(Arrays.asList(noPrice, high, low), "USD", OfferPayload.Direction.SELL));
+    }
+
+    @Test
+    public void testBestPriceFirstForAltcoin() {
+        Offer low = createOffer("low", "XMR", "BCH", 100000L);
+        Offer high = createOffer("high", "XMR", "BCH", 200000L);
+        Offer noPrice = createOfferWithoutPrice("noPrice", "XMR", "BCH");
+
+        // The price of altcoins is in BTC, so the direction of the offer is inverted in relation to the price
+        assertEquals(Arrays.asList(low, high, noPrice), sort(Arrays.asList(noPrice, high, low), "XMR", OfferPayload.Direction.BUY));
+        assertEquals(Arrays.asList(high, low, noPrice), sort(Arrays.asList(noPrice, low, high), "XMR", OfferPayload.Direction.SELL));
+    }
+
+    // Market based prices are 225000, 150000 and 120000 at the USD market price of 15
+    private void addUsdBuyOffers() {
+        offerPayloads.add(createOfferPayload("fixed100000", "BCH", "USD", OfferPayload.Direction.BUY, 100000L));
+        offerPayloads.add(createMarketBasedPriceOfferPayload("margin0", "BCH", "USD", OfferPayload.Direction.BUY, 0));
+        offerPayloads.add(createOfferPayload("sell", "BCH", "USD", OfferPayload.Direction.SELL, 100000L));
+        offerPayloads.add(createMarketBasedPriceOfferPayload("margin20", "BCH", "USD", OfferPayload.Direction.BUY, 0.2));
+        offerPayloads.add(createOfferPayload("fixed200000", "BCH", "USD", OfferPayload.Direction.BUY, 200000L));
+        offerPayloads.add(createMarketBasedPriceOfferPayload("margin-50", "BCH", "USD", OfferPayload.Direction.BUY, -0.5));
+    }
+
+    private static List<String> getIds(List<Offer> offers) {
+        return offers.stream().map(Offer::getId).collect(Collectors.toList());
+    }
+
+    private static OfferPayload createOfferPayload(String offerId,
+                                                   String base,
+                                                   String counter,
+                                                   OfferPayload.Direction offerDirection,
+                                                   long offerPrice) {
+        return make(btcUsdOffer.but(with(id, offerId),
+                with(baseCurrencyCode, base),
+                with(counterCurrencyCode, counter),
+                with(direction, offerDirection),
+                with(price, offerPrice))).getOfferPayload();
+    }
+
+    private static OfferPayload createMarketBasedPriceOfferPayload(String offerId,
+                                                                   String base,
+                                                                   String counter,
+                                                                   OfferPayload.Direction offerDirection,
+                                                                   double margin) {
+        return make(btcUsdOffer.but(with(id, offerId),
+                with(baseCurrencyCode, base),
+                with(counterCurrencyCode, counter),
+                with(direction, offerDirection),
+                with(useMarketBasedPrice, true),
+                with(marketPriceMargin, margin))).getOfferPayload();
+    }
+
+    private static List<Offer> sort(List<Offer> offers, String currencyCode, OfferPayload.Direction direction) {
+        List<Offer> sorted = new ArrayList<>(offers);
+        sorted.sort(OfferBookService.getBestPriceFirstComparator(currencyCode, direction));
+        return sorted;
+    }
+
+    private static Offer createOffer(String offerId, String base, String counter, long offerPrice) {
+        return make(btcUsdOffer.but(with(id, offerId),
+                with(baseCurrencyCode, base),
+                with(counterCurrencyCode, counter),
+                with(price, offerPrice)));
+    }
+
+    // A market based price offer without a market price has no price
+    private static Offer createOfferWithoutPrice(String offerId, String base, String counter) {
+        Offer offer = make(btcUsdOffer.but(with(id, offerId),
+                with(baseCurrencyCode, base),
+                with(counterCurrencyCode, counter),
+                with(useMarketBasedPrice, true)));
+        PriceFeedService priceFeedService = mock(PriceFeedService.class);
+        when(priceFeedService.getMarketPrice(anyString())).thenReturn(null);
+        offer.setPriceFeedService(priceFeedService);
+        assertNull(offer.getPrice());
+        return offer;
+    }
+}
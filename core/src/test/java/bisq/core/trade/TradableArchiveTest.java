@@ -0,0 +1,224 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.core.trade;
+
+import bisq.core.offer.Offer;
+
+import bisq.common.Payload;
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+import bisq.common.storage.Storage;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.Message;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TradableArchiveTest {
+    private static final String FILE_NAME = "ClosedTradesArchive";
+
+    private File storageDir;
+
+    @Before
+    public void setup() throws IOException {
+        storageDir = Files.createTempDirectory("archive").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        new File(storageDir, FILE_NAME).delete();
+        storageDir.delete();
+    }
+
+    @Test
+    public void testPagedQueriesAndLookup() {
+        TradableArchive<Tradable> archive = createArchive();
+        List<Tradable> tradables = new ArrayList<>();
+        for (int i = 0; i < 250; i++)
+            tradables.add(new MockTradable("id" + i, i));
+        assertTrue(archive.append(tradables));
+        // Already archived tradables are skipped
+        assertTrue(archive.append(tradables.subList(0, 10)));
+
+        // A new instance reads the index from the file
+        archive = createArchive();
+        assertEquals(250, archive.size());
+        assertEquals(List.of("id249", "id248"), getIds(archive.getTradables(0, 2)));
+        assertEquals(List.of("id1", "id0"), getIds(archive.getTradables(124, 2)));
+        assertEquals(50, archive.getTradables(2, 100).size());
+        assertTrue(archive.getTradables(3, 100).isEmpty());
+        assertEquals("id42", archive.getTradableById("id42").get().getId());
+        assertFalse(archive.getTradableById("id250").isPresent());
+    }
+
+    @Test
+    public void testIncompleteEntryGetsCutOff() throws IOException {
+        TradableArchive<Tradable> archive = createArchive();
+        assertTrue(archive.append(List.of(new MockTradable("id0", 0), new MockTradable("id1", 1))));
+
+        // Simulates that the application stopped while appending id1
+        File file = new File(storageDir, FILE_NAME);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(file.length() - 3);
+        }
+
+        archive = createArchive();
+        assertEquals(1, archive.size());
+        assertTrue(archive.append(List.of(new MockTradable("id1", 1))));
+
+        archive = createArchive();
+        assertEquals(List.of("id1", "id0"), getIds(archive.getTradables(0, 10)));
+    }
+
+    @Test
+    public void testCorruptEntryKeepsFile() throws IOException {
+        TradableArchive<Tradable> archive = createArchive();
+        assertTrue(archive.append(List.of(new MockTradable("id0", 0))));
+        File file = new File(storageDir, FILE_NAME);
+        long firstEntryLength = file.length();
+        assertTrue(archive.append(List.of(new MockTradable("id1", 1), new MockTradable("id2", 2))));
+        long fileLength = file.length();
+
+        // Overwrites the first byte of id1 after its size prefix with an invalid tag
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.seek(firstEntryLength + 1);
+            randomAccessFile.write(0xFF);
+        }
+
+        archive = createArchive();
+        assertEquals(List.of("id0"), getIds(archive.getTradables(0, 10)));
+        assertFalse(archive.append(List.of(new MockTradable("id3", 3))));
+        assertEquals(fileLength, file.length());
+    }
+
+    @Test
+    public void testTooLargeSizeGetsCutOff() throws IOException {
+        TradableArchive<Tradable> archive = createArchive();
+        assertTrue(archive.append(List.of(new MockTradable("id0", 0))));
+        File file = new File(storageDir, FILE_NAME);
+        long fileLength = file.length();
+
+        // A size prefix of Integer.MAX_VALUE followed by a few bytes
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.seek(fileLength);
+            randomAccessFile.write(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 1, 2, 3});
+        }
+
+        archive = createArchive();
+        assertEquals(1, archive.size());
+        assertEquals(fileLength, file.length());
+        assertTrue(archive.append(List.of(new MockTradable("id1", 1))));
+
+        archive = createArchive();
+        assertEquals(List.of("id1", "id0"), getIds(archive.getTradables(0, 10)));
+    }
+
+    private TradableArchive<Tradable> createArchive() {
+        return new TradableArchive<>(storageDir, FILE_NAME, new MockProtoResolver());
+    }
+
+    private static List<String> getIds(List<Tradable> tradables) {
+        return tradables.stream().map(Tradable::getId).collect(Collectors.toList());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Mocks
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Only id and date get persisted
+    private static class MockTradable implements Tradable {
+        private final String id;
+        private final long date;
+
+        MockTradable(String id, long date) {
+            this.id = id;
+            this.date = date;
+        }
+
+        @Override
+        public Offer getOffer() {
+            return null;
+        }
+
+        @Override
+        public Date getDate() {
+            return new Date(date);
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getShortId() {
+            return id;
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            return PB.Tradable.newBuilder()
+                    .setOpenOffer(PB.OpenOffer.newBuilder()
+                            .setOffer(PB.Offer.newBuilder()
+                                    .setOfferPayload(PB.OfferPayload.newBuilder()
+                                            .setId(id)
+                                            .setDate(date))))
+                    .build();
+        }
+    }
+
+    private static class MockProtoResolver implements PersistenceProtoResolver {
+        @Override
+        public PersistableEnvelope fromProto(PB.PersistableEnvelope persistable) {
+            TradableList<Tradable> tradableList = new TradableList<>(new Storage<>(null, null), "filename");
+            tradableList.getList().addAll(persistable.getTradableList().getTradableList().stream()
+                    .map(tradable -> tradable.getOpenOffer().getOffer().getOfferPayload())
+                    .map(offerPayload -> new MockTradable(offerPayload.getId(), offerPayload.getDate()))
+                    .collect(Collectors.toList()));
+            return tradableList;
+        }
+
+        @Override
+        public Payload fromProto(PB.PaymentAccountPayload proto) {
+            return null;
+        }
+
+        @Override
+        public PersistableEnvelope fromProto(PB.PersistableNetworkPayload proto) {
+            return null;
+        }
+    }
+}
@@ -25,12 +25,18 @@ import bisq.common.storage.Storage;
 
 import io.bisq.generated.protobuffer.PB;
 
+import com.google.protobuf.Message;
+
+import java.util.Date;
+import java.util.List;
+
 import mockit.Mocked;
 
 import org.junit.Test;
 
 import static io.bisq.generated.protobuffer.PB.PersistableEnvelope.MessageCase.TRADABLE_LIST;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 //TODO cannot be run in IntelliJ IDE as parameter is not supported. OfferPayload is final so it is not so trivial to
@@ -53,4 +59,68 @@ public class TradableListTest {
         assertTrue(message.getMessageCase().equals(TRADABLE_LIST));
         assertEquals(1, message.getTradableList().getTradableList().size());
     }
+
+    @Test
+    public void testIdIndex() {
+        TradableList<Tradable> tradableList = new TradableList<>(new Storage<>(null, null), "filename");
+        MockTradable tradable0 = new MockTradable("id0");
+        MockTradable tradable1 = new MockTradable("id1");
+        tradableList.add(tradable0);
+        // The index also follows changes applied to the list directly
+        tradableList.getList().add(tradable1);
+        assertTrue(tradableList.contains(tradable0));
+        assertTrue(tradableList.contains(tradable1));
+        assertEquals(tradable1, tradableList.getTradableById("id1").get());
+
+        // Another tradable with the same id is not contained
+        MockTradable otherTradable0 = new MockTradable("id0");
+        assertFalse(tradableList.contains(otherTradable0));
+
+        // Replacing an entry updates the index
+        tradableList.getList().set(0, otherTradable0);
+        assertFalse(tradableList.contains(tradable0));
+        assertTrue(tradableList.contains(otherTradable0));
+        assertEquals(otherTradable0, tradableList.getTradableById("id0").get());
+
+        tradableList.removeAll(List.of(otherTradable0));
+        tradableList.getList().remove(tradable1);
+        assertFalse(tradableList.contains(otherTradable0));
+        assertFalse(tradableList.contains(tradable1));
+        assertFalse(tradableList.getTradableById("id0").isPresent());
+        assertFalse(tradableList.getTradableById("id1").isPresent());
+    }
+
+    // Uses identity for equals
+    private static class MockTradable implements Tradable {
+        private final String id;
+
+        MockTradable(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public Offer getOffer() {
+            return null;
+        }
+
+        @Override
+        public Date getDate() {
+            return new Date(0);
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getShortId() {
+            return id;
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            return null;
+        }
+    }
 }
@@ -44,6 +44,8 @@ import bisq.core.offer.OpenOffer;
 import bisq.core.offer.OpenOfferManager;
 import bisq.core.user.Preferences;
 
+import bisq.network.p2p.network.MessageDispatcher;
+
 import bisq.common.UserThread;
 import bisq.common.app.DevEnv;
 import bisq.common.app.Log;
@@ -140,7 +142,10 @@ public class BisqApp extends Application implements UncaughtExceptionHandler {
 
             injector.getInstance(AvoidStandbyModeService.class).init();
 
-            UserThread.runPeriodically(() -> Profiler.printSystemLoad(log), LOG_MEMORY_PERIOD_MIN, TimeUnit.MINUTES);
+            UserThread.runPeriodically(() -> {
+                Profiler.printSystemLoad(log);
+                log.info(MessageDispatcher.getMetrics());
+            }, LOG_MEMORY_PERIOD_MIN, TimeUnit.MINUTES);
         } catch (Throwable throwable) {
             log.error("Error during app init", throwable);
             handleUncaughtException(throwable, false);
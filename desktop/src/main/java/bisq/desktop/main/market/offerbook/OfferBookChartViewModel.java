@@ -279,23 +279,7 @@ class OfferBookChartViewModel extends ActivatableViewModel {
     }
 
     private void updateChartData() {
-        List<Offer> allBuyOffers = offerBookListItems.stream()
-                .map(OfferBookListItem::getOffer)
-                .filter(e -> e.getCurrencyCode().equals(selectedTradeCurrencyProperty.get().getCode())
-                        && e.getDirection().equals(OfferPayload.Direction.BUY))
-                .sorted((o1, o2) -> {
-                    long a = o1.getPrice() != null ? o1.getPrice().getValue() : 0;
-                    long b = o2.getPrice() != null ? o2.getPrice().getValue() : 0;
-                    if (a != b) {
-                        if (CurrencyUtil.isCryptoCurrency(o1.getCurrencyCode()))
-                            return a > b ? 1 : -1;
-                        else
-                            return a < b ? 1 : -1;
-                    } else {
-                        return 0;
-                    }
-                })
-                .collect(Collectors.toList());
+        List<Offer> allBuyOffers = offerBook.getOffersSortedByPrice(getCurrencyCode(), OfferPayload.Direction.BUY);
 
         final Optional<Offer> highestBuyPriceOffer = allBuyOffers.stream()
                 .filter(o -> o.getPrice() != null)
@@ -319,23 +303,7 @@ class OfferBookChartViewModel extends ActivatableViewModel {
 
         buildChartAndTableEntries(allBuyOffers, OfferPayload.Direction.BUY, buyData, topBuyOfferList);
 
-        List<Offer> allSellOffers = offerBookListItems.stream()
-                .map(OfferBookListItem::getOffer)
-                .filter(e -> e.getCurrencyCode().equals(selectedTradeCurrencyProperty.get().getCode())
-                        && e.getDirection().equals(OfferPayload.Direction.SELL))
-                .sorted((o1, o2) -> {
-                    long a = o1.getPrice() != null ? o1.getPrice().getValue() : 0;
-                    long b = o2.getPrice() != null ? o2.getPrice().getValue() : 0;
-                    if (a != b) {
-                        if (CurrencyUtil.isCryptoCurrency(o1.getCurrencyCode()))
-                            return a < b ? 1 : -1;
-                        else
-                            return a > b ? 1 : -1;
-                    } else {
-                        return 0;
-                    }
-                })
-                .collect(Collectors.toList());
+        List<Offer> allSellOffers = offerBook.getOffersSortedByPrice(getCurrencyCode(), OfferPayload.Direction.SELL);
 
         final Optional<Offer> highestSellPriceOffer = allSellOffers.stream()
                 .filter(o -> o.getPrice() != null)
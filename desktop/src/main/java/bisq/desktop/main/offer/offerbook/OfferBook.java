@@ -19,6 +19,7 @@ package bisq.desktop.main.offer.offerbook;
 
 import bisq.core.offer.Offer;
 import bisq.core.offer.OfferBookService;
+import bisq.core.offer.OfferPayload;
 import bisq.core.trade.TradeManager;
 
 import javax.inject.Inject;
@@ -27,6 +28,7 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -104,6 +106,11 @@ public class OfferBook {
         return offerBookListItems;
     }
 
+    // Offers of one market from the offer book index, sorted with the best price first
+    public List<Offer> getOffersSortedByPrice(String currencyCode, OfferPayload.Direction direction) {
+        return offerBookService.getOffersSortedByPrice(currencyCode, direction);
+    }
+
     public void fillOfferBookListItems() {
         try {
             // setAll causes sometimes an UnsupportedOperationException
@@ -42,7 +42,6 @@ import bisq.core.payment.PaymentAccount;
 import bisq.core.payment.PaymentAccountUtil;
 import bisq.core.payment.payload.PaymentMethod;
 import bisq.core.provider.price.PriceFeedService;
-import bisq.core.trade.Trade;
 import bisq.core.trade.closed.ClosedTradableManager;
 import bisq.core.user.Preferences;
 import bisq.core.user.User;
@@ -84,7 +83,6 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -589,13 +587,6 @@ class OfferBookViewModel extends ActivatableViewModel {
     }
 
     int getNumTrades(Offer offer) {
-        return closedTradableManager.getClosedTradables().stream()
-                .filter(e -> {
-                    final NodeAddress tradingPeerNodeAddress = e instanceof Trade ? ((Trade) e).getTradingPeerNodeAddress() : null;
-                    return tradingPeerNodeAddress != null &&
-                            tradingPeerNodeAddress.getFullAddress().equals(offer.getMakerNodeAddress().getFullAddress());
-                })
-                .collect(Collectors.toSet())
-                .size();
+        return closedTradableManager.getNumPastTrades(offer.getMakerNodeAddress());
     }
 }
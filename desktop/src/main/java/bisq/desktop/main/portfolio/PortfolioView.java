@@ -132,7 +132,8 @@ public class PortfolioView extends ActivatableViewAndModel<TabPane, Activatable>
             if (failedTradesManager.getFailedTrades().size() > 0 && root.getTabs().size() == 3)
                 root.getTabs().add(failedTradesTab);
         });
-        if (failedTradesManager.getFailedTrades().size() > 0 && root.getTabs().size() == 3)
+        if ((failedTradesManager.getFailedTrades().size() > 0 || failedTradesManager.getNumArchivedTrades() > 0) &&
+                root.getTabs().size() == 3)
             root.getTabs().add(failedTradesTab);
 
         root.getSelectionModel().selectedItemProperty().addListener(tabChangeListener);
@@ -26,17 +26,27 @@ import bisq.core.trade.closed.ClosedTradableManager;
 
 import com.google.inject.Inject;
 
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 class ClosedTradesDataModel extends ActivatableDataModel {
+    private static final int ARCHIVE_PAGE_SIZE = 100;
 
     final ClosedTradableManager closedTradableManager;
     private final ObservableList<ClosedTradableListItem> list = FXCollections.observableArrayList();
     private final ListChangeListener<Tradable> tradesListChangeListener;
+    // The archived tradables are read page by page when requested by the user and kept afterwards
+    private final List<ClosedTradableListItem> archivedItems = new ArrayList<>();
+    final BooleanProperty moreArchivedItemsAvailable = new SimpleBooleanProperty();
+    private int numArchivedTradables;
 
     @Inject
     public ClosedTradesDataModel(ClosedTradableManager closedTradableManager) {
@@ -47,8 +57,18 @@ class ClosedTradesDataModel extends ActivatableDataModel {
 
     @Override
     protected void activate() {
+        // Old tradables might have been archived since the last activation, which shifts the pages, so we start over
+        int numArchivedTradables = closedTradableManager.getNumArchivedTradables();
+        if (numArchivedTradables != this.numArchivedTradables) {
+            this.numArchivedTradables = numArchivedTradables;
+            archivedItems.clear();
+        }
+
         applyList();
         closedTradableManager.getClosedTradables().addListener(tradesListChangeListener);
+
+        if (archivedItems.isEmpty() && numArchivedTradables > 0)
+            loadNextArchivePage();
     }
 
     @Override
@@ -68,9 +88,21 @@ class ClosedTradesDataModel extends ActivatableDataModel {
         list.clear();
 
         list.addAll(closedTradableManager.getClosedTradables().stream().map(ClosedTradableListItem::new).collect(Collectors.toList()));
+        list.addAll(archivedItems);
 
         // we sort by date, earliest first
         list.sort((o1, o2) -> o2.getTradable().getDate().compareTo(o1.getTradable().getDate()));
     }
 
+    // The view sorts the list, so we only add the items of the new page
+    void loadNextArchivePage() {
+        int pageIndex = archivedItems.size() / ARCHIVE_PAGE_SIZE;
+        List<ClosedTradableListItem> items = closedTradableManager.getArchivedTradables(pageIndex, ARCHIVE_PAGE_SIZE).stream()
+                .map(ClosedTradableListItem::new)
+                .collect(Collectors.toList());
+        archivedItems.addAll(items);
+        list.addAll(items);
+        moreArchivedItemsAvailable.set(items.size() == ARCHIVE_PAGE_SIZE && archivedItems.size() < numArchivedTradables);
+    }
+
 }
@@ -82,7 +82,7 @@ public class ClosedTradesView extends ActivatableViewAndModel<VBox, ClosedTrades
     TableColumn<ClosedTradableListItem, ClosedTradableListItem> priceColumn, amountColumn, volumeColumn,
             marketColumn, directionColumn, dateColumn, tradeIdColumn, stateColumn, avatarColumn;
     @FXML
-    AutoTooltipButton exportButton;
+    AutoTooltipButton loadArchivedItemsButton, exportButton;
     private final OfferDetailsWindow offerDetailsWindow;
     private Preferences preferences;
     private final BSFormatter formatter;
@@ -178,6 +178,8 @@ public class ClosedTradesView extends ActivatableViewAndModel<VBox, ClosedTrades
 
         dateColumn.setSortType(TableColumn.SortType.DESCENDING);
         tableView.getSortOrder().add(dateColumn);
+        loadArchivedItemsButton.updateText(Res.get("portfolio.showOlderTrades"));
+        loadArchivedItemsButton.managedProperty().bind(loadArchivedItemsButton.visibleProperty());
         exportButton.updateText(Res.get("shared.exportCSV"));
     }
 
@@ -187,6 +189,8 @@ public class ClosedTradesView extends ActivatableViewAndModel<VBox, ClosedTrades
         sortedList.comparatorProperty().bind(tableView.comparatorProperty());
         tableView.setItems(sortedList);
 
+        loadArchivedItemsButton.visibleProperty().bind(model.getMoreArchivedItemsAvailable());
+        loadArchivedItemsButton.setOnAction(event -> model.loadMoreArchivedItems());
         exportButton.setOnAction(event -> {
             final ObservableList<TableColumn<ClosedTradableListItem, ?>> tableColumns = tableView.getColumns();
             CSVEntryConverter<ClosedTradableListItem> headerConverter = transactionsListItem -> {
@@ -216,6 +220,8 @@ public class ClosedTradesView extends ActivatableViewAndModel<VBox, ClosedTrades
     @Override
     protected void deactivate() {
         sortedList.comparatorProperty().unbind();
+        loadArchivedItemsButton.visibleProperty().unbind();
+        loadArchivedItemsButton.setOnAction(null);
         exportButton.setOnAction(null);
     }
 
@@ -29,9 +29,9 @@ import bisq.core.util.BSFormatter;
 
 import com.google.inject.Inject;
 
-import javafx.collections.ObservableList;
+import javafx.beans.property.ReadOnlyBooleanProperty;
 
-import java.util.stream.Collectors;
+import javafx.collections.ObservableList;
 
 class ClosedTradesViewModel extends ActivatableWithDataModel<ClosedTradesDataModel> implements ViewModel {
     private final BSFormatter formatter;
@@ -50,6 +50,14 @@ class ClosedTradesViewModel extends ActivatableWithDataModel<ClosedTradesDataMod
         return dataModel.getList();
     }
 
+    ReadOnlyBooleanProperty getMoreArchivedItemsAvailable() {
+        return dataModel.moreArchivedItemsAvailable;
+    }
+
+    void loadMoreArchivedItems() {
+        dataModel.loadNextArchivePage();
+    }
+
     String getTradeId(ClosedTradableListItem item) {
         return item.getTradable().getShortId();
     }
@@ -134,16 +142,8 @@ class ClosedTradesViewModel extends ActivatableWithDataModel<ClosedTradesDataMod
     }
 
     int getNumPastTrades(Tradable tradable) {
-        //noinspection ConstantConditions
-        return dataModel.closedTradableManager.getClosedTradables().stream()
-                .filter(e -> e instanceof Trade &&
-                        tradable instanceof Trade &&
-                        ((Trade) e).getTradingPeerNodeAddress() != null &&
-                        ((Trade) tradable).getTradingPeerNodeAddress() != null &&
-                        ((Trade) e).getTradingPeerNodeAddress() != null &&
-                        ((Trade) tradable).getTradingPeerNodeAddress() != null &&
-                        ((Trade) e).getTradingPeerNodeAddress().getFullAddress().equals(((Trade) tradable).getTradingPeerNodeAddress().getFullAddress()))
-                .collect(Collectors.toSet())
-                .size();
+        return tradable instanceof Trade && ((Trade) tradable).getTradingPeerNodeAddress() != null ?
+                dataModel.closedTradableManager.getNumPastTrades(((Trade) tradable).getTradingPeerNodeAddress()) :
+                0;
     }
 }
@@ -26,18 +26,28 @@ import bisq.core.trade.failed.FailedTradesManager;
 
 import com.google.inject.Inject;
 
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 class FailedTradesDataModel extends ActivatableDataModel {
+    private static final int ARCHIVE_PAGE_SIZE = 100;
 
     private final FailedTradesManager failedTradesManager;
 
     private final ObservableList<FailedTradesListItem> list = FXCollections.observableArrayList();
     private final ListChangeListener<Trade> tradesListChangeListener;
+    // The archived trades are read page by page when requested by the user and kept afterwards
+    private final List<FailedTradesListItem> archivedItems = new ArrayList<>();
+    final BooleanProperty moreArchivedItemsAvailable = new SimpleBooleanProperty();
+    private int numArchivedTrades;
 
     @Inject
     public FailedTradesDataModel(FailedTradesManager failedTradesManager) {
@@ -48,8 +58,18 @@ class FailedTradesDataModel extends ActivatableDataModel {
 
     @Override
     protected void activate() {
+        // Old trades might have been archived since the last activation, which shifts the pages, so we start over
+        int numArchivedTrades = failedTradesManager.getNumArchivedTrades();
+        if (numArchivedTrades != this.numArchivedTrades) {
+            this.numArchivedTrades = numArchivedTrades;
+            archivedItems.clear();
+        }
+
         applyList();
         failedTradesManager.getFailedTrades().addListener(tradesListChangeListener);
+
+        if (archivedItems.isEmpty() && numArchivedTrades > 0)
+            loadNextArchivePage();
     }
 
     @Override
@@ -69,9 +89,21 @@ class FailedTradesDataModel extends ActivatableDataModel {
         list.clear();
 
         list.addAll(failedTradesManager.getFailedTrades().stream().map(FailedTradesListItem::new).collect(Collectors.toList()));
+        list.addAll(archivedItems);
 
         // we sort by date, earliest first
         list.sort((o1, o2) -> o2.getTrade().getDate().compareTo(o1.getTrade().getDate()));
     }
 
+    // The view sorts the list, so we only add the items of the new page
+    void loadNextArchivePage() {
+        int pageIndex = archivedItems.size() / ARCHIVE_PAGE_SIZE;
+        List<FailedTradesListItem> items = failedTradesManager.getArchivedTrades(pageIndex, ARCHIVE_PAGE_SIZE).stream()
+                .map(FailedTradesListItem::new)
+                .collect(Collectors.toList());
+        archivedItems.addAll(items);
+        list.addAll(items);
+        moreArchivedItemsAvailable.set(items.size() == ARCHIVE_PAGE_SIZE && archivedItems.size() < numArchivedTrades);
+    }
+
 }
@@ -19,6 +19,7 @@ package bisq.desktop.main.portfolio.failedtrades;
 
 import bisq.desktop.common.view.ActivatableViewAndModel;
 import bisq.desktop.common.view.FxmlView;
+import bisq.desktop.components.AutoTooltipButton;
 import bisq.desktop.components.AutoTooltipLabel;
 import bisq.desktop.components.HyperlinkWithIcon;
 import bisq.desktop.main.overlays.windows.TradeDetailsWindow;
@@ -51,6 +52,8 @@ public class FailedTradesView extends ActivatableViewAndModel<VBox, FailedTrades
     @FXML
     TableColumn<FailedTradesListItem, FailedTradesListItem> priceColumn, amountColumn, volumeColumn,
             marketColumn, directionColumn, dateColumn, tradeIdColumn, stateColumn;
+    @FXML
+    AutoTooltipButton loadArchivedItemsButton;
     private final TradeDetailsWindow tradeDetailsWindow;
     private SortedList<FailedTradesListItem> sortedList;
 
@@ -105,7 +108,8 @@ public class FailedTradesView extends ActivatableViewAndModel<VBox, FailedTrades
 
         dateColumn.setSortType(TableColumn.SortType.DESCENDING);
         tableView.getSortOrder().add(dateColumn);
-
+        loadArchivedItemsButton.updateText(Res.get("portfolio.showOlderTrades"));
+        loadArchivedItemsButton.managedProperty().bind(loadArchivedItemsButton.visibleProperty());
     }
 
     @Override
@@ -113,11 +117,16 @@ public class FailedTradesView extends ActivatableViewAndModel<VBox, FailedTrades
         sortedList = new SortedList<>(model.getList());
         sortedList.comparatorProperty().bind(tableView.comparatorProperty());
         tableView.setItems(sortedList);
+
+        loadArchivedItemsButton.visibleProperty().bind(model.getMoreArchivedItemsAvailable());
+        loadArchivedItemsButton.setOnAction(event -> model.loadMoreArchivedItems());
     }
 
     @Override
     protected void deactivate() {
         sortedList.comparatorProperty().unbind();
+        loadArchivedItemsButton.visibleProperty().unbind();
+        loadArchivedItemsButton.setOnAction(null);
     }
 
 
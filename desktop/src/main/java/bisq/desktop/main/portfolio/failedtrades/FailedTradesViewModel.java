@@ -25,6 +25,8 @@ import bisq.core.util.BSFormatter;
 
 import com.google.inject.Inject;
 
+import javafx.beans.property.ReadOnlyBooleanProperty;
+
 import javafx.collections.ObservableList;
 
 class FailedTradesViewModel extends ActivatableWithDataModel<FailedTradesDataModel> implements ViewModel {
@@ -42,6 +44,14 @@ class FailedTradesViewModel extends ActivatableWithDataModel<FailedTradesDataMod
         return dataModel.getList();
     }
 
+    ReadOnlyBooleanProperty getMoreArchivedItemsAvailable() {
+        return dataModel.moreArchivedItemsAvailable;
+    }
+
+    void loadMoreArchivedItems() {
+        dataModel.loadNextArchivePage();
+    }
+
     String getTradeId(FailedTradesListItem item) {
         return item.getTrade().getShortId();
     }
@@ -30,6 +30,8 @@ import javafx.beans.property.SimpleIntegerProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.stream.Collectors;
+
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -45,6 +47,7 @@ import static bisq.desktop.maker.TradeCurrencyMakers.usd;
 import static com.natpryce.makeiteasy.MakeItEasy.make;
 import static com.natpryce.makeiteasy.MakeItEasy.with;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -61,10 +64,8 @@ public class OfferBookChartViewModelTest {
 
     @Test
     public void testMaxCharactersForBuyPriceWithNoOffers() {
-        OfferBook offerBook = mock(OfferBook.class);
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
-
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        OfferBook offerBook = createOfferBook(offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, null, null, null, new BSFormatter());
         assertEquals(0, model.maxPlacesForBuyPrice.intValue());
@@ -72,7 +73,6 @@ public class OfferBookChartViewModelTest {
 
     @Test
     public void testMaxCharactersForBuyPriceWithOfflinePriceFeedService() {
-        OfferBook offerBook = mock(OfferBook.class);
         PriceFeedService priceFeedService = mock(PriceFeedService.class);
 
 
@@ -83,7 +83,7 @@ public class OfferBookChartViewModelTest {
 
         when(priceFeedService.getMarketPrice(anyString())).thenReturn(null);
         when(priceFeedService.updateCounterProperty()).thenReturn(new SimpleIntegerProperty());
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        OfferBook offerBook = createOfferBook(offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, priceFeedService, null, null, new BSFormatter());
         model.activate();
@@ -92,12 +92,10 @@ public class OfferBookChartViewModelTest {
 
     @Test
     public void testMaxCharactersForFiatBuyPrice() {
-        OfferBook offerBook = mock(OfferBook.class);
         PriceFeedService service = mock(PriceFeedService.class);
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
         offerBookListItems.addAll(make(OfferBookListItemMaker.btcBuyItem));
-
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        OfferBook offerBook = createOfferBook(offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, service, null, null, new BSFormatter());
         model.activate();
@@ -110,10 +108,8 @@ public class OfferBookChartViewModelTest {
 
     @Test
     public void testMaxCharactersForBuyVolumeWithNoOffers() {
-        OfferBook offerBook = mock(OfferBook.class);
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
-
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        OfferBook offerBook = createOfferBook(offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, null, null, null, new BSFormatter());
         assertEquals(0, model.maxPlacesForBuyVolume.intValue());
@@ -121,12 +117,10 @@ public class OfferBookChartViewModelTest {
 
     @Test
     public void testMaxCharactersForFiatBuyVolume() {
-        OfferBook offerBook = mock(OfferBook.class);
         PriceFeedService service = mock(PriceFeedService.class);
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
         offerBookListItems.addAll(make(OfferBookListItemMaker.btcBuyItem));
-
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        OfferBook offerBook = createOfferBook(offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, service, null, null, new BSFormatter());
         model.activate();
@@ -139,10 +133,8 @@ public class OfferBookChartViewModelTest {
 
     @Test
     public void testMaxCharactersForSellPriceWithNoOffers() {
-        OfferBook offerBook = mock(OfferBook.class);
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
-
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        OfferBook offerBook = createOfferBook(offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, null, null, null, new BSFormatter());
         assertEquals(0, model.maxPlacesForSellPrice.intValue());
@@ -150,7 +142,6 @@ public class OfferBookChartViewModelTest {
 
     @Test
     public void testMaxCharactersForSellPriceWithOfflinePriceFeedService() {
-        OfferBook offerBook = mock(OfferBook.class);
         PriceFeedService priceFeedService = mock(PriceFeedService.class);
 
 
@@ -161,7 +152,7 @@ public class OfferBookChartViewModelTest {
 
         when(priceFeedService.getMarketPrice(anyString())).thenReturn(null);
         when(priceFeedService.updateCounterProperty()).thenReturn(new SimpleIntegerProperty());
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        OfferBook offerBook = createOfferBook(offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, priceFeedService, null, null, new BSFormatter());
         model.activate();
@@ -170,12 +161,10 @@ public class OfferBookChartViewModelTest {
 
     @Test
     public void testMaxCharactersForFiatSellPrice() {
-        OfferBook offerBook = mock(OfferBook.class);
         PriceFeedService service = mock(PriceFeedService.class);
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
         offerBookListItems.addAll(make(OfferBookListItemMaker.btcSellItem));
-
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        OfferBook offerBook = createOfferBook(offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, service, null, null, new BSFormatter());
         model.activate();
@@ -188,10 +177,8 @@ public class OfferBookChartViewModelTest {
 
     @Test
     public void testMaxCharactersForSellVolumeWithNoOffers() {
-        OfferBook offerBook = mock(OfferBook.class);
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
-
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        OfferBook offerBook = createOfferBook(offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, null, null, null, new BSFormatter());
         assertEquals(0, model.maxPlacesForSellVolume.intValue());
@@ -199,12 +186,10 @@ public class OfferBookChartViewModelTest {
 
     @Test
     public void testMaxCharactersForFiatSellVolume() {
-        OfferBook offerBook = mock(OfferBook.class);
         PriceFeedService service = mock(PriceFeedService.class);
         final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
         offerBookListItems.addAll(make(OfferBookListItemMaker.btcSellItem));
-
-        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        OfferBook offerBook = createOfferBook(offerBookListItems);
 
         final OfferBookChartViewModel model = new OfferBookChartViewModel(offerBook, empty, service, null, null, new BSFormatter());
         model.activate();
@@ -214,4 +199,16 @@ public class OfferBookChartViewModelTest {
         offerBookListItems.addAll(make(btcSellItem.but(with(OfferBookListItemMaker.amount, 22128600000L))));
         assertEquals(7, model.maxPlacesForSellVolume.intValue()); //2212.86
     }
+
+    // The market query of the offer book is served from the list items
+    private static OfferBook createOfferBook(ObservableList<OfferBookListItem> offerBookListItems) {
+        OfferBook offerBook = mock(OfferBook.class);
+        when(offerBook.getOfferBookListItems()).thenReturn(offerBookListItems);
+        when(offerBook.getOffersSortedByPrice(anyString(), any())).thenAnswer(invocation -> offerBookListItems.stream()
+                .map(OfferBookListItem::getOffer)
+                .filter(offer -> offer.getCurrencyCode().equals(invocation.getArgument(0))
+                        && offer.getDirection() == invocation.getArgument(1))
+                .collect(Collectors.toList()));
+        return offerBook;
+    }
 }
@@ -49,6 +49,7 @@ import bisq.monitor.Reporter;
 import bisq.monitor.ThreadGate;
 import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.MessageListener;
+import bisq.network.p2p.network.MessageRateLimiter;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.network.SetupListener;
 import bisq.network.p2p.network.TorNetworkNode;
@@ -215,6 +216,11 @@ public class P2PNetworkLoad extends Metric implements MessageListener, SetupList
                 }
             });
 
+            // - add the counters of the message rate limiter of our connections
+            report.put("rateLimiter.numMessages", String.valueOf(MessageRateLimiter.getTotalNumMessages()));
+            MessageRateLimiter.getTotalNumViolationsByType()
+                    .forEach((type, value) -> report.put("rateLimiter.violations." + type, String.valueOf(value)));
+
             // - report
             reporter.report(report, getName());
         }
@@ -20,6 +20,7 @@ package bisq.network;
 public class NetworkOptionKeys {
     public static final String TOR_DIR = "torDir";
     public static final String USE_LOCALHOST_FOR_P2P = "useLocalhostForP2P";
+    public static final String USE_NIO_FOR_P2P = "useNioForP2P";
     public static final String MAX_CONNECTIONS = "maxConnections";
     public static final String PORT_KEY = "nodePort";
     public static final String NETWORK_ID = "networkId";
@@ -39,4 +40,5 @@ public class NetworkOptionKeys {
     public static final String MSG_THROTTLE_PER_10_SEC = "msgThrottlePer10Sec";
     public static final String SEND_MSG_THROTTLE_TRIGGER = "sendMsgThrottleTrigger";
     public static final String SEND_MSG_THROTTLE_SLEEP = "sendMsgThrottleSleep";
+    public static final String MSG_THROTTLE_PER_SEC_BY_TYPE = "msgThrottlePerSecByType";
 }
@@ -34,6 +34,9 @@ import javax.inject.Inject;
 
 import java.io.File;
 
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 public class NetworkNodeProvider implements Provider<NetworkNode> {
 
     private final NetworkNode networkNode;
@@ -42,6 +45,7 @@ public class NetworkNodeProvider implements Provider<NetworkNode> {
     public NetworkNodeProvider(NetworkProtoResolver networkProtoResolver,
                                BridgeAddressProvider bridgeAddressProvider,
                                @Named(NetworkOptionKeys.USE_LOCALHOST_FOR_P2P) boolean useLocalhostForP2P,
+                               @Named(NetworkOptionKeys.USE_NIO_FOR_P2P) boolean useNioForP2P,
                                @Named(NetworkOptionKeys.PORT_KEY) int port,
                                @Named(NetworkOptionKeys.TOR_DIR) File torDir,
                                @Named(NetworkOptionKeys.TORRC_FILE) String torrcFile,
@@ -51,8 +55,13 @@ public class NetworkNodeProvider implements Provider<NetworkNode> {
                                @Named(NetworkOptionKeys.EXTERNAL_TOR_COOKIE_FILE) String cookieFile,
                                @Named(NetworkOptionKeys.TOR_STREAM_ISOLATION) boolean streamIsolation,
                                @Named(NetworkOptionKeys.EXTERNAL_TOR_USE_SAFECOOKIE) boolean useSafeCookieAuthentication ) {
+        // The sockets provided by Tor are not backed by a channel, so we support NIO only for the localhost network
+        if (useNioForP2P && !useLocalhostForP2P)
+            log.warn("{} is only supported together with {}. We use the blocking transport.",
+                    NetworkOptionKeys.USE_NIO_FOR_P2P, NetworkOptionKeys.USE_LOCALHOST_FOR_P2P);
+
         networkNode = useLocalhostForP2P ?
-                new LocalhostNetworkNode(port, networkProtoResolver) :
+                new LocalhostNetworkNode(port, networkProtoResolver, useNioForP2P) :
                 new TorNetworkNode(port, networkProtoResolver, streamIsolation,
                         !controlPort.isEmpty() ?
                                 new RunningTor(torDir, Integer.parseInt(controlPort), password, cookieFile, useSafeCookieAuthentication) :
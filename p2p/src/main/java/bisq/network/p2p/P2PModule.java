@@ -75,6 +75,9 @@ public class P2PModule extends AppModule {
         Boolean useLocalhostForP2P = environment.getProperty(NetworkOptionKeys.USE_LOCALHOST_FOR_P2P, boolean.class, false);
         bind(boolean.class).annotatedWith(Names.named(NetworkOptionKeys.USE_LOCALHOST_FOR_P2P)).toInstance(useLocalhostForP2P);
 
+        Boolean useNioForP2P = environment.getProperty(NetworkOptionKeys.USE_NIO_FOR_P2P, boolean.class, false);
+        bind(boolean.class).annotatedWith(Names.named(NetworkOptionKeys.USE_NIO_FOR_P2P)).toInstance(useNioForP2P);
+
         File torDir = new File(environment.getRequiredProperty(NetworkOptionKeys.TOR_DIR));
         bind(File.class).annotatedWith(named(NetworkOptionKeys.TOR_DIR)).toInstance(torDir);
 
@@ -102,5 +105,6 @@ public class P2PModule extends AppModule {
         bindConstant().annotatedWith(named(NetworkOptionKeys.MSG_THROTTLE_PER_10_SEC)).to(environment.getRequiredProperty(NetworkOptionKeys.MSG_THROTTLE_PER_10_SEC));
         bindConstant().annotatedWith(named(NetworkOptionKeys.SEND_MSG_THROTTLE_TRIGGER)).to(environment.getRequiredProperty(NetworkOptionKeys.SEND_MSG_THROTTLE_TRIGGER));
         bindConstant().annotatedWith(named(NetworkOptionKeys.SEND_MSG_THROTTLE_SLEEP)).to(environment.getRequiredProperty(NetworkOptionKeys.SEND_MSG_THROTTLE_SLEEP));
+        bindConstant().annotatedWith(named(NetworkOptionKeys.MSG_THROTTLE_PER_SEC_BY_TYPE)).to(environment.getProperty(NetworkOptionKeys.MSG_THROTTLE_PER_SEC_BY_TYPE, ""));
     }
 }
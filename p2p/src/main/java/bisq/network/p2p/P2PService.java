@@ -23,6 +23,7 @@ import bisq.network.p2p.messaging.DecryptedMailboxListener;
 import bisq.network.p2p.network.CloseConnectionReason;
 import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.ConnectionListener;
+import bisq.network.p2p.network.MessageDispatcher;
 import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.network.SetupListener;
@@ -38,6 +39,7 @@ import bisq.network.p2p.storage.HashMapChangedListener;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.messages.AddDataMessage;
 import bisq.network.p2p.storage.messages.BroadcastMessage;
+import bisq.network.p2p.storage.messages.RefreshOfferBatchMessage;
 import bisq.network.p2p.storage.messages.RefreshOfferMessage;
 import bisq.network.p2p.storage.payload.CapabilityRequiringPayload;
 import bisq.network.p2p.storage.payload.MailboxStoragePayload;
@@ -74,8 +76,10 @@ import javafx.beans.property.SimpleIntegerProperty;
 
 import java.security.PublicKey;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -387,6 +391,12 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     // MessageListener implementation
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Decryption is done at the trade dispatch thread, the listeners get called on the UserThread.
+    @Override
+    public MessageDispatcher.Domain getDispatchDomain() {
+        return MessageDispatcher.Domain.TRADE;
+    }
+
     @Override
     public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
         if (networkEnvelope instanceof PrefixedSealedAndSignedMessage) {
@@ -396,7 +406,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
                 if (verifyAddressPrefixHash(prefixedSealedAndSignedMessage)) {
                     // We set connectionType to that connection to avoid that is get closed when
                     // we get too many connection attempts.
-                    connection.setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
+                    UserThread.execute(() -> connection.setPeerType(Connection.PeerType.DIRECT_MSG_PEER));
 
                     log.debug("Try to decrypt...");
                     DecryptedMessageWithPubKey decryptedMessageWithPubKey = encryptionService.decryptAndVerify(
@@ -405,11 +415,13 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
                     log.debug("\n\nDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDD\n" +
                             "Decrypted SealedAndSignedMessage:\ndecryptedMsgWithPubKey={}"
                             + "\nDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDD\n", decryptedMessageWithPubKey);
-                    if (connection.getPeersNodeAddressOptional().isPresent())
-                        decryptedDirectMessageListeners.forEach(
-                                e -> e.onDirectMessage(decryptedMessageWithPubKey, connection.getPeersNodeAddressOptional().get()));
-                    else
-                        log.error("peersNodeAddress is not available at onMessage.");
+                    UserThread.execute(() -> {
+                        if (connection.getPeersNodeAddressOptional().isPresent())
+                            decryptedDirectMessageListeners.forEach(
+                                    e -> e.onDirectMessage(decryptedMessageWithPubKey, connection.getPeersNodeAddressOptional().get()));
+                        else
+                            log.error("peersNodeAddress is not available at onMessage.");
+                    });
                 } else {
                     log.debug("Wrong receiverAddressMaskHash. The message is not intended for us.");
                 }
@@ -793,11 +805,14 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         }
     }
 
-    public boolean refreshTTL(ProtectedStoragePayload protectedStoragePayload, boolean isDataOwner) {
+    // The refreshes of all payloads are sent in one RefreshOfferBatchMessage
+    public boolean refreshTTL(List<? extends ProtectedStoragePayload> protectedStoragePayloads, boolean isDataOwner) {
         if (isBootstrapped()) {
             try {
-                RefreshOfferMessage refreshTTLMessage = p2PDataStorage.getRefreshTTLMessage(protectedStoragePayload, keyRing.getSignatureKeyPair());
-                return p2PDataStorage.refreshTTL(refreshTTLMessage, networkNode.getNodeAddress(), isDataOwner);
+                List<RefreshOfferMessage> refreshTTLMessages = new ArrayList<>();
+                for (ProtectedStoragePayload protectedStoragePayload : protectedStoragePayloads)
+                    refreshTTLMessages.add(p2PDataStorage.getRefreshTTLMessage(protectedStoragePayload, keyRing.getSignatureKeyPair()));
+                return p2PDataStorage.refreshTTL(new RefreshOfferBatchMessage(refreshTTLMessages), networkNode.getNodeAddress(), isDataOwner);
             } catch (CryptoException e) {
                 log.error("Signing at getDataWithSignedSeqNr failed. That should never happen.");
                 return false;
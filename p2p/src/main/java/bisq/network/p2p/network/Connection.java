@@ -30,6 +30,7 @@ import bisq.network.p2p.peers.keepalive.messages.KeepAliveMessage;
 import bisq.network.p2p.peers.keepalive.messages.Ping;
 import bisq.network.p2p.storage.messages.AddDataMessage;
 import bisq.network.p2p.storage.messages.AddPersistableNetworkPayloadMessage;
+import bisq.network.p2p.storage.messages.RefreshOfferBatchMessage;
 import bisq.network.p2p.storage.messages.RefreshOfferMessage;
 import bisq.network.p2p.storage.payload.CapabilityRequiringPayload;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
@@ -43,7 +44,6 @@ import bisq.common.app.Version;
 import bisq.common.proto.ProtobufferException;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkProtoResolver;
-import bisq.common.util.Tuple2;
 import bisq.common.util.Utilities;
 
 import io.bisq.generated.protobuffer.PB;
@@ -71,13 +71,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.stream.Collectors;
 
 import java.lang.ref.WeakReference;
 
@@ -139,13 +140,16 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     // holder of state shared between InputHandler and Connection
     @Getter
     private final Statistic statistic;
-    private final int msgThrottlePer10Sec;
-    private final int msgThrottlePerSec;
+    @Getter
+    private final MessageRateLimiter messageRateLimiter;
     private final int sendMsgThrottleTrigger;
     private final int sendMsgThrottleSleep;
 
     // set in init
-    private SynchronizedProtoOutputStream protoOutputStream;
+    private ProtoOutputStream protoOutputStream;
+    // Only set if the connection uses the non-blocking NIO transport
+    @Nullable
+    private final NioSelectorPool selectorPool;
 
     // mutable data, set from other threads but not changed internally.
     @Getter
@@ -158,9 +162,11 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     private PeerType peerType = PeerType.PEER;
     @Getter
     private final ObjectProperty<NodeAddress> peersNodeAddressProperty = new SimpleObjectProperty<>();
-    private final List<Tuple2<Long, String>> messageTimeStamps = new ArrayList<>();
     private final CopyOnWriteArraySet<MessageListener> messageListeners = new CopyOnWriteArraySet<>();
     private volatile long lastSendTimeStamp = 0;
+    // Broadcasts waiting to be written together, guarded by pendingBroadcasts
+    private final List<PreSerializedEnvelope> pendingBroadcasts = new ArrayList<>();
+    private CompletableFuture<Void> pendingBroadcastsWritten;
     private final CopyOnWriteArraySet<WeakReference<SupportedCapabilitiesListener>> capabilitiesListeners = new CopyOnWriteArraySet<>();
 
     @Getter
@@ -179,13 +185,24 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                ConnectionListener connectionListener,
                @Nullable NodeAddress peersNodeAddress,
                NetworkProtoResolver networkProtoResolver) {
+        this(socket, messageListener, connectionListener, peersNodeAddress, networkProtoResolver, null);
+    }
+
+    // If selectorPool is set and the socket has a channel we use the non-blocking NIO transport. Sockets created by
+    // Tor do not have a channel, so those always use the blocking streams.
+    Connection(Socket socket,
+               MessageListener messageListener,
+               ConnectionListener connectionListener,
+               @Nullable NodeAddress peersNodeAddress,
+               NetworkProtoResolver networkProtoResolver,
+               @Nullable NioSelectorPool selectorPool) {
         this.socket = socket;
+        this.selectorPool = selectorPool;
         this.connectionListener = connectionListener;
         uid = UUID.randomUUID().toString();
         statistic = new Statistic();
 
-        msgThrottlePerSec = connectionConfig.getMsgThrottlePerSec();
-        msgThrottlePer10Sec = connectionConfig.getMsgThrottlePer10Sec();
+        messageRateLimiter = new MessageRateLimiter(connectionConfig);
         sendMsgThrottleTrigger = connectionConfig.getSendMsgThrottleTrigger();
         sendMsgThrottleSleep = connectionConfig.getSendMsgThrottleSleep();
 
@@ -203,10 +220,33 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             // When you construct an ObjectInputStream, in the constructor the class attempts to read a header that
             // the associated ObjectOutputStream on the other end of the connection has written.
             // It will not return until that header has been read.
-            protoOutputStream = new SynchronizedProtoOutputStream(socket.getOutputStream(), statistic);
-            protoInputStream = socket.getInputStream();
-            // We create a thread for handling inputStream data
-            singleThreadExecutor.submit(this);
+            if (selectorPool != null && socket.getChannel() != null) {
+                NioChannel nioChannel = selectorPool.register(socket.getChannel(), new NioChannel.Handler() {
+                    @Override
+                    public boolean onFrame(byte[] frame) {
+                        return onNioFrame(frame);
+                    }
+
+                    @Override
+                    public void onEndOfStream() {
+                        log.info("Received EOF at NIO channel. That is expected if client got stopped without proper shutdown.");
+                        shutDown(CloseConnectionReason.NO_PROTO_BUFFER_ENV);
+                    }
+
+                    @Override
+                    public void onException(Throwable throwable) {
+                        if (!stopped)
+                            handleException(throwable);
+                    }
+                }, MAX_PERMITTED_MESSAGE_SIZE, SOCKET_TIMEOUT);
+                // Writes only enqueue the data at the channel, so we don't need a writer thread
+                protoOutputStream = new NioProtoOutputStream(nioChannel.getOutputStream(), statistic);
+            } else {
+                protoOutputStream = new SynchronizedProtoOutputStream(socket.getOutputStream(), statistic);
+                protoInputStream = socket.getInputStream();
+                // We create a thread for handling inputStream data
+                singleThreadExecutor.submit(this);
+            }
 
             if (peersNodeAddress != null)
                 setPeersNodeAddress(peersNodeAddress);
@@ -228,6 +268,16 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
 
     // Called from various threads
     public void sendMessage(NetworkEnvelope networkEnvelope) {
+        sendMessage(networkEnvelope, null);
+    }
+
+    // Used for broadcasts. Instead of getting throttled, broadcasts sent to that peer within the throttle trigger
+    // period are coalesced and written at once.
+    public void sendMessage(PreSerializedEnvelope preSerializedEnvelope) {
+        sendMessage(preSerializedEnvelope.getNetworkEnvelope(), preSerializedEnvelope);
+    }
+
+    private void sendMessage(NetworkEnvelope networkEnvelope, @Nullable PreSerializedEnvelope preSerializedEnvelope) {
         log.debug(">> Send networkEnvelope of type: " + networkEnvelope.getClass().getSimpleName());
 
         if (!stopped) {
@@ -236,7 +286,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                     // Throttle outbound network_messages
                     long now = System.currentTimeMillis();
                     long elapsed = now - lastSendTimeStamp;
-                    if (elapsed < sendMsgThrottleTrigger) {
+                    if (preSerializedEnvelope == null && elapsed < sendMsgThrottleTrigger) {
                         log.debug("We got 2 sendMessage requests in less than {} ms. We set the thread to sleep " +
                                         "for {} ms to avoid flooding our peer. lastSendTimeStamp={}, now={}, elapsed={}, networkEnvelope={}",
                                 sendMsgThrottleTrigger, sendMsgThrottleSleep, lastSendTimeStamp, now, elapsed,
@@ -247,16 +297,20 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                     lastSendTimeStamp = now;
                     String peersNodeAddress = peersNodeAddressOptional.map(NodeAddress::toString).orElse("null");
 
-                    PB.NetworkEnvelope proto = networkEnvelope.toProtoNetworkEnvelope();
-                    log.debug("Sending message: {}", Utilities.toTruncatedString(proto.toString(), 10000));
+                    // We don't serialize pre-serialized envelopes again only for logging
+                    PB.NetworkEnvelope proto = preSerializedEnvelope == null ? networkEnvelope.toProtoNetworkEnvelope() : null;
+                    int serializedSize = proto != null ? proto.getSerializedSize() : preSerializedEnvelope.getSerializedSize();
+                    if (proto != null)
+                        log.debug("Sending message: {}", Utilities.toTruncatedString(proto.toString(), 10000));
 
-                    if (networkEnvelope instanceof Ping | networkEnvelope instanceof RefreshOfferMessage) {
+                    if (networkEnvelope instanceof Ping | networkEnvelope instanceof RefreshOfferMessage |
+                            networkEnvelope instanceof RefreshOfferBatchMessage) {
                         // pings and offer refresh msg we dont want to log in production
                         log.trace("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
                                         "Sending direct message to peer" +
                                         "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
                                         "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
-                                peersNodeAddress, uid, proto.toString(), proto.getSerializedSize());
+                                peersNodeAddress, uid, proto != null ? proto.toString() : networkEnvelope.toString(), serializedSize);
                     } else if (networkEnvelope instanceof PrefixedSealedAndSignedMessage && peersNodeAddressOptional.isPresent()) {
                         setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
 
@@ -271,11 +325,14 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                         log.debug("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
                                         "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
                                         "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
-                                peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), proto.getSerializedSize());
+                                peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), serializedSize);
                     }
 
                     if (!stopped) {
-                        protoOutputStream.writeEnvelope(networkEnvelope);
+                        if (preSerializedEnvelope != null)
+                            writeCoalesced(preSerializedEnvelope);
+                        else
+                            protoOutputStream.writeEnvelope(networkEnvelope);
                     }
                 } catch (Throwable t) {
                     handleException(t);
@@ -286,6 +343,47 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         }
     }
 
+    // The first caller waits for the throttle trigger period and writes all broadcasts which got added in the
+    // meantime. The others wait until their envelope has been written, so the send future still completes after
+    // the write as with the other messages.
+    private void writeCoalesced(PreSerializedEnvelope preSerializedEnvelope) throws Exception {
+        boolean isFirst;
+        CompletableFuture<Void> written;
+        synchronized (pendingBroadcasts) {
+            isFirst = pendingBroadcasts.isEmpty();
+            if (isFirst)
+                pendingBroadcastsWritten = new CompletableFuture<>();
+            pendingBroadcasts.add(preSerializedEnvelope);
+            written = pendingBroadcastsWritten;
+        }
+
+        if (isFirst) {
+            try {
+                Thread.sleep(sendMsgThrottleTrigger);
+                List<PreSerializedEnvelope> batch;
+                synchronized (pendingBroadcasts) {
+                    batch = new ArrayList<>(pendingBroadcasts);
+                    pendingBroadcasts.clear();
+                }
+                if (batch.size() > 1)
+                    log.debug("Write {} coalesced broadcast messages to {}", batch.size(), peersNodeAddressOptional);
+                if (!stopped)
+                    protoOutputStream.writeEnvelopes(batch);
+                written.complete(null);
+            } catch (Throwable t) {
+                written.completeExceptionally(t);
+                throw t;
+            }
+        } else {
+            try {
+                written.get();
+            } catch (ExecutionException e) {
+                // The exception is handled already by the thread which has written the batch
+                log.debug("Coalesced write failed: {}", e.getCause().toString());
+            }
+        }
+    }
+
     public boolean noCapabilityRequiredOrCapabilityIsSupported(Proto msg) {
         boolean result;
         if (msg instanceof AddDataMessage) {
@@ -336,47 +434,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         capabilitiesListeners.add(new WeakReference<>(listener));
     }
 
-    // TODO either use the argument or delete it
     private boolean violatesThrottleLimit(NetworkEnvelope networkEnvelope) {
-        long now = System.currentTimeMillis();
-        boolean violated = false;
-        //TODO remove message storage after network is tested stable
-        if (messageTimeStamps.size() >= msgThrottlePerSec) {
-            // check if we got more than 200 (MSG_THROTTLE_PER_SEC) msg per sec.
-            long compareValue = messageTimeStamps.get(messageTimeStamps.size() - msgThrottlePerSec).first;
-            // if duration < 1 sec we received too much network_messages
-            violated = now - compareValue < TimeUnit.SECONDS.toMillis(1);
-            if (violated) {
-                log.error("violatesThrottleLimit MSG_THROTTLE_PER_SEC ");
-                log.error("elapsed " + (now - compareValue));
-                log.error("messageTimeStamps: \n\t" + messageTimeStamps.stream()
-                        .map(e -> "\n\tts=" + e.first.toString() + " message=" + e.second)
-                        .collect(Collectors.toList()).toString());
-            }
-        }
-
-        if (messageTimeStamps.size() >= msgThrottlePer10Sec) {
-            if (!violated) {
-                // check if we got more than 50 msg per 10 sec.
-                long compareValue = messageTimeStamps.get(messageTimeStamps.size() - msgThrottlePer10Sec).first;
-                // if duration < 10 sec we received too much network_messages
-                violated = now - compareValue < TimeUnit.SECONDS.toMillis(10);
-
-                if (violated) {
-                    log.error("violatesThrottleLimit MSG_THROTTLE_PER_10_SEC ");
-                    log.error("elapsed " + (now - compareValue));
-                    log.error("messageTimeStamps: \n\t" + messageTimeStamps.stream()
-                            .map(e -> "\n\tts=" + e.first.toString() + " message=" + e.second)
-                            .collect(Collectors.toList()).toString());
-                }
-            }
-        }
-        // we limit to max 1000 (MSG_THROTTLE_PER_10SEC) entries
-        while (messageTimeStamps.size() > msgThrottlePer10Sec)
-            messageTimeStamps.remove(0);
-
-        messageTimeStamps.add(new Tuple2<>(now, networkEnvelope.getClass().getName()));
-        return violated;
+        return messageRateLimiter.violatesLimit(networkEnvelope, System.currentTimeMillis());
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -387,7 +446,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     @Override
     public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
         checkArgument(connection.equals(this));
-        UserThread.execute(() -> messageListeners.forEach(e -> e.onMessage(networkEnvelope, connection)));
+        MessageDispatcher.dispatch(networkEnvelope, connection, messageListeners);
     }
 
 
@@ -492,7 +551,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             protoOutputStream.onConnectionShutdown();
 
             try {
-                protoInputStream.close();
+                if (protoInputStream != null)
+                    protoInputStream.close();
             } catch (IOException e) {
                 log.error(e.getMessage());
                 e.printStackTrace();
@@ -680,142 +740,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                         return;
                     }
 
-                    NetworkEnvelope networkEnvelope = networkProtoResolver.fromProto(proto);
-                    lastReadTimeStamp = now;
-                    log.debug("<< Received networkEnvelope of type: " + networkEnvelope.getClass().getSimpleName());
-
-                    int size = proto.getSerializedSize();
-                    // We comment out that part as only debug and trace log level is used. For debugging purposes
-                    // we leave the code though.
-                        /*if (networkEnvelope instanceof Pong || networkEnvelope instanceof RefreshOfferMessage) {
-                            // We only log Pong and RefreshOfferMsg when in dev environment (trace)
-                            log.trace("\n\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n" +
-                                            "New data arrived at inputHandler of connection {}.\n" +
-                                            "Received object (truncated)={} / size={}"
-                                            + "\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n",
-                                    connection,
-                                    Utilities.toTruncatedString(proto.toString()),
-                                    size);
-                        } else {
-                            // We want to log all incoming network_messages (except Pong and RefreshOfferMsg)
-                            // so we log before the data type checks
-                            //log.info("size={}; object={}", size, Utilities.toTruncatedString(rawInputObject.toString(), 100));
-                            log.debug("\n\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n" +
-                                            "New data arrived at inputHandler of connection {}.\n" +
-                                            "Received object (truncated)={} / size={}"
-                                            + "\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n",
-                                    connection,
-                                    Utilities.toTruncatedString(proto.toString()),
-                                    size);
-                        }*/
-
-                    // We want to track the size of each object even if it is invalid data
-                    statistic.addReceivedBytes(size);
-
-                    // We want to track the network_messages also before the checks, so do it early...
-                    statistic.addReceivedMessage(networkEnvelope);
-
-                    // First we check the size
-                    boolean exceeds;
-                    if (networkEnvelope instanceof ExtendedDataSizePermission) {
-                        exceeds = size > MAX_PERMITTED_MESSAGE_SIZE;
-                        log.debug("size={}; object={}", size, Utilities.toTruncatedString(proto, 100));
-                    } else {
-                        exceeds = size > PERMITTED_MESSAGE_SIZE;
-                    }
-
-                    if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage &&
-                            !((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().verifyHashSize()) {
-                        log.warn("PersistableNetworkPayload.verifyHashSize failed. hashSize={}; object={}",
-                                ((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().getHash().length,
-                                Utilities.toTruncatedString(proto));
-                        if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
-                            return;
-                    }
-
-                    if (exceeds) {
-                        log.warn("size > MAX_MSG_SIZE. size={}; object={}", size, Utilities.toTruncatedString(proto));
-
-                        if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
-                            return;
-                    }
-
-                    if (violatesThrottleLimit(networkEnvelope)
-                            && reportInvalidRequest(RuleViolation.THROTTLE_LIMIT_EXCEEDED))
-                        return;
-
-                    // Check P2P network ID
-                    if (proto.getMessageVersion() != Version.getP2PMessageVersion()
-                            && reportInvalidRequest(RuleViolation.WRONG_NETWORK_ID)) {
-                        log.warn("RuleViolation.WRONG_NETWORK_ID. version of message={}, app version={}, " +
-                                        "proto.toTruncatedString={}", proto.getMessageVersion(),
-                                Version.getP2PMessageVersion(),
-                                Utilities.toTruncatedString(proto.toString()));
-                        return;
-                    }
-
-                    if (networkEnvelope instanceof SupportedCapabilitiesMessage) {
-                        Capabilities supportedCapabilities = ((SupportedCapabilitiesMessage) networkEnvelope).getSupportedCapabilities();
-                        if (supportedCapabilities != null) {
-                            capabilities.set(supportedCapabilities);
-                        }
-                    }
-
-                    if (networkEnvelope instanceof CloseConnectionMessage) {
-                        // If we get a CloseConnectionMessage we shut down
-                        log.info("CloseConnectionMessage received. Reason={}\n\t" +
-                                "connection={}", proto.getCloseConnectionMessage().getReason(), this);
-                        if (CloseConnectionReason.PEER_BANNED.name().equals(proto.getCloseConnectionMessage().getReason())) {
-                            log.warn("We got shut down because we are banned by the other peer. (InputHandler.run CloseConnectionMessage)");
-                            shutDown(CloseConnectionReason.PEER_BANNED);
-                        } else {
-                            shutDown(CloseConnectionReason.CLOSE_REQUESTED_BY_PEER);
-                        }
+                    if (!handleProto(proto, now))
                         return;
-                    } else if (!stopped) {
-                        // We don't want to get the activity ts updated by ping/pong msg
-                        if (!(networkEnvelope instanceof KeepAliveMessage))
-                            statistic.updateLastActivityTimestamp();
-
-                        if (networkEnvelope instanceof GetDataRequest)
-                            setPeerType(PeerType.INITIAL_DATA_REQUEST);
-
-                        // First a seed node gets a message from a peer (PreliminaryDataRequest using
-                        // AnonymousMessage interface) which does not have its hidden service
-                        // published, so it does not know its address. As the IncomingConnection does not have the
-                        // peersNodeAddress set that connection cannot be used for outgoing network_messages until we
-                        // get the address set.
-                        // At the data update message (DataRequest using SendersNodeAddressMessage interface)
-                        // after the HS is published we get the peer's address set.
-
-                        // There are only those network_messages used for new connections to a peer:
-                        // 1. PreliminaryDataRequest
-                        // 2. DataRequest (implements SendersNodeAddressMessage)
-                        // 3. GetPeersRequest (implements SendersNodeAddressMessage)
-                        // 4. DirectMessage (implements SendersNodeAddressMessage)
-                        if (networkEnvelope instanceof SendersNodeAddressMessage) {
-                            NodeAddress senderNodeAddress = ((SendersNodeAddressMessage) networkEnvelope).getSenderNodeAddress();
-                            if (senderNodeAddress != null) {
-                                Optional<NodeAddress> peersNodeAddressOptional = getPeersNodeAddressOptional();
-                                if (peersNodeAddressOptional.isPresent()) {
-                                    // If we have already the peers address we check again if it matches our stored one
-                                    checkArgument(peersNodeAddressOptional.get().equals(senderNodeAddress),
-                                            "senderNodeAddress not matching connections peer address.\n\t" +
-                                                    "message=" + networkEnvelope);
-                                } else {
-                                    // We must not shut down a banned peer at that moment as it would trigger a connection termination
-                                    // and we could not send the CloseConnectionMessage.
-                                    // We check for a banned peer inside setPeersNodeAddress() and shut down if banned.
-                                    setPeersNodeAddress(senderNodeAddress);
-                                }
-                            }
-                        }
-
-                        if (networkEnvelope instanceof PrefixedSealedAndSignedMessage)
-                            setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
-
-                        onMessage(networkEnvelope, this);
-                    }
                 } catch (InvalidClassException e) {
                     log.error(e.getMessage());
                     e.printStackTrace();
@@ -832,4 +758,160 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             handleException(t);
         }
     }
+
+    // Returns false if we must not read further data from that connection
+    private boolean handleProto(PB.NetworkEnvelope proto, long now) throws ProtobufferException {
+        NetworkEnvelope networkEnvelope = networkProtoResolver.fromProto(proto);
+        lastReadTimeStamp = now;
+        log.debug("<< Received networkEnvelope of type: " + networkEnvelope.getClass().getSimpleName());
+
+        int size = proto.getSerializedSize();
+        // We comment out that part as only debug and trace log level is used. For debugging purposes
+        // we leave the code though.
+            /*if (networkEnvelope instanceof Pong || networkEnvelope instanceof RefreshOfferMessage) {
+                // We only log Pong and RefreshOfferMsg when in dev environment (trace)
+                log.trace("\n\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n" +
+                                "New data arrived at inputHandler of connection {}.\n" +
+                                "Received object (truncated)={} / size={}"
+                                + "\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n",
+                        connection,
+                        Utilities.toTruncatedString(proto.toString()),
+                        size);
+            } else {
+                // We want to log all incoming network_messages (except Pong and RefreshOfferMsg)
+                // so we log before the data type checks
+                //log.info("size={}; object={}", size, Utilities.toTruncatedString(rawInputObject.toString(), 100));
+                log.debug("\n\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n" +
+                                "New data arrived at inputHandler of connection {}.\n" +
+                                "Received object (truncated)={} / size={}"
+                                + "\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n",
+                        connection,
+                        Utilities.toTruncatedString(proto.toString()),
+                        size);
+            }*/
+
+        // We want to track the size of each object even if it is invalid data
+        statistic.addReceivedBytes(size);
+
+        // We want to track the network_messages also before the checks, so do it early...
+        statistic.addReceivedMessage(networkEnvelope);
+
+        // First we check the size
+        boolean exceeds;
+        if (networkEnvelope instanceof ExtendedDataSizePermission) {
+            exceeds = size > MAX_PERMITTED_MESSAGE_SIZE;
+            log.debug("size={}; object={}", size, Utilities.toTruncatedString(proto, 100));
+        } else {
+            exceeds = size > PERMITTED_MESSAGE_SIZE;
+        }
+
+        if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage &&
+                !((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().verifyHashSize()) {
+            log.warn("PersistableNetworkPayload.verifyHashSize failed. hashSize={}; object={}",
+                    ((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().getHash().length,
+                    Utilities.toTruncatedString(proto));
+            if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
+                return false;
+        }
+
+        if (exceeds) {
+            log.warn("size > MAX_MSG_SIZE. size={}; object={}", size, Utilities.toTruncatedString(proto));
+
+            if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
+                return false;
+        }
+
+        if (violatesThrottleLimit(networkEnvelope)
+                && reportInvalidRequest(RuleViolation.THROTTLE_LIMIT_EXCEEDED))
+            return false;
+
+        // Check P2P network ID
+        if (proto.getMessageVersion() != Version.getP2PMessageVersion()
+                && reportInvalidRequest(RuleViolation.WRONG_NETWORK_ID)) {
+            log.warn("RuleViolation.WRONG_NETWORK_ID. version of message={}, app version={}, " +
+                            "proto.toTruncatedString={}", proto.getMessageVersion(),
+                    Version.getP2PMessageVersion(),
+                    Utilities.toTruncatedString(proto.toString()));
+            return false;
+        }
+
+        if (networkEnvelope instanceof SupportedCapabilitiesMessage) {
+            Capabilities supportedCapabilities = ((SupportedCapabilitiesMessage) networkEnvelope).getSupportedCapabilities();
+            if (supportedCapabilities != null) {
+                capabilities.set(supportedCapabilities);
+            }
+        }
+
+        if (networkEnvelope instanceof CloseConnectionMessage) {
+            // If we get a CloseConnectionMessage we shut down
+            log.info("CloseConnectionMessage received. Reason={}\n\t" +
+                    "connection={}", proto.getCloseConnectionMessage().getReason(), this);
+            if (CloseConnectionReason.PEER_BANNED.name().equals(proto.getCloseConnectionMessage().getReason())) {
+                log.warn("We got shut down because we are banned by the other peer. (InputHandler.run CloseConnectionMessage)");
+                shutDown(CloseConnectionReason.PEER_BANNED);
+            } else {
+                shutDown(CloseConnectionReason.CLOSE_REQUESTED_BY_PEER);
+            }
+            return false;
+        } else if (!stopped) {
+            // We don't want to get the activity ts updated by ping/pong msg
+            if (!(networkEnvelope instanceof KeepAliveMessage))
+                statistic.updateLastActivityTimestamp();
+
+            if (networkEnvelope instanceof GetDataRequest)
+                setPeerType(PeerType.INITIAL_DATA_REQUEST);
+
+            // First a seed node gets a message from a peer (PreliminaryDataRequest using
+            // AnonymousMessage interface) which does not have its hidden service
+            // published, so it does not know its address. As the IncomingConnection does not have the
+            // peersNodeAddress set that connection cannot be used for outgoing network_messages until we
+            // get the address set.
+            // At the data update message (DataRequest using SendersNodeAddressMessage interface)
+            // after the HS is published we get the peer's address set.
+
+            // There are only those network_messages used for new connections to a peer:
+            // 1. PreliminaryDataRequest
+            // 2. DataRequest (implements SendersNodeAddressMessage)
+            // 3. GetPeersRequest (implements SendersNodeAddressMessage)
+            // 4. DirectMessage (implements SendersNodeAddressMessage)
+            if (networkEnvelope instanceof SendersNodeAddressMessage) {
+                NodeAddress senderNodeAddress = ((SendersNodeAddressMessage) networkEnvelope).getSenderNodeAddress();
+                if (senderNodeAddress != null) {
+                    Optional<NodeAddress> peersNodeAddressOptional = getPeersNodeAddressOptional();
+                    if (peersNodeAddressOptional.isPresent()) {
+                        // If we have already the peers address we check again if it matches our stored one
+                        checkArgument(peersNodeAddressOptional.get().equals(senderNodeAddress),
+                                "senderNodeAddress not matching connections peer address.\n\t" +
+                                        "message=" + networkEnvelope);
+                    } else {
+                        // We must not shut down a banned peer at that moment as it would trigger a connection termination
+                        // and we could not send the CloseConnectionMessage.
+                        // We check for a banned peer inside setPeersNodeAddress() and shut down if banned.
+                        setPeersNodeAddress(senderNodeAddress);
+                    }
+                }
+            }
+
+            if (networkEnvelope instanceof PrefixedSealedAndSignedMessage)
+                setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
+
+            onMessage(networkEnvelope, this);
+        }
+        return true;
+    }
+
+    // Called on the selector thread. Unlike the InputHandler we must not sleep here for throttling the inbound
+    // messages as the thread is shared by other connections. The throttle limits are checked in handleProto.
+    private boolean onNioFrame(byte[] frame) {
+        try {
+            return handleProto(PB.NetworkEnvelope.parseFrom(frame), System.currentTimeMillis());
+        } catch (ProtobufferException | NoClassDefFoundError e) {
+            log.error(e.getMessage());
+            e.printStackTrace();
+            return !reportInvalidRequest(RuleViolation.INVALID_DATA_TYPE);
+        } catch (Throwable t) {
+            handleException(t);
+            return false;
+        }
+    }
 }
@@ -23,15 +23,23 @@ import com.google.inject.name.Named;
 
 import javax.inject.Inject;
 
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.HashMap;
+import java.util.Map;
+
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 @Slf4j
 public class ConnectionConfig {
     public static final int MSG_THROTTLE_PER_SEC = 200;        // With MAX_MSG_SIZE of 200kb results in bandwidth of 40MB/sec or 5 mbit/sec
     public static final int MSG_THROTTLE_PER_10_SEC = 1000;    // With MAX_MSG_SIZE of 200kb results in bandwidth of 20MB/sec or 2.5 mbit/sec
     public static final int SEND_MSG_THROTTLE_TRIGGER = 20;    // Time in ms when we trigger a sleep if 2 messages are sent
     public static final int SEND_MSG_THROTTLE_SLEEP = 50;      // Pause in ms to sleep if we get too many messages to send
+    public static final String MSG_THROTTLE_PER_SEC_BY_TYPE = ""; // Comma separated list of messageType:limit, e.g. "GetDataRequest:5,Ping:10"
 
     @Getter
     private int msgThrottlePerSec;
@@ -41,16 +49,21 @@ public class ConnectionConfig {
     private int sendMsgThrottleTrigger;
     @Getter
     private int sendMsgThrottleSleep;
+    // Key is the simple class name of the message
+    @Getter
+    private Map<String, Integer> msgThrottlePerSecByType;
 
     @Inject
     public ConnectionConfig(@Named(NetworkOptionKeys.MSG_THROTTLE_PER_SEC) int msgThrottlePerSec,
                             @Named(NetworkOptionKeys.MSG_THROTTLE_PER_10_SEC) int msgThrottlePer10Sec,
                             @Named(NetworkOptionKeys.SEND_MSG_THROTTLE_TRIGGER) int sendMsgThrottleTrigger,
-                            @Named(NetworkOptionKeys.SEND_MSG_THROTTLE_SLEEP) int sendMsgThrottleSleep) {
+                            @Named(NetworkOptionKeys.SEND_MSG_THROTTLE_SLEEP) int sendMsgThrottleSleep,
+                            @Named(NetworkOptionKeys.MSG_THROTTLE_PER_SEC_BY_TYPE) String msgThrottlePerSecByType) {
         this.msgThrottlePerSec = msgThrottlePerSec;
         this.msgThrottlePer10Sec = msgThrottlePer10Sec;
         this.sendMsgThrottleTrigger = sendMsgThrottleTrigger;
         this.sendMsgThrottleSleep = sendMsgThrottleSleep;
+        this.msgThrottlePerSecByType = parseMsgThrottlePerSecByType(msgThrottlePerSecByType);
 
         log.info(this.toString());
     }
@@ -63,6 +76,22 @@ public class ConnectionConfig {
                 ",\n     msgThrottlePer10Sec=" + msgThrottlePer10Sec +
                 ",\n     sendMsgThrottleTrigger=" + sendMsgThrottleTrigger +
                 ",\n     sendMsgThrottleSleep=" + sendMsgThrottleSleep +
+                ",\n     msgThrottlePerSecByType=" + msgThrottlePerSecByType +
                 "\n}";
     }
+
+    @VisibleForTesting
+    static Map<String, Integer> parseMsgThrottlePerSecByType(String value) {
+        Map<String, Integer> result = new HashMap<>();
+        for (String entry : value.split(",")) {
+            if (entry.trim().isEmpty())
+                continue;
+
+            String[] tokens = entry.split(":");
+            checkArgument(tokens.length == 2, "Invalid entry at " + NetworkOptionKeys.MSG_THROTTLE_PER_SEC_BY_TYPE +
+                    ": " + entry);
+            result.put(tokens[0].trim(), Integer.parseInt(tokens[1].trim()));
+        }
+        return result;
+    }
 }
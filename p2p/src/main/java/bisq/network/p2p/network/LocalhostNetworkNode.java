@@ -22,6 +22,10 @@ import bisq.network.p2p.NodeAddress;
 import bisq.common.UserThread;
 import bisq.common.proto.network.NetworkProtoResolver;
 
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 
@@ -55,7 +59,13 @@ public class LocalhostNetworkNode extends NetworkNode {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public LocalhostNetworkNode(int port, NetworkProtoResolver networkProtoResolver) {
+        this(port, networkProtoResolver, false);
+    }
+
+    public LocalhostNetworkNode(int port, NetworkProtoResolver networkProtoResolver, boolean useNio) {
         super(port, networkProtoResolver);
+        if (useNio)
+            selectorPool = new NioSelectorPool("NetworkNode-" + port, NioSelectorPool.getDefaultNumThreads());
     }
 
     @Override
@@ -74,7 +84,7 @@ public class LocalhostNetworkNode extends NetworkNode {
             // simulate tor HS publishing delay
             UserThread.runAfter(() -> {
                 try {
-                    startServer(new ServerSocket(servicePort));
+                    startServer(createServerSocket());
                 } catch (IOException e) {
                     e.printStackTrace();
                     log.error("Exception at startServer: " + e.getMessage());
@@ -87,6 +97,17 @@ public class LocalhostNetworkNode extends NetworkNode {
     // Called from NetworkNode thread
     @Override
     protected Socket createSocket(NodeAddress peerNodeAddress) throws IOException {
+        // Sockets of a channel are needed for the NIO transport
+        if (selectorPool != null)
+            return SocketChannel.open(new InetSocketAddress(peerNodeAddress.getHostName(), peerNodeAddress.getPort())).socket();
+
         return new Socket(peerNodeAddress.getHostName(), peerNodeAddress.getPort());
     }
+
+    private ServerSocket createServerSocket() throws IOException {
+        if (selectorPool != null)
+            return ServerSocketChannel.open().bind(new InetSocketAddress(servicePort)).socket();
+
+        return new ServerSocket(servicePort);
+    }
 }
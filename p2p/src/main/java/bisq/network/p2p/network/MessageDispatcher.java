@@ -0,0 +1,164 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.common.UserThread;
+import bisq.common.proto.network.NetworkEnvelope;
+import bisq.common.util.Utilities;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers the received messages to the MessageListeners on the executor of the domain the listener declares with
+ * MessageListener.getDispatchDomain(). Before all listeners have been called on the UserThread, so a burst of
+ * expensive messages of one subsystem (e.g. signature checks of AddDataMessages) delayed all others.
+ * <p/>
+ * Each domain has one ordered executor, so messages from one connection are delivered in the order they have been
+ * received to all listeners of a domain. There is no ordering guarantee between different domains.
+ * <p/>
+ * The state of most of our services is confined to the UserThread. Listeners which use another domain must only do
+ * thread safe work (e.g. verification, decryption, de-duplication) there and use UserThread.execute for changing
+ * their state or notifying their listeners.
+ */
+@Slf4j
+public class MessageDispatcher {
+    public enum Domain {
+        // Called on the thread which has read the message. Only for listeners which dispatch themselves (NetworkNode).
+        DIRECT,
+        // The UserThread, which is the JavaFX application thread in the desktop app. Default for all listeners.
+        USER_THREAD,
+        STORAGE,
+        DAO,
+        TRADE
+    }
+
+    private static final int QUEUE_DEPTH_WARN_THRESHOLD = 1000;
+
+    private static final Map<Domain, DomainExecutor> domainExecutors = new EnumMap<>(Domain.class);
+
+    static {
+        for (Domain domain : Domain.values()) {
+            if (domain != Domain.DIRECT)
+                domainExecutors.put(domain, new DomainExecutor(domain));
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The listeners are looked up again when the task is executed, so a listener which got removed in the meantime
+    // does not get called anymore.
+    public static void dispatch(NetworkEnvelope networkEnvelope,
+                                Connection connection,
+                                Collection<MessageListener> messageListeners) {
+        Set<Domain> domains = EnumSet.noneOf(Domain.class);
+        messageListeners.forEach(listener -> domains.add(listener.getDispatchDomain()));
+
+        for (Domain domain : domains) {
+            if (domain == Domain.DIRECT) {
+                messageListeners.stream()
+                        .filter(listener -> listener.getDispatchDomain() == Domain.DIRECT)
+                        .forEach(listener -> listener.onMessage(networkEnvelope, connection));
+            } else {
+                domainExecutors.get(domain).execute(() -> messageListeners.stream()
+                        .filter(listener -> listener.getDispatchDomain() == domain)
+                        .forEach(listener -> listener.onMessage(networkEnvelope, connection)));
+            }
+        }
+    }
+
+    private static int getQueueDepth(Domain domain) {
+        DomainExecutor domainExecutor = domainExecutors.get(domain);
+        return domainExecutor != null ? domainExecutor.queueDepth.get() : 0;
+    }
+
+    private static int getMaxQueueDepth(Domain domain) {
+        DomainExecutor domainExecutor = domainExecutors.get(domain);
+        return domainExecutor != null ? domainExecutor.maxQueueDepth.get() : 0;
+    }
+
+    public static long getNumDispatchedMessages(Domain domain) {
+        DomainExecutor domainExecutor = domainExecutors.get(domain);
+        return domainExecutor != null ? domainExecutor.numDispatchedMessages.get() : 0;
+    }
+
+    public static String getMetrics() {
+        StringBuilder sb = new StringBuilder("MessageDispatcher metrics:");
+        domainExecutors.keySet().forEach(domain -> sb.append("\n\t").append(domain)
+                .append(": queueDepth=").append(getQueueDepth(domain))
+                .append(", maxQueueDepth=").append(getMaxQueueDepth(domain))
+                .append(", numDispatchedMessages=").append(getNumDispatchedMessages(domain)));
+        return sb.toString();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // DomainExecutor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class DomainExecutor {
+        private final Domain domain;
+        private final AtomicInteger queueDepth = new AtomicInteger();
+        private final AtomicInteger maxQueueDepth = new AtomicInteger();
+        private final AtomicLong numDispatchedMessages = new AtomicLong();
+        // Created at first use, except for USER_THREAD where we use the executor set at UserThread
+        private Executor executor;
+
+        private DomainExecutor(Domain domain) {
+            this.domain = domain;
+        }
+
+        private void execute(Runnable task) {
+            int depth = queueDepth.incrementAndGet();
+            maxQueueDepth.accumulateAndGet(depth, Math::max);
+            numDispatchedMessages.incrementAndGet();
+            if (depth == QUEUE_DEPTH_WARN_THRESHOLD)
+                log.warn("The message queue of domain {} has reached {} messages. {}", domain, depth, getMetrics());
+
+            Runnable wrappedTask = () -> {
+                try {
+                    task.run();
+                } finally {
+                    queueDepth.decrementAndGet();
+                }
+            };
+
+            if (domain == Domain.USER_THREAD)
+                UserThread.execute(wrappedTask);
+            else
+                getExecutor().execute(wrappedTask);
+        }
+
+        private synchronized Executor getExecutor() {
+            if (executor == null)
+                executor = Utilities.getSingleThreadExecutor("MessageDispatcher-" + domain);
+            return executor;
+        }
+    }
+}
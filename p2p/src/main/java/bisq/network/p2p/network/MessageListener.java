@@ -21,4 +21,9 @@ import bisq.common.proto.network.NetworkEnvelope;
 
 public interface MessageListener {
     void onMessage(NetworkEnvelope networkEnvelope, Connection connection);
+
+    // Listeners which are not confined to the UserThread can use another domain, see MessageDispatcher
+    default MessageDispatcher.Domain getDispatchDomain() {
+        return MessageDispatcher.Domain.USER_THREAD;
+    }
 }
@@ -0,0 +1,130 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.common.proto.network.NetworkEnvelope;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Throttles the received messages of a connection. We use the limits per sec and per 10 sec for all messages and
+ * optionally a limit per sec for single message types as configured in ConnectionConfig.
+ * <p/>
+ * Messages must be added by the thread reading from the connection only. The counters can be read from any thread.
+ * The totals over all connections are kept in static counters so they survive closed connections (used by the
+ * monitor).
+ */
+@NotThreadSafe
+@Slf4j
+public class MessageRateLimiter {
+    private static final LongAdder totalNumMessages = new LongAdder();
+    private static final Map<String, LongAdder> totalNumViolationsByType = new ConcurrentHashMap<>();
+
+    public static long getTotalNumMessages() {
+        return totalNumMessages.sum();
+    }
+
+    // Key is the simple class name of the message or the limit (e.g. "perSec") which got violated
+    public static Map<String, Long> getTotalNumViolationsByType() {
+        Map<String, Long> result = new HashMap<>();
+        totalNumViolationsByType.forEach((key, value) -> result.put(key, value.sum()));
+        return result;
+    }
+
+    private final RateLimiter perSecRateLimiter;
+    private final RateLimiter per10SecRateLimiter;
+    private final Map<String, Integer> msgThrottlePerSecByType;
+    // We look up the limiter by class to avoid the string allocations. Null values mark message types without a
+    // quota.
+    private final Map<Class<? extends NetworkEnvelope>, RateLimiter> rateLimiterByType = new HashMap<>();
+    private volatile long numViolations;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public MessageRateLimiter(ConnectionConfig connectionConfig) {
+        perSecRateLimiter = new RateLimiter(connectionConfig.getMsgThrottlePerSec(), TimeUnit.SECONDS.toMillis(1));
+        per10SecRateLimiter = new RateLimiter(connectionConfig.getMsgThrottlePer10Sec(), TimeUnit.SECONDS.toMillis(10));
+        msgThrottlePerSecByType = connectionConfig.getMsgThrottlePerSecByType();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public boolean violatesLimit(NetworkEnvelope networkEnvelope, long now) {
+        totalNumMessages.increment();
+
+        // All limiters need to see the message, so we don't short circuit
+        boolean violatesPerSec = perSecRateLimiter.add(now);
+        boolean violatesPer10Sec = per10SecRateLimiter.add(now);
+        RateLimiter typeRateLimiter = getRateLimiter(networkEnvelope.getClass());
+        boolean violatesPerType = typeRateLimiter != null && typeRateLimiter.add(now);
+
+        if (violatesPerSec) {
+            onViolation("perSec", perSecRateLimiter, networkEnvelope);
+        } else if (violatesPer10Sec) {
+            onViolation("per10Sec", per10SecRateLimiter, networkEnvelope);
+        } else if (violatesPerType) {
+            onViolation(networkEnvelope.getClass().getSimpleName(), typeRateLimiter, networkEnvelope);
+        }
+        return violatesPerSec || violatesPer10Sec || violatesPerType;
+    }
+
+    public long getNumMessages() {
+        return perSecRateLimiter.getNumEvents();
+    }
+
+    public long getNumViolations() {
+        return numViolations;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private RateLimiter getRateLimiter(Class<? extends NetworkEnvelope> type) {
+        RateLimiter rateLimiter = rateLimiterByType.get(type);
+        if (rateLimiter == null && !rateLimiterByType.containsKey(type)) {
+            Integer limit = msgThrottlePerSecByType.get(type.getSimpleName());
+            rateLimiter = limit != null ? new RateLimiter(limit, TimeUnit.SECONDS.toMillis(1)) : null;
+            rateLimiterByType.put(type, rateLimiter);
+        }
+        return rateLimiter;
+    }
+
+    private void onViolation(String limitName, RateLimiter rateLimiter, NetworkEnvelope networkEnvelope) {
+        numViolations++;
+        totalNumViolationsByType.computeIfAbsent(limitName, key -> new LongAdder()).increment();
+        log.error("violatesThrottleLimit {}: We received more than {} messages within {} ms. Last message={}",
+                limitName, rateLimiter.getMaxEvents(), rateLimiter.getWindowMillis(),
+                networkEnvelope.getClass().getSimpleName());
+    }
+}
@@ -72,6 +72,9 @@ public abstract class NetworkNode implements MessageListener {
     final CopyOnWriteArraySet<SetupListener> setupListeners = new CopyOnWriteArraySet<>();
     ListeningExecutorService executorService;
     private Server server;
+    // Set by subclasses which support the non-blocking NIO transport
+    @Nullable
+    NioSelectorPool selectorPool;
 
     private volatile boolean shutDownInProgress;
     // accessed from different threads
@@ -180,7 +183,8 @@ public abstract class NetworkNode implements MessageListener {
                                 NetworkNode.this,
                                 connectionListener,
                                 peersNodeAddress,
-                                networkProtoResolver);
+                                networkProtoResolver,
+                                selectorPool);
 
                         log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
                                 "NetworkNode created new outbound connection:"
@@ -262,10 +266,19 @@ public abstract class NetworkNode implements MessageListener {
 
 
     public SettableFuture<Connection> sendMessage(Connection connection, NetworkEnvelope networkEnvelope) {
+        return sendMessage(connection, () -> connection.sendMessage(networkEnvelope));
+    }
+
+    // Used for broadcasts, where the same envelope is sent to many peers
+    public SettableFuture<Connection> sendMessage(Connection connection, PreSerializedEnvelope preSerializedEnvelope) {
+        return sendMessage(connection, () -> connection.sendMessage(preSerializedEnvelope));
+    }
+
+    private SettableFuture<Connection> sendMessage(Connection connection, Runnable sendTask) {
         // connection.sendMessage might take a bit (compression, write to stream), so we use a thread to not block
         ListenableFuture<Connection> future = executorService.submit(() -> {
             Thread.currentThread().setName("NetworkNode:SendMessage-to-" + connection.getUid());
-            connection.sendMessage(networkEnvelope);
+            sendTask.run();
             return connection;
         });
         final SettableFuture<Connection> resultFuture = SettableFuture.create();
@@ -318,6 +331,11 @@ public abstract class NetworkNode implements MessageListener {
             }
 
             getAllConnections().stream().forEach(c -> c.shutDown(CloseConnectionReason.APP_SHUT_DOWN));
+
+            // The connections send the CloseConnectionMessage directly if the socket buffer has capacity, so we
+            // don't need to wait for the selector threads.
+            if (selectorPool != null)
+                selectorPool.shutDown();
             log.debug("NetworkNode shutdown complete");
         }
         if (shutDownCompleteHandler != null) shutDownCompleteHandler.run();
@@ -339,9 +357,15 @@ public abstract class NetworkNode implements MessageListener {
     // MessageListener implementation
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Called on the thread which has read the message. We dispatch to our listeners by their domain.
     @Override
     public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
-        messageListeners.stream().forEach(e -> e.onMessage(networkEnvelope, connection));
+        MessageDispatcher.dispatch(networkEnvelope, connection, messageListeners);
+    }
+
+    @Override
+    public MessageDispatcher.Domain getDispatchDomain() {
+        return MessageDispatcher.Domain.DIRECT;
     }
 
 
@@ -415,7 +439,8 @@ public abstract class NetworkNode implements MessageListener {
         server = new Server(serverSocket,
                 NetworkNode.this,
                 connectionListener,
-                networkProtoResolver);
+                networkProtoResolver,
+                selectorPool);
         executorService.submit(server);
     }
 
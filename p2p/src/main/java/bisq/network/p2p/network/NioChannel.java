@@ -0,0 +1,300 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+import java.net.SocketTimeoutException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Non-blocking counterpart of the socket streams used by Connection. Reads are done by the selector thread of the
+ * NioSelectorPool the channel is registered at. It splits the incoming bytes into the varint length delimited frames
+ * written by PB.NetworkEnvelope.writeDelimitedTo and passes each complete frame to the handler.
+ * Writes are done directly from the calling thread as long as the socket buffer accepts the data, the rest is queued
+ * and written by the selector thread once the socket gets writable.
+ */
+@Slf4j
+class NioChannel {
+    interface Handler {
+        // Called on the selector thread. Return false to stop reading from that channel.
+        boolean onFrame(byte[] frame);
+
+        void onEndOfStream();
+
+        void onException(Throwable throwable);
+    }
+
+    private static final int INITIAL_READ_BUFFER_SIZE = 64 * 1024;
+    // The varint length prefix of a frame has at most 5 bytes
+    private static final int MAX_LENGTH_PREFIX_SIZE = 5;
+    // As long as the peer does not read our data we queue it. If the queue gets too large we close the connection
+    // instead of blocking the sender like the blocking socket would do.
+    private static final int MAX_PENDING_WRITE_BYTES = 3 * Connection.MAX_PERMITTED_MESSAGE_SIZE;
+
+    private final SocketChannel socketChannel;
+    private final NioSelectorPool.SelectorThread selectorThread;
+    private final Handler handler;
+    private final int maxFrameSize;
+    private final long timeout;
+
+    // Only accessed by the selector thread
+    @Nullable
+    private SelectionKey selectionKey;
+    private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER_SIZE);
+    private long lastReadTimeStamp;
+    private boolean readingStopped;
+
+    // Guarded by pendingWrites
+    private final Queue<ByteBuffer> pendingWrites = new ArrayDeque<>();
+    private long numPendingWriteBytes;
+
+    private final ChannelOutputStream outputStream = new ChannelOutputStream();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    NioChannel(SocketChannel socketChannel,
+               NioSelectorPool.SelectorThread selectorThread,
+               Handler handler,
+               int maxFrameSize,
+               long timeout) {
+        this.socketChannel = socketChannel;
+        this.selectorThread = selectorThread;
+        this.handler = handler;
+        this.maxFrameSize = maxFrameSize;
+        this.timeout = timeout;
+        lastReadTimeStamp = System.currentTimeMillis();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The stream collects the written bytes and passes them on flush to write(). It must not be used by multiple
+    // threads at the same time.
+    OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    // Can be called from any thread
+    void write(ByteBuffer buffer) throws IOException {
+        synchronized (pendingWrites) {
+            if (numPendingWriteBytes + buffer.remaining() > MAX_PENDING_WRITE_BYTES)
+                throw new IOException("Peer does not read our data. We have " + numPendingWriteBytes +
+                        " bytes pending.");
+
+            if (pendingWrites.isEmpty()) {
+                socketChannel.write(buffer);
+                if (!buffer.hasRemaining())
+                    return;
+            }
+
+            pendingWrites.add(buffer);
+            numPendingWriteBytes += buffer.remaining();
+        }
+        selectorThread.execute(() -> updateInterestOps(SelectionKey.OP_WRITE, true));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Called by selector thread
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void onRegistered(SelectionKey selectionKey) {
+        this.selectionKey = selectionKey;
+    }
+
+    void onSelected() {
+        try {
+            if (selectionKey == null || !selectionKey.isValid())
+                return;
+
+            if (selectionKey.isReadable())
+                read();
+
+            if (selectionKey.isValid() && selectionKey.isWritable())
+                writePending();
+        } catch (Throwable t) {
+            closeOnException(t);
+        }
+    }
+
+    void checkTimeout(long now) {
+        if (!readingStopped && now - lastReadTimeStamp > timeout)
+            closeOnException(new SocketTimeoutException("No data received for " + (now - lastReadTimeStamp) + " ms"));
+    }
+
+    void onException(Throwable throwable) {
+        closeOnException(throwable);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void read() throws IOException {
+        int numBytes = socketChannel.read(readBuffer);
+        if (numBytes == -1) {
+            cancelKey();
+            handler.onEndOfStream();
+            return;
+        }
+
+        lastReadTimeStamp = System.currentTimeMillis();
+        readBuffer.flip();
+        int requiredCapacity = 0;
+        while (!readingStopped && socketChannel.isOpen()) {
+            int frameStart = readBuffer.position();
+            int length = readLengthPrefix(readBuffer);
+            if (length == -1) {
+                readBuffer.position(frameStart);
+                break;
+            }
+
+            if (length > maxFrameSize)
+                throw new StreamCorruptedException("Invalid frame size of " + length + " bytes");
+
+            if (readBuffer.remaining() < length) {
+                requiredCapacity = readBuffer.position() - frameStart + length;
+                readBuffer.position(frameStart);
+                break;
+            }
+
+            byte[] frame = new byte[length];
+            readBuffer.get(frame);
+            if (!handler.onFrame(frame)) {
+                readingStopped = true;
+                updateInterestOps(SelectionKey.OP_READ, false);
+            }
+        }
+        readBuffer.compact();
+
+        if (requiredCapacity > readBuffer.capacity()) {
+            readBuffer = copyToNewBuffer(readBuffer, requiredCapacity);
+        } else if (readBuffer.position() == 0 && readBuffer.capacity() > INITIAL_READ_BUFFER_SIZE) {
+            // We don't want to keep a large buffer after we have received a large message
+            readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER_SIZE);
+        }
+    }
+
+    private void writePending() throws IOException {
+        synchronized (pendingWrites) {
+            while (!pendingWrites.isEmpty()) {
+                ByteBuffer buffer = pendingWrites.peek();
+                numPendingWriteBytes -= socketChannel.write(buffer);
+                if (buffer.hasRemaining())
+                    return;
+
+                pendingWrites.poll();
+            }
+        }
+        updateInterestOps(SelectionKey.OP_WRITE, false);
+    }
+
+    private void updateInterestOps(int ops, boolean add) {
+        if (selectionKey != null && selectionKey.isValid())
+            selectionKey.interestOps(add ? selectionKey.interestOps() | ops : selectionKey.interestOps() & ~ops);
+    }
+
+    private void closeOnException(Throwable throwable) {
+        cancelKey();
+        handler.onException(throwable);
+    }
+
+    private void cancelKey() {
+        readingStopped = true;
+        if (selectionKey != null)
+            selectionKey.cancel();
+    }
+
+    private static ByteBuffer copyToNewBuffer(ByteBuffer buffer, int capacity) {
+        ByteBuffer newBuffer = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        newBuffer.put(buffer);
+        return newBuffer;
+    }
+
+    // Returns -1 if the buffer does not contain the complete length prefix yet
+    private static int readLengthPrefix(ByteBuffer buffer) throws StreamCorruptedException {
+        int result = 0;
+        for (int i = 0; i < MAX_LENGTH_PREFIX_SIZE; i++) {
+            if (!buffer.hasRemaining())
+                return -1;
+
+            byte b = buffer.get();
+            result |= (b & 0x7F) << (7 * i);
+            if ((b & 0x80) == 0) {
+                if (result < 0)
+                    break;
+                return result;
+            }
+        }
+        throw new StreamCorruptedException("Malformed length prefix");
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // ChannelOutputStream
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private class ChannelOutputStream extends OutputStream {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        @Override
+        public void write(int b) {
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            buffer.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (buffer.size() > 0) {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer.toByteArray());
+                buffer.reset();
+                NioChannel.this.write(byteBuffer);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socketChannel.close();
+        }
+    }
+}
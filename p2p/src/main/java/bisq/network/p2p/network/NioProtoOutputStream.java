@@ -0,0 +1,49 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.common.proto.network.NetworkEnvelope;
+
+import java.io.OutputStream;
+
+import java.util.List;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * ProtoOutputStream for NIO connections. Writing to the NioChannel only enqueues the data and never blocks on the
+ * socket, so a lock is sufficient to keep the messages of concurrent senders apart. Unlike
+ * SynchronizedProtoOutputStream we don't need a writer thread per connection.
+ */
+@ThreadSafe
+class NioProtoOutputStream extends ProtoOutputStream {
+
+    NioProtoOutputStream(OutputStream delegate, Statistic statistic) {
+        super(delegate, statistic);
+    }
+
+    @Override
+    synchronized void writeEnvelope(NetworkEnvelope envelope) {
+        super.writeEnvelope(envelope);
+    }
+
+    @Override
+    synchronized void writeEnvelopes(List<PreSerializedEnvelope> envelopes) {
+        super.writeEnvelopes(envelopes);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Small pool of selector threads which handle reading, framing and protobuf decoding for all NIO connections of a
+ * NetworkNode. With the blocking sockets each connection needs its own InputHandler thread and writer thread, which
+ * results in hundreds of mostly idle threads at seed nodes.
+ * <p/>
+ * Connections are assigned round robin to the selector threads. The threads are started at the first registration.
+ */
+@Slf4j
+class NioSelectorPool {
+    private static final long TIMEOUT_CHECK_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+
+    static int getDefaultNumThreads() {
+        return Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    private final String name;
+    private final int numThreads;
+    private final List<SelectorThread> selectorThreads = new ArrayList<>();
+    private final AtomicInteger nextThreadIndex = new AtomicInteger();
+    private volatile boolean stopped;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    NioSelectorPool(String name, int numThreads) {
+        this.name = name;
+        this.numThreads = numThreads;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The channel gets set to non-blocking mode, so the socket streams must not be used afterwards.
+    NioChannel register(SocketChannel socketChannel,
+                        NioChannel.Handler handler,
+                        int maxFrameSize,
+                        long timeout) throws IOException {
+        SelectorThread selectorThread = getNextSelectorThread();
+        socketChannel.configureBlocking(false);
+        NioChannel nioChannel = new NioChannel(socketChannel, selectorThread, handler, maxFrameSize, timeout);
+        selectorThread.execute(() -> {
+            try {
+                nioChannel.onRegistered(socketChannel.register(selectorThread.selector, SelectionKey.OP_READ, nioChannel));
+            } catch (Throwable t) {
+                nioChannel.onException(t);
+            }
+        });
+        return nioChannel;
+    }
+
+    synchronized void shutDown() {
+        stopped = true;
+        selectorThreads.forEach(SelectorThread::shutDown);
+        selectorThreads.clear();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private synchronized SelectorThread getNextSelectorThread() throws IOException {
+        if (stopped)
+            throw new IOException("NioSelectorPool is already shut down");
+
+        if (selectorThreads.isEmpty()) {
+            for (int i = 0; i < numThreads; i++) {
+                SelectorThread selectorThread = new SelectorThread(Selector.open());
+                Thread thread = new Thread(selectorThread, "NioSelector-" + name + "-" + i);
+                thread.setDaemon(true);
+                thread.start();
+                selectorThreads.add(selectorThread);
+            }
+            log.info("Started {} selector threads for {}", numThreads, name);
+        }
+
+        return selectorThreads.get(Math.floorMod(nextThreadIndex.getAndIncrement(), selectorThreads.size()));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // SelectorThread
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    static class SelectorThread implements Runnable {
+        private final Selector selector;
+        private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
+        private volatile boolean stopped;
+        private long lastTimeoutCheck;
+
+        private SelectorThread(Selector selector) {
+            this.selector = selector;
+        }
+
+        // Changes of the registration or interest ops are only done at the selector thread
+        void execute(Runnable task) {
+            pendingTasks.add(task);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (!stopped) {
+                try {
+                    selector.select(TIMEOUT_CHECK_INTERVAL);
+
+                    Runnable task;
+                    while ((task = pendingTasks.poll()) != null) {
+                        task.run();
+                    }
+
+                    Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                    while (iterator.hasNext()) {
+                        SelectionKey selectionKey = iterator.next();
+                        iterator.remove();
+                        ((NioChannel) selectionKey.attachment()).onSelected();
+                    }
+
+                    long now = System.currentTimeMillis();
+                    if (now - lastTimeoutCheck >= TIMEOUT_CHECK_INTERVAL) {
+                        lastTimeoutCheck = now;
+                        selector.keys().stream()
+                                .filter(SelectionKey::isValid)
+                                .forEach(selectionKey -> ((NioChannel) selectionKey.attachment()).checkTimeout(now));
+                    }
+                } catch (Throwable t) {
+                    log.error("Error at selector loop", t);
+                }
+            }
+
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.error("Could not close selector", e);
+            }
+        }
+
+        private void shutDown() {
+            stopped = true;
+            selector.wakeup();
+        }
+    }
+}
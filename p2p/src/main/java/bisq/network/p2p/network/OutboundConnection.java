@@ -23,6 +23,8 @@ import bisq.common.proto.network.NetworkProtoResolver;
 
 import java.net.Socket;
 
+import javax.annotation.Nullable;
+
 public class OutboundConnection extends Connection {
     public OutboundConnection(Socket socket,
                               MessageListener messageListener,
@@ -31,4 +33,13 @@ public class OutboundConnection extends Connection {
                               NetworkProtoResolver networkProtoResolver) {
         super(socket, messageListener, connectionListener, peersNodeAddress, networkProtoResolver);
     }
+
+    OutboundConnection(Socket socket,
+                       MessageListener messageListener,
+                       ConnectionListener connectionListener,
+                       NodeAddress peersNodeAddress,
+                       NetworkProtoResolver networkProtoResolver,
+                       @Nullable NioSelectorPool selectorPool) {
+        super(socket, messageListener, connectionListener, peersNodeAddress, networkProtoResolver, selectorPool);
+    }
 }
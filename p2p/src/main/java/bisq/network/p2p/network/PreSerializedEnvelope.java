@@ -0,0 +1,56 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.common.proto.network.NetworkEnvelope;
+
+import io.bisq.generated.protobuffer.PB;
+
+import com.google.protobuf.CodedOutputStream;
+
+import java.io.IOException;
+
+import lombok.Getter;
+
+/**
+ * Holds a NetworkEnvelope together with its serialized form. Used for broadcasts, where the same message is sent to
+ * many peers, so the protobuf serialization is done once and not again for each connection.
+ */
+@Getter
+public final class PreSerializedEnvelope {
+    private final NetworkEnvelope networkEnvelope;
+    // Varint length prefix followed by the serialized PB.NetworkEnvelope, same as written by writeDelimitedTo
+    private final byte[] delimitedBytes;
+    private final int serializedSize;
+
+    public PreSerializedEnvelope(NetworkEnvelope networkEnvelope) {
+        this.networkEnvelope = networkEnvelope;
+
+        PB.NetworkEnvelope proto = networkEnvelope.toProtoNetworkEnvelope();
+        serializedSize = proto.getSerializedSize();
+        delimitedBytes = new byte[CodedOutputStream.computeUInt32SizeNoTag(serializedSize) + serializedSize];
+        try {
+            CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(delimitedBytes);
+            codedOutputStream.writeUInt32NoTag(serializedSize);
+            proto.writeTo(codedOutputStream);
+            codedOutputStream.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new BisqRuntimeException("Failed to serialize envelope", e);
+        }
+    }
+}
@@ -23,9 +23,12 @@ import bisq.common.proto.network.NetworkEnvelope;
 
 import io.bisq.generated.protobuffer.PB;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,6 +55,16 @@ class ProtoOutputStream {
         }
     }
 
+    // The envelopes are written with one write and flush
+    void writeEnvelopes(List<PreSerializedEnvelope> envelopes) {
+        try {
+            writeEnvelopesOrThrow(envelopes);
+        } catch (IOException e) {
+            log.error("Failed to write envelopes", e);
+            throw new BisqRuntimeException("Failed to write envelopes", e);
+        }
+    }
+
     void onConnectionShutdown() {
         try {
             delegate.close();
@@ -65,7 +78,27 @@ class ProtoOutputStream {
         proto.writeDelimitedTo(delegate);
         delegate.flush();
 
-        statistic.addSentBytes(proto.getSerializedSize());
+        onEnvelopeWritten(envelope, proto.getSerializedSize());
+    }
+
+    private void writeEnvelopesOrThrow(List<PreSerializedEnvelope> envelopes) throws IOException {
+        if (envelopes.size() == 1) {
+            delegate.write(envelopes.get(0).getDelimitedBytes());
+        } else {
+            int size = envelopes.stream().mapToInt(e -> e.getDelimitedBytes().length).sum();
+            ByteArrayOutputStream batch = new ByteArrayOutputStream(size);
+            for (PreSerializedEnvelope envelope : envelopes) {
+                batch.write(envelope.getDelimitedBytes());
+            }
+            batch.writeTo(delegate);
+        }
+        delegate.flush();
+
+        envelopes.forEach(e -> onEnvelopeWritten(e.getNetworkEnvelope(), e.getSerializedSize()));
+    }
+
+    private void onEnvelopeWritten(NetworkEnvelope envelope, int serializedSize) {
+        statistic.addSentBytes(serializedSize);
         statistic.addSentMessage(envelope);
 
         if (!(envelope instanceof KeepAliveMessage)) {
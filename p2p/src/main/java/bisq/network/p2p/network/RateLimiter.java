@@ -0,0 +1,79 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Sliding window rate limiter which allows maxEvents within windowMillis. The timestamps of the last maxEvents events
+ * are kept in a ring buffer, so adding an event does not allocate.
+ * <p/>
+ * Events must be added by one thread only (the thread reading from the connection). The counters can be read from
+ * any thread.
+ */
+@NotThreadSafe
+public class RateLimiter {
+    private final int maxEvents;
+    private final long windowMillis;
+    private final long[] timestamps;
+    // Index of the oldest timestamp, which is the one getting overwritten by the next event
+    private int head;
+
+    private volatile long numEvents;
+    private volatile long numViolations;
+
+    public RateLimiter(int maxEvents, long windowMillis) {
+        checkArgument(maxEvents > 0, "maxEvents must be positive");
+        this.maxEvents = maxEvents;
+        this.windowMillis = windowMillis;
+        timestamps = new long[maxEvents];
+    }
+
+    /**
+     * Adds an event and returns true if there have been more than maxEvents events within windowMillis, including
+     * the new one. The event is counted also if the limit is violated.
+     */
+    public boolean add(long now) {
+        // Once we have seen maxEvents events the oldest one must be outside of the window
+        boolean violated = numEvents >= maxEvents && now - timestamps[head] < windowMillis;
+        timestamps[head] = now;
+        head = head + 1 == maxEvents ? 0 : head + 1;
+        numEvents++;
+        if (violated)
+            numViolations++;
+        return violated;
+    }
+
+    public int getMaxEvents() {
+        return maxEvents;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public long getNumEvents() {
+        return numEvents;
+    }
+
+    public long getNumViolations() {
+        return numViolations;
+    }
+}
@@ -21,6 +21,7 @@ import bisq.common.proto.network.NetworkEnvelope;
 
 import java.io.OutputStream;
 
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -44,7 +45,16 @@ class SynchronizedProtoOutputStream extends ProtoOutputStream {
 
     @Override
     void writeEnvelope(NetworkEnvelope envelope) {
-        Future<?> future = executorService.submit(() -> super.writeEnvelope(envelope));
+        executeAndWait(() -> super.writeEnvelope(envelope));
+    }
+
+    @Override
+    void writeEnvelopes(List<PreSerializedEnvelope> envelopes) {
+        executeAndWait(() -> super.writeEnvelopes(envelopes));
+    }
+
+    private void executeAndWait(Runnable task) {
+        Future<?> future = executorService.submit(task);
         try {
             future.get();
         } catch (InterruptedException e) {
@@ -20,6 +20,7 @@ package bisq.network.p2p.peers;
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.network.PreSerializedEnvelope;
 import bisq.network.p2p.storage.messages.BroadcastMessage;
 
 import bisq.common.Timer;
@@ -36,6 +37,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -112,6 +114,12 @@ public class BroadcastHandler implements PeerManager.Listener {
 
     public void broadcast(BroadcastMessage message, @Nullable NodeAddress sender, ResultHandler resultHandler,
                           @Nullable Listener listener, boolean isDataOwner) {
+        broadcast(message, sender, resultHandler, listener, isDataOwner, connection -> true);
+    }
+
+    // The peerFilter restricts the peers we broadcast to (e.g. to peers supporting a capability)
+    public void broadcast(BroadcastMessage message, @Nullable NodeAddress sender, ResultHandler resultHandler,
+                          @Nullable Listener listener, boolean isDataOwner, Predicate<Connection> peerFilter) {
         this.message = message;
         this.resultHandler = resultHandler;
         this.listener = listener;
@@ -119,6 +127,7 @@ public class BroadcastHandler implements PeerManager.Listener {
         Set<Connection> connectedPeersSet = networkNode.getConfirmedConnections()
                 .stream()
                 .filter(connection -> !connection.getPeersNodeAddressOptional().get().equals(sender))
+                .filter(peerFilter)
                 .collect(Collectors.toSet());
         if (!connectedPeersSet.isEmpty()) {
             numOfCompletedBroadcasts = 0;
@@ -145,6 +154,8 @@ public class BroadcastHandler implements PeerManager.Listener {
             }, timeoutDelay);
 
             log.debug("Broadcast message to {} peers out of {} total connected peers.", numPeers, connectedPeersSet.size());
+            // We serialize the message only once for all peers
+            PreSerializedEnvelope preSerializedEnvelope = new PreSerializedEnvelope(message);
             for (int i = 0; i < numPeers; i++) {
                 if (stopped)
                     break;  // do not continue sending after a timeout or a cancellation
@@ -152,7 +163,7 @@ public class BroadcastHandler implements PeerManager.Listener {
                 final long minDelay = (i + 1) * delay;
                 final long maxDelay = (i + 2) * delay;
                 final Connection connection = connectedPeersList.get(i);
-                UserThread.runAfterRandomDelay(() -> sendToPeer(connection, message), minDelay, maxDelay, TimeUnit.MILLISECONDS);
+                UserThread.runAfterRandomDelay(() -> sendToPeer(connection, preSerializedEnvelope), minDelay, maxDelay, TimeUnit.MILLISECONDS);
             }
         } else {
             onFault("Message not broadcasted because we have no available peers yet.\n\t" +
@@ -160,14 +171,14 @@ public class BroadcastHandler implements PeerManager.Listener {
         }
     }
 
-    private void sendToPeer(Connection connection, BroadcastMessage message) {
+    private void sendToPeer(Connection connection, PreSerializedEnvelope preSerializedEnvelope) {
         String errorMessage = "Message not broadcasted because we have stopped the handler already.\n\t" +
                 "message = " + Utilities.toTruncatedString(message);
         if (!stopped) {
             if (!connection.isStopped()) {
                 if (connection.noCapabilityRequiredOrCapabilityIsSupported(message)) {
                     NodeAddress nodeAddress = connection.getPeersNodeAddressOptional().get();
-                    SettableFuture<Connection> future = networkNode.sendMessage(connection, message);
+                    SettableFuture<Connection> future = networkNode.sendMessage(connection, preSerializedEnvelope);
                     Futures.addCallback(future, new FutureCallback<Connection>() {
                         @Override
                         public void onSuccess(Connection connection) {
@@ -18,6 +18,7 @@
 package bisq.network.p2p.peers;
 
 import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.storage.messages.BroadcastMessage;
 
@@ -25,6 +26,7 @@ import javax.inject.Inject;
 
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Predicate;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -57,8 +59,14 @@ public class Broadcaster implements BroadcastHandler.ResultHandler {
 
     public void broadcast(BroadcastMessage message, @Nullable NodeAddress sender,
                           @Nullable BroadcastHandler.Listener listener, boolean isDataOwner) {
+        broadcast(message, sender, listener, isDataOwner, connection -> true);
+    }
+
+    public void broadcast(BroadcastMessage message, @Nullable NodeAddress sender,
+                          @Nullable BroadcastHandler.Listener listener, boolean isDataOwner,
+                          Predicate<Connection> peerFilter) {
         BroadcastHandler broadcastHandler = new BroadcastHandler(networkNode, peerManager);
-        broadcastHandler.broadcast(message, sender, this, listener, isDataOwner);
+        broadcastHandler.broadcast(message, sender, this, listener, isDataOwner, peerFilter);
         broadcastHandlers.add(broadcastHandler);
     }
 
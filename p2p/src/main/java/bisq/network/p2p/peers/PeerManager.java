@@ -568,6 +568,28 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
         return seedNodeAddresses.contains(reportedPeer.getNodeAddress());
     }
 
+    // Returns the capabilities of the peer from our connection or, if not available yet, from the persisted or
+    // reported peers.
+    public Optional<Capabilities> findPeersCapabilities(NodeAddress nodeAddress) {
+        Optional<Capabilities> capabilitiesFromConnection = networkNode.getConfirmedConnections().stream()
+                .filter(connection -> connection.getPeersNodeAddressOptional().get().equals(nodeAddress))
+                .map(Connection::getCapabilities)
+                .filter(capabilities -> !capabilities.isEmpty())
+                .findAny();
+        if (capabilitiesFromConnection.isPresent())
+            return capabilitiesFromConnection;
+
+        // We might have multiple entries of the same peer without the supportedCapabilities field set if we received
+        // it from old versions, so we filter those.
+        Set<Peer> allPeers = new HashSet<>(getPersistedPeers());
+        allPeers.addAll(getReportedPeers());
+        return allPeers.stream()
+                .filter(peer -> peer.getNodeAddress().equals(nodeAddress))
+                .map(Peer::getCapabilities)
+                .filter(capabilities -> !capabilities.isEmpty())
+                .findAny();
+    }
+
     public boolean isSeedNode(NodeAddress nodeAddress) {
         return seedNodeAddresses.contains(nodeAddress);
     }
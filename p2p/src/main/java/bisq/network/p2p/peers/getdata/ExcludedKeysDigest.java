@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata;
+
+import java.nio.ByteBuffer;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Compact summary of the keys a node has already in its append-only and protected data stores. It replaces the list
+ * of 20 byte keys in the GetDataRequest if the seed node supports Capability.EXCLUDED_KEYS_DIGEST.
+ * <p/>
+ * We only transfer the first 8 bytes of each key, sorted and packed into one byte array. That cuts the request size by
+ * about 60% compared to the repeated bytes field with per element overhead, and the seed node can do the lookup by
+ * binary search on the primitive array without creating a ByteArray object per key.
+ * <p/>
+ * A seed node data item would be wrongly excluded only if its key collides in the first 64 bits with one of the
+ * requesters keys. With n requester keys and m seed node items the probability is about n*m/2^64, which is negligible
+ * for our data set sizes. Unlike a Bloom filter we never skip data because of a false positive at a realistic rate.
+ */
+@Slf4j
+public final class ExcludedKeysDigest {
+    static final int PREFIX_SIZE = 8;
+
+    private final long[] sortedPrefixes;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private ExcludedKeysDigest(long[] sortedPrefixes) {
+        this.sortedPrefixes = sortedPrefixes;
+    }
+
+    public static byte[] toBytes(Collection<byte[]> keys) {
+        long[] prefixes = keys.stream().mapToLong(ExcludedKeysDigest::getPrefix).sorted().distinct().toArray();
+        ByteBuffer buffer = ByteBuffer.allocate(prefixes.length * PREFIX_SIZE);
+        for (long prefix : prefixes) {
+            buffer.putLong(prefix);
+        }
+        return buffer.array();
+    }
+
+    @Nullable
+    public static ExcludedKeysDigest fromBytes(@Nullable byte[] bytes) {
+        if (bytes == null || bytes.length == 0)
+            return null;
+
+        if (bytes.length % PREFIX_SIZE != 0) {
+            log.warn("ExcludedKeysDigest has an invalid size of {} bytes. We ignore it.", bytes.length);
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long[] prefixes = new long[bytes.length / PREFIX_SIZE];
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = buffer.getLong();
+        }
+        // We don't trust the peer to have sorted the array
+        Arrays.sort(prefixes);
+        return new ExcludedKeysDigest(prefixes);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public boolean contains(byte[] key) {
+        return Arrays.binarySearch(sortedPrefixes, getPrefix(key)) >= 0;
+    }
+
+    public int size() {
+        return sortedPrefixes.length;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static long getPrefix(byte[] key) {
+        long prefix = 0;
+        for (int i = 0; i < PREFIX_SIZE; i++) {
+            prefix <<= 8;
+            if (i < key.length)
+                prefix |= key[i] & 0xFF;
+        }
+        return prefix;
+    }
+}
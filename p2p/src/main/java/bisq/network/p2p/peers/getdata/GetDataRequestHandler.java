@@ -47,6 +47,8 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class GetDataRequestHandler {
     private static final long TIMEOUT = 90;
@@ -90,8 +92,9 @@ public class GetDataRequestHandler {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void handle(GetDataRequest getDataRequest, final Connection connection) {
-        GetDataResponse getDataResponse = new GetDataResponse(getFilteredProtectedStorageEntries(getDataRequest, connection),
-                getFilteredPersistableNetworkPayload(getDataRequest, connection),
+        ExcludedKeysDigest excludedKeysDigest = ExcludedKeysDigest.fromBytes(getDataRequest.getExcludedKeysDigest());
+        GetDataResponse getDataResponse = new GetDataResponse(getFilteredProtectedStorageEntries(getDataRequest, excludedKeysDigest, connection),
+                getFilteredPersistableNetworkPayload(getDataRequest, excludedKeysDigest, connection),
                 getDataRequest.getNonce(),
                 getDataRequest instanceof GetUpdatedDataRequest);
 
@@ -132,25 +135,29 @@ public class GetDataRequestHandler {
         });
     }
 
-    private Set<PersistableNetworkPayload> getFilteredPersistableNetworkPayload(GetDataRequest getDataRequest, Connection connection) {
+    private Set<PersistableNetworkPayload> getFilteredPersistableNetworkPayload(GetDataRequest getDataRequest,
+                                                                                @Nullable ExcludedKeysDigest excludedKeysDigest,
+                                                                                Connection connection) {
         final Set<P2PDataStorage.ByteArray> tempLookupSet = new HashSet<>();
         Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray = P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
 
         return dataStorage.getAppendOnlyDataStoreMap().entrySet().stream()
-                .filter(e -> !excludedKeysAsByteArray.contains(e.getKey()))
+                .filter(e -> !isExcluded(e.getKey(), excludedKeysAsByteArray, excludedKeysDigest))
                 .map(Map.Entry::getValue)
                 .filter(payload -> (connection.noCapabilityRequiredOrCapabilityIsSupported(payload)))
                 .filter(payload -> tempLookupSet.add(new P2PDataStorage.ByteArray(payload.getHash())))
                 .collect(Collectors.toSet());
     }
 
-    private Set<ProtectedStorageEntry> getFilteredProtectedStorageEntries(GetDataRequest getDataRequest, Connection connection) {
+    private Set<ProtectedStorageEntry> getFilteredProtectedStorageEntries(GetDataRequest getDataRequest,
+                                                                          @Nullable ExcludedKeysDigest excludedKeysDigest,
+                                                                          Connection connection) {
         final Set<ProtectedStorageEntry> filteredDataSet = new HashSet<>();
         final Set<Integer> lookupSet = new HashSet<>();
 
         Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray = P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
         Set<ProtectedStorageEntry> filteredSet = dataStorage.getMap().entrySet().stream()
-                .filter(e -> !excludedKeysAsByteArray.contains(e.getKey()))
+                .filter(e -> !isExcluded(e.getKey(), excludedKeysAsByteArray, excludedKeysDigest))
                 .map(Map.Entry::getValue)
                 .collect(Collectors.toSet());
 
@@ -184,6 +191,12 @@ public class GetDataRequestHandler {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private boolean isExcluded(P2PDataStorage.ByteArray key,
+                               Set<P2PDataStorage.ByteArray> excludedKeys,
+                               @Nullable ExcludedKeysDigest excludedKeysDigest) {
+        return excludedKeys.contains(key) || (excludedKeysDigest != null && excludedKeysDigest.contains(key.bytes));
+    }
+
     private void handleFault(String errorMessage, CloseConnectionReason closeConnectionReason, Connection connection) {
         if (!stopped) {
             log.info(errorMessage + "\n\tcloseConnectionReason=" + closeConnectionReason);
@@ -35,11 +35,16 @@ import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkPayload;
+import bisq.common.util.Utilities;
 
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.SettableFuture;
 
 import java.util.ArrayList;
@@ -61,6 +66,10 @@ import static com.google.common.base.Preconditions.checkArgument;
 @Slf4j
 class RequestDataHandler implements MessageListener {
     private static final long TIMEOUT = 90;
+    // Shared by all handlers. The verification itself runs as parallel stream.
+    private static final ListeningExecutorService verificationExecutor =
+            Utilities.getSingleThreadExecutor("RequestDataHandler.verifyEntries");
+
     private NodeAddress peersNodeAddress;
 
 
@@ -132,10 +141,21 @@ class RequestDataHandler implements MessageListener {
 
             excludedKeys.addAll(excludedKeysFromPersistedEntryMap);
 
+            // If the peer supports it we send the compact digest of the keys instead of the full keys. Old seed nodes
+            // would ignore the digest and send us all data, so we only use it if we know the peers capabilities.
+            byte[] excludedKeysDigest = null;
+            boolean peerSupportsDigest = peerManager.findPeersCapabilities(nodeAddress)
+                    .map(capabilities -> capabilities.containsAll(new Capabilities(Capability.EXCLUDED_KEYS_DIGEST)))
+                    .orElse(false);
+            if (peerSupportsDigest) {
+                excludedKeysDigest = ExcludedKeysDigest.toBytes(excludedKeys);
+                excludedKeys = new HashSet<>();
+            }
+
             if (isPreliminaryDataRequest)
-                getDataRequest = new PreliminaryGetDataRequest(nonce, excludedKeys);
+                getDataRequest = new PreliminaryGetDataRequest(nonce, excludedKeys, excludedKeysDigest);
             else
-                getDataRequest = new GetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, excludedKeys);
+                getDataRequest = new GetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, excludedKeys, excludedKeysDigest);
 
             if (timeoutTimer == null) {
                 timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
@@ -248,47 +268,31 @@ class RequestDataHandler implements MessageListener {
 
                         final NodeAddress sender = connection.getPeersNodeAddressOptional().get();
 
-                        List<NetworkPayload> processDelayedItems = new ArrayList<>();
-                        dataSet.stream().forEach(e -> {
-                            if (e.getProtectedStoragePayload() instanceof LazyProcessedPayload) {
-                                processDelayedItems.add(e);
-                            } else {
-                                // We dont broadcast here (last param) as we are only connected to the seed node and would be pointless
-                                dataStorage.addProtectedStorageEntry(e, sender, null, false, false);
+                        // At bootstrap we receive thousands of entries. The signature checks and hashing are the
+                        // expensive part, so we do that on the verification executor and only apply the results to
+                        // the storage in order on the UserThread.
+                        long ts = System.currentTimeMillis();
+                        List<ProtectedStorageEntry> protectedStorageEntries = new ArrayList<>(dataSet);
+                        ListenableFuture<List<P2PDataStorage.VerifiedEntry>> future =
+                                verificationExecutor.submit(() -> P2PDataStorage.verifyEntries(protectedStorageEntries));
+                        Futures.addCallback(future, new FutureCallback<>() {
+                            @Override
+                            public void onSuccess(List<P2PDataStorage.VerifiedEntry> verifiedEntries) {
+                                log.info("Verification of {} entries took {} ms", verifiedEntries.size(), System.currentTimeMillis() - ts);
+                                UserThread.execute(() -> applyVerifiedEntries(verifiedEntries, persistableNetworkPayloadSet, sender));
                             }
-                        });
-
-                        if (persistableNetworkPayloadSet != null) {
-                            persistableNetworkPayloadSet.stream().forEach(e -> {
-                                if (e instanceof LazyProcessedPayload) {
-                                    processDelayedItems.add(e);
-                                } else {
-                                    // We dont broadcast here as we are only connected to the seed node and would be pointless
-                                    dataStorage.addPersistableNetworkPayload(e, sender, false, false, false, false);
-                                }
-                            });
-                        }
 
-                        // We changed the earlier behaviour with delayed execution of chunks of the list as it caused
-                        // worse results as if it is processed in one go.
-                        // Main reason is probably that listeners trigger more code and if that is called early at
-                        // startup we have better chances that the user has not already navigated to a screen where the
-                        // trade statistics are used for UI rendering.
-                        // We need to take care that the update period between releases stay short as with the current
-                        // situation before 0.9 release we receive 4000 objects with a newly installed client, which
-                        // causes the application to stay stuck for quite a while at startup.
-                        log.info("Start processing {} items.", processDelayedItems.size());
-                        processDelayedItems.forEach(item -> {
-                            if (item instanceof ProtectedStorageEntry)
-                                dataStorage.addProtectedStorageEntry((ProtectedStorageEntry) item, sender, null,
-                                        false, false);
-                            else if (item instanceof PersistableNetworkPayload)
-                                dataStorage.addPersistableNetworkPayload((PersistableNetworkPayload) item, sender,
-                                        false, false, false, false);
+                            @Override
+                            public void onFailure(@NotNull Throwable throwable) {
+                                UserThread.execute(() -> {
+                                    if (!stopped) {
+                                        String errorMessage = "Verification of the entries of the getDataResponse failed." +
+                                                "\n\tException=" + throwable.getMessage();
+                                        handleFault(errorMessage, sender, CloseConnectionReason.UNKNOWN_EXCEPTION);
+                                    }
+                                });
+                            }
                         });
-
-                        cleanup();
-                        listener.onComplete();
                     } else {
                         log.debug("Nonce not matching. That can happen rarely if we get a response after a canceled " +
                                         "handshake (timeout causes connection close but peer might have sent a msg before " +
@@ -314,6 +318,55 @@ class RequestDataHandler implements MessageListener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
 
+    private void applyVerifiedEntries(List<P2PDataStorage.VerifiedEntry> verifiedEntries,
+                                      @Nullable Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
+                                      NodeAddress sender) {
+        if (stopped) {
+            log.warn("We have stopped already. We ignore the verified entries.");
+            return;
+        }
+
+        List<P2PDataStorage.VerifiedEntry> processDelayedEntries = new ArrayList<>();
+        verifiedEntries.forEach(e -> {
+            if (e.getProtectedStorageEntry().getProtectedStoragePayload() instanceof LazyProcessedPayload) {
+                processDelayedEntries.add(e);
+            } else {
+                // We dont broadcast here (last param) as we are only connected to the seed node and would be pointless
+                dataStorage.addProtectedStorageEntry(e, sender, null, false, false);
+            }
+        });
+
+        List<PersistableNetworkPayload> processDelayedItems = new ArrayList<>();
+
+        if (persistableNetworkPayloadSet != null) {
+            persistableNetworkPayloadSet.stream().forEach(e -> {
+                if (e instanceof LazyProcessedPayload) {
+                    processDelayedItems.add(e);
+                } else {
+                    // We dont broadcast here as we are only connected to the seed node and would be pointless
+                    dataStorage.addPersistableNetworkPayload(e, sender, false, false, false, false);
+                }
+            });
+        }
+
+        // We changed the earlier behaviour with delayed execution of chunks of the list as it caused
+        // worse results as if it is processed in one go.
+        // Main reason is probably that listeners trigger more code and if that is called early at
+        // startup we have better chances that the user has not already navigated to a screen where the
+        // trade statistics are used for UI rendering.
+        // We need to take care that the update period between releases stay short as with the current
+        // situation before 0.9 release we receive 4000 objects with a newly installed client, which
+        // causes the application to stay stuck for quite a while at startup.
+        log.info("Start processing {} items.", processDelayedEntries.size() + processDelayedItems.size());
+        processDelayedEntries.forEach(e -> dataStorage.addProtectedStorageEntry(e, sender, null,
+                false, false));
+        processDelayedItems.forEach(item -> dataStorage.addPersistableNetworkPayload(item, sender,
+                false, false, false, false));
+
+        cleanup();
+        listener.onComplete();
+    }
+
     @SuppressWarnings("UnusedParameters")
     private void handleFault(String errorMessage, NodeAddress nodeAddress, CloseConnectionReason closeConnectionReason) {
         cleanup();
@@ -27,6 +27,8 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
+import javax.annotation.Nullable;
+
 @EqualsAndHashCode(callSuper = true)
 @Getter
 @ToString
@@ -34,12 +36,18 @@ public abstract class GetDataRequest extends NetworkEnvelope implements Extended
     protected final int nonce;
     // Keys for ProtectedStorageEntry items to be excluded from the request because the peer has them already
     protected final Set<byte[]> excludedKeys;
+    // Packed key prefixes (see ExcludedKeysDigest) of both the protected storage entries and the append-only data. Used
+    // instead of excludedKeys if the peer supports Capability.EXCLUDED_KEYS_DIGEST. Not set by old clients.
+    @Nullable
+    protected final byte[] excludedKeysDigest;
 
     public GetDataRequest(int messageVersion,
                           int nonce,
-                          Set<byte[]> excludedKeys) {
+                          Set<byte[]> excludedKeys,
+                          @Nullable byte[] excludedKeysDigest) {
         super(messageVersion);
         this.nonce = nonce;
         this.excludedKeys = excludedKeys;
+        this.excludedKeysDigest = excludedKeysDigest;
     }
 }
@@ -47,7 +47,13 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
 
     public PreliminaryGetDataRequest(int nonce,
                                      Set<byte[]> excludedKeys) {
-        this(nonce, excludedKeys, Capabilities.app, Version.getP2PMessageVersion());
+        this(nonce, excludedKeys, null);
+    }
+
+    public PreliminaryGetDataRequest(int nonce,
+                                     Set<byte[]> excludedKeys,
+                                     @Nullable byte[] excludedKeysDigest) {
+        this(nonce, excludedKeys, excludedKeysDigest, Capabilities.app, Version.getP2PMessageVersion());
     }
 
 
@@ -57,9 +63,10 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
 
     private PreliminaryGetDataRequest(int nonce,
                                       Set<byte[]> excludedKeys,
+                                      @Nullable byte[] excludedKeysDigest,
                                       @Nullable Capabilities supportedCapabilities,
                                       int messageVersion) {
-        super(messageVersion, nonce, excludedKeys);
+        super(messageVersion, nonce, excludedKeys, excludedKeysDigest);
 
         this.supportedCapabilities = supportedCapabilities;
     }
@@ -73,6 +80,7 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
                         .collect(Collectors.toList()));
 
         Optional.ofNullable(supportedCapabilities).ifPresent(e -> builder.addAllSupportedCapabilities(Capabilities.toIntList(supportedCapabilities)));
+        Optional.ofNullable(excludedKeysDigest).ifPresent(e -> builder.setExcludedKeysDigest(ByteString.copyFrom(e)));
 
         return getNetworkEnvelopeBuilder()
                 .setPreliminaryGetDataRequest(builder)
@@ -86,6 +94,7 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
 
         return new PreliminaryGetDataRequest(proto.getNonce(),
                 ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList()),
+                ProtoUtil.byteArrayOrNullFromProto(proto.getExcludedKeysDigest()),
                 supportedCapabilities,
                 messageVersion);
     }
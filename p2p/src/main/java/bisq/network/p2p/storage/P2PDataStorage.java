@@ -21,6 +21,7 @@ import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.network.CloseConnectionReason;
 import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.ConnectionListener;
+import bisq.network.p2p.network.MessageDispatcher;
 import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.BroadcastHandler;
@@ -28,6 +29,7 @@ import bisq.network.p2p.peers.Broadcaster;
 import bisq.network.p2p.storage.messages.AddDataMessage;
 import bisq.network.p2p.storage.messages.AddPersistableNetworkPayloadMessage;
 import bisq.network.p2p.storage.messages.BroadcastMessage;
+import bisq.network.p2p.storage.messages.RefreshOfferBatchMessage;
 import bisq.network.p2p.storage.messages.RefreshOfferMessage;
 import bisq.network.p2p.storage.messages.RemoveDataMessage;
 import bisq.network.p2p.storage.messages.RemoveMailboxDataMessage;
@@ -48,6 +50,7 @@ import bisq.network.p2p.storage.persistence.SequenceNumberMap;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.app.Capabilities;
 import bisq.common.app.Log;
 import bisq.common.crypto.CryptoException;
 import bisq.common.crypto.Hash;
@@ -75,6 +78,7 @@ import org.bouncycastle.util.encoders.Hex;
 import java.security.KeyPair;
 import java.security.PublicKey;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -91,6 +95,7 @@ import org.slf4j.LoggerFactory;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
@@ -105,6 +110,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @VisibleForTesting
     public static int CHECK_TTL_INTERVAL_SEC = 60;
 
+    private final NetworkNode networkNode;
     private final Broadcaster broadcaster;
     private final AppendOnlyDataStoreService appendOnlyDataStoreService;
     private final ProtectedDataStoreService protectedDataStoreService;
@@ -112,6 +118,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     @Getter
     private final Map<ByteArray, ProtectedStorageEntry> map = new ConcurrentHashMap<>();
+    private final ProtectedStorageEntryIndex protectedStorageEntryIndex = new ProtectedStorageEntryIndex();
     private final Set<HashMapChangedListener> hashMapChangedListeners = new CopyOnWriteArraySet<>();
     private Timer removeExpiredEntriesTimer;
 
@@ -133,6 +140,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                           ProtectedDataStoreService protectedDataStoreService,
                           ResourceDataStoreService resourceDataStoreService,
                           Storage<SequenceNumberMap> sequenceNumberMapStorage) {
+        this.networkNode = networkNode;
         this.broadcaster = broadcaster;
         this.appendOnlyDataStoreService = appendOnlyDataStoreService;
         this.protectedDataStoreService = protectedDataStoreService;
@@ -160,7 +168,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         protectedDataStoreService.readFromResources(postFix);
         resourceDataStoreService.readFromResources(postFix);
 
-        map.putAll(protectedDataStoreService.getMap());
+        protectedDataStoreService.getMap().forEach(this::putToMap);
     }
 
 
@@ -191,7 +199,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                         if (!(protectedStorageEntry.getProtectedStoragePayload() instanceof PersistableNetworkPayload)) {
                             toRemoveSet.add(protectedStorageEntry);
                             log.debug("We found an expired data entry. We remove the protectedData:\n\t" + Utilities.toTruncatedString(protectedStorageEntry));
-                            map.remove(hashOfPayload);
+                            removeFromMap(hashOfPayload);
                         }
                     });
 
@@ -212,26 +220,59 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         return protectedDataStoreService.getMap();
     }
 
+    // Typed queries served from the per payload type shards, so callers don't need to iterate over all data.
+
+    public <T extends PersistableNetworkPayload> List<T> getPersistableNetworkPayloads(Class<T> payloadClass) {
+        return appendOnlyDataStoreService.getPayloads(payloadClass);
+    }
+
+    public List<ProtectedStorageEntry> getProtectedStorageEntries(Class<? extends ProtectedStoragePayload> payloadClass) {
+        return protectedStorageEntryIndex.getEntries(payloadClass);
+    }
+
+    public <T extends ProtectedStoragePayload> List<T> getProtectedStoragePayloads(Class<T> payloadClass) {
+        return protectedStorageEntryIndex.getEntries(payloadClass).stream()
+                .map(ProtectedStorageEntry::getProtectedStoragePayload)
+                .map(payloadClass::cast)
+                .collect(Collectors.toList());
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // MessageListener implementation
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // The signature check of AddDataMessages is done at the storage dispatch thread. The state of P2PDataStorage is
+    // confined to the UserThread, so all other work is done there.
+    @Override
+    public MessageDispatcher.Domain getDispatchDomain() {
+        return MessageDispatcher.Domain.STORAGE;
+    }
+
     @Override
     public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
         if (networkEnvelope instanceof BroadcastMessage) {
             connection.getPeersNodeAddressOptional().ifPresent(peersNodeAddress -> {
                 if (networkEnvelope instanceof AddDataMessage) {
-                    addProtectedStorageEntry(((AddDataMessage) networkEnvelope).getProtectedStorageEntry(), peersNodeAddress, null, false);
+                    ProtectedStorageEntry protectedStorageEntry = ((AddDataMessage) networkEnvelope).getProtectedStorageEntry();
+                    if (checkSignature(protectedStorageEntry))
+                        UserThread.execute(() -> addProtectedStorageEntry(protectedStorageEntry, peersNodeAddress, null, false, true, null, true));
                 } else if (networkEnvelope instanceof RemoveDataMessage) {
-                    remove(((RemoveDataMessage) networkEnvelope).getProtectedStorageEntry(), peersNodeAddress, false);
+                    UserThread.execute(() -> remove(((RemoveDataMessage) networkEnvelope).getProtectedStorageEntry(), peersNodeAddress, false));
                 } else if (networkEnvelope instanceof RemoveMailboxDataMessage) {
-                    removeMailboxData(((RemoveMailboxDataMessage) networkEnvelope).getProtectedMailboxStorageEntry(), peersNodeAddress, false);
+                    UserThread.execute(() -> removeMailboxData(((RemoveMailboxDataMessage) networkEnvelope).getProtectedMailboxStorageEntry(), peersNodeAddress, false));
                 } else if (networkEnvelope instanceof RefreshOfferMessage) {
-                    refreshTTL((RefreshOfferMessage) networkEnvelope, peersNodeAddress, false);
+                    UserThread.execute(() -> refreshTTL((RefreshOfferMessage) networkEnvelope, peersNodeAddress, false));
+                } else if (networkEnvelope instanceof RefreshOfferBatchMessage) {
+                    RefreshOfferBatchMessage refreshOfferBatchMessage = (RefreshOfferBatchMessage) networkEnvelope;
+                    if (refreshOfferBatchMessage.getRefreshOfferMessages().size() <= RefreshOfferBatchMessage.MAX_NUM_REFRESHES)
+                        UserThread.execute(() -> refreshTTL(refreshOfferBatchMessage, peersNodeAddress, false));
+                    else
+                        log.warn("We got a RefreshOfferBatchMessage with {} refreshes from {}. We ignore it.",
+                                refreshOfferBatchMessage.getRefreshOfferMessages().size(), peersNodeAddress);
                 } else if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage) {
-                    addPersistableNetworkPayload(((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload(),
-                            peersNodeAddress, false, true, false, true);
+                    UserThread.execute(() -> addPersistableNetworkPayload(((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload(),
+                            peersNodeAddress, false, true, false, true));
                 }
             });
         }
@@ -309,7 +350,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         final byte[] hash = payload.getHash();
         if (payload.verifyHashSize()) {
             final ByteArray hashAsByteArray = new ByteArray(hash);
-            boolean containsKey = getAppendOnlyDataStoreMap().containsKey(hashAsByteArray);
+            boolean containsKey = appendOnlyDataStoreService.containsKey(hashAsByteArray);
             if (!containsKey || reBroadcast) {
                 if (!(payload instanceof DateTolerantPayload) || !checkDate || ((DateTolerantPayload) payload).isDateInTolerance()) {
                     if (!containsKey) {
@@ -342,11 +383,48 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     public boolean addProtectedStorageEntry(ProtectedStorageEntry protectedStorageEntry, @Nullable NodeAddress sender,
                                             @Nullable BroadcastHandler.Listener listener, boolean isDataOwner, boolean allowBroadcast) {
+        return addProtectedStorageEntry(protectedStorageEntry, sender, listener, isDataOwner, allowBroadcast, null, false);
+    }
+
+    // Adds an entry which has been verified with verifyEntries before.
+    public boolean addProtectedStorageEntry(VerifiedEntry verifiedEntry, @Nullable NodeAddress sender,
+                                            @Nullable BroadcastHandler.Listener listener, boolean isDataOwner, boolean allowBroadcast) {
+        if (!verifiedEntry.isSignatureValid()) {
+            log.trace("add failed as signature is invalid");
+            return false;
+        }
+
+        return addProtectedStorageEntry(verifiedEntry.getProtectedStorageEntry(), sender, listener, isDataOwner,
+                allowBroadcast, verifiedEntry.getHashOfPayload(), true);
+    }
+
+    /**
+     * Verifies the signatures and calculates the payload hashes of a batch of entries (e.g. from a GetDataResponse)
+     * in parallel. Both only depend on the entry itself, so it is safe to do that outside of the UserThread. The
+     * result is in the same order as the given entries and is expected to be applied with
+     * addProtectedStorageEntry(VerifiedEntry...) on the UserThread.
+     */
+    public static List<VerifiedEntry> verifyEntries(List<ProtectedStorageEntry> protectedStorageEntries) {
+        return protectedStorageEntries.parallelStream()
+                .map(protectedStorageEntry -> new VerifiedEntry(protectedStorageEntry,
+                        new ByteArray(get32ByteHash(protectedStorageEntry.getProtectedStoragePayload())),
+                        checkSignature(protectedStorageEntry)))
+                .collect(Collectors.toList());
+    }
+
+    // If the signature has been verified already at the storage dispatch thread or with verifyEntries we skip the
+    // expensive check here. Same for the hash of the payload if it is provided.
+    private boolean addProtectedStorageEntry(ProtectedStorageEntry protectedStorageEntry, @Nullable NodeAddress sender,
+                                             @Nullable BroadcastHandler.Listener listener, boolean isDataOwner,
+                                             boolean allowBroadcast, @Nullable ByteArray verifiedHashOfPayload,
+                                             boolean signatureVerified) {
         final ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
-        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
+        ByteArray hashOfPayload = verifiedHashOfPayload != null ?
+                verifiedHashOfPayload :
+                get32ByteHashAsByteArray(protectedStoragePayload);
         boolean sequenceNrValid = isSequenceNrValid(protectedStorageEntry.getSequenceNumber(), hashOfPayload);
         boolean result = checkPublicKeys(protectedStorageEntry, true)
-                && checkSignature(protectedStorageEntry)
+                && (signatureVerified || checkSignature(protectedStorageEntry))
                 && sequenceNrValid;
 
         boolean containsKey = map.containsKey(hashOfPayload);
@@ -359,7 +437,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
             if (!containsKey || hasSequenceNrIncreased) {
                 // At startup we don't have the item so we store it. At updates of the seq nr we store as well.
-                map.put(hashOfPayload, protectedStorageEntry);
+                putToMap(hashOfPayload, protectedStorageEntry);
                 hashMapChangedListeners.forEach(e -> e.onAdded(protectedStorageEntry));
                 // printData("after add");
             } else {
@@ -397,45 +475,45 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     }
 
     public boolean refreshTTL(RefreshOfferMessage refreshTTLMessage, @Nullable NodeAddress sender, boolean isDataOwner) {
-        byte[] hashOfDataAndSeqNr = refreshTTLMessage.getHashOfDataAndSeqNr();
-        byte[] signature = refreshTTLMessage.getSignature();
-        ByteArray hashOfPayload = new ByteArray(refreshTTLMessage.getHashOfPayload());
-        int sequenceNumber = refreshTTLMessage.getSequenceNumber();
-
-        if (map.containsKey(hashOfPayload)) {
-            ProtectedStorageEntry storedData = map.get(hashOfPayload);
-
-            if (sequenceNumberMap.containsKey(hashOfPayload) && sequenceNumberMap.get(hashOfPayload).sequenceNr == sequenceNumber) {
-                log.trace("We got that message with that seq nr already from another peer. We ignore that message.");
-                return true;
-            } else {
-                PublicKey ownerPubKey = storedData.getProtectedStoragePayload().getOwnerPubKey();
-                final boolean checkSignature = checkSignature(ownerPubKey, hashOfDataAndSeqNr, signature);
-                final boolean hasSequenceNrIncreased = hasSequenceNrIncreased(sequenceNumber, hashOfPayload);
-                final boolean checkIfStoredDataPubKeyMatchesNewDataPubKey = checkIfStoredDataPubKeyMatchesNewDataPubKey(ownerPubKey,
-                        hashOfPayload);
-                boolean allValid = checkSignature &&
-                        hasSequenceNrIncreased &&
-                        checkIfStoredDataPubKeyMatchesNewDataPubKey;
+        RefreshResult result = applyRefreshTTL(refreshTTLMessage);
+        if (result == RefreshResult.APPLIED) {
+            sequenceNumberMapStorage.queueUpForSave(SequenceNumberMap.clone(sequenceNumberMap), 1000);
+            broadcast(refreshTTLMessage, sender, null, isDataOwner);
+        }
+        return result != RefreshResult.INVALID;
+    }
 
-                // printData("before refreshTTL");
-                if (allValid) {
-                    log.debug("refreshDate called for storedData:\n\t" + StringUtils.abbreviate(storedData.toString(), 100));
-                    storedData.refreshTTL();
-                    storedData.updateSequenceNumber(sequenceNumber);
-                    storedData.updateSignature(signature);
-                    printData("after refreshTTL");
-                    sequenceNumberMap.put(hashOfPayload, new MapValue(sequenceNumber, System.currentTimeMillis()));
-                    sequenceNumberMapStorage.queueUpForSave(SequenceNumberMap.clone(sequenceNumberMap), 1000);
+    // We apply each refresh of the batch like a single refresh message. The refreshes we have not seen before get
+    // broadcast as batch to the peers which support it and as single messages to the other peers. As that costs one
+    // broadcast per refresh we only do it if we are connected to such a legacy peer.
+    public boolean refreshTTL(RefreshOfferBatchMessage refreshOfferBatchMessage, @Nullable NodeAddress sender,
+                              boolean isDataOwner) {
+        List<RefreshOfferMessage> appliedRefreshes = new ArrayList<>();
+        boolean allValid = true;
+        for (RefreshOfferMessage refreshTTLMessage : refreshOfferBatchMessage.getRefreshOfferMessages()) {
+            RefreshResult result = applyRefreshTTL(refreshTTLMessage);
+            if (result == RefreshResult.APPLIED)
+                appliedRefreshes.add(refreshTTLMessage);
+            else if (result == RefreshResult.INVALID)
+                allValid = false;
+        }
 
-                    broadcast(refreshTTLMessage, sender, null, isDataOwner);
-                }
-                return allValid;
-            }
-        } else {
-            log.debug("We don't have data for that refresh message in our map. That is expected if we missed the data publishing.");
-            return false;
+        if (!appliedRefreshes.isEmpty()) {
+            sequenceNumberMapStorage.queueUpForSave(SequenceNumberMap.clone(sequenceNumberMap), 1000);
+
+            RefreshOfferBatchMessage batchToBroadcast = new RefreshOfferBatchMessage(appliedRefreshes);
+            Capabilities requiredCapabilities = batchToBroadcast.getRequiredCapabilities();
+            Set<Connection> legacyPeers = networkNode.getConfirmedConnections().stream()
+                    .filter(connection -> !connection.getPeersNodeAddressOptional().get().equals(sender))
+                    .filter(connection -> !connection.getCapabilities().containsAll(requiredCapabilities))
+                    .collect(Collectors.toSet());
+            broadcaster.broadcast(batchToBroadcast, sender, null, isDataOwner,
+                    connection -> connection.getCapabilities().containsAll(requiredCapabilities));
+            if (!legacyPeers.isEmpty())
+                appliedRefreshes.forEach(refreshTTLMessage -> broadcaster.broadcast(refreshTTLMessage, sender, null,
+                        isDataOwner, legacyPeers::contains));
         }
+        return allValid;
     }
 
     public boolean remove(ProtectedStorageEntry protectedStorageEntry, @Nullable NodeAddress sender, boolean isDataOwner) {
@@ -574,8 +652,62 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Applies the refresh to our entry without persisting the sequence number map and without broadcasting
+    private RefreshResult applyRefreshTTL(RefreshOfferMessage refreshTTLMessage) {
+        byte[] hashOfDataAndSeqNr = refreshTTLMessage.getHashOfDataAndSeqNr();
+        byte[] signature = refreshTTLMessage.getSignature();
+        ByteArray hashOfPayload = new ByteArray(refreshTTLMessage.getHashOfPayload());
+        int sequenceNumber = refreshTTLMessage.getSequenceNumber();
+
+        if (map.containsKey(hashOfPayload)) {
+            ProtectedStorageEntry storedData = map.get(hashOfPayload);
+
+            if (sequenceNumberMap.containsKey(hashOfPayload) && sequenceNumberMap.get(hashOfPayload).sequenceNr == sequenceNumber) {
+                log.trace("We got that message with that seq nr already from another peer. We ignore that message.");
+                return RefreshResult.ALREADY_APPLIED;
+            } else {
+                PublicKey ownerPubKey = storedData.getProtectedStoragePayload().getOwnerPubKey();
+                final boolean checkSignature = checkSignature(ownerPubKey, hashOfDataAndSeqNr, signature);
+                final boolean hasSequenceNrIncreased = hasSequenceNrIncreased(sequenceNumber, hashOfPayload);
+                final boolean checkIfStoredDataPubKeyMatchesNewDataPubKey = checkIfStoredDataPubKeyMatchesNewDataPubKey(ownerPubKey,
+                        hashOfPayload);
+                boolean allValid = checkSignature &&
+                        hasSequenceNrIncreased &&
+                        checkIfStoredDataPubKeyMatchesNewDataPubKey;
+
+                // printData("before refreshTTL");
+                if (allValid) {
+                    log.debug("refreshDate called for storedData:\n\t" + StringUtils.abbreviate(storedData.toString(), 100));
+                    storedData.refreshTTL();
+                    storedData.updateSequenceNumber(sequenceNumber);
+                    storedData.updateSignature(signature);
+                    printData("after refreshTTL");
+                    sequenceNumberMap.put(hashOfPayload, new MapValue(sequenceNumber, System.currentTimeMillis()));
+                    return RefreshResult.APPLIED;
+                }
+                return RefreshResult.INVALID;
+            }
+        } else {
+            log.debug("We don't have data for that refresh message in our map. That is expected if we missed the data publishing.");
+            return RefreshResult.INVALID;
+        }
+    }
+
+    private void putToMap(ByteArray hashOfPayload, ProtectedStorageEntry protectedStorageEntry) {
+        ProtectedStorageEntry previous = map.put(hashOfPayload, protectedStorageEntry);
+        if (previous != null)
+            protectedStorageEntryIndex.remove(hashOfPayload, previous);
+        protectedStorageEntryIndex.add(hashOfPayload, protectedStorageEntry);
+    }
+
+    private void removeFromMap(ByteArray hashOfPayload) {
+        ProtectedStorageEntry previous = map.remove(hashOfPayload);
+        if (previous != null)
+            protectedStorageEntryIndex.remove(hashOfPayload, previous);
+    }
+
     private void doRemoveProtectedExpirableData(ProtectedStorageEntry protectedStorageEntry, ByteArray hashOfPayload) {
-        map.remove(hashOfPayload);
+        removeFromMap(hashOfPayload);
         log.trace("Data removed from our map. We broadcast the message to our peers.");
         hashMapChangedListeners.stream().forEach(e -> e.onRemoved(protectedStorageEntry));
     }
@@ -627,7 +759,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         }
     }
 
-    private boolean checkSignature(PublicKey ownerPubKey, byte[] hashOfDataAndSeqNr, byte[] signature) {
+    private static boolean checkSignature(PublicKey ownerPubKey, byte[] hashOfDataAndSeqNr, byte[] signature) {
         try {
             boolean result = Sig.verify(ownerPubKey, hashOfDataAndSeqNr, signature);
             if (!result)
@@ -641,7 +773,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         }
     }
 
-    private boolean checkSignature(ProtectedStorageEntry protectedStorageEntry) {
+    private static boolean checkSignature(ProtectedStorageEntry protectedStorageEntry) {
         byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(new DataAndSeqNrPair(protectedStorageEntry.getProtectedStoragePayload(), protectedStorageEntry.getSequenceNumber()));
         return checkSignature(protectedStorageEntry.getOwnerPubKey(), hashOfDataAndSeqNr, protectedStorageEntry.getSignature());
     }
@@ -783,6 +915,12 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     // Static class
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private enum RefreshResult {
+        APPLIED,
+        ALREADY_APPLIED,
+        INVALID
+    }
+
     /**
      * Used as container for calculating cryptographic hash of data and sequenceNumber.
      */
@@ -809,6 +947,17 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     }
 
 
+    /**
+     * Result of verifyEntries.
+     */
+    @Value
+    public static final class VerifiedEntry {
+        private final ProtectedStorageEntry protectedStorageEntry;
+        private final ByteArray hashOfPayload;
+        private final boolean signatureValid;
+    }
+
+
     /**
      * Used as key object in map for cryptographic hash of stored data as byte[] as primitive data type cannot be
      * used as key
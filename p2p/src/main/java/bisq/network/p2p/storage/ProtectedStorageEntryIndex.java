@@ -0,0 +1,73 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Secondary index for the ProtectedStorageEntry map of P2PDataStorage. The entries are sharded by the concrete
+ * class of the payload, so that consumers like the offer book or the filter manager do not need to iterate over all
+ * network data to find their entries.
+ * The index is only mutated by P2PDataStorage together with its map.
+ */
+final class ProtectedStorageEntryIndex {
+    private final Map<Class<? extends ProtectedStoragePayload>, Map<P2PDataStorage.ByteArray, ProtectedStorageEntry>> entriesByPayloadClass = new ConcurrentHashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void add(P2PDataStorage.ByteArray hashOfPayload, ProtectedStorageEntry protectedStorageEntry) {
+        ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
+        entriesByPayloadClass.computeIfAbsent(protectedStoragePayload.getClass(), key -> new ConcurrentHashMap<>())
+                .put(hashOfPayload, protectedStorageEntry);
+    }
+
+    void remove(P2PDataStorage.ByteArray hashOfPayload, ProtectedStorageEntry protectedStorageEntry) {
+        entriesByPayloadClass.computeIfPresent(protectedStorageEntry.getProtectedStoragePayload().getClass(),
+                (key, entries) -> removeAndGetRemaining(entries, hashOfPayload));
+    }
+
+    // Includes entries with payloads of subclasses of payloadClass
+    List<ProtectedStorageEntry> getEntries(Class<? extends ProtectedStoragePayload> payloadClass) {
+        return entriesByPayloadClass.entrySet().stream()
+                .filter(e -> payloadClass.isAssignableFrom(e.getKey()))
+                .flatMap(e -> e.getValue().values().stream())
+                .collect(Collectors.toList());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returning null removes the empty shard from the outer map
+    private static Map<P2PDataStorage.ByteArray, ProtectedStorageEntry> removeAndGetRemaining(
+            Map<P2PDataStorage.ByteArray, ProtectedStorageEntry> entries,
+            P2PDataStorage.ByteArray hashOfPayload) {
+        entries.remove(hashOfPayload);
+        return entries.isEmpty() ? null : entries;
+    }
+}
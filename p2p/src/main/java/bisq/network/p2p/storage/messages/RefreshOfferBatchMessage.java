@@ -0,0 +1,83 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.storage.messages;
+
+import bisq.network.p2p.storage.payload.CapabilityRequiringPayload;
+
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
+import bisq.common.app.Version;
+
+import io.bisq.generated.protobuffer.PB;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Carries the TTL refreshes of many offers in one message. Each refresh is signed by the owner of the offer and
+ * gets verified by the peers the same way as a single RefreshOfferMessage.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Value
+public final class RefreshOfferBatchMessage extends BroadcastMessage implements CapabilityRequiringPayload {
+    // Peers ignore batches with more refreshes
+    public static final int MAX_NUM_REFRESHES = 500;
+
+    private final List<RefreshOfferMessage> refreshOfferMessages;
+
+    public RefreshOfferBatchMessage(List<RefreshOfferMessage> refreshOfferMessages) {
+        this(refreshOfferMessages, Version.getP2PMessageVersion());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private RefreshOfferBatchMessage(List<RefreshOfferMessage> refreshOfferMessages, int messageVersion) {
+        super(messageVersion);
+        this.refreshOfferMessages = refreshOfferMessages;
+    }
+
+    @Override
+    public PB.NetworkEnvelope toProtoNetworkEnvelope() {
+        return getNetworkEnvelopeBuilder()
+                .setRefreshOfferBatchMessage(PB.RefreshOfferBatchMessage.newBuilder()
+                        .addAllRefreshOfferMessages(refreshOfferMessages.stream()
+                                .map(RefreshOfferMessage::toProtoRefreshOfferMessage)
+                                .collect(Collectors.toList())))
+                .build();
+    }
+
+    public static RefreshOfferBatchMessage fromProto(PB.RefreshOfferBatchMessage proto, int messageVersion) {
+        List<RefreshOfferMessage> refreshOfferMessages = proto.getRefreshOfferMessagesList().isEmpty() ?
+                new ArrayList<>() :
+                proto.getRefreshOfferMessagesList().stream()
+                        .map(e -> RefreshOfferMessage.fromProto(e, messageVersion))
+                        .collect(Collectors.toList());
+        return new RefreshOfferBatchMessage(refreshOfferMessages, messageVersion);
+    }
+
+    @Override
+    public Capabilities getRequiredCapabilities() {
+        return new Capabilities(Capability.REFRESH_OFFER_BATCH);
+    }
+}
@@ -61,11 +61,17 @@ public final class RefreshOfferMessage extends BroadcastMessage {
     @Override
     public PB.NetworkEnvelope toProtoNetworkEnvelope() {
         return getNetworkEnvelopeBuilder()
-                .setRefreshOfferMessage(PB.RefreshOfferMessage.newBuilder()
-                        .setHashOfDataAndSeqNr(ByteString.copyFrom(hashOfDataAndSeqNr))
-                        .setSignature(ByteString.copyFrom(signature))
-                        .setHashOfPayload(ByteString.copyFrom(hashOfPayload))
-                        .setSequenceNumber(sequenceNumber))
+                .setRefreshOfferMessage(toProtoRefreshOfferMessage())
+                .build();
+    }
+
+    // Used as element of the RefreshOfferBatchMessage
+    public PB.RefreshOfferMessage toProtoRefreshOfferMessage() {
+        return PB.RefreshOfferMessage.newBuilder()
+                .setHashOfDataAndSeqNr(ByteString.copyFrom(hashOfDataAndSeqNr))
+                .setSignature(ByteString.copyFrom(signature))
+                .setHashOfPayload(ByteString.copyFrom(hashOfPayload))
+                .setSequenceNumber(sequenceNumber)
                 .build();
     }
 
@@ -27,6 +27,9 @@ import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +40,9 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AppendOnlyDataStoreService {
     private List<MapStoreService<? extends PersistableEnvelope, PersistableNetworkPayload>> services = new ArrayList<>();
+    // Each service is the shard for one or a few payload types. We keep track which services hold which payload
+    // classes so typed queries only need to visit the matching shards.
+    private final Map<Class<? extends PersistableNetworkPayload>, Set<MapStoreService<? extends PersistableEnvelope, PersistableNetworkPayload>>> servicesByPayloadClass = new ConcurrentHashMap<>();
 
     // We do not add PersistableNetworkPayloadListService to the services list as it it deprecated and used only to
     // transfer old persisted data to the new data structure.
@@ -57,7 +63,13 @@ public class AppendOnlyDataStoreService {
     }
 
     public void readFromResources(String postFix) {
-        services.forEach(service -> service.readFromResources(postFix));
+        services.forEach(service -> {
+            service.readFromResources(postFix);
+            service.getMap().values().stream()
+                    .map(PersistableNetworkPayload::getClass)
+                    .distinct()
+                    .forEach(payloadClass -> addToServicesByPayloadClass(payloadClass, service));
+        });
 
         // transferDeprecatedDataStructure();
     }
@@ -79,11 +91,33 @@ public class AppendOnlyDataStoreService {
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
 
+    public boolean containsKey(P2PDataStorage.ByteArray hashAsByteArray) {
+        return services.stream().anyMatch(service -> service.containsKey(hashAsByteArray));
+    }
+
+    // Includes payloads of subclasses of payloadClass
+    public <T extends PersistableNetworkPayload> List<T> getPayloads(Class<T> payloadClass) {
+        return servicesByPayloadClass.entrySet().stream()
+                .filter(e -> payloadClass.isAssignableFrom(e.getKey()))
+                .flatMap(e -> e.getValue().stream())
+                .distinct()
+                .flatMap(service -> service.getMap().values().stream())
+                .filter(payloadClass::isInstance)
+                .map(payloadClass::cast)
+                .collect(Collectors.toList());
+    }
+
     public void put(P2PDataStorage.ByteArray hashAsByteArray, PersistableNetworkPayload payload) {
         services.stream()
                 .filter(service -> service.canHandle(payload))
                 .forEach(service -> {
                     service.putIfAbsent(hashAsByteArray, payload);
+                    addToServicesByPayloadClass(payload.getClass(), service);
                 });
     }
+
+    private void addToServicesByPayloadClass(Class<? extends PersistableNetworkPayload> payloadClass,
+                                             MapStoreService<? extends PersistableEnvelope, PersistableNetworkPayload> service) {
+        servicesByPayloadClass.computeIfAbsent(payloadClass, key -> new CopyOnWriteArraySet<>()).add(service);
+    }
 }
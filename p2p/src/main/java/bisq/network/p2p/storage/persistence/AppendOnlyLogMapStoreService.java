@@ -0,0 +1,151 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+import bisq.common.storage.SegmentedLog;
+import bisq.common.storage.Storage;
+
+import io.bisq.generated.protobuffer.PB;
+
+import java.io.File;
+import java.io.IOException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * MapStoreService for the append-only PersistableNetworkPayload stores. Instead of writing the whole store at each
+ * added item we append the item to a SegmentedLog. After MAX_RECORDS_BEFORE_COMPACTION records we write a new
+ * snapshot of the store and delete the log segments which are covered by it. At startup we read the snapshot and
+ * replay the log.
+ * <p>
+ * Note that the store file alone can miss the most recent items, so for creating resource files the node should be
+ * shut down properly after a compaction (e.g. a restart replays and compacts the log).
+ */
+@Slf4j
+public abstract class AppendOnlyLogMapStoreService<T extends PersistableEnvelope> extends MapStoreService<T, PersistableNetworkPayload> {
+    private static final int MAX_RECORDS_BEFORE_COMPACTION = 5000;
+
+    private final PersistenceProtoResolver persistenceProtoResolver;
+    @Nullable
+    private SegmentedLog segmentedLog;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public AppendOnlyLogMapStoreService(File storageDir,
+                                        Storage<T> storage,
+                                        PersistenceProtoResolver persistenceProtoResolver) {
+        super(storageDir, storage);
+        this.persistenceProtoResolver = persistenceProtoResolver;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    PersistableNetworkPayload putIfAbsent(P2PDataStorage.ByteArray hash, PersistableNetworkPayload payload) {
+        PersistableNetworkPayload previous = getMap().putIfAbsent(hash, payload);
+        if (previous == null)
+            appendToLog(payload);
+        return previous;
+    }
+
+    @Override
+    PersistableNetworkPayload remove(P2PDataStorage.ByteArray hash) {
+        PersistableNetworkPayload result = getMap().remove(hash);
+        // The removed item might be in the log, so we need a new snapshot to not get it back at replay
+        if (result != null)
+            compact();
+        return result;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Protected
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    protected void readStore() {
+        super.readStore();
+
+        segmentedLog = new SegmentedLog(new File(absolutePathOfStorageDir), getFileName());
+        int numRecords = segmentedLog.read(record -> {
+            try {
+                PersistableNetworkPayload payload = PersistableNetworkPayload.fromProto(
+                        PB.PersistableNetworkPayload.parseFrom(record), persistenceProtoResolver);
+                getMap().putIfAbsent(new P2PDataStorage.ByteArray(payload.getHash()), payload);
+            } catch (Throwable t) {
+                log.warn("Could not parse record of the log of {}. We ignore that record. Error: {}",
+                        getFileName(), t.toString());
+            }
+        });
+
+        if (numRecords > 0) {
+            log.info("We replayed {} records from the log of {}", numRecords, getFileName());
+            compact();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void appendToLog(PersistableNetworkPayload payload) {
+        if (segmentedLog == null) {
+            persist();
+            return;
+        }
+
+        try {
+            segmentedLog.append(payload.toProtoMessage().toByteArray());
+        } catch (IOException e) {
+            log.error("Could not append to the log of " + getFileName() + ". We persist the whole store instead.", e);
+            persist();
+            return;
+        }
+
+        if (segmentedLog.getNumRecordsInCurrentSegment() >= MAX_RECORDS_BEFORE_COMPACTION)
+            compact();
+    }
+
+    // Records added after the rotation go to the new segment. The snapshot might contain some of them as well, which
+    // is not an issue as we ignore duplicates at replay. If the write of the snapshot fails we keep the segments and
+    // the next compaction deletes them.
+    private void compact() {
+        if (segmentedLog == null) {
+            persist();
+            return;
+        }
+
+        SegmentedLog currentLog = segmentedLog;
+        long sealedSegmentIndex = currentLog.rotate();
+        storage.queueUpForSave(store, 200, () -> currentLog.deleteSegmentsUpTo(sealedSegmentIndex));
+    }
+}
@@ -27,6 +27,8 @@ import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -70,17 +72,21 @@ public class ProtectedDataStoreService {
     }
 
     public ProtectedStorageEntry putIfAbsent(P2PDataStorage.ByteArray hash, ProtectedStorageEntry entry) {
-        Map<P2PDataStorage.ByteArray, ProtectedStorageEntry> map = getMap();
-        if (!map.containsKey(hash)) {
+        // We look up in the services directly to avoid creating the merged map at each call
+        Optional<ProtectedStorageEntry> previous = services.stream()
+                .map(service -> service.getMap().get(hash))
+                .filter(Objects::nonNull)
+                .findAny();
+        if (!previous.isPresent()) {
             put(hash, entry);
             return null;
         } else {
-            return map.get(hash);
+            return previous.get();
         }
     }
 
     public boolean containsKey(P2PDataStorage.ByteArray hash) {
-        return getMap().containsKey(hash);
+        return services.stream().anyMatch(service -> service.containsKey(hash));
     }
 
     public ProtectedStorageEntry remove(P2PDataStorage.ByteArray hash, ProtectedStorageEntry protectedStorageEntry) {
@@ -0,0 +1,89 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+
+import bisq.common.proto.network.NetworkEnvelope;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MessageDispatcherTest {
+
+    @Test
+    public void testOrderingPerDomain() throws Exception {
+        int numMessages = 500;
+        CountDownLatch latch = new CountDownLatch(numMessages);
+        List<NetworkEnvelope> received = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        MessageListener storageListener = new MessageListener() {
+            @Override
+            public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+                received.add(networkEnvelope);
+                threads.add(Thread.currentThread());
+                latch.countDown();
+            }
+
+            @Override
+            public MessageDispatcher.Domain getDispatchDomain() {
+                return MessageDispatcher.Domain.STORAGE;
+            }
+        };
+
+        List<NetworkEnvelope> directReceived = new ArrayList<>();
+        MessageListener directListener = new MessageListener() {
+            @Override
+            public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+                directReceived.add(networkEnvelope);
+            }
+
+            @Override
+            public MessageDispatcher.Domain getDispatchDomain() {
+                return MessageDispatcher.Domain.DIRECT;
+            }
+        };
+
+        long numDispatchedBefore = MessageDispatcher.getNumDispatchedMessages(MessageDispatcher.Domain.STORAGE);
+        List<NetworkEnvelope> sent = new ArrayList<>();
+        for (int i = 0; i < numMessages; i++) {
+            NetworkEnvelope networkEnvelope = new Ping(i, i);
+            sent.add(networkEnvelope);
+            MessageDispatcher.dispatch(networkEnvelope, null, Arrays.asList(storageListener, directListener));
+        }
+
+        // Direct listeners are called synchronously
+        assertEquals(sent, directReceived);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(sent, received);
+        threads.forEach(thread -> assertNotEquals(Thread.currentThread(), thread));
+        assertEquals(numDispatchedBefore + numMessages,
+                MessageDispatcher.getNumDispatchedMessages(MessageDispatcher.Domain.STORAGE));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import com.google.protobuf.CodedOutputStream;
+
+import org.apache.commons.lang3.RandomUtils;
+
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+
+import java.io.OutputStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NioSelectorPoolTest {
+    private NioSelectorPool selectorPool;
+    private ServerSocketChannel serverSocketChannel;
+
+    @Before
+    public void setUp() throws Exception {
+        selectorPool = new NioSelectorPool("test", 2);
+        serverSocketChannel = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        selectorPool.shutDown();
+        serverSocketChannel.close();
+    }
+
+    @Test
+    public void testFraming() throws Exception {
+        SocketChannel client = SocketChannel.open(serverSocketChannel.getLocalAddress());
+        SocketChannel server = serverSocketChannel.accept();
+
+        List<byte[]> sentFrames = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            // Some frames are larger than the initial read buffer
+            sentFrames.add(RandomUtils.nextBytes(i % 20 == 0 ? 200_000 : RandomUtils.nextInt(0, 1000)));
+        }
+
+        List<byte[]> receivedFrames = new CopyOnWriteArrayList<>();
+        CountDownLatch framesLatch = new CountDownLatch(sentFrames.size());
+        CountDownLatch endOfStreamLatch = new CountDownLatch(1);
+        selectorPool.register(server, new NioChannel.Handler() {
+            @Override
+            public boolean onFrame(byte[] frame) {
+                receivedFrames.add(frame);
+                framesLatch.countDown();
+                return true;
+            }
+
+            @Override
+            public void onEndOfStream() {
+                endOfStreamLatch.countDown();
+            }
+
+            @Override
+            public void onException(Throwable throwable) {
+            }
+        }, Connection.MAX_PERMITTED_MESSAGE_SIZE, TimeUnit.SECONDS.toMillis(30));
+
+        NioChannel clientChannel = selectorPool.register(client, getNoopHandler(),
+                Connection.MAX_PERMITTED_MESSAGE_SIZE, TimeUnit.SECONDS.toMillis(30));
+        OutputStream outputStream = clientChannel.getOutputStream();
+        for (byte[] frame : sentFrames) {
+            CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(outputStream);
+            codedOutputStream.writeUInt32NoTag(frame.length);
+            codedOutputStream.writeRawBytes(frame);
+            codedOutputStream.flush();
+            outputStream.flush();
+        }
+
+        assertTrue(framesLatch.await(10, TimeUnit.SECONDS));
+        assertEquals(sentFrames.size(), receivedFrames.size());
+        for (int i = 0; i < sentFrames.size(); i++) {
+            assertArrayEquals(sentFrames.get(i), receivedFrames.get(i));
+        }
+
+        client.close();
+        assertTrue(endOfStreamLatch.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        SocketChannel client = SocketChannel.open(serverSocketChannel.getLocalAddress());
+        SocketChannel server = serverSocketChannel.accept();
+
+        CountDownLatch timeoutLatch = new CountDownLatch(1);
+        selectorPool.register(server, new NioChannel.Handler() {
+            @Override
+            public boolean onFrame(byte[] frame) {
+                return true;
+            }
+
+            @Override
+            public void onEndOfStream() {
+            }
+
+            @Override
+            public void onException(Throwable throwable) {
+                if (throwable instanceof SocketTimeoutException)
+                    timeoutLatch.countDown();
+            }
+        }, Connection.MAX_PERMITTED_MESSAGE_SIZE, 500);
+
+        assertTrue(timeoutLatch.await(5, TimeUnit.SECONDS));
+        client.close();
+    }
+
+    private NioChannel.Handler getNoopHandler() {
+        return new NioChannel.Handler() {
+            @Override
+            public boolean onFrame(byte[] frame) {
+                return true;
+            }
+
+            @Override
+            public void onEndOfStream() {
+            }
+
+            @Override
+            public void onException(Throwable throwable) {
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+
+import io.bisq.generated.protobuffer.PB;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class PreSerializedEnvelopeTest {
+
+    @Test
+    public void testSameBytesAsWriteDelimitedTo() throws Exception {
+        Ping ping = new Ping(123, 456);
+        PreSerializedEnvelope preSerializedEnvelope = new PreSerializedEnvelope(ping);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ping.toProtoNetworkEnvelope().writeDelimitedTo(outputStream);
+        assertArrayEquals(outputStream.toByteArray(), preSerializedEnvelope.getDelimitedBytes());
+        assertEquals(ping.toProtoNetworkEnvelope().getSerializedSize(), preSerializedEnvelope.getSerializedSize());
+
+        PB.NetworkEnvelope parsed = PB.NetworkEnvelope.parseDelimitedFrom(
+                new ByteArrayInputStream(preSerializedEnvelope.getDelimitedBytes()));
+        assertEquals(ping.toProtoNetworkEnvelope(), parsed);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RateLimiterTest {
+
+    @Test
+    public void testSlidingWindow() {
+        RateLimiter rateLimiter = new RateLimiter(3, 1000);
+        assertFalse(rateLimiter.add(0));
+        assertFalse(rateLimiter.add(100));
+        assertFalse(rateLimiter.add(200));
+        // 4th event within 1 sec
+        assertTrue(rateLimiter.add(300));
+        assertEquals(1, rateLimiter.getNumViolations());
+
+        // The oldest of the last 3 events is at 100, so it is outside of the window
+        assertFalse(rateLimiter.add(1100));
+        // The oldest of the last 3 events is at 200
+        assertTrue(rateLimiter.add(1150));
+        assertFalse(rateLimiter.add(2300));
+        assertEquals(7, rateLimiter.getNumEvents());
+        assertEquals(2, rateLimiter.getNumViolations());
+    }
+
+    @Test
+    public void testParseMsgThrottlePerSecByType() {
+        Map<String, Integer> result = ConnectionConfig.parseMsgThrottlePerSecByType(" GetDataRequest:5, Ping:10");
+        assertEquals(2, result.size());
+        assertEquals(5, (int) result.get("GetDataRequest"));
+        assertEquals(10, (int) result.get("Ping"));
+        assertTrue(ConnectionConfig.parseMsgThrottlePerSecByType("").isEmpty());
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata;
+
+import org.apache.commons.lang3.RandomUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ExcludedKeysDigestTest {
+
+    @Test
+    public void testRoundTrip() {
+        List<byte[]> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            keys.add(RandomUtils.nextBytes(20));
+        }
+
+        byte[] bytes = ExcludedKeysDigest.toBytes(keys);
+        assertEquals(1000 * ExcludedKeysDigest.PREFIX_SIZE, bytes.length);
+
+        ExcludedKeysDigest digest = ExcludedKeysDigest.fromBytes(bytes);
+        assertEquals(1000, digest.size());
+        keys.forEach(key -> assertTrue(digest.contains(key)));
+        assertFalse(digest.contains(RandomUtils.nextBytes(20)));
+    }
+
+    @Test
+    public void testShortKey() {
+        byte[] key = new byte[]{1, 2, 3};
+        ExcludedKeysDigest digest = ExcludedKeysDigest.fromBytes(ExcludedKeysDigest.toBytes(Collections.singletonList(key)));
+        assertTrue(digest.contains(key));
+        assertFalse(digest.contains(new byte[]{1, 2, 4}));
+    }
+
+    @Test
+    public void testInvalidInput() {
+        assertNull(ExcludedKeysDigest.fromBytes(null));
+        assertNull(ExcludedKeysDigest.fromBytes(new byte[0]));
+        assertNull(ExcludedKeysDigest.fromBytes(new byte[ExcludedKeysDigest.PREFIX_SIZE + 1]));
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.BroadcastHandler;
+import bisq.network.p2p.peers.Broadcaster;
+import bisq.network.p2p.storage.messages.BroadcastMessage;
+import bisq.network.p2p.storage.messages.RefreshOfferBatchMessage;
+import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
+import bisq.network.p2p.storage.persistence.ProtectedDataStoreService;
+import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
+import bisq.network.p2p.storage.persistence.SequenceNumberMap;
+
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.SealedAndSigned;
+import bisq.common.crypto.Sig;
+import bisq.common.storage.Storage;
+
+import java.security.KeyPair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JMockit.class)
+public class P2PDataStorageRefreshTTLTest {
+    private final KeyPair ownerKeyPair = Sig.generateKeyPair();
+    private final KeyPair otherKeyPair = Sig.generateKeyPair();
+    private P2PDataStorage p2PDataStorage;
+
+    @Injectable
+    NetworkNode networkNode;
+    @Injectable
+    Broadcaster broadcaster;
+    @Injectable
+    AppendOnlyDataStoreService appendOnlyDataStoreService;
+    @Injectable
+    ProtectedDataStoreService protectedDataStoreService;
+    @Injectable
+    ResourceDataStoreService resourceDataStoreService;
+    @Injectable
+    Storage<SequenceNumberMap> sequenceNumberMapStorage;
+    @Injectable
+    Connection batchPeer;
+    @Injectable
+    Connection legacyPeer;
+
+    @Before
+    public void setup() {
+        p2PDataStorage = new P2PDataStorage(networkNode,
+                broadcaster,
+                appendOnlyDataStoreService,
+                protectedDataStoreService,
+                resourceDataStoreService,
+                sequenceNumberMapStorage);
+    }
+
+    @Test
+    public void testRefreshTTLBatch() throws CryptoException {
+        MailboxStoragePayload payload1 = addPayload("1");
+        MailboxStoragePayload payload2 = addPayload("2");
+        MailboxStoragePayload payload3 = addPayload("3");
+        RefreshOfferMessage refresh1 = p2PDataStorage.getRefreshTTLMessage(payload1, ownerKeyPair);
+        RefreshOfferMessage refresh2 = p2PDataStorage.getRefreshTTLMessage(payload2, ownerKeyPair);
+        // Not signed by the owner
+        RefreshOfferMessage invalidRefresh = p2PDataStorage.getRefreshTTLMessage(payload3, otherKeyPair);
+        setConnections(Set.of(batchPeer, legacyPeer));
+
+        // The second refresh1 has been applied already by the first one
+        assertFalse(p2PDataStorage.refreshTTL(new RefreshOfferBatchMessage(List.of(refresh1, refresh2, invalidRefresh, refresh1)),
+                null, false));
+        assertEquals(2, getSequenceNumber(payload1));
+        assertEquals(2, getSequenceNumber(payload2));
+        assertEquals(1, getSequenceNumber(payload3));
+
+        // A batch with only applied refreshes is valid but not persisted or broadcast again
+        assertTrue(p2PDataStorage.refreshTTL(new RefreshOfferBatchMessage(List.of(refresh1, refresh2)), null, false));
+
+        new Verifications() {{
+            sequenceNumberMapStorage.queueUpForSave((SequenceNumberMap) any, withEqual(1000L));
+            times = 1;
+
+            List<BroadcastMessage> messages = new ArrayList<>();
+            List<Predicate<Connection>> peerFilters = new ArrayList<>();
+            broadcaster.broadcast(withCapture(messages), (NodeAddress) any, (BroadcastHandler.Listener) any,
+                    anyBoolean, withCapture(peerFilters));
+            times = 3;
+
+            // The batch with the applied refreshes to the peers supporting it
+            assertEquals(new RefreshOfferBatchMessage(List.of(refresh1, refresh2)), messages.get(0));
+            assertTrue(peerFilters.get(0).test(batchPeer));
+            assertFalse(peerFilters.get(0).test(legacyPeer));
+
+            // Each applied refresh to the legacy peers
+            assertEquals(List.of(refresh1, refresh2), messages.subList(1, 3));
+            assertFalse(peerFilters.get(1).test(batchPeer));
+            assertTrue(peerFilters.get(1).test(legacyPeer));
+            assertTrue(peerFilters.get(2).test(legacyPeer));
+        }};
+    }
+
+    @Test
+    public void testRefreshTTLBatchWithoutLegacyPeer() throws CryptoException {
+        MailboxStoragePayload payload1 = addPayload("1");
+        MailboxStoragePayload payload2 = addPayload("2");
+        RefreshOfferMessage refresh1 = p2PDataStorage.getRefreshTTLMessage(payload1, ownerKeyPair);
+        RefreshOfferMessage refresh2 = p2PDataStorage.getRefreshTTLMessage(payload2, ownerKeyPair);
+        setConnections(Set.of(batchPeer));
+
+        assertTrue(p2PDataStorage.refreshTTL(new RefreshOfferBatchMessage(List.of(refresh1, refresh2)), null, false));
+
+        new Verifications() {{
+            List<BroadcastMessage> messages = new ArrayList<>();
+            broadcaster.broadcast(withCapture(messages), (NodeAddress) any, (BroadcastHandler.Listener) any,
+                    anyBoolean, (Predicate<Connection>) any);
+            times = 1;
+            assertEquals(new RefreshOfferBatchMessage(List.of(refresh1, refresh2)), messages.get(0));
+        }};
+    }
+
+    private void setConnections(Set<Connection> connections) {
+        new Expectations() {{
+            networkNode.getConfirmedConnections();
+            result = connections;
+            batchPeer.getPeersNodeAddressOptional();
+            result = Optional.of(new NodeAddress("batchPeer", 1000));
+            minTimes = 0;
+            batchPeer.getCapabilities();
+            result = new Capabilities(Capability.REFRESH_OFFER_BATCH);
+            minTimes = 0;
+            legacyPeer.getPeersNodeAddressOptional();
+            result = Optional.of(new NodeAddress("legacyPeer", 1000));
+            minTimes = 0;
+            legacyPeer.getCapabilities();
+            result = new Capabilities();
+            minTimes = 0;
+        }};
+    }
+
+    private MailboxStoragePayload addPayload(String uid) throws CryptoException {
+        SealedAndSigned sealedAndSigned = new SealedAndSigned(new byte[]{1}, new byte[]{2}, new byte[]{3},
+                ownerKeyPair.getPublic());
+        PrefixedSealedAndSignedMessage message = new PrefixedSealedAndSignedMessage(new NodeAddress("host", 1000),
+                sealedAndSigned, new byte[]{4}, uid);
+        MailboxStoragePayload payload = new MailboxStoragePayload(message, ownerKeyPair.getPublic(), ownerKeyPair.getPublic());
+        ProtectedStorageEntry entry = p2PDataStorage.getProtectedStorageEntry(payload, ownerKeyPair);
+        assertTrue(p2PDataStorage.addProtectedStorageEntry(entry, null, null, false, false));
+        return payload;
+    }
+
+    private int getSequenceNumber(MailboxStoragePayload payload) {
+        return p2PDataStorage.getMap().get(new P2PDataStorage.ByteArray(P2PDataStorage.get32ByteHash(payload)))
+                .getSequenceNumber();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import bisq.network.p2p.TestUtils;
+import bisq.network.p2p.network.LocalhostNetworkNode;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.Broadcaster;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
+import bisq.network.p2p.storage.persistence.ProtectedDataStoreService;
+import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
+import bisq.network.p2p.storage.persistence.SequenceNumberMap;
+
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.SealedAndSigned;
+import bisq.common.crypto.Sig;
+import bisq.common.storage.FileUtil;
+import bisq.common.storage.Storage;
+
+import java.security.KeyPair;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class P2PDataStorageVerifyEntriesTest {
+    private final KeyPair senderKeyPair = Sig.generateKeyPair();
+    private final KeyPair otherKeyPair = Sig.generateKeyPair();
+    private File dir;
+
+    @Before
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("verifyEntries").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testVerifiedEntriesGiveSameResultAsUnverifiedEntries() throws CryptoException {
+        ProtectedStoragePayload payload1 = createPayload("1");
+        ProtectedStoragePayload payload2 = createPayload("2");
+        ProtectedStoragePayload payload3 = createPayload("3");
+        ProtectedStorageEntry invalidSignatureEntry = new ProtectedStorageEntry(payload2, senderKeyPair.getPublic(), 1,
+                sign(payload3, 1, senderKeyPair));
+        List<ProtectedStorageEntry> entries = List.of(
+                createEntry(payload1, 1, senderKeyPair),
+                // Sequence number update
+                createEntry(payload1, 2, senderKeyPair),
+                // Outdated sequence number
+                createEntry(payload1, 1, senderKeyPair),
+                invalidSignatureEntry,
+                // Not signed by the sender of the mailbox payload
+                createEntry(payload3, 1, otherKeyPair),
+                createEntry(payload3, 1, senderKeyPair));
+
+        P2PDataStorage storage = createP2PDataStorage("storage");
+        List<Boolean> results = entries.stream()
+                .map(entry -> storage.addProtectedStorageEntry(entry, null, null, false, false))
+                .collect(Collectors.toList());
+
+        P2PDataStorage verifiedStorage = createP2PDataStorage("verifiedStorage");
+        List<Boolean> verifiedResults = P2PDataStorage.verifyEntries(new ArrayList<>(entries)).stream()
+                .map(verifiedEntry -> verifiedStorage.addProtectedStorageEntry(verifiedEntry, null, null, false, false))
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(true, true, false, false, false, true), results);
+        assertEquals(results, verifiedResults);
+        assertEquals(storage.getMap(), verifiedStorage.getMap());
+    }
+
+    private P2PDataStorage createP2PDataStorage(String name) {
+        NetworkNode networkNode = new LocalhostNetworkNode(9999, TestUtils.getNetworkProtoResolver());
+        Storage<SequenceNumberMap> sequenceNumberMapStorage = new Storage<>(new File(dir, name), null);
+        P2PDataStorage p2PDataStorage = new P2PDataStorage(networkNode,
+                new Broadcaster(networkNode, null),
+                new AppendOnlyDataStoreService(null),
+                new ProtectedDataStoreService(),
+                new ResourceDataStoreService(),
+                sequenceNumberMapStorage);
+        p2PDataStorage.readPersisted();
+        return p2PDataStorage;
+    }
+
+    private MailboxStoragePayload createPayload(String uid) {
+        SealedAndSigned sealedAndSigned = new SealedAndSigned(new byte[]{1}, new byte[]{2}, new byte[]{3},
+                senderKeyPair.getPublic());
+        PrefixedSealedAndSignedMessage message = new PrefixedSealedAndSignedMessage(new NodeAddress("host", 1000),
+                sealedAndSigned, new byte[]{4}, uid);
+        return new MailboxStoragePayload(message, senderKeyPair.getPublic(), senderKeyPair.getPublic());
+    }
+
+    private static ProtectedStorageEntry createEntry(ProtectedStoragePayload payload, int sequenceNumber,
+                                                     KeyPair keyPair) throws CryptoException {
+        return new ProtectedStorageEntry(payload, keyPair.getPublic(), sequenceNumber,
+                sign(payload, sequenceNumber, keyPair));
+    }
+
+    private static byte[] sign(ProtectedStoragePayload payload, int sequenceNumber, KeyPair keyPair)
+            throws CryptoException {
+        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(new P2PDataStorage.DataAndSeqNrPair(payload, sequenceNumber));
+        return Sig.sign(keyPair.getPrivate(), hashOfDataAndSeqNr);
+    }
+}
@@ -23,6 +23,7 @@ import bisq.network.p2p.P2PService;
 import bisq.network.p2p.TestUtils;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.PeerManager;
+import bisq.network.p2p.storage.messages.RefreshOfferBatchMessage;
 import bisq.network.p2p.storage.messages.RefreshOfferMessage;
 import bisq.network.p2p.storage.mocks.MockData;
 import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
@@ -49,6 +50,7 @@ import java.io.File;
 import java.io.IOException;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
@@ -218,6 +220,15 @@ public class ProtectedDataStorageTest {
         log.debug("test 3");
         Assert.assertEquals(1, dataStorage1.getMap().size());
 
+        // A batch with a refresh not signed by the owner, a new refresh and the same refresh again
+        refreshTTLMessage = dataStorage1.getRefreshTTLMessage(mockData, storageSignatureKeyPair1);
+        RefreshOfferMessage invalidRefreshTTLMessage = dataStorage1.getRefreshTTLMessage(mockData, storageSignatureKeyPair2);
+        Assert.assertFalse(dataStorage1.refreshTTL(new RefreshOfferBatchMessage(List.of(invalidRefreshTTLMessage,
+                refreshTTLMessage, refreshTTLMessage)), null, true));
+        Assert.assertTrue(dataStorage1.refreshTTL(new RefreshOfferBatchMessage(List.of(refreshTTLMessage)), null, true));
+        Assert.assertEquals(refreshTTLMessage.getSequenceNumber(),
+                dataStorage1.getMap().values().iterator().next().getSequenceNumber());
+
         Thread.sleep(P2PDataStorage.CHECK_TTL_INTERVAL_SEC);
         log.debug("test 4");
         Assert.assertEquals(1, dataStorage1.getMap().size());
@@ -0,0 +1,82 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.storage.mocks.MockData;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import bisq.common.crypto.Sig;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ProtectedStorageEntryIndexTest {
+    private final ProtectedStorageEntryIndex index = new ProtectedStorageEntryIndex();
+    private final KeyPair keyPair = Sig.generateKeyPair();
+
+    @Test
+    public void testGetEntriesByPayloadClass() {
+        ProtectedStorageEntry entry = createEntry(new MockData("1", keyPair.getPublic()));
+        ProtectedStorageEntry subclassEntry = createEntry(new OtherMockData("2", keyPair.getPublic()));
+        index.add(getHash("1"), entry);
+        index.add(getHash("2"), subclassEntry);
+
+        assertEquals(List.of(subclassEntry), index.getEntries(OtherMockData.class));
+        // Subclasses are included
+        List<ProtectedStorageEntry> entries = index.getEntries(MockData.class);
+        assertEquals(2, entries.size());
+        assertTrue(entries.contains(entry) && entries.contains(subclassEntry));
+
+        index.remove(getHash("2"), subclassEntry);
+        assertTrue(index.getEntries(OtherMockData.class).isEmpty());
+        assertEquals(List.of(entry), index.getEntries(MockData.class));
+    }
+
+    @Test
+    public void testReplaceEntry() {
+        ProtectedStorageEntry entry = createEntry(new MockData("1", keyPair.getPublic()));
+        ProtectedStorageEntry newEntry = createEntry(new MockData("1", keyPair.getPublic()));
+        index.add(getHash("1"), entry);
+        // P2PDataStorage removes the previous entry and adds the new one under the same hash
+        index.remove(getHash("1"), entry);
+        index.add(getHash("1"), newEntry);
+
+        assertEquals(1, index.getEntries(MockData.class).size());
+        assertTrue(index.getEntries(MockData.class).get(0) == newEntry);
+    }
+
+    private ProtectedStorageEntry createEntry(MockData mockData) {
+        return new ProtectedStorageEntry(mockData, keyPair.getPublic(), 1, new byte[]{});
+    }
+
+    private static P2PDataStorage.ByteArray getHash(String msg) {
+        return new P2PDataStorage.ByteArray(msg.getBytes());
+    }
+
+    private static class OtherMockData extends MockData {
+        OtherMockData(String msg, PublicKey publicKey) {
+            super(msg, publicKey);
+        }
+    }
+}